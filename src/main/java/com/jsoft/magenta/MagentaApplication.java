@@ -1,11 +1,14 @@
 package com.jsoft.magenta;
 
+import com.jsoft.magenta.util.pagination.SeekRepositoryImpl;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableScheduling
 @SpringBootApplication
+@EnableJpaRepositories(repositoryBaseClass = SeekRepositoryImpl.class)
 public class MagentaApplication {
 
   public static void main(String[] args) {
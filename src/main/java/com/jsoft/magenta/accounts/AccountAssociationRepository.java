@@ -4,6 +4,8 @@ import com.jsoft.magenta.accounts.domain.AccountAssociation;
 import com.jsoft.magenta.accounts.domain.AccountAssociationId;
 import com.jsoft.magenta.security.model.AccessPermission;
 import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
 public interface AccountAssociationRepository extends
@@ -14,4 +16,8 @@ public interface AccountAssociationRepository extends
   Optional<AccountAssociation> findByUserIdAndAccountId(Long userId, Long accountId);
 
   Optional<AccessPermission> findAccessPermissionByUserIdAndAccountId(Long id, Long accountId);
+
+  @Query("select association.id.userId from AccountAssociation association "
+      + "where association.id.accountId = :accountId and association.id.userId in :userIds")
+  Set<Long> findUserIdsByAccountIdAndUserIdIn(Long accountId, Set<Long> userIds);
 }
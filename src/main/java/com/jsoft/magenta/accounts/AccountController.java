@@ -5,6 +5,7 @@ import static com.jsoft.magenta.util.AppDefaults.ASCENDING_SORT;
 import static com.jsoft.magenta.util.AppDefaults.PAGE_INDEX;
 import static com.jsoft.magenta.util.AppDefaults.PAGE_SIZE;
 import static com.jsoft.magenta.util.AppDefaults.RESULTS_COUNT;
+import static com.jsoft.magenta.util.AppDefaults.WITH_TOTAL;
 
 import com.jsoft.magenta.accounts.domain.Account;
 import com.jsoft.magenta.accounts.domain.AccountSearchResult;
@@ -15,6 +16,8 @@ import com.jsoft.magenta.projects.domain.ProjectSearchResult;
 import com.jsoft.magenta.security.annotations.accounts.AccountAdminPermission;
 import com.jsoft.magenta.security.annotations.accounts.AccountWritePermission;
 import com.jsoft.magenta.security.model.AccessPermission;
+import com.jsoft.magenta.security.payload.AssociationsRequest;
+import com.jsoft.magenta.util.pagination.PageResponse;
 import com.jsoft.magenta.util.validation.annotations.ValidName;
 import com.jsoft.magenta.util.validation.annotations.ValidPermission;
 import java.util.List;
@@ -67,6 +70,18 @@ public class AccountController {
     this.accountService.createAssociation(userId, accountId, accessPermission);
   }
 
+  @PostMapping("{accountId}/associations")
+  @AccountWritePermission
+  public void createAssociations(
+      @PathVariable Long accountId,
+      @RequestBody @Valid AssociationsRequest associationsRequest
+  ) {
+    AccessPermission accessPermission = AccessPermission
+        .valueOf(associationsRequest.getPermission().toUpperCase());
+    this.accountService
+        .createAssociations(accountId, associationsRequest.getUserIds(), accessPermission);
+  }
+
   @PatchMapping("{accountId}/association/{userId}")
   @AccountWritePermission
   public void updateAssociationPermission(
@@ -126,6 +141,29 @@ public class AccountController {
     return this.accountService.getAllAccounts(pageIndex, pageSize, sortBy, asc);
   }
 
+  @GetMapping("seek")
+  @AccountAdminPermission
+  public PageResponse<Account> seekAllAccounts(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false, defaultValue = PAGE_SIZE) int pageSize,
+      @RequestParam(required = false, defaultValue = ACCOUNTS_DEFAULT_SORT) String sortBy,
+      @RequestParam(required = false, defaultValue = ASCENDING_SORT) boolean asc
+  ) {
+    return this.accountService.seekAllAccounts(cursor, pageSize, sortBy, asc);
+  }
+
+  @GetMapping("slice")
+  @AccountAdminPermission
+  public PageResponse<Account> sliceAllAccounts(
+      @RequestParam(required = false, defaultValue = PAGE_INDEX) int pageIndex,
+      @RequestParam(required = false, defaultValue = PAGE_SIZE) int pageSize,
+      @RequestParam(required = false, defaultValue = ACCOUNTS_DEFAULT_SORT) String sortBy,
+      @RequestParam(required = false, defaultValue = ASCENDING_SORT) boolean asc,
+      @RequestParam(required = false, defaultValue = WITH_TOTAL) boolean withTotal
+  ) {
+    return this.accountService.sliceAllAccounts(pageIndex, pageSize, sortBy, asc, withTotal);
+  }
+
   @GetMapping("{accountId}")
   @AccountWritePermission
   public Account getAccountById(@PathVariable Long accountId) {
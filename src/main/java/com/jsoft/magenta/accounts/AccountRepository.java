@@ -5,14 +5,15 @@ import com.jsoft.magenta.accounts.domain.AccountSearchResult;
 import com.jsoft.magenta.projects.domain.Project;
 import com.jsoft.magenta.projects.domain.ProjectSearchResult;
 import com.jsoft.magenta.security.model.AccessPermission;
+import com.jsoft.magenta.util.pagination.SeekRepository;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends SeekRepository<Account, Long> {
 
   boolean existsByName(String accountName);
 
@@ -20,6 +21,10 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
 
   Optional<Account> findByName(String name);
 
+  @Query("select a.id from Account a left join a.coverImage c left join a.logo l "
+      + "left join a.profileImage p where c.id = :imageId or l.id = :imageId or p.id = :imageId")
+  List<Long> findAllIdsByImageId(Long imageId);
+
   Page<AccountSearchResult> findAllByNameContainingIgnoreCase(String name, Pageable pageable);
 
   Page<Account> findAllByAssociationsUserIdAndAssociationsPermissionGreaterThanEqual(
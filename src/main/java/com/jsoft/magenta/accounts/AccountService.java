@@ -2,12 +2,15 @@ package com.jsoft.magenta.accounts;
 
 import com.jsoft.magenta.accounts.domain.Account;
 import com.jsoft.magenta.accounts.domain.AccountAssociation;
+import com.jsoft.magenta.accounts.domain.AccountAssociationId;
 import com.jsoft.magenta.accounts.domain.AccountSearchResult;
 import com.jsoft.magenta.events.accounts.AccountAssociatedEntityEvent;
 import com.jsoft.magenta.events.accounts.AccountAssociationCreationEvent;
 import com.jsoft.magenta.events.accounts.AccountAssociationUpdateEvent;
+import com.jsoft.magenta.events.accounts.AccountAssociationsCreationEvent;
 import com.jsoft.magenta.events.projects.ProjectAssociationCreationEvent;
 import com.jsoft.magenta.events.projects.ProjectAssociationRemovalEvent;
+import com.jsoft.magenta.events.projects.ProjectAssociationsCreationEvent;
 import com.jsoft.magenta.exceptions.AuthorizationException;
 import com.jsoft.magenta.exceptions.DuplicationException;
 import com.jsoft.magenta.exceptions.NoSuchElementException;
@@ -17,14 +20,25 @@ import com.jsoft.magenta.files.MagentaImageService;
 import com.jsoft.magenta.files.MagentaImageType;
 import com.jsoft.magenta.projects.domain.Project;
 import com.jsoft.magenta.projects.domain.ProjectSearchResult;
+import com.jsoft.magenta.security.AccessDecisions;
 import com.jsoft.magenta.security.SecurityService;
+import com.jsoft.magenta.security.dao.AssociationBatchInserter;
+import com.jsoft.magenta.security.model.AccessEntityType;
 import com.jsoft.magenta.security.model.AccessPermission;
+import com.jsoft.magenta.security.model.EffectiveAccess;
+import com.jsoft.magenta.security.service.EffectiveAccessService;
 import com.jsoft.magenta.users.User;
 import com.jsoft.magenta.util.AppDefaults;
 import com.jsoft.magenta.util.pagination.PageRequestBuilder;
+import com.jsoft.magenta.util.pagination.PageResponse;
+import com.jsoft.magenta.util.pagination.PageTotals;
+import com.jsoft.magenta.util.pagination.SeekRequest;
 import com.jsoft.magenta.util.WordFormatter;
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import javax.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
@@ -32,6 +46,8 @@ import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -45,6 +61,10 @@ public class AccountService {
   private final ApplicationEventPublisher eventPublisher;
   private final MagentaImageService imageService;
   private final SecurityService securityService;
+  private final PageTotals pageTotals;
+  private final AccessDecisions accessDecisions;
+  private final EffectiveAccessService effectiveAccessService;
+  private final AssociationBatchInserter associationBatchInserter;
 
   public Account createAccount(
       Account account, MultipartFile coverImage, MultipartFile logoImage,
@@ -72,22 +92,25 @@ public class AccountService {
           "READ permission with account without project / sub-projects is redundant");
     }
     isAssociationExists(userId, accountId);
-    User user = securityService.currentUser();
-    AccessPermission accountsPermission = user.getAccountsPermission();
-    switch (accountsPermission) { // Verify requester permission
-      case READ: // Must be at least WRITE permission
-      case MANAGE:
-        throw new AuthorizationException("User is not authorized to perform such operation");
-      case WRITE: // Verify that WRITE permission association do exist
-        AccessPermission associationPermission = findAssociation(user, accountId);
-        if (associationPermission.getPermissionLevel() < AccessPermission.WRITE
-            .getPermissionLevel()) {
-          throw new AuthorizationException(
-              "User is not authorized to perform such operation with specified account");
-        }
-      case ADMIN: // Create the association
-        handleAssociationCreation(userId, accountId, accessPermission);
+    validateAssociationManagement(securityService.currentUser(), accountId);
+    handleAssociationCreation(userId, accountId, accessPermission);
+  }
+
+  public void createAssociations(Long accountId, Set<Long> userIds,
+      AccessPermission accessPermission) {
+    if (accessPermission == AccessPermission.READ) {
+      throw new RedundantAssociationException( // READ permission only is redundant
+          "READ permission with account without project / sub-projects is redundant");
     }
+    isAccountExists(accountId);
+    validateAssociationManagement(securityService.currentUser(), accountId); // Once for all users
+    Set<Long> existingUserIds = this.accountAssociationRepository
+        .findUserIdsByAccountIdAndUserIdIn(accountId, userIds);
+    if (!existingUserIds.isEmpty()) {
+      throw new DuplicationException(String.format(
+          "Users %s are already associated with account", existingUserIds));
+    }
+    insertAssociations(accountId, userIds, accessPermission);
   }
 
   public void updateAssociation(Long userId, Long accountId,
@@ -119,6 +142,7 @@ public class AccountService {
             accessPermission));
         accountAssociation.setPermission(accessPermission);
         this.accountAssociationRepository.save(accountAssociation);
+        this.effectiveAccessService.refresh(AccessEntityType.ACCOUNT, userId, accountId);
     }
   }
 
@@ -210,9 +234,7 @@ public class AccountService {
         throw new AuthorizationException("Cannot get accounts with such permission");
       case MANAGE: // MANAGE and WRITE can get only accounts with MANAGE and WRITE associated with them
       case WRITE:
-        result = this.accountRepository
-            .findAllByAssociationsUserIdAndAssociationsPermissionGreaterThanEqual(
-                user.getId(), AccessPermission.MANAGE, pageRequest);
+        result = this.accountRepository.findAll(visibleAccounts(user), pageRequest);
         break;
       case ADMIN: // ADMIN can get all accounts
         result = this.accountRepository.findAll(pageRequest);
@@ -223,6 +245,28 @@ public class AccountService {
     return new PageImpl<>(result.getContent(), pageRequest, result.getTotalElements());
   }
 
+  public PageResponse<Account> seekAllAccounts(String cursor, int pageSize, String sortBy,
+      boolean asc) {
+    User user = securityService.currentUser();
+    SeekRequest<Account> seekRequest = PageRequestBuilder
+        .buildSeekRequest(cursor, pageSize, sortBy, asc);
+    Specification<Account> specification = visibleAccounts(user);
+    return seekRequest.toPageResponse(this.accountRepository.findAll(specification, seekRequest));
+  }
+
+  public PageResponse<Account> sliceAllAccounts(int pageIndex, int pageSize, String sortBy,
+      boolean asc, boolean withTotal) {
+    User user = securityService.currentUser();
+    PageRequest pageRequest = PageRequestBuilder.buildPageRequest(pageIndex, pageSize, sortBy, asc);
+    Specification<Account> specification = visibleAccounts(user);
+    Slice<Account> slice = this.accountRepository.findSlice(specification, pageRequest);
+    Long total = specification == null ?
+        this.pageTotals.estimate(withTotal, Account.class, this.accountRepository::count) :
+        this.pageTotals.count(withTotal, "accounts:" + user.getId(),
+            () -> this.accountRepository.count(specification));
+    return new PageResponse<>(slice, total);
+  }
+
   public List<AccountSearchResult> getAllAccountsResults(int resultsCount) {
     PageRequest pageRequest = PageRequestBuilder.buildPageRequest(
         0, resultsCount, AppDefaults.ACCOUNTS_DEFAULT_SORT, false);
@@ -357,6 +401,7 @@ public class AccountService {
           throw new AuthorizationException("User is not authorized to perform such action");
         }
       case ADMIN:
+        this.effectiveAccessService.removeAccount(accountId);
         this.accountRepository.deleteById(accountId);
     }
     this.accountRepository.deleteById(accountId);
@@ -371,6 +416,20 @@ public class AccountService {
     createAssociationIfNotExists(userId, accountId);
   }
 
+  @EventListener
+  public void handleProjectAssociationsCreationEvent(
+      ProjectAssociationsCreationEvent associationsCreationEvent) { // Bulk form of the above
+    Long accountId = associationsCreationEvent.getPayload();
+    Set<Long> userIds = associationsCreationEvent.getAssociatedUserIds();
+    isAccountExists(accountId);
+    Set<Long> missingUserIds = new HashSet<>(userIds);
+    missingUserIds.removeAll(
+        this.accountAssociationRepository.findUserIdsByAccountIdAndUserIdIn(accountId, userIds));
+    if (!missingUserIds.isEmpty()) {
+      insertAssociations(accountId, missingUserIds, AccessPermission.READ);
+    }
+  }
+
   @EventListener
   public void handleProjectAssociationRemovalEvent(
       ProjectAssociationRemovalEvent associationCreationEvent) { //
@@ -405,15 +464,16 @@ public class AccountService {
   }
 
   private void isAccountExists(Long accountId) {
-    boolean exists = this.accountRepository.existsById(accountId);
+    boolean exists = this.accessDecisions.decide(AccessDecisions.ACCOUNT, null, accountId,
+        () -> this.accountRepository.existsById(accountId));
     if (!exists) {
       throw new NoSuchElementException("Account not found");
     }
   }
 
   private void isAssociationExists(Long userId, Long accountId) {
-    boolean exists = this.accountAssociationRepository // Check if association already exists
-        .existsByUserIdAndAccountId(userId, accountId);
+    boolean exists = findAssociationPermission(userId, accountId) // Check if already exists
+        .isPresent();
     if (exists) {
       throw new DuplicationException("Association between user and account already exists");
     }
@@ -429,8 +489,7 @@ public class AccountService {
   }
 
   private void createAssociationIfNotExists(Long userId, Long accountId) {
-    boolean exists = this.accountAssociationRepository
-        .existsByUserIdAndAccountId(userId, accountId);
+    boolean exists = findAssociationPermission(userId, accountId).isPresent();
     if (!exists) {
       createReadAssociation(userId, accountId);
     }
@@ -443,6 +502,7 @@ public class AccountService {
     this.eventPublisher.publishEvent(
         new AccountAssociationCreationEvent(accountId, userId, AccessPermission.READ));
     this.accountAssociationRepository.save(accountAssociation);
+    this.effectiveAccessService.refresh(AccessEntityType.ACCOUNT, userId, accountId);
   }
 
   private void handleAssociationCreation(Long userId, Long accountId,
@@ -453,15 +513,57 @@ public class AccountService {
     AccountAssociation accountAssociation = new AccountAssociation(userId, accountId,
         accessPermission);
     this.accountAssociationRepository.save(accountAssociation);
+    this.effectiveAccessService.refresh(AccessEntityType.ACCOUNT, userId, accountId);
+  }
+
+  private void insertAssociations(Long accountId, Set<Long> userIds,
+      AccessPermission accessPermission) { // Verify all users at once, then insert as a batch
+    this.eventPublisher.publishEvent(
+        new AccountAssociationsCreationEvent(accountId, userIds, accessPermission));
+    this.associationBatchInserter.insertAccountAssociations(accountId, userIds, accessPermission);
+    this.effectiveAccessService.refreshAll(AccessEntityType.ACCOUNT, accountId, userIds);
+  }
+
+  private void validateAssociationManagement(User user, Long accountId) {
+    switch (user.getAccountsPermission()) { // Verify requester permission
+      case READ: // Must be at least WRITE permission
+      case MANAGE:
+        throw new AuthorizationException("User is not authorized to perform such operation");
+      case WRITE: // Verify that WRITE permission association do exist
+        AccessPermission associationPermission = findAssociation(user, accountId);
+        if (associationPermission.getPermissionLevel() < AccessPermission.WRITE
+            .getPermissionLevel()) {
+          throw new AuthorizationException(
+              "User is not authorized to perform such operation with specified account");
+        }
+    }
   }
 
   private AccessPermission findAssociation(User user, Long accountId) {
-    return this.accountAssociationRepository
-        .findAccessPermissionByUserIdAndAccountId(user.getId(), accountId)
+    return findAssociationPermission(user.getId(), accountId)
         .orElseThrow(
             () -> new NoSuchElementException("User specified is not associated with account"));
   }
 
+  private Optional<AccessPermission> findAssociationPermission(Long userId, Long accountId) {
+    return this.accessDecisions.decide(AccessDecisions.ACCOUNT, userId, accountId,
+        () -> this.accountAssociationRepository
+            .findAccessPermissionByUserIdAndAccountId(userId, accountId));
+  }
+
+  private Specification<Account> visibleAccounts(User user) { // Null when all are visible
+    switch (user.getAccountsPermission()) { // Shared by every accounts listing
+      case READ:
+        throw new AuthorizationException("Cannot get accounts with such permission");
+      case MANAGE:
+      case WRITE:
+        return EffectiveAccess.grantedTo(user.getId(), AccessEntityType.ACCOUNT,
+            AccessPermission.MANAGE, true);
+      default:
+        return null;
+    }
+  }
+
   private AccountAssociation findAssociation(Long userId, Long accountId) {
     AccountAssociation accountAssociation = this.accountAssociationRepository
         .findByUserIdAndAccountId(userId, accountId)
@@ -490,6 +592,9 @@ public class AccountService {
       {
         this.accountAssociationRepository // Association is redundant, perform delete operation
             .delete(accountAssociation);
+        AccountAssociationId id = accountAssociation.getId();
+        this.effectiveAccessService
+            .refresh(AccessEntityType.ACCOUNT, id.getUserId(), id.getAccountId());
       }
     }
   }
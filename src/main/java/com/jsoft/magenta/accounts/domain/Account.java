@@ -10,12 +10,14 @@ import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
 import com.jsoft.magenta.contacts.Contact;
 import com.jsoft.magenta.files.MagentaImage;
 import com.jsoft.magenta.projects.domain.Project;
+import com.jsoft.magenta.security.AccessDecisionListener;
 import com.jsoft.magenta.util.validation.annotations.ValidName;
 import java.time.LocalDate;
 import java.util.Set;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.ForeignKey;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -33,6 +35,7 @@ import lombok.NoArgsConstructor;
 
 @Data
 @Entity
+@EntityListeners(AccessDecisionListener.class)
 @Table(
     name = "accounts",
     uniqueConstraints = @UniqueConstraint(
@@ -2,10 +2,12 @@ package com.jsoft.magenta.contacts;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.jsoft.magenta.accounts.domain.Account;
+import com.jsoft.magenta.security.AccessDecisionListener;
 import com.jsoft.magenta.util.validation.annotations.ValidName;
 import com.jsoft.magenta.util.validation.annotations.ValidPhoneNumber;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.ForeignKey;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -23,6 +25,7 @@ import lombok.NoArgsConstructor;
 
 @Data
 @Entity
+@EntityListeners(AccessDecisionListener.class)
 @Table(name = "contacts")
 @NoArgsConstructor
 @AllArgsConstructor
@@ -5,8 +5,10 @@ import static com.jsoft.magenta.util.AppDefaults.CONTACT_DEFAULT_SORT_NAME;
 import static com.jsoft.magenta.util.AppDefaults.PAGE_INDEX;
 import static com.jsoft.magenta.util.AppDefaults.PAGE_SIZE;
 import static com.jsoft.magenta.util.AppDefaults.RESULTS_COUNT;
+import static com.jsoft.magenta.util.AppDefaults.WITH_TOTAL;
 
 import com.jsoft.magenta.security.annotations.accounts.AccountManagePermission;
+import com.jsoft.magenta.util.pagination.PageResponse;
 import java.util.List;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -58,6 +60,20 @@ public class ContactController {
     return this.contactService.getAllContacts(accountId, pageIndex, pageSize, sortBy, asc);
   }
 
+  @GetMapping("slice/{accountId}")
+  @AccountManagePermission
+  public PageResponse<Contact> sliceAllContacts(
+      @PathVariable Long accountId,
+      @RequestParam(required = false, defaultValue = PAGE_INDEX) int pageIndex,
+      @RequestParam(required = false, defaultValue = PAGE_SIZE) int pageSize,
+      @RequestParam(required = false, defaultValue = CONTACT_DEFAULT_SORT_NAME) String sortBy,
+      @RequestParam(required = false, defaultValue = ASCENDING_SORT) boolean asc,
+      @RequestParam(required = false, defaultValue = WITH_TOTAL) boolean withTotal
+  ) {
+    return this.contactService
+        .sliceAllContacts(accountId, pageIndex, pageSize, sortBy, asc, withTotal);
+  }
+
   @GetMapping("search/{accountId}")
   @AccountManagePermission
   public List<ContactSearchResult> getAllContactsResultByNameExample(
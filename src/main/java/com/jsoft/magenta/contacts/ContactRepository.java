@@ -1,12 +1,12 @@
 package com.jsoft.magenta.contacts;
 
+import com.jsoft.magenta.util.pagination.SeekRepository;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface ContactRepository extends JpaRepository<Contact, Long> {
+public interface ContactRepository extends SeekRepository<Contact, Long> {
 
   boolean existsByEmailAndAccountId(String email, Long accountId);
 
@@ -33,4 +33,25 @@ public interface ContactRepository extends JpaRepository<Contact, Long> {
     );
   }
 
+  List<ContactSearchResult> findAllResultsByAccountAssociationsUserIdAndFirstNameContainingIgnoreCaseOrAccountAssociationsUserIdAndLastNameContainingIgnoreCaseOrAccountAssociationsUserIdAndEmailContainingIgnoreCase(
+      Long idFirstArg, String firstNameExample, Long idSecondArg, String lastNameExample,
+      Long idThirdArg, String emailExample, Pageable pageable
+  );
+
+  default List<ContactSearchResult> findAllResultsByAssociatedUserIdAndNameExample(
+      Long userId, String example, Pageable pageable) { // Contacts of associated accounts only
+    return findAllResultsByAccountAssociationsUserIdAndFirstNameContainingIgnoreCaseOrAccountAssociationsUserIdAndLastNameContainingIgnoreCaseOrAccountAssociationsUserIdAndEmailContainingIgnoreCase(
+        userId, example, userId, example, userId, example, pageable
+    );
+  }
+
+  List<ContactSearchResult> findAllResultsByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
+      String firstNameExample, String lastNameExample, String emailExample, Pageable pageable);
+
+  default List<ContactSearchResult> findAllResultsByNameExample(String example,
+      Pageable pageable) {
+    return findAllResultsByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
+        example, example, example, pageable);
+  }
+
 }
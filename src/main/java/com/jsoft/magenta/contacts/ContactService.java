@@ -4,9 +4,12 @@ import com.jsoft.magenta.accounts.domain.Account;
 import com.jsoft.magenta.events.accounts.AccountAssociatedEntityEvent;
 import com.jsoft.magenta.exceptions.DuplicationException;
 import com.jsoft.magenta.exceptions.NoSuchElementException;
+import com.jsoft.magenta.security.AccessDecisions;
 import com.jsoft.magenta.security.SecurityService;
 import com.jsoft.magenta.util.AppDefaults;
 import com.jsoft.magenta.util.pagination.PageRequestBuilder;
+import com.jsoft.magenta.util.pagination.PageResponse;
+import com.jsoft.magenta.util.pagination.PageTotals;
 import java.util.List;
 import javax.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +17,8 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -24,6 +29,8 @@ public class ContactService {
   private final ContactRepository contactRepository;
   private final ApplicationEventPublisher eventPublisher;
   private final SecurityService securityService;
+  private final PageTotals pageTotals;
+  private final AccessDecisions accessDecisions;
 
   public Contact createContact(Long accountId,
       Contact contact) { // Verify that account exists and permission is
@@ -62,6 +69,24 @@ public class ContactService {
     return new PageImpl<>(pageResult.getContent(), pageRequest, pageResult.getTotalElements());
   }
 
+  public PageResponse<Contact> sliceAllContacts(Long accountId, int pageIndex, int pageSize,
+      String sortBy, boolean asc, boolean withTotal) {
+    this.eventPublisher.publishEvent(new AccountAssociatedEntityEvent(accountId));
+    PageRequest pageRequest;
+    if (sortBy.equals(AppDefaults.CONTACT_DEFAULT_SORT_NAME)) {
+      pageRequest = PageRequestBuilder
+          .buildPageRequest(pageIndex, pageSize, AppDefaults.CONTACT_DEFAULT_SORT, asc);
+    } else {
+      pageRequest = PageRequestBuilder.buildPageRequest(pageIndex, pageSize, sortBy, asc);
+    }
+    Specification<Contact> ofAccount = (root, query, builder) ->
+        builder.equal(root.get("account").get("id"), accountId);
+    Slice<Contact> slice = this.contactRepository.findSlice(ofAccount, pageRequest);
+    Long total = this.pageTotals.count(withTotal, "contacts:" + accountId,
+        () -> this.contactRepository.count(ofAccount));
+    return new PageResponse<>(slice, total);
+  }
+
   public List<ContactSearchResult> getAllContactsByNameExample(Long accountId, String nameExample,
       int resultsCount) {
     this.eventPublisher.publishEvent(new AccountAssociatedEntityEvent(accountId));
@@ -86,8 +111,8 @@ public class ContactService {
   }
 
   private Long getAccountId(Long contactId) {
-    return this.contactRepository
-        .findAccountIdById(contactId)
+    return this.accessDecisions.decide(AccessDecisions.CONTACT, null, contactId,
+        () -> this.contactRepository.findAccountIdById(contactId))
         .orElseThrow(() -> new NoSuchElementException("Contact not found"));
   }
 
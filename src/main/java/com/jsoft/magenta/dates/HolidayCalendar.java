@@ -0,0 +1,116 @@
+package com.jsoft.magenta.dates;
+
+import com.jsoft.magenta.dates.domain.Holiday;
+import com.jsoft.magenta.events.holidays.HolidayUpdateEvent;
+import com.jsoft.magenta.util.AppConstants;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Business hours calendar cached per year. Each year keeps the prefix sums of its daily business
+ * hours, holidays already deducted, so the hours of any date range are answered with two array
+ * reads per year touched and without a database query. Years are loaded outside of the map locks,
+ * a loaded year is cached only if no invalidation happened while it was loading
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HolidayCalendar {
+
+  private final HolidayRepository holidayRepository;
+
+  private final Map<Integer, YearCalendar> years = new ConcurrentHashMap<>();
+  private final AtomicLong version = new AtomicLong(); // Bumped before every invalidation
+
+  public double getBusinessHoursBetween(LocalDate startDate, LocalDate endDate) {
+    double businessHours = 0; // End date is inclusive
+    for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+      int firstDay = year == startDate.getYear() ? startDate.getDayOfYear() : 1;
+      int lastDay = year == endDate.getYear() ?
+          endDate.getDayOfYear() : Year.of(year).length();
+      businessHours += getYearCalendar(year).sum(firstDay, lastDay);
+    }
+    return businessHours;
+  }
+
+  public double getBusinessHoursOfDate(LocalDate localDate) {
+    return getBusinessHoursBetween(localDate, localDate);
+  }
+
+  public void invalidate(LocalDate holidayDate) {
+    this.version.incrementAndGet();
+    this.years.remove(holidayDate.getYear());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void handleHolidayUpdateEvent(HolidayUpdateEvent holidayUpdateEvent) {
+    LocalDate holidayDate = holidayUpdateEvent.getPayload(); // Reload year once change is committed
+    invalidate(holidayDate);
+    log.debug(String.format("Holiday calendar of year %d was invalidated", holidayDate.getYear()));
+  }
+
+  private YearCalendar getYearCalendar(int year) {
+    YearCalendar yearCalendar = this.years.get(year);
+    if (yearCalendar != null) {
+      return yearCalendar;
+    }
+    long loadVersion = this.version.get();
+    YearCalendar loadedCalendar = loadYearCalendar(year); // Query runs without holding a bin lock
+    YearCalendar cachedCalendar = this.years.compute(year, (key, current) -> {
+      if (current != null) { // Loaded concurrently by another request
+        return current;
+      } // A year loaded before an invalidation may miss the change, so it is not cached
+      return this.version.get() == loadVersion ? loadedCalendar : null;
+    });
+    return cachedCalendar != null ? cachedCalendar : loadedCalendar;
+  }
+
+  private YearCalendar loadYearCalendar(int year) {
+    LocalDate firstDate = LocalDate.of(year, 1, 1);
+    LocalDate lastDate = firstDate.withDayOfYear(Year.of(year).length());
+    List<Holiday> holidays = this.holidayRepository.findAllByDateBetween(firstDate, lastDate);
+    double[] dayHours = new double[Year.of(year).length() + 1]; // Indexed by day of year
+    for (LocalDate date = firstDate; !date.isAfter(lastDate); date = date.plusDays(1)) {
+      dayHours[date.getDayOfYear()] = getRegularHoursOfDay(date.getDayOfWeek());
+    }
+    for (Holiday holiday : holidays) { // Deduct holiday span from its day
+      int dayOfYear = holiday.getDate().getDayOfYear();
+      dayHours[dayOfYear] -= holiday.getHolidayType().getSpan() * dayHours[dayOfYear];
+    }
+    return new YearCalendar(dayHours);
+  }
+
+  private double getRegularHoursOfDay(DayOfWeek dayOfWeek) {
+    if (dayOfWeek == AppConstants.FIRST_WD_DAY || dayOfWeek == AppConstants.SECOND_WD_DAY) {
+      return 0; // Weekend
+    } else if (dayOfWeek == AppConstants.SHORT_DAY) {
+      return AppConstants.SHORT_BUSINESS_DAY_HOURS;
+    }
+    return AppConstants.BUSINESS_DAY_HOURS;
+  }
+
+  private static final class YearCalendar {
+
+    private final double[] prefixSums; // prefixSums[d] - hours from first day through day d
+
+    private YearCalendar(double[] dayHours) {
+      this.prefixSums = new double[dayHours.length];
+      for (int day = 1; day < dayHours.length; day++) {
+        this.prefixSums[day] = this.prefixSums[day - 1] + dayHours[day];
+      }
+    }
+
+    private double sum(int firstDay, int lastDay) {
+      return prefixSums[lastDay] - prefixSums[firstDay - 1];
+    }
+  }
+}
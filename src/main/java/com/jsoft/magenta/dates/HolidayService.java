@@ -1,6 +1,7 @@
 package com.jsoft.magenta.dates;
 
 import com.jsoft.magenta.dates.domain.Holiday;
+import com.jsoft.magenta.events.holidays.HolidayUpdateEvent;
 import com.jsoft.magenta.exceptions.NoSuchElementException;
 import com.jsoft.magenta.util.AppConstants;
 import com.jsoft.magenta.worktimes.reports.BusinessMonth;
@@ -9,8 +10,8 @@ import java.time.DateTimeException;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Set;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,15 +21,21 @@ import org.springframework.transaction.annotation.Transactional;
 public class HolidayService {
 
   private final HolidayRepository holidayRepository;
+  private final HolidayCalendar holidayCalendar;
+  private final ApplicationEventPublisher eventPublisher;
 
   public Holiday setHoliday(Holiday holiday) {
     validateHolidayCreation(holiday);
-    return this.holidayRepository.save(holiday);
+    Holiday savedHoliday = this.holidayRepository.save(holiday);
+    this.eventPublisher.publishEvent(new HolidayUpdateEvent(holiday.getDate()));
+    return savedHoliday;
   }
 
   public Holiday updateHoliday(Holiday holiday) {
     validateHolidayUpdate(holiday);
-    return this.holidayRepository.save(holiday);
+    Holiday updatedHoliday = this.holidayRepository.save(holiday);
+    this.eventPublisher.publishEvent(new HolidayUpdateEvent(holiday.getDate()));
+    return updatedHoliday;
   }
 
   public boolean isHoliday(LocalDate localDate) {
@@ -47,30 +54,13 @@ public class HolidayService {
     return getAllHolidaysBetween(businessMonth.getFirstDate(), businessMonth.getLastDate());
   }
 
-  public double getBusinessHoursInWeek(BusinessWeek week) { // Get all holidays of week
-    List<Holiday> holidays = getAllWeekHolidays(week);
-    if (holidays.isEmpty()) // No Holidays
-    {
-      return AppConstants.HOURS_IN_BUSINESS_WEEK;
-    }
-    Set<LocalDate> weekDates = week.getWeekDates();
-    double weekHours = weekDates
-        .stream() // Extract amount of hours from each day excluding holidays span and sum
-        .mapToDouble(localDate -> getBusinessHoursOfDate(localDate, holidays))
-        .sum();
-    return weekHours;
+  public double getBusinessHoursInWeek(BusinessWeek week) { // Answered from cached calendar
+    return this.holidayCalendar.getBusinessHoursBetween(week.getStartDate(), week.getEndDate());
   }
 
   public double getBusinessHoursInMonth(BusinessMonth businessMonth) {
-    List<Holiday> holidays = getAllMonthHolidays(businessMonth);
-    if (holidays.isEmpty()) {
-      return businessMonth.getTotalBusinessHours();
-    }
-    Set<LocalDate> monthDates = businessMonth.getMonthDates();
-    double monthHours = monthDates.stream()
-        .mapToDouble(localDate -> getBusinessHoursOfDate(localDate, holidays))
-        .sum();
-    return monthHours;
+    return this.holidayCalendar
+        .getBusinessHoursBetween(businessMonth.getFirstDate(), businessMonth.getLastDate());
   }
 
   public void removeHoliday(LocalDate localDate) {
@@ -79,6 +69,7 @@ public class HolidayService {
       throw new NoSuchElementException("Holiday at specified date does not exist");
     }
     this.holidayRepository.deleteById(localDate);
+    this.eventPublisher.publishEvent(new HolidayUpdateEvent(localDate));
   }
 
   private void validateHolidayCreation(Holiday holiday) {
@@ -105,23 +96,4 @@ public class HolidayService {
       throw new DateTimeException("Holiday at friday or saturday is redundant");
     }
   }
-
-  private double getBusinessHoursOfDate(LocalDate localDate, List<Holiday> weekHolidays) {
-    double hoursInDay;
-    if (localDate.getDayOfWeek() == AppConstants.SHORT_DAY) {
-      hoursInDay = AppConstants.SHORT_BUSINESS_DAY_HOURS; // Normal day
-    } else // Short day (usually thursday)
-    {
-      hoursInDay = AppConstants.BUSINESS_DAY_HOURS;
-    }
-    int index = weekHolidays.indexOf(localDate);
-    if (index != -1) { // Date is holiday, get its hours amount
-      double holidaySpan = weekHolidays
-          .get(index)
-          .getHolidayType()
-          .getSpan();
-      hoursInDay -= (holidaySpan * hoursInDay);
-    }
-    return hoursInDay;
-  }
 }
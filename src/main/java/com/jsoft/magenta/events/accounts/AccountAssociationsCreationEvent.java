@@ -0,0 +1,29 @@
+package com.jsoft.magenta.events.accounts;
+
+import com.jsoft.magenta.events.ApplicationEvent;
+import com.jsoft.magenta.events.PermissionEvent;
+import com.jsoft.magenta.security.model.AccessPermission;
+import java.util.Set;
+
+public class AccountAssociationsCreationEvent extends ApplicationEvent<Long> implements
+    PermissionEvent {
+
+  private final Set<Long> associatedUserIds;
+  private final AccessPermission accessPermission;
+
+  public AccountAssociationsCreationEvent(Long accountId, Set<Long> associatedUserIds,
+      AccessPermission accessPermission) {
+    super(accountId);
+    this.associatedUserIds = associatedUserIds;
+    this.accessPermission = accessPermission;
+  }
+
+  public Set<Long> getAssociatedUserIds() {
+    return this.associatedUserIds;
+  }
+
+  @Override
+  public AccessPermission getPermission() {
+    return this.accessPermission;
+  }
+}
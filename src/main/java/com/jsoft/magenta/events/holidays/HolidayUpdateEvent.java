@@ -0,0 +1,11 @@
+package com.jsoft.magenta.events.holidays;
+
+import com.jsoft.magenta.events.ApplicationEvent;
+import java.time.LocalDate;
+
+public class HolidayUpdateEvent extends ApplicationEvent<LocalDate> {
+
+  public HolidayUpdateEvent(LocalDate holidayDate) {
+    super(holidayDate);
+  }
+}
@@ -0,0 +1,10 @@
+package com.jsoft.magenta.events.images;
+
+import com.jsoft.magenta.events.ApplicationEvent;
+
+public class ImageContentReleaseEvent extends ApplicationEvent<String> {
+
+  public ImageContentReleaseEvent(String contentKey) {
+    super(contentKey);
+  }
+}
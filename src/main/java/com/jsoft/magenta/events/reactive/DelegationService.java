@@ -1,9 +1,10 @@
 package com.jsoft.magenta.events.reactive;
 
-import java.util.function.Consumer;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
 
 public interface DelegationService<T extends ReactiveEvent> {
 
-  void delegateRequest(Long requesterId, Consumer<T> listener);
+  Flux<ServerSentEvent<T>> delegateRequest(Long requesterId, String lastEventId);
 
 }
@@ -0,0 +1,75 @@
+package com.jsoft.magenta.events.reactive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Fixed size ring of the most recent events, each under a monotonically increasing id. Event ids
+ * handed to clients are qualified by a log id that is unique per node and start, so an id issued
+ * by another node or before a restart is recognized as foreign instead of being mistaken for a
+ * local one. Not thread safe, callers serialize access
+ */
+public class ReplayLog<T> {
+
+  private static final char ID_SEPARATOR = ':';
+
+  private final String logId = UUID.randomUUID().toString();
+  private final Object[] events;
+  private long lastId;
+
+  public ReplayLog(int capacity) {
+    this.events = new Object[capacity];
+  }
+
+  public long append(T event) {
+    lastId++;
+    events[(int) (lastId % events.length)] = event;
+    return lastId;
+  }
+
+  public long getLastId() {
+    return lastId;
+  }
+
+  public String toEventId(long id) {
+    return logId + ID_SEPARATOR + id;
+  }
+
+  public OptionalLong parseEventId(String eventId) { // Empty for foreign or malformed ids
+    int separatorIndex = eventId.lastIndexOf(ID_SEPARATOR);
+    if (separatorIndex < 0 || !logId.equals(eventId.substring(0, separatorIndex))) {
+      return OptionalLong.empty();
+    }
+    try {
+      return OptionalLong.of(Long.parseLong(eventId.substring(separatorIndex + 1)));
+    } catch (NumberFormatException e) {
+      return OptionalLong.empty();
+    }
+  }
+
+  public boolean isResumableFrom(long lastSeenId) { // Nothing newer was overwritten
+    return lastSeenId <= lastId && lastSeenId >= lastId - events.length;
+  }
+
+  @SuppressWarnings("unchecked")
+  public List<Entry<T>> since(long lastSeenId) {
+    long firstId = Math.max(lastSeenId + 1, lastId - events.length + 1);
+    List<Entry<T>> entries = new ArrayList<>();
+    for (long id = Math.max(firstId, 1); id <= lastId; id++) {
+      entries.add(new Entry<>(id, (T) events[(int) (id % events.length)]));
+    }
+    return entries;
+  }
+
+  @Getter
+  @RequiredArgsConstructor
+  public static class Entry<T> {
+
+    private final long id;
+    private final T event;
+  }
+}
@@ -0,0 +1,16 @@
+package com.jsoft.magenta.events.reactive.bus;
+
+import com.jsoft.magenta.events.reactive.ReactiveEvent;
+import java.util.function.Consumer;
+
+/**
+ * Distributes reactive events to the subscribers of every node. Published events are always
+ * delivered to the local subscribers first
+ */
+public interface EventBus<T extends ReactiveEvent<?>> {
+
+  void publish(T reactiveEvent);
+
+  void subscribe(Consumer<T> subscriber);
+
+}
@@ -0,0 +1,21 @@
+package com.jsoft.magenta.events.reactive.bus;
+
+import com.jsoft.magenta.events.reactive.ReactiveEvent;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+public class LocalEventBus<T extends ReactiveEvent<?>> implements EventBus<T> {
+
+  private final List<Consumer<T>> subscribers = new CopyOnWriteArrayList<>();
+
+  @Override
+  public void publish(T reactiveEvent) {
+    this.subscribers.forEach(subscriber -> subscriber.accept(reactiveEvent));
+  }
+
+  @Override
+  public void subscribe(Consumer<T> subscriber) {
+    this.subscribers.add(subscriber);
+  }
+}
@@ -0,0 +1,233 @@
+package com.jsoft.magenta.events.reactive.bus;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jsoft.magenta.events.reactive.ReactiveEvent;
+import com.jsoft.magenta.events.reactive.ReactiveEventType;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+/**
+ * Event bus over Postgres LISTEN/NOTIFY. Published events are delivered locally at once, then
+ * coalesced by key and sent to the other nodes in batches, each node fanning them out to its own
+ * subscribers. Events published while a node is reconnecting its listener are not replayed
+ */
+@Slf4j
+public class PostgresEventBus<P, T extends ReactiveEvent<P>> implements EventBus<T> {
+
+  private static final int MAX_PAYLOAD_BYTES = 7900; // Postgres refuses payloads over 8000 bytes
+  private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+  private static final String ORIGIN = "origin";
+  private static final String EVENTS = "events";
+  private static final String TYPE = "type";
+  private static final String PAYLOAD = "payload";
+
+  private final DataSource dataSource;
+  private final ObjectMapper objectMapper;
+  private final String channel;
+  private final Class<P> payloadType;
+  private final Function<P, Object> keyExtractor;
+  private final BiFunction<P, ReactiveEventType, T> eventFactory;
+  private final Duration batchInterval;
+  private final Duration pollInterval;
+
+  private final String nodeId = UUID.randomUUID().toString();
+  private final List<Consumer<T>> subscribers = new CopyOnWriteArrayList<>();
+  private final Map<Object, T> pendingEvents = new LinkedHashMap<>(); // Guarded by itself
+  private ScheduledExecutorService flusher;
+  private Thread listener;
+  private volatile boolean running;
+
+  public PostgresEventBus(DataSource dataSource, ObjectMapper objectMapper, String channel,
+      Class<P> payloadType, Function<P, Object> keyExtractor,
+      BiFunction<P, ReactiveEventType, T> eventFactory, Duration batchInterval,
+      Duration pollInterval) {
+    if (!CHANNEL_PATTERN.matcher(channel).matches()) { // Listen does not accept parameters
+      throw new IllegalArgumentException("Invalid channel name " + channel);
+    }
+    this.dataSource = dataSource;
+    this.objectMapper = objectMapper;
+    this.channel = channel;
+    this.payloadType = payloadType;
+    this.keyExtractor = keyExtractor;
+    this.eventFactory = eventFactory;
+    this.batchInterval = batchInterval;
+    this.pollInterval = pollInterval;
+  }
+
+  public void start() {
+    this.running = true;
+    this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, channel + "-flusher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.flusher.scheduleWithFixedDelay(this::flush, batchInterval.toMillis(),
+        batchInterval.toMillis(), TimeUnit.MILLISECONDS);
+    this.listener = new Thread(this::listen, channel + "-listener");
+    this.listener.setDaemon(true);
+    this.listener.start();
+  }
+
+  public void stop() {
+    this.running = false;
+    this.flusher.shutdown();
+    flush(); // Send what is left before leaving
+    this.listener.interrupt();
+  }
+
+  @Override
+  public void publish(T reactiveEvent) {
+    this.subscribers.forEach(subscriber -> subscriber.accept(reactiveEvent));
+    synchronized (pendingEvents) {
+      coalesce(reactiveEvent);
+    }
+  }
+
+  @Override
+  public void subscribe(Consumer<T> subscriber) {
+    this.subscribers.add(subscriber);
+  }
+
+  private void coalesce(T reactiveEvent) { // Only the latest state of each key is sent
+    Object key = keyExtractor.apply(reactiveEvent.getPayLoad());
+    T pendingEvent = pendingEvents.remove(key);
+    if (pendingEvent == null || pendingEvent.getEventType() != ReactiveEventType.CREATE) {
+      pendingEvents.put(key, reactiveEvent);
+    } else if (reactiveEvent.getEventType() != ReactiveEventType.DELETE) {
+      // Other nodes never saw the creation, send it with the latest payload
+      pendingEvents.put(key,
+          eventFactory.apply(reactiveEvent.getPayLoad(), ReactiveEventType.CREATE));
+    } // Created and deleted within one batch, other nodes need not know
+  }
+
+  private void flush() {
+    List<T> events;
+    synchronized (pendingEvents) {
+      if (pendingEvents.isEmpty()) {
+        return;
+      }
+      events = new ArrayList<>(pendingEvents.values());
+      pendingEvents.clear();
+    }
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement("select pg_notify(?, ?)")) {
+      for (String message : toMessages(events)) {
+        statement.setString(1, channel);
+        statement.setString(2, message);
+        statement.execute();
+      }
+    } catch (SQLException | JsonProcessingException e) {
+      log.error(String.format("Failure during sending of %d events on %s", events.size(),
+          channel), e);
+    }
+  }
+
+  private List<String> toMessages(List<T> events) throws JsonProcessingException {
+    List<String> messages = new ArrayList<>();
+    List<JsonNode> eventNodes = new ArrayList<>();
+    int emptyMessageBytes = objectMapper.writeValueAsBytes(toMessage(eventNodes)).length;
+    int messageBytes = emptyMessageBytes;
+    for (T event : events) { // Split into as few messages as the payload limit allows
+      ObjectNode eventNode = objectMapper.createObjectNode();
+      eventNode.put(TYPE, event.getEventType().name());
+      eventNode.set(PAYLOAD, objectMapper.valueToTree(event.getPayLoad()));
+      int eventBytes = objectMapper.writeValueAsBytes(eventNode).length + 1; // With separator
+      if (emptyMessageBytes + eventBytes > MAX_PAYLOAD_BYTES) {
+        log.warn(String.format("Event of %s is too large to be sent to other nodes",
+            event.getPayLoad()));
+        continue;
+      }
+      if (messageBytes + eventBytes > MAX_PAYLOAD_BYTES) {
+        messages.add(objectMapper.writeValueAsString(toMessage(eventNodes)));
+        eventNodes.clear();
+        messageBytes = emptyMessageBytes;
+      }
+      eventNodes.add(eventNode);
+      messageBytes += eventBytes;
+    }
+    if (!eventNodes.isEmpty()) {
+      messages.add(objectMapper.writeValueAsString(toMessage(eventNodes)));
+    }
+    return messages;
+  }
+
+  private ObjectNode toMessage(List<JsonNode> eventNodes) {
+    ObjectNode message = objectMapper.createObjectNode();
+    message.put(ORIGIN, nodeId);
+    message.putArray(EVENTS).addAll(eventNodes);
+    return message;
+  }
+
+  private void listen() {
+    while (running) { // Keep a dedicated connection listening, reconnect on failure
+      try (Connection connection = dataSource.getConnection()) {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + channel);
+        }
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        log.info(String.format("Listening to %s events of other nodes", channel));
+        while (running) {
+          PGNotification[] notifications = pgConnection
+              .getNotifications((int) pollInterval.toMillis());
+          if (notifications != null) {
+            for (PGNotification notification : notifications) {
+              handleMessage(notification.getParameter());
+            }
+          }
+        }
+      } catch (SQLException e) {
+        if (!running) {
+          return;
+        }
+        log.warn(String.format("Listener of %s failed, reconnecting", channel), e);
+        try {
+          Thread.sleep(pollInterval.toMillis());
+        } catch (InterruptedException interruptedException) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  private void handleMessage(String message) {
+    try {
+      JsonNode messageNode = objectMapper.readTree(message);
+      if (nodeId.equals(messageNode.path(ORIGIN).asText())) {
+        return; // Already delivered locally when published
+      }
+      for (JsonNode eventNode : messageNode.path(EVENTS)) {
+        T reactiveEvent = eventFactory.apply(
+            objectMapper.treeToValue(eventNode.get(PAYLOAD), payloadType),
+            ReactiveEventType.valueOf(eventNode.get(TYPE).asText()));
+        this.subscribers.forEach(subscriber -> subscriber.accept(reactiveEvent));
+      }
+    } catch (JsonProcessingException | IllegalArgumentException e) {
+      log.error(String.format("Malformed message received on %s", channel), e);
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package com.jsoft.magenta.events.subprojects;
+
+import com.jsoft.magenta.events.ApplicationEvent;
+import java.util.Set;
+
+public class SubProjectAssociationsCreationEvent extends ApplicationEvent<Long> {
+
+  private final Set<Long> associatedUserIds;
+
+  public SubProjectAssociationsCreationEvent(Long projectId, Set<Long> associatedUserIds) {
+    super(projectId);
+    this.associatedUserIds = associatedUserIds;
+  }
+
+  public Set<Long> getAssociatedUserIds() {
+    return this.associatedUserIds;
+  }
+}
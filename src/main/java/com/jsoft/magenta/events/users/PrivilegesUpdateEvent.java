@@ -0,0 +1,10 @@
+package com.jsoft.magenta.events.users;
+
+import com.jsoft.magenta.events.ApplicationEvent;
+
+public class PrivilegesUpdateEvent extends ApplicationEvent<Long> {
+
+  public PrivilegesUpdateEvent(Long groupId) {
+    super(groupId);
+  }
+}
@@ -0,0 +1,10 @@
+package com.jsoft.magenta.events.users;
+
+import com.jsoft.magenta.events.ApplicationEvent;
+
+public class SupervisionUpdateEvent extends ApplicationEvent<Long> {
+
+  public SupervisionUpdateEvent(Long supervisorId) {
+    super(supervisorId);
+  }
+}
@@ -0,0 +1,10 @@
+package com.jsoft.magenta.events.users;
+
+import com.jsoft.magenta.events.ApplicationEvent;
+
+public class UserSecurityUpdateEvent extends ApplicationEvent<Long> {
+
+  public UserSecurityUpdateEvent(Long userId) {
+    super(userId);
+  }
+}
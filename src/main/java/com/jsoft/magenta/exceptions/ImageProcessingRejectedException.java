@@ -0,0 +1,8 @@
+package com.jsoft.magenta.exceptions;
+
+public class ImageProcessingRejectedException extends RuntimeException {
+
+  public ImageProcessingRejectedException(String message) {
+    super(message);
+  }
+}
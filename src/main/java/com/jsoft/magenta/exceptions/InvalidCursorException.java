@@ -0,0 +1,8 @@
+package com.jsoft.magenta.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+
+  public InvalidCursorException(String message) {
+    super(message);
+  }
+}
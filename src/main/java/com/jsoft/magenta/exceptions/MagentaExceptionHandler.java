@@ -8,6 +8,7 @@ import java.util.stream.Collectors;
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -48,6 +49,33 @@ public class MagentaExceptionHandler {
     return handleException(e, HttpStatus.UNAUTHORIZED);
   }
 
+  @ExceptionHandler(ImageProcessException.class)
+  public ResponseEntity<Object> handleImageProcessException(ImageProcessException e) {
+    return handleException(e, HttpStatus.UNPROCESSABLE_ENTITY);
+  }
+
+  @ExceptionHandler(ImageProcessingRejectedException.class)
+  public ResponseEntity<Object> handleImageProcessingRejectedException(
+      ImageProcessingRejectedException e) {
+    return handleException(e, HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
+  @ExceptionHandler(InvalidCursorException.class)
+  public ResponseEntity<Object> handleInvalidCursorException(InvalidCursorException e) {
+    return handleException(e, HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<Object> handleOptimisticLockingFailureException(
+      OptimisticLockingFailureException e) {
+    return handleException(e, HttpStatus.CONFLICT);
+  }
+
+  @ExceptionHandler(PasswordHashingException.class)
+  public ResponseEntity<Object> handlePasswordHashingException(PasswordHashingException e) {
+    return handleException(e, HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
   private ResponseEntity<Object> handleException(Exception e, HttpStatus httpStatus) {
     MagentaException magentaException = new MagentaException(e.getMessage(), httpStatus,
         LocalDateTime.now());
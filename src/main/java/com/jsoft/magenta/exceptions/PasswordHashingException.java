@@ -0,0 +1,8 @@
+package com.jsoft.magenta.exceptions;
+
+public class PasswordHashingException extends RuntimeException {
+
+  public PasswordHashingException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,67 @@
+package com.jsoft.magenta.files;
+
+import com.jsoft.magenta.accounts.AccountAssociationRepository;
+import com.jsoft.magenta.accounts.AccountRepository;
+import com.jsoft.magenta.exceptions.AuthorizationException;
+import com.jsoft.magenta.security.AccessDecisions;
+import com.jsoft.magenta.security.SecurityService;
+import com.jsoft.magenta.security.model.AccessPermission;
+import com.jsoft.magenta.security.model.PermissionName;
+import com.jsoft.magenta.security.model.PermissionTable;
+import com.jsoft.magenta.security.model.UserPrincipal;
+import com.jsoft.magenta.users.SupervisionIndex;
+import com.jsoft.magenta.users.UserRepository;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Allows reading an image only to users who may read its owner. A user profile image follows the
+ * user details rules, an account image requires an association with the account
+ */
+@Component
+@RequiredArgsConstructor
+public class ImageAccessValidator {
+
+  private final SecurityService securityService;
+  private final SupervisionIndex supervisionIndex;
+  private final AccessDecisions accessDecisions;
+  private final UserRepository userRepository;
+  private final AccountRepository accountRepository;
+  private final AccountAssociationRepository accountAssociationRepository;
+
+  public void validateReadAccess(Long imageId) {
+    UserPrincipal userPrincipal = securityService.currentPrincipal();
+    boolean userImageAllowed = this.userRepository.findAllIdsByProfileImageId(imageId).stream()
+        .anyMatch(ownerId -> canReadUserImage(userPrincipal, ownerId));
+    if (userImageAllowed) {
+      return;
+    }
+    boolean accountImageAllowed = this.accountRepository.findAllIdsByImageId(imageId).stream()
+        .anyMatch(accountId -> canReadAccountImage(userPrincipal, accountId));
+    if (!accountImageAllowed) {
+      throw new AuthorizationException("User is not authorized to get such image");
+    }
+  }
+
+  private boolean canReadUserImage(UserPrincipal userPrincipal, Long ownerId) {
+    PermissionTable permissionTable = userPrincipal.getPermissionTable();
+    if (userPrincipal.getUserId().equals(ownerId)
+        || permissionTable.hasPermission(PermissionName.USER, AccessPermission.WRITE)) {
+      return true;
+    } // Managers see the images of the users they supervise
+    return permissionTable.hasPermission(PermissionName.USER, AccessPermission.MANAGE)
+        && this.supervisionIndex.isSupervisorOf(userPrincipal.getUserId(), ownerId);
+  }
+
+  private boolean canReadAccountImage(UserPrincipal userPrincipal, Long accountId) {
+    if (userPrincipal.getPermissionTable().isAdminOf(PermissionName.ACCOUNT)) {
+      return true;
+    }
+    Long userId = userPrincipal.getUserId();
+    Optional<AccessPermission> associationPermission = this.accessDecisions.decide(
+        AccessDecisions.ACCOUNT, userId, accountId, () -> this.accountAssociationRepository
+            .findAccessPermissionByUserIdAndAccountId(userId, accountId));
+    return associationPermission.isPresent();
+  }
+}
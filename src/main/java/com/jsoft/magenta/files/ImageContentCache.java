@@ -0,0 +1,86 @@
+package com.jsoft.magenta.files;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.jsoft.magenta.exceptions.NoSuchElementException;
+import com.jsoft.magenta.files.storage.BlobStore;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * LRU cache of small image contents bounded by their total size in bytes. Contents are keyed by
+ * their content hash, so a cached entry can never become stale
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImageContentCache {
+
+  @Value("${application.image.content-cache.max-bytes:67108864}")
+  private long maxBytes;
+
+  @Value("${application.image.content-cache.max-entry-bytes:1048576}")
+  private long maxEntryBytes;
+
+  private final BlobStore blobStore;
+
+  private Cache<String, byte[]> contents;
+
+  @PostConstruct
+  private void init() {
+    this.contents = CacheBuilder.newBuilder()
+        .maximumWeight(maxBytes)
+        .weigher((String contentKey, byte[] content) -> content.length)
+        .recordStats()
+        .build();
+  }
+
+  public Resource getResource(String contentKey, long size) {
+    if (size > maxEntryBytes) { // Large contents are streamed from the store, never cached
+      Resource resource = this.blobStore.getResource(contentKey);
+      if (!resource.exists()) {
+        throw new NoSuchElementException("Image content not found");
+      }
+      return resource;
+    }
+    try {
+      return new ByteArrayResource(this.contents.get(contentKey, () -> load(contentKey)));
+    } catch (ExecutionException | UncheckedExecutionException e) { // Rethrow loader failure as is
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      log.error(String.format("Failure during content reading of %s", contentKey));
+      throw new IllegalStateException("Failure during image content loading", e.getCause());
+    }
+  }
+
+  public void invalidate(String contentKey) {
+    this.contents.invalidate(contentKey);
+  }
+
+  public long getHitCount() {
+    return this.contents.stats().hitCount();
+  }
+
+  public long getMissCount() {
+    return this.contents.stats().missCount();
+  }
+
+  private byte[] load(String contentKey) throws IOException {
+    try (InputStream inputStream = this.blobStore.read(contentKey)) {
+      return inputStream.readAllBytes();
+    } catch (NoSuchFileException e) {
+      throw new NoSuchElementException("Image content not found");
+    }
+  }
+}
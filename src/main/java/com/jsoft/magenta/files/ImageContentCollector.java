@@ -0,0 +1,67 @@
+package com.jsoft.magenta.files;
+
+import com.jsoft.magenta.files.storage.BlobStore;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes released image contents once they stayed unreferenced for a grace period. An upload
+ * writes its content before its row is committed, so a content is deleted only if no row
+ * references it and it was not written again during the grace period
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImageContentCollector {
+
+  @Value("${application.files.storage.release-grace:10m}")
+  private Duration releaseGrace;
+
+  private final MagentaImageRepository imageRepository;
+  private final MagentaImageRenditionRepository renditionRepository;
+  private final BlobStore blobStore;
+  private final ImageContentCache contentCache;
+
+  private final Map<String, Instant> releasedContents = new ConcurrentHashMap<>();
+
+  public void release(String contentKey) {
+    this.releasedContents.put(contentKey, Instant.now());
+  }
+
+  @Scheduled(fixedDelayString = "${application.files.storage.collect-interval-millis:60000}")
+  public void collect() {
+    Instant graceStart = Instant.now().minus(releaseGrace);
+    this.releasedContents.forEach((contentKey, releasedAt) -> {
+      if (releasedAt.isAfter(graceStart)) {
+        return;
+      }
+      if (isReferenced(contentKey)) { // Content is shared by equal images
+        this.releasedContents.remove(contentKey, releasedAt);
+        return;
+      }
+      try { // Content written during the grace period is checked again on a later run
+        if (this.blobStore.deleteIfUnmodifiedSince(contentKey, graceStart)) {
+          this.releasedContents.remove(contentKey, releasedAt);
+          this.contentCache.invalidate(contentKey);
+          log.debug(String.format("Unreferenced image content %s was deleted", contentKey));
+        }
+      } catch (IOException e) { // Orphan content is harmless, report and move on
+        this.releasedContents.remove(contentKey, releasedAt);
+        log.warn(String.format("Failure during deletion of image content %s", contentKey));
+      }
+    });
+  }
+
+  private boolean isReferenced(String contentKey) {
+    return this.imageRepository.countByContentKey(contentKey) > 0
+        || this.renditionRepository.countByContentKey(contentKey) > 0;
+  }
+}
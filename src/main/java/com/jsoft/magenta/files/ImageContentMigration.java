@@ -0,0 +1,94 @@
+package com.jsoft.magenta.files;
+
+import com.jsoft.magenta.files.storage.BlobStore;
+import com.jsoft.magenta.files.storage.StoredBlob;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves image contents stored in the former bytes column of the images table into the blob store.
+ * The schema update cannot add the not null content columns to a populated table, so they are added
+ * nullable, filled in batches from the old contents and only then constrained. Rows already moved
+ * are skipped, so an interrupted migration resumes on the next start
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory") // Images table must exist first
+@RequiredArgsConstructor
+public class ImageContentMigration {
+
+  private static final String COLUMN_EXISTS = "select count(*) from information_schema.columns "
+      + "where table_name = 'images' and column_name = ?";
+  private static final String ADD_CONTENT_KEY = "alter table images "
+      + "add column if not exists content_key varchar(64)";
+  private static final String ADD_CONTENT_SIZE = "alter table images "
+      + "add column if not exists content_size int8";
+  private static final String SELECT_UNMOVED = "select file_id, bytes from images "
+      + "where content_key is null and bytes is not null order by file_id limit ?";
+  private static final String UPDATE_CONTENT = "update images "
+      + "set content_key = ?, content_size = ? where file_id = ?";
+  private static final String COUNT_UNMOVED = "select count(*) from images "
+      + "where content_key is null or content_size is null";
+  private static final String CONSTRAIN_CONTENT_KEY = "alter table images "
+      + "alter column content_key set not null";
+  private static final String CONSTRAIN_CONTENT_SIZE = "alter table images "
+      + "alter column content_size set not null";
+  private static final String CONTENT_KEY_INDEX = "create index if not exists "
+      + "images_content_key_index on images (content_key)";
+  private static final String DROP_BYTES = "alter table images drop column bytes";
+  private static final int BATCH_SIZE = 100;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final BlobStore blobStore;
+
+  @PostConstruct
+  private void init() {
+    if (!columnExists("bytes")) { // Nothing left to move
+      return;
+    }
+    this.jdbcTemplate.execute(ADD_CONTENT_KEY);
+    this.jdbcTemplate.execute(ADD_CONTENT_SIZE);
+    int moved = 0;
+    List<Object[]> contentUpdates;
+    do { // Moved rows leave the selection, so each batch reads the next images
+      contentUpdates = this.jdbcTemplate.query(SELECT_UNMOVED, (resultSet, rowNum) -> {
+        StoredBlob storedBlob = store(resultSet.getBytes("bytes"));
+        return new Object[]{
+            storedBlob.getContentKey(), storedBlob.getSize(), resultSet.getLong("file_id")};
+      }, BATCH_SIZE);
+      this.jdbcTemplate.batchUpdate(UPDATE_CONTENT, contentUpdates);
+      moved += contentUpdates.size();
+    } while (contentUpdates.size() == BATCH_SIZE);
+    Long unmoved = this.jdbcTemplate.queryForObject(COUNT_UNMOVED, Long.class);
+    if (unmoved != null && unmoved > 0) { // Keep the old contents until every row has moved
+      log.error(String.format("%d images have no content, old image contents were kept", unmoved));
+      return;
+    }
+    this.jdbcTemplate.execute(CONSTRAIN_CONTENT_KEY);
+    this.jdbcTemplate.execute(CONSTRAIN_CONTENT_SIZE);
+    this.jdbcTemplate.execute(CONTENT_KEY_INDEX);
+    this.jdbcTemplate.execute(DROP_BYTES);
+    log.info(String.format("%d image contents were moved to the blob store", moved));
+  }
+
+  private boolean columnExists(String column) {
+    Long count = this.jdbcTemplate.queryForObject(COLUMN_EXISTS, Long.class, column);
+    return count != null && count > 0;
+  }
+
+  private StoredBlob store(byte[] content) {
+    try {
+      return this.blobStore.write(new ByteArrayInputStream(content));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Image content could not be moved to the blob store", e);
+    }
+  }
+}
@@ -4,13 +4,14 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.Index;
 import javax.persistence.Table;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
 @Entity
-@Table(name = "images")
+@Table(name = "images", indexes = @Index(name = "images_content_key_index", columnList = "content_key"))
 @NoArgsConstructor
 public class MagentaImage extends MagentaFile {
 
@@ -18,12 +19,17 @@ public class MagentaImage extends MagentaFile {
   @Enumerated(EnumType.STRING)
   private MagentaImageType imageType;
 
-  @Column(name = "bytes", nullable = false, length = 1000)
-  private byte[] bytes;
+  @Column(name = "content_key", nullable = false, length = 64)
+  private String contentKey; // Content itself is kept in the blob store
 
-  public MagentaImage(Long id, String type, String name, MagentaImageType imageType, byte[] bytes) {
+  @Column(name = "content_size", nullable = false)
+  private long size;
+
+  public MagentaImage(Long id, String type, String name, MagentaImageType imageType,
+      String contentKey, long size) {
     super(id, type, name);
     this.imageType = imageType;
-    this.bytes = bytes;
+    this.contentKey = contentKey;
+    this.size = size;
   }
 }
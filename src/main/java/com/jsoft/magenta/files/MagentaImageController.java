@@ -0,0 +1,80 @@
+package com.jsoft.magenta.files;
+
+import com.jsoft.magenta.exceptions.NoSuchElementException;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("${application.url}images")
+@RequiredArgsConstructor
+public class MagentaImageController {
+
+  @Value("${application.image.cache.max-age:365d}")
+  private Duration maxAge;
+
+  private final MagentaImageService imageService;
+  private final ImageAccessValidator imageAccessValidator;
+
+  @GetMapping("{imageId}")
+  public ResponseEntity<Resource> getImage(@PathVariable Long imageId) {
+    this.imageAccessValidator.validateReadAccess(imageId);
+    MagentaImage magentaImage = this.imageService.findImage(imageId);
+    // Content behind an image id may change, let clients revalidate with the etag
+    return serveImage(magentaImage, CacheControl.noCache().cachePrivate());
+  }
+
+  @GetMapping("{imageId}/renditions")
+  public ResponseEntity<Resource> getImageRendition(
+      @PathVariable Long imageId,
+      @RequestParam(defaultValue = "0") int width,
+      @RequestParam(required = false) String format
+  ) {
+    this.imageAccessValidator.validateReadAccess(imageId);
+    MagentaImageRendition rendition = this.imageService.findRendition(imageId, width, format);
+    return ResponseEntity.ok()
+        .eTag(rendition.getContentKey())
+        .cacheControl(CacheControl.noCache().cachePrivate())
+        .contentType(getMediaType(rendition.getFormat()))
+        .body(this.imageService.getRenditionResource(rendition));
+  }
+
+  @GetMapping("{imageId}/{contentKey}")
+  public ResponseEntity<Resource> getImageContent(
+      @PathVariable Long imageId,
+      @PathVariable String contentKey
+  ) {
+    this.imageAccessValidator.validateReadAccess(imageId);
+    MagentaImage magentaImage = this.imageService.findImage(imageId);
+    if (!magentaImage.getContentKey().equals(contentKey)) {
+      throw new NoSuchElementException("Image content not found");
+    } // Content key is part of the url so the response never changes
+    return serveImage(magentaImage, CacheControl.maxAge(maxAge).cachePrivate());
+  }
+
+  private ResponseEntity<Resource> serveImage(MagentaImage magentaImage,
+      CacheControl cacheControl) {
+    // If-None-Match is answered with 304 and Range with 206 by the resource return value handling
+    return ResponseEntity.ok()
+        .eTag(magentaImage.getContentKey())
+        .cacheControl(cacheControl)
+        .contentType(getMediaType(magentaImage.getType()))
+        .body(this.imageService.getImageResource(magentaImage));
+  }
+
+  private MediaType getMediaType(String format) {
+    return MediaTypeFactory
+        .getMediaType(String.format("image.%s", format))
+        .orElse(MediaType.APPLICATION_OCTET_STREAM);
+  }
+}
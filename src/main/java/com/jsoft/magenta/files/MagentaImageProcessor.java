@@ -0,0 +1,269 @@
+package com.jsoft.magenta.files;
+
+import com.jsoft.magenta.exceptions.ImageProcessException;
+import com.jsoft.magenta.exceptions.ImageProcessingRejectedException;
+import com.jsoft.magenta.files.storage.BlobStore;
+import com.jsoft.magenta.files.storage.StoredBlob;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.coobird.thumbnailator.Thumbnails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Decodes each upload once on a bounded pool and writes the variants of every image type into the
+ * blob store, refusing images whose header reports more pixels than allowed before decoding them
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MagentaImageProcessor {
+
+  @Value("${application.image.size.cover-width}")
+  private int coverImageSizeWidth;
+
+  @Value("${application.image.size.cover-height}")
+  private int coverImageSizeHeight;
+
+  @Value("${application.image.size.profile-width}")
+  private int profileImageSizeWidth;
+
+  @Value("${application.image.size.profile-height}")
+  private int profileImageHeight;
+
+  @Value("${application.image.size.logo-width}")
+  private int logoImageSizeWidth;
+
+  @Value("${application.image.size.logo-height}")
+  private int logoImageSizeHeight;
+
+  @Value("${application.image.size.thumbnail-width}")
+  private int thumbnailImageSizeWidth;
+
+  @Value("${application.image.size.thumbnail-height}")
+  private int thumbnailImageSizeHeight;
+
+  @Value("${application.image.renditions.scales:1,2}")
+  private int[] renditionScales;
+
+  @Value("${application.image.renditions.formats:}")
+  private String[] renditionFormats; // Empty keeps only the uploaded format
+
+  @Value("${application.image.processing.threads:0}")
+  private int threads;
+
+  @Value("${application.image.processing.queue-capacity:20}")
+  private int queueCapacity;
+
+  @Value("${application.image.processing.max-pixels:25000000}")
+  private long maxPixels;
+
+  private final BlobStore blobStore;
+
+  private ThreadPoolExecutor executor;
+
+  @PostConstruct
+  private void init() { // Default to one processing thread per core
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(
+        poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> {
+          Thread thread = new Thread(runnable, "image-processing-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  @PreDestroy
+  private void shutdown() {
+    this.executor.shutdown();
+  }
+
+  public Map<MagentaImageType, List<StoredRendition>> processRenditions(String name,
+      MultipartFile imageFile) {
+    return execute(name, () -> { // Every type, scale and format is resized from one decode
+      DecodedImage decodedImage = decode(name, imageFile);
+      BufferedImage image = decodedImage.getImage();
+      Set<String> formats = new LinkedHashSet<>();
+      formats.add(decodedImage.getFormatName()); // Uploaded format first
+      for (String renditionFormat : renditionFormats) {
+        if (!renditionFormat.isBlank()) {
+          formats.add(normalizeFormat(renditionFormat));
+        }
+      }
+      Map<String, List<StoredRendition>> storedBySize = new HashMap<>(); // Types sharing a size
+      Map<MagentaImageType, List<StoredRendition>> storedRenditions =
+          new EnumMap<>(MagentaImageType.class);
+      for (MagentaImageType imageType : MagentaImageType.values()) {
+        List<StoredRendition> typeRenditions = new ArrayList<>();
+        for (int scale : renditionScales) {
+          int width = getWidth(imageType) * scale;
+          int height = getHeight(imageType) * scale;
+          if (scale > 1 && image.getWidth() < width && image.getHeight() < height) {
+            continue; // Upscaling adds bytes without adding detail
+          }
+          List<StoredRendition> sizeRenditions = storedBySize.get(width + "x" + height);
+          if (sizeRenditions == null) {
+            BufferedImage resizedImage = Thumbnails.of(image)
+                .width(width)
+                .height(height)
+                .asBufferedImage();
+            sizeRenditions = new ArrayList<>();
+            for (String format : formats) {
+              sizeRenditions.add(new StoredRendition(scale, resizedImage.getWidth(),
+                  resizedImage.getHeight(), format, write(resizedImage, format)));
+            }
+            storedBySize.put(width + "x" + height, sizeRenditions);
+          }
+          for (StoredRendition sizeRendition : sizeRenditions) {
+            typeRenditions.add(new StoredRendition(scale, sizeRendition.getWidth(),
+                sizeRendition.getHeight(), sizeRendition.getFormat(),
+                sizeRendition.getStoredBlob()));
+          }
+        }
+        storedRenditions.put(imageType, typeRenditions);
+      }
+      return storedRenditions;
+    });
+  }
+
+  private <T> T execute(String name, Callable<T> processingTask) {
+    try { // Caller waits, the pool only bounds how many images are decoded at once
+      return this.executor.submit(processingTask).get();
+    } catch (RejectedExecutionException e) {
+      log.warn(String.format("Image processing of %s entity rejected, queue depth %d",
+          name, executor.getQueue().size()));
+      throw new ImageProcessingRejectedException("Too many concurrent image uploads");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ImageProcessException(
+          String.format("Image processing of %s entity was interrupted", name));
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      log.error(String.format("Failure during image processing of %s entity", name));
+      throw new ImageProcessException(
+          String.format("Failure during image processing of %s entity", name));
+    }
+  }
+
+  private DecodedImage decode(String name, MultipartFile imageFile) throws IOException {
+    try (InputStream inputStream = imageFile.getInputStream();
+        ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+      ImageReader imageReader = getImageReader(name, imageInputStream);
+      try {
+        imageReader.setInput(imageInputStream, true, true);
+        // Dimensions are read from the header, nothing is decoded yet
+        long pixels = (long) imageReader.getWidth(0) * imageReader.getHeight(0);
+        if (pixels > maxPixels) {
+          throw new ImageProcessException(
+              String.format("Image of %s entity exceeds %d pixels", name, maxPixels));
+        }
+        return new DecodedImage(imageReader.read(0), normalizeFormat(imageReader.getFormatName()));
+      } finally {
+        imageReader.dispose();
+      }
+    }
+  }
+
+  private StoredBlob write(BufferedImage image, String format) throws IOException {
+    BufferedImage imageToWrite = image;
+    if (image.getColorModel().hasAlpha() && isJpeg(format)) { // Jpeg has no alpha channel
+      imageToWrite = new BufferedImage(image.getWidth(), image.getHeight(),
+          BufferedImage.TYPE_INT_RGB);
+      Graphics2D graphics = imageToWrite.createGraphics();
+      graphics.drawImage(image, 0, 0, Color.WHITE, null);
+      graphics.dispose();
+    }
+    BufferedImage encodedImage = imageToWrite;
+    return this.blobStore.write(outputStream -> {
+      if (!ImageIO.write(encodedImage, format, outputStream)) {
+        throw new ImageProcessException(String.format("Image format %s is not supported", format));
+      }
+    });
+  }
+
+  private boolean isJpeg(String format) {
+    return "jpeg".equals(format);
+  }
+
+  static String normalizeFormat(String format) { // Same format must not be stored twice
+    String formatName = format.trim().toLowerCase();
+    return "jpg".equals(formatName) ? "jpeg" : formatName;
+  }
+
+  private ImageReader getImageReader(String name, ImageInputStream imageInputStream) {
+    Iterator<ImageReader> imageReaders = imageInputStream != null ?
+        ImageIO.getImageReaders(imageInputStream) : null;
+    if (imageReaders == null || !imageReaders.hasNext()) {
+      throw new ImageProcessException(
+          String.format("Image of %s entity has unsupported format", name));
+    }
+    return imageReaders.next();
+  }
+
+  private int getWidth(MagentaImageType imageType) {
+    switch (imageType) { // Set size by requested image type
+      case THUMBNAIL:
+        return thumbnailImageSizeWidth;
+      case PROFILE:
+        return profileImageSizeWidth;
+      case LOGO:
+        return logoImageSizeWidth;
+      default:
+        return coverImageSizeWidth;
+    }
+  }
+
+  private int getHeight(MagentaImageType imageType) {
+    switch (imageType) {
+      case THUMBNAIL:
+        return thumbnailImageSizeHeight;
+      case PROFILE:
+        return profileImageHeight;
+      case LOGO:
+        return logoImageSizeHeight;
+      default:
+        return coverImageSizeHeight;
+    }
+  }
+
+  @Getter
+  @RequiredArgsConstructor
+  private static final class DecodedImage {
+
+    private final BufferedImage image;
+    private final String formatName;
+  }
+}
@@ -0,0 +1,55 @@
+package com.jsoft.magenta.files;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@Table(name = "image_renditions", uniqueConstraints = @UniqueConstraint(
+    name = "image_renditions_unique", columnNames = {"image_id", "width", "format"}))
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class MagentaImageRendition {
+
+  @Id
+  @SequenceGenerator(
+      name = "rendition_sequence",
+      sequenceName = "rendition_sequence",
+      initialValue = 100
+  )
+  @GeneratedValue(
+      strategy = GenerationType.SEQUENCE,
+      generator = "rendition_sequence"
+  )
+  @Column(name = "rendition_id", updatable = false)
+  private Long id;
+
+  @Column(name = "image_id", nullable = false, updatable = false)
+  private Long imageId;
+
+  @Column(name = "width", nullable = false, updatable = false)
+  private int width;
+
+  @Column(name = "height", nullable = false, updatable = false)
+  private int height;
+
+  @Column(name = "format", nullable = false, updatable = false, length = 10)
+  private String format;
+
+  @Column(name = "content_key", nullable = false, updatable = false, length = 64)
+  private String contentKey;
+
+  @Column(name = "content_size", nullable = false, updatable = false)
+  private long size;
+}
@@ -0,0 +1,18 @@
+package com.jsoft.magenta.files;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+public interface MagentaImageRenditionRepository extends
+    CrudRepository<MagentaImageRendition, Long> {
+
+  List<MagentaImageRendition> findAllByImageIdOrderByWidth(Long imageId);
+
+  long countByContentKey(String contentKey);
+
+  @Modifying
+  @Query("delete from MagentaImageRendition r where r.imageId = :imageId")
+  void deleteAllByImageId(Long imageId);
+}
@@ -1,8 +1,13 @@
 package com.jsoft.magenta.files;
 
+import java.util.Optional;
 import org.springframework.data.repository.CrudRepository;
 
 public interface MagentaImageRepository extends CrudRepository<MagentaImage, Long> {
 
   boolean existsByIdAndImageType(Long imageId, MagentaImageType imageType);
+
+  Optional<MagentaImage> findByIdAndImageType(Long imageId, MagentaImageType imageType);
+
+  long countByContentKey(String contentKey);
 }
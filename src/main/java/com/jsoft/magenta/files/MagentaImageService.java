@@ -1,125 +1,147 @@
 package com.jsoft.magenta.files;
 
-import com.jsoft.magenta.exceptions.ImageProcessException;
+import com.jsoft.magenta.events.images.ImageContentReleaseEvent;
 import com.jsoft.magenta.exceptions.NoSuchElementException;
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
+import com.jsoft.magenta.files.storage.StoredBlob;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import net.coobird.thumbnailator.Thumbnails;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.multipart.MultipartFile;
 
-@Slf4j
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class MagentaImageService {
 
-  @Value("${application.image.size.cover-width}")
-  private int coverImageSizeWidth;
+  private final MagentaImageRepository imageRepository;
+  private final MagentaImageRenditionRepository renditionRepository;
+  private final ImageContentCollector contentCollector;
+  private final ImageContentCache contentCache;
+  private final MagentaImageProcessor imageProcessor;
+  private final ApplicationEventPublisher eventPublisher;
 
-  @Value("${application.image.size.cover-height}")
-  private int coverImageSizeHeight;
+  public MagentaImage uploadImage(String name, MultipartFile imageFile,
+      MagentaImageType imageType) { // Process image renditions into the blob store
+    Map<MagentaImageType, List<StoredRendition>> storedRenditions = processImage(name, imageFile);
+    MagentaImage magentaImage = new MagentaImage();
+    magentaImage.setImageType(imageType); // Set image type as requested
+    setImageDetails(magentaImage, name, imageFile,
+        storedRenditions.get(imageType).get(0).getStoredBlob());
+    // Persist and return the saved image
+    MagentaImage savedImage = this.imageRepository.save(magentaImage);
+    saveRenditions(savedImage.getId(), storedRenditions);
+    return savedImage;
+  }
 
-  @Value("${application.image.size.profile-width}")
-  private int profileImageSizeWidth;
+  public MagentaImage updateImage(Long imageId, String name, MultipartFile imageFile,
+      MagentaImageType imageType) {
+    MagentaImage magentaImage = findImage(imageId, imageType);
+    String previousContentKey = magentaImage.getContentKey();
+    Map<MagentaImageType, List<StoredRendition>> storedRenditions = processImage(name, imageFile);
+    setImageDetails(magentaImage, name, imageFile,
+        storedRenditions.get(imageType).get(0).getStoredBlob());
+    // Persist and return the saved image
+    MagentaImage savedImage = this.imageRepository.save(magentaImage);
+    removeRenditions(imageId);
+    saveRenditions(imageId, storedRenditions);
+    this.eventPublisher.publishEvent(new ImageContentReleaseEvent(previousContentKey));
+    return savedImage;
+  }
 
-  @Value("${application.image.size.profile-height}")
-  private int profileImageHeight;
+  public void removeImage(Long imageId, MagentaImageType imageType) {
+    MagentaImage magentaImage = findImage(imageId, imageType);
+    removeRenditions(imageId);
+    this.imageRepository.delete(magentaImage);
+    this.eventPublisher.publishEvent(new ImageContentReleaseEvent(magentaImage.getContentKey()));
+  }
 
-  @Value("${application.image.size.logo-width}")
-  private int logoImageSizeWidth;
+  @Transactional(readOnly = true)
+  public MagentaImage findImage(Long imageId) {
+    return this.imageRepository
+        .findById(imageId)
+        .orElseThrow(() -> new NoSuchElementException("Image not found"));
+  }
 
-  @Value("${application.image.size.logo-height}")
-  private int logoImageSizeHeight;
+  @Transactional(readOnly = true)
+  public MagentaImageRendition findRendition(Long imageId, int width, String format) {
+    String requestedFormat = format != null ? MagentaImageProcessor.normalizeFormat(format) : null;
+    List<MagentaImageRendition> renditions = this.renditionRepository
+        .findAllByImageIdOrderByWidth(imageId)
+        .stream()
+        .filter(rendition -> requestedFormat == null
+            || requestedFormat.equals(rendition.getFormat()))
+        .collect(Collectors.toList());
+    if (renditions.isEmpty()) {
+      throw new NoSuchElementException("Image rendition not found");
+    } // Smallest rendition that is wide enough, otherwise the widest one
+    return renditions.stream()
+        .filter(rendition -> rendition.getWidth() >= width)
+        .findFirst()
+        .orElse(renditions.get(renditions.size() - 1));
+  }
 
-  @Value("${application.image.size.thumbnail-width}")
-  private int thumbnailImageSizeWidth;
+  public Resource getImageResource(MagentaImage magentaImage) {
+    return this.contentCache.getResource(magentaImage.getContentKey(), magentaImage.getSize());
+  }
 
-  @Value("${application.image.size.thumbnail-height}")
-  private int thumbnailImageSizeHeight;
+  public Resource getRenditionResource(MagentaImageRendition rendition) {
+    return this.contentCache.getResource(rendition.getContentKey(), rendition.getSize());
+  }
 
-  private final MagentaImageRepository imageRepository;
+  @TransactionalEventListener(fallbackExecution = true)
+  public void handleImageContentReleaseEvent(ImageContentReleaseEvent releaseEvent) {
+    // Not deleted at once, a concurrent upload may be deduplicating onto the same content
+    this.contentCollector.release(releaseEvent.getPayload());
+  }
 
-  public MagentaImage uploadImage(String name, MultipartFile imageFile,
-      MagentaImageType imageType) { // Process image
-    MagentaImage magentaImage = processImage(name, imageFile, imageType);
-    // Persist and return the saved image
-    return this.imageRepository.save(magentaImage);
+  private Map<MagentaImageType, List<StoredRendition>> processImage(String name,
+      MultipartFile imageFile) { // Resize on the processing pool straight into the store
+    return this.imageProcessor.processRenditions(name, imageFile);
   }
 
-  public MagentaImage updateImage(Long imageId, String name, MultipartFile imageFile,
-      MagentaImageType imageType) {
-    isExists(imageId, imageType);
-    MagentaImage magentaImage = processImage(name, imageFile, imageType);
-    magentaImage.setId(imageId);
-    // Persist and return the saved image
-    return this.imageRepository.save(magentaImage);
+  private void saveRenditions(Long imageId,
+      Map<MagentaImageType, List<StoredRendition>> storedRenditions) {
+    Map<String, MagentaImageRendition> renditions = new LinkedHashMap<>();
+    storedRenditions.values().stream() // Types sharing a width are stored once
+        .flatMap(List::stream)
+        .forEach(storedRendition -> renditions.putIfAbsent(
+            storedRendition.getWidth() + storedRendition.getFormat(),
+            new MagentaImageRendition(null, imageId,
+                storedRendition.getWidth(), storedRendition.getHeight(),
+                storedRendition.getFormat(), storedRendition.getStoredBlob().getContentKey(),
+                storedRendition.getStoredBlob().getSize())));
+    this.renditionRepository.saveAll(renditions.values());
   }
 
-  public void removeImage(Long imageId, MagentaImageType imageType) {
-    isExists(imageId, imageType);
-    this.imageRepository.deleteById(imageId);
+  private void removeRenditions(Long imageId) {
+    List<MagentaImageRendition> renditions = this.renditionRepository
+        .findAllByImageIdOrderByWidth(imageId);
+    // Bulk delete runs at once, freeing the unique keys before new renditions are inserted
+    this.renditionRepository.deleteAllByImageId(imageId);
+    renditions.forEach(rendition -> this.eventPublisher
+        .publishEvent(new ImageContentReleaseEvent(rendition.getContentKey())));
   }
 
-  private MagentaImage processImage(String name, MultipartFile imageFile,
-      MagentaImageType imageType) { // Convert
-    // the image into File
-    File file = new File(imageFile.getOriginalFilename());
-    int imageWidth = 0;
-    int imageHeight = 0;
-    switch (imageType) { // Set size by requested image type
-      case THUMBNAIL:
-        imageWidth = thumbnailImageSizeWidth;
-        imageHeight = thumbnailImageSizeHeight;
-        break;
-      case PROFILE:
-        imageWidth = profileImageSizeWidth;
-        imageHeight = profileImageHeight;
-        break;
-      case LOGO:
-        imageWidth = logoImageSizeWidth;
-        imageHeight = logoImageSizeHeight;
-        break;
-      case COVER:
-        imageWidth = coverImageSizeWidth;
-        imageHeight = coverImageSizeHeight;
-    }
-
-    try { // Format size by matching values
-      Thumbnails.of(file).width(imageWidth).height(imageHeight).toFile(file);
-    } catch (IOException e) {
-      log.error(String.format("Failure during image processing of %s entity", name));
-      throw new ImageProcessException(
-          String.format("Failure during image processing of %s entity", name));
-    }
-    // Prepare custom image object
-    MagentaImage magentaImage = new MagentaImage();
-    magentaImage.setName(String.format("%s-%s", name, imageType)); // Set custom name
+  private void setImageDetails(MagentaImage magentaImage, String name, MultipartFile imageFile,
+      StoredBlob storedBlob) {
+    magentaImage.setName(String.format("%s-%s", name, magentaImage.getImageType())); // Custom name
     String extension = imageFile.getOriginalFilename();
     magentaImage.setType(
         extension.substring(extension.lastIndexOf(".") + 1)); // Get image file type and set
-    magentaImage.setImageType(imageType); // Set image type as requested
-
-    try { // Init with file bytes
-      byte[] bytes = Files.readAllBytes(file.toPath());
-      magentaImage.setBytes(bytes);
-    } catch (IOException e) {
-      log.error(String.format("Failure during image processing of %s entity", name));
-      throw new ImageProcessException(
-          String.format("Failure during image processing of %s entity", name));
-    }
-    return magentaImage;
+    magentaImage.setContentKey(storedBlob.getContentKey());
+    magentaImage.setSize(storedBlob.getSize());
   }
 
-  private void isExists(Long imageId, MagentaImageType imageType) {
-    boolean exist = this.imageRepository.existsByIdAndImageType(imageId, imageType);
-    if (!exist) {
-      throw new NoSuchElementException("Image not found");
-    }
+  private MagentaImage findImage(Long imageId, MagentaImageType imageType) {
+    return this.imageRepository
+        .findByIdAndImageType(imageId, imageType)
+        .orElseThrow(() -> new NoSuchElementException("Image not found"));
   }
 }
@@ -0,0 +1,14 @@
+package com.jsoft.magenta.files;
+
+import com.jsoft.magenta.files.storage.StoredBlob;
+import lombok.Value;
+
+@Value
+public class StoredRendition {
+
+  int scale;
+  int width;
+  int height;
+  String format;
+  StoredBlob storedBlob;
+}
@@ -0,0 +1,39 @@
+package com.jsoft.magenta.files.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import org.springframework.core.io.Resource;
+
+/**
+ * Content addressed storage of file contents, entities keep only the returned content key
+ */
+public interface BlobStore {
+
+  StoredBlob write(BlobWriter blobWriter) throws IOException;
+
+  default StoredBlob write(InputStream inputStream) throws IOException {
+    return write(inputStream::transferTo);
+  }
+
+  InputStream read(String contentKey) throws IOException;
+
+  Resource getResource(String contentKey); // Lets the web layer stream and slice content
+
+  boolean exists(String contentKey);
+
+  void delete(String contentKey) throws IOException;
+
+  /**
+   * Deletes the content unless it was written after the given instant, writing an existing content
+   * counts as a write, so content that a pending upload deduplicated onto is kept
+   */
+  boolean deleteIfUnmodifiedSince(String contentKey, Instant instant) throws IOException;
+
+  @FunctionalInterface
+  interface BlobWriter {
+
+    void writeTo(OutputStream outputStream) throws IOException;
+  }
+}
@@ -0,0 +1,143 @@
+package com.jsoft.magenta.files.storage;
+
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.CountingOutputStream;
+import com.google.common.util.concurrent.Striped;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.concurrent.locks.Lock;
+import java.util.regex.Pattern;
+import javax.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local filesystem blob store, files are named by the SHA-256 of their content so equal contents
+ * are stored once
+ */
+@Slf4j
+@Component
+public class FileSystemBlobStore implements BlobStore {
+
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+  private static final Pattern CONTENT_KEY_PATTERN = Pattern.compile("[0-9a-f]{64}");
+  private static final String STAGING_DIRECTORY = "staging";
+
+  @Value("${application.files.storage.root:./storage/blobs}")
+  private String rootDirectory;
+
+  private final Striped<Lock> keyLocks = Striped.lock(64);
+
+  private Path root;
+  private Path staging;
+
+  @PostConstruct
+  private void init() throws IOException {
+    this.root = Paths.get(rootDirectory).toAbsolutePath().normalize();
+    // Staging lives under the root so finished blobs are moved atomically
+    this.staging = Files.createDirectories(root.resolve(STAGING_DIRECTORY));
+  }
+
+  @Override
+  public StoredBlob write(BlobWriter blobWriter) throws IOException {
+    Path stagedFile = Files.createTempFile(staging, "blob", ".tmp");
+    try { // Hash and count while streaming into the staged file
+      MessageDigest messageDigest = createDigest();
+      long size;
+      try (CountingOutputStream outputStream = new CountingOutputStream(
+          new DigestOutputStream(
+              new BufferedOutputStream(Files.newOutputStream(stagedFile)), messageDigest))) {
+        blobWriter.writeTo(outputStream);
+        outputStream.flush();
+        size = outputStream.getCount();
+      }
+      String contentKey = BaseEncoding.base16().lowerCase().encode(messageDigest.digest());
+      Path blobFile = resolve(contentKey);
+      Lock lock = this.keyLocks.get(contentKey);
+      lock.lock();
+      try { // Exclusive with deletion of the same key
+        if (Files.exists(blobFile)) { // Touch the existing content so it is not collected
+          Files.setLastModifiedTime(blobFile, FileTime.from(Instant.now()));
+        } else { // Content is new, otherwise the staged copy is dropped
+          Files.createDirectories(blobFile.getParent());
+          Files.move(stagedFile, blobFile, StandardCopyOption.ATOMIC_MOVE);
+          log.debug(String.format("Blob %s of %d bytes was stored", contentKey, size));
+        }
+      } finally {
+        lock.unlock();
+      }
+      return new StoredBlob(contentKey, size);
+    } finally {
+      Files.deleteIfExists(stagedFile);
+    }
+  }
+
+  @Override
+  public InputStream read(String contentKey) throws IOException {
+    return Files.newInputStream(resolve(contentKey));
+  }
+
+  @Override
+  public Resource getResource(String contentKey) { // Served from file channel, never loaded whole
+    return new FileSystemResource(resolve(contentKey));
+  }
+
+  @Override
+  public boolean exists(String contentKey) {
+    return Files.exists(resolve(contentKey));
+  }
+
+  @Override
+  public void delete(String contentKey) throws IOException {
+    Files.deleteIfExists(resolve(contentKey));
+  }
+
+  @Override
+  public boolean deleteIfUnmodifiedSince(String contentKey, Instant instant) throws IOException {
+    Path blobFile = resolve(contentKey);
+    Lock lock = this.keyLocks.get(contentKey);
+    lock.lock();
+    try {
+      if (!Files.exists(blobFile)) {
+        return true;
+      }
+      if (Files.getLastModifiedTime(blobFile).toInstant().isAfter(instant)) {
+        return false;
+      }
+      return Files.deleteIfExists(blobFile);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Path resolve(String contentKey) {
+    if (contentKey == null || !CONTENT_KEY_PATTERN.matcher(contentKey).matches()) {
+      throw new IllegalArgumentException("Invalid content key");
+    } // Fan out by key prefix to keep directories small
+    return root
+        .resolve(contentKey.substring(0, 2))
+        .resolve(contentKey.substring(2, 4))
+        .resolve(contentKey);
+  }
+
+  private MessageDigest createDigest() {
+    try {
+      return MessageDigest.getInstance(DIGEST_ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(String.format("%s is not supported", DIGEST_ALGORITHM), e);
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package com.jsoft.magenta.files.storage;
+
+import lombok.Value;
+
+@Value
+public class StoredBlob {
+
+  String contentKey;
+  long size;
+}
@@ -0,0 +1,72 @@
+package com.jsoft.magenta.mail;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters and accumulated time of each weekly mail pipeline stage
+ */
+public class MailPipelineMetrics {
+
+  private final AtomicLong reported = new AtomicLong();
+  private final AtomicLong rendered = new AtomicLong();
+  private final AtomicLong sent = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong retried = new AtomicLong();
+  private final AtomicLong reportNanos = new AtomicLong();
+  private final AtomicLong renderNanos = new AtomicLong();
+  private final AtomicLong sendNanos = new AtomicLong();
+
+  void recordReports(int count, long nanos) {
+    reported.addAndGet(count);
+    reportNanos.addAndGet(nanos);
+  }
+
+  void recordRender(long nanos) {
+    rendered.incrementAndGet();
+    renderNanos.addAndGet(nanos);
+  }
+
+  void recordSend(int sentCount, long nanos) {
+    sent.addAndGet(sentCount);
+    sendNanos.addAndGet(nanos);
+  }
+
+  void recordRetry() {
+    retried.incrementAndGet();
+  }
+
+  void recordFailure(int count) {
+    failed.addAndGet(count);
+  }
+
+  public long getReported() {
+    return reported.get();
+  }
+
+  public long getRendered() {
+    return rendered.get();
+  }
+
+  public long getSent() {
+    return sent.get();
+  }
+
+  public long getFailed() {
+    return failed.get();
+  }
+
+  public long getRetried() {
+    return retried.get();
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "reports %d in %d ms, rendered %d in %d ms, sent %d in %d ms, retries %d, failed %d",
+        getReported(), TimeUnit.NANOSECONDS.toMillis(reportNanos.get()),
+        getRendered(), TimeUnit.NANOSECONDS.toMillis(renderNanos.get()),
+        getSent(), TimeUnit.NANOSECONDS.toMillis(sendNanos.get()),
+        getRetried(), getFailed());
+  }
+}
@@ -30,20 +30,13 @@ public class MailService {
   private final JavaMailSender mailSender;
   private final WorkTimeService workTimeService;
   private final UserRepository userRepository;
+  private final WeeklyMailPipeline weeklyMailPipeline;
 
   @Scheduled(cron = "${application.mail.weekly-mail}")
   public void weeklyMailsJob() { // Fetch user details
     List<UserSearchResult> users = this.userRepository.findAllResultsBy();
-    users.forEach(user -> {
-      try { // Send weekly email to each user
-        sendWeeklyMail(
-            user.getId(),
-            user.getEmail(),
-            String.format("%s %s", user.getFirstName(), user.getLastName()));
-      } catch (MessagingException e) {
-        log.error("Error during email sending to user %s", user.getEmail());
-      }
-    });
+    BusinessWeek businessWeek = new BusinessWeek(LocalDate.now().minusWeeks(1));
+    this.weeklyMailPipeline.send(users, businessWeek); // Report, render and send in stages
   }
 
   public void sendWeeklyMail(Long userId, String userEmail, String userName)
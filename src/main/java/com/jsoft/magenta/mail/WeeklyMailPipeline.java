@@ -0,0 +1,193 @@
+package com.jsoft.magenta.mail;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.jsoft.magenta.users.UserSearchResult;
+import com.jsoft.magenta.util.AppConstants;
+import com.jsoft.magenta.worktimes.WorkTimeService;
+import com.jsoft.magenta.worktimes.reports.BusinessWeek;
+import com.jsoft.magenta.worktimes.reports.WeeklyHoursReport;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends the weekly mails in three stages: reports of all users are streamed from one grouped
+ * query, rendered on a parallel pool and handed to a single sender through a bounded queue. The
+ * report stream never waits for the sender, so its transaction is closed before sending. The
+ * sender reuses one SMTP connection per batch of messages, retries failures with backoff and never
+ * exceeds the configured rate
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WeeklyMailPipeline {
+
+  private static final MimeMessage END_OF_QUEUE = new MimeMessage((Session) null);
+
+  @Value("${application.mail.address}")
+  private String from;
+
+  @Value("${application.mail.pipeline.render-threads:4}")
+  private int renderThreads;
+
+  @Value("${application.mail.pipeline.queue-capacity:500}")
+  private int queueCapacity;
+
+  @Value("${application.mail.pipeline.send-batch-size:50}")
+  private int sendBatchSize;
+
+  @Value("${application.mail.pipeline.messages-per-second:10}")
+  private double messagesPerSecond;
+
+  @Value("${application.mail.pipeline.max-attempts:3}")
+  private int maxAttempts;
+
+  @Value("${application.mail.pipeline.backoff-millis:1000}")
+  private long backoffMillis;
+
+  private final MailBuilder mailBuilder;
+  private final JavaMailSender mailSender;
+  private final WorkTimeService workTimeService;
+
+  public MailPipelineMetrics send(List<UserSearchResult> users, BusinessWeek businessWeek) {
+    MailPipelineMetrics metrics = new MailPipelineMetrics();
+    BlockingQueue<MimeMessage> sendQueue = new ArrayBlockingQueue<>(queueCapacity);
+    // Unbounded, the report stream must not hold its connection while rendering waits on sending
+    ExecutorService renderExecutor = Executors.newFixedThreadPool(renderThreads,
+        namedThreadFactory("mail-render"));
+    ExecutorService sendExecutor = Executors.newSingleThreadExecutor(
+        namedThreadFactory("mail-send"));
+    try {
+      Future<?> sender = sendExecutor.submit(() -> sendAll(sendQueue, metrics));
+      List<Future<?>> renders = new ArrayList<>();
+      long start = System.nanoTime(); // Stage 1 - reports of all users from one grouped query
+      workTimeService.streamWeeklyHoursReports(users, businessWeek, (user, report) ->
+          renders.add(renderExecutor.submit(() -> // Stage 2 - render while reports stream in
+              render(user, report, sendQueue, metrics))));
+      metrics.recordReports(renders.size(), System.nanoTime() - start);
+      awaitAll(renders);
+      sendQueue.put(END_OF_QUEUE);
+      sender.get(); // Stage 3 drains the queue and stops at its end
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.error("Weekly mail pipeline was interrupted");
+    } catch (ExecutionException e) {
+      log.error("Weekly mail pipeline failed", e.getCause());
+    } finally {
+      renderExecutor.shutdownNow();
+      sendExecutor.shutdownNow();
+    }
+    log.info(String.format("Weekly mail pipeline finished: %s", metrics));
+    return metrics;
+  }
+
+  private void render(UserSearchResult user, WeeklyHoursReport report,
+      BlockingQueue<MimeMessage> sendQueue, MailPipelineMetrics metrics) {
+    long start = System.nanoTime();
+    try {
+      MimeMessage mimeMessage = mailSender.createMimeMessage();
+      MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage);
+      mimeMessageHelper.setFrom(from);
+      mimeMessageHelper.setSubject(
+          String.format(AppConstants.WEEKLY_MAIL_MESSAGE, report.getUserName()));
+      mimeMessageHelper.setText(mailBuilder.buildWeeklyMail(report));
+      mimeMessageHelper.setTo(user.getEmail());
+      metrics.recordRender(System.nanoTime() - start);
+      sendQueue.put(mimeMessage); // Blocks while the sender is behind
+    } catch (MessagingException | RuntimeException e) { // Other users are still rendered
+      metrics.recordFailure(1);
+      log.error(String.format("Error during email rendering to user %s", user.getEmail()), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void sendAll(BlockingQueue<MimeMessage> sendQueue, MailPipelineMetrics metrics) {
+    RateLimiter rateLimiter = RateLimiter.create(messagesPerSecond);
+    List<MimeMessage> batch = new ArrayList<>(sendBatchSize);
+    boolean ended = false;
+    try {
+      while (!ended) {
+        batch.add(sendQueue.take());
+        sendQueue.drainTo(batch, sendBatchSize - 1);
+        ended = batch.remove(END_OF_QUEUE);
+        if (!batch.isEmpty()) {
+          try {
+            sendWithRetries(batch, rateLimiter, metrics);
+          } catch (RuntimeException e) { // Keep draining so rendering never blocks on a full queue
+            metrics.recordFailure(batch.size());
+            log.error("Unexpected error during emails sending", e);
+          }
+          batch.clear();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void sendWithRetries(List<MimeMessage> batch, RateLimiter rateLimiter,
+      MailPipelineMetrics metrics) throws InterruptedException {
+    List<MimeMessage> pending = batch;
+    for (int attempt = 1; ; attempt++) {
+      rateLimiter.acquire(pending.size()); // Resent messages count against the rate as well
+      long start = System.nanoTime();
+      try { // One connection is used for all the messages of the batch
+        mailSender.send(pending.toArray(new MimeMessage[0]));
+        metrics.recordSend(pending.size(), System.nanoTime() - start);
+        return;
+      } catch (MailSendException e) { // Only the messages that failed are sent again
+        List<MimeMessage> failed = e.getFailedMessages().keySet().stream()
+            .filter(message -> message instanceof MimeMessage)
+            .map(message -> (MimeMessage) message)
+            .collect(Collectors.toList());
+        if (!failed.isEmpty()) {
+          metrics.recordSend(pending.size() - failed.size(), System.nanoTime() - start);
+          pending = failed;
+        }
+      } catch (MailException e) {
+        log.warn(String.format("Error during sending of %d emails", pending.size()));
+      }
+      if (attempt >= maxAttempts) {
+        metrics.recordFailure(pending.size());
+        log.error(String.format("%d emails could not be sent after %d attempts",
+            pending.size(), attempt));
+        return;
+      }
+      metrics.recordRetry();
+      TimeUnit.MILLISECONDS.sleep(backoffMillis << (attempt - 1)); // Exponential backoff
+    }
+  }
+
+  private void awaitAll(List<Future<?>> futures)
+      throws InterruptedException, ExecutionException {
+    for (Future<?> future : futures) {
+      future.get();
+    }
+  }
+
+  private ThreadFactory namedThreadFactory(String prefix) {
+    AtomicInteger threadNumber = new AtomicInteger();
+    return runnable -> new Thread(runnable, prefix + "-" + threadNumber.incrementAndGet());
+  }
+}
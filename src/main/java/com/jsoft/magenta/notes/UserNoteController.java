@@ -3,7 +3,9 @@ package com.jsoft.magenta.notes;
 import static com.jsoft.magenta.util.AppDefaults.ASCENDING_SORT;
 import static com.jsoft.magenta.util.AppDefaults.PAGE_INDEX;
 import static com.jsoft.magenta.util.AppDefaults.PAGE_SIZE;
+import static com.jsoft.magenta.util.AppDefaults.WITH_TOTAL;
 
+import com.jsoft.magenta.util.pagination.PageResponse;
 import com.jsoft.magenta.util.validation.annotations.ValidContent;
 import com.jsoft.magenta.util.validation.annotations.ValidTitle;
 import java.time.LocalDateTime;
@@ -79,6 +81,27 @@ public class UserNoteController {
     return this.userNoteService.getAllUserNotes(pageIndex, pageSize, sortBy, asc);
   }
 
+  @GetMapping("seek")
+  public PageResponse<UserNote> seekAllUserNotes(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false, defaultValue = PAGE_SIZE) int pageSize,
+      @RequestParam(required = false, defaultValue = DEFAULT_NOTE_SORT) String sortBy,
+      @RequestParam(required = false, defaultValue = ASCENDING_SORT) boolean asc
+  ) {
+    return this.userNoteService.seekAllUserNotes(cursor, pageSize, sortBy, asc);
+  }
+
+  @GetMapping("slice")
+  public PageResponse<UserNote> sliceAllUserNotes(
+      @RequestParam(required = false, defaultValue = PAGE_INDEX) int pageIndex,
+      @RequestParam(required = false, defaultValue = PAGE_SIZE) int pageSize,
+      @RequestParam(required = false, defaultValue = DEFAULT_NOTE_SORT) String sortBy,
+      @RequestParam(required = false, defaultValue = ASCENDING_SORT) boolean asc,
+      @RequestParam(required = false, defaultValue = WITH_TOTAL) boolean withTotal
+  ) {
+    return this.userNoteService.sliceAllUserNotes(pageIndex, pageSize, sortBy, asc, withTotal);
+  }
+
   @GetMapping("taken/before")
   public Page<UserNote> getAllUserNotesTakenBefore(
       @RequestParam("maxDate")
@@ -1,13 +1,13 @@
 package com.jsoft.magenta.notes;
 
+import com.jsoft.magenta.util.pagination.SeekRepository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface UserNoteRepository extends JpaRepository<UserNote, Long> {
+public interface UserNoteRepository extends SeekRepository<UserNote, Long> {
 
   Optional<UserNote> findByIdAndUserId(Long noteId, Long userId);
 
@@ -5,6 +5,9 @@ import com.jsoft.magenta.exceptions.ReminderException;
 import com.jsoft.magenta.exceptions.UpdateViolationException;
 import com.jsoft.magenta.security.SecurityService;
 import com.jsoft.magenta.util.pagination.PageRequestBuilder;
+import com.jsoft.magenta.util.pagination.PageResponse;
+import com.jsoft.magenta.util.pagination.PageTotals;
+import com.jsoft.magenta.util.pagination.SeekRequest;
 import java.time.LocalDateTime;
 import java.util.List;
 import javax.transaction.Transactional;
@@ -12,6 +15,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -21,6 +26,7 @@ public class UserNoteService {
 
   private final UserNoteRepository userNoteRepository;
   private final SecurityService securityService;
+  private final PageTotals pageTotals;
 
   public UserNote createUserNote(UserNote userNote) {
     verifyNoteRemindAt(userNote.getRemindAt());
@@ -67,6 +73,25 @@ public class UserNoteService {
     return new PageImpl<>(pageResult.getContent(), pageRequest, pageResult.getTotalElements());
   }
 
+  public PageResponse<UserNote> seekAllUserNotes(String cursor, int pageSize, String sortBy,
+      boolean asc) {
+    SeekRequest<UserNote> seekRequest = PageRequestBuilder
+        .buildSeekRequest(cursor, pageSize, sortBy, asc);
+    Long userId = securityService.currentUserId();
+    return seekRequest
+        .toPageResponse(this.userNoteRepository.findAll(ofUser(userId), seekRequest));
+  }
+
+  public PageResponse<UserNote> sliceAllUserNotes(int pageIndex, int pageSize, String sortBy,
+      boolean asc, boolean withTotal) {
+    PageRequest pageRequest = PageRequestBuilder.buildPageRequest(pageIndex, pageSize, sortBy, asc);
+    Long userId = securityService.currentUserId();
+    Slice<UserNote> slice = this.userNoteRepository.findSlice(ofUser(userId), pageRequest);
+    Long total = this.pageTotals.count(withTotal, "notes:" + userId,
+        () -> this.userNoteRepository.count(ofUser(userId)));
+    return new PageResponse<>(slice, total);
+  }
+
   public Page<UserNote> getAllUserNotesTakenBefore(
       LocalDateTime maxDate, int pageIndex, int pageSize, String sortBy, boolean asc) {
     PageRequest pageRequest = PageRequestBuilder.buildPageRequest(pageIndex, pageSize, sortBy, asc);
@@ -156,4 +181,7 @@ public class UserNoteService {
     }
   }
 
+  private Specification<UserNote> ofUser(Long userId) {
+    return (root, query, builder) -> builder.equal(root.get("user").get("id"), userId);
+  }
 }
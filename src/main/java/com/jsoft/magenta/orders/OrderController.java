@@ -4,9 +4,11 @@ import static com.jsoft.magenta.util.AppDefaults.ASCENDING_SORT;
 import static com.jsoft.magenta.util.AppDefaults.DEFAULT_ORDER_SORT;
 import static com.jsoft.magenta.util.AppDefaults.PAGE_INDEX;
 import static com.jsoft.magenta.util.AppDefaults.PAGE_SIZE;
+import static com.jsoft.magenta.util.AppDefaults.WITH_TOTAL;
 
 import com.jsoft.magenta.orders.domain.Order;
 import com.jsoft.magenta.security.annotations.projects.ProjectManagePermission;
+import com.jsoft.magenta.util.pagination.PageResponse;
 import com.jsoft.magenta.util.validation.annotations.PositiveNumber;
 import com.jsoft.magenta.util.validation.annotations.ValidContent;
 import com.jsoft.magenta.util.validation.annotations.ValidTitle;
@@ -88,6 +90,19 @@ public class OrderController {
     return this.orderService.getAllOrders(projectId, pageIndex, pageSize, sortBy, asc);
   }
 
+  @GetMapping("project/{projectId}/slice")
+  public PageResponse<Order> sliceAllOrders(
+      @PathVariable Long projectId,
+      @RequestParam(required = false, defaultValue = PAGE_INDEX) int pageIndex,
+      @RequestParam(required = false, defaultValue = PAGE_SIZE) int pageSize,
+      @RequestParam(required = false, defaultValue = DEFAULT_ORDER_SORT) String sortBy,
+      @RequestParam(required = false, defaultValue = ASCENDING_SORT) boolean asc,
+      @RequestParam(required = false, defaultValue = WITH_TOTAL) boolean withTotal
+  ) {
+    return this.orderService
+        .sliceAllOrders(projectId, pageIndex, pageSize, sortBy, asc, withTotal);
+  }
+
   @GetMapping("{orderId}")
   public Order getOrder(@PathVariable Long orderId) {
     return this.orderService.getOrder(orderId);
@@ -2,13 +2,13 @@ package com.jsoft.magenta.orders;
 
 import com.jsoft.magenta.orders.domain.Order;
 import com.jsoft.magenta.orders.domain.OrderSearchResult;
+import com.jsoft.magenta.util.pagination.SeekRepository;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends SeekRepository<Order, Long> {
 
   Optional<Long> findProjectIdById(Long orderId);
 
@@ -7,6 +7,8 @@ import com.jsoft.magenta.orders.domain.OrderSearchResult;
 import com.jsoft.magenta.projects.domain.Project;
 import com.jsoft.magenta.security.SecurityService;
 import com.jsoft.magenta.util.pagination.PageRequestBuilder;
+import com.jsoft.magenta.util.pagination.PageResponse;
+import com.jsoft.magenta.util.pagination.PageTotals;
 import com.jsoft.magenta.util.WordFormatter;
 import java.time.LocalDate;
 import java.util.List;
@@ -16,6 +18,8 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -26,6 +30,7 @@ public class OrderService {
   private final OrderRepository orderRepository;
   private final ApplicationEventPublisher eventPublisher;
   private final SecurityService securityService;
+  private final PageTotals pageTotals;
 
   private static final String DEFAULT_SORT_TYPE = "title";
 
@@ -75,6 +80,18 @@ public class OrderService {
     return new PageImpl<>(pageResult.getContent(), pageRequest, pageResult.getTotalElements());
   }
 
+  public PageResponse<Order> sliceAllOrders(Long projectId, int pageIndex, int pageSize,
+      String sortBy, boolean asc, boolean withTotal) {
+    this.eventPublisher.publishEvent(new ProjectRelatedEntityEvent(projectId));
+    PageRequest pageRequest = PageRequestBuilder.buildPageRequest(pageIndex, pageSize, sortBy, asc);
+    Specification<Order> ofProject = (root, query, builder) ->
+        builder.equal(root.get("project").get("id"), projectId);
+    Slice<Order> slice = this.orderRepository.findSlice(ofProject, pageRequest);
+    Long total = this.pageTotals.count(withTotal, "orders:" + projectId,
+        () -> this.orderRepository.count(ofProject));
+    return new PageResponse<>(slice, total);
+  }
+
   public List<OrderSearchResult> getOrdersResults(
       Long projectId, String example, int resultsCount) {
     this.eventPublisher.publishEvent(new ProjectRelatedEntityEvent(projectId));
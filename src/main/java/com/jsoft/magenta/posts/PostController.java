@@ -4,6 +4,7 @@ import static com.jsoft.magenta.util.AppDefaults.ASCENDING_SORT;
 import static com.jsoft.magenta.util.AppDefaults.DEFAULT_POST_SORT;
 import static com.jsoft.magenta.util.AppDefaults.PAGE_INDEX;
 import static com.jsoft.magenta.util.AppDefaults.PAGE_SIZE;
+import static com.jsoft.magenta.util.AppDefaults.WITH_TOTAL;
 
 import com.jsoft.magenta.events.posts.PostReactiveEvent;
 import com.jsoft.magenta.security.annotations.posts.PostWritePermission;
@@ -16,6 +17,8 @@ import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,6 +27,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -80,6 +84,27 @@ public class PostController {
     return this.postService.getAllPosts(pageIndex, pageSize, sortBy, asc);
   }
 
+  @GetMapping("seek")
+  public PageResponse<Post> seekAllPosts(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false, defaultValue = PAGE_SIZE) int pageSize,
+      @RequestParam(required = false, defaultValue = DEFAULT_POST_SORT) String sortBy,
+      @RequestParam(required = false, defaultValue = ASCENDING_SORT) boolean asc
+  ) {
+    return this.postService.seekAllPosts(cursor, pageSize, sortBy, asc);
+  }
+
+  @GetMapping("slice")
+  public PageResponse<Post> sliceAllPosts(
+      @RequestParam(required = false, defaultValue = PAGE_INDEX) int pageIndex,
+      @RequestParam(required = false, defaultValue = PAGE_SIZE) int pageSize,
+      @RequestParam(required = false, defaultValue = DEFAULT_POST_SORT) String sortBy,
+      @RequestParam(required = false, defaultValue = ASCENDING_SORT) boolean asc,
+      @RequestParam(required = false, defaultValue = WITH_TOTAL) boolean withTotal
+  ) {
+    return this.postService.sliceAllPosts(pageIndex, pageSize, sortBy, asc, withTotal);
+  }
+
   @GetMapping("{postId}")
   public Post getPost(@PathVariable Long postId) {
     return this.postService.getPost(postId);
@@ -91,9 +116,12 @@ public class PostController {
     return this.postService.getAllPostsResultsByTextExample(textExample, resultsCount);
   }
 
-  @GetMapping("newsfeed/{userId}")
-  public Flux<PostReactiveEvent> listToNewsfeed(@PathVariable Long userId) {
-    return Flux.create(emitter -> this.delegationService.delegateRequest(userId, emitter::next));
+  @GetMapping(value = "newsfeed/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public Flux<ServerSentEvent<PostReactiveEvent>> listToNewsfeed(
+      @PathVariable Long userId,
+      @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId
+  ) {
+    return this.delegationService.delegateRequest(userId, lastEventId);
   }
 
   @DeleteMapping("{postId}")
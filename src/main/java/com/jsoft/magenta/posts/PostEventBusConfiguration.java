@@ -0,0 +1,38 @@
+package com.jsoft.magenta.posts;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsoft.magenta.events.posts.PostReactiveEvent;
+import com.jsoft.magenta.events.reactive.bus.EventBus;
+import com.jsoft.magenta.events.reactive.bus.LocalEventBus;
+import com.jsoft.magenta.events.reactive.bus.PostgresEventBus;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PostEventBusConfiguration {
+
+  private static final String POST_EVENTS_CHANNEL = "post_events";
+
+  @Bean
+  @ConditionalOnProperty(name = "application.events.bus", havingValue = "local",
+      matchIfMissing = true)
+  public EventBus<PostReactiveEvent> localPostEventBus() { // Single node deployments
+    return new LocalEventBus<>();
+  }
+
+  @Bean(initMethod = "start", destroyMethod = "stop")
+  @ConditionalOnProperty(name = "application.events.bus", havingValue = "postgres")
+  public EventBus<PostReactiveEvent> postgresPostEventBus(
+      DataSource dataSource,
+      ObjectMapper objectMapper,
+      @Value("${application.events.batch-interval:100ms}") Duration batchInterval,
+      @Value("${application.events.poll-interval:500ms}") Duration pollInterval
+  ) { // Every node listens to the posts channel and fans events out to its own sessions
+    return new PostgresEventBus<>(dataSource, objectMapper, POST_EVENTS_CHANNEL, Post.class,
+        Post::getId, PostReactiveEvent::new, batchInterval, pollInterval);
+  }
+}
@@ -1,17 +1,17 @@
 package com.jsoft.magenta.posts;
 
+import com.jsoft.magenta.util.pagination.SeekRepository;
+import java.util.Collection;
 import java.util.List;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
-public interface PostRepository extends JpaRepository<Post, Long> {
+public interface PostRepository extends SeekRepository<Post, Long> {
 
-  List<PostSearchResult> findAllByTitleContainingIgnoreCaseOrContentContainingIgnoreCase(
-      String titleExample, String contentExample, Pageable pageable);
+  @Query(value = "select p.post_id from posts p, to_tsquery('simple', :textQuery) q "
+      + "where p.search_vector @@ q "
+      + "order by ts_rank(p.search_vector, q) desc, p.created_at desc "
+      + "limit :resultsCount", nativeQuery = true)
+  List<Number> findRankedPostIdsByTextQuery(String textQuery, int resultsCount);
 
-  default List<PostSearchResult> findPostsByExample(String textExample, Pageable pageable) {
-    return this
-        .findAllByTitleContainingIgnoreCaseOrContentContainingIgnoreCase(textExample, textExample,
-            pageable);
-  }
+  List<PostSearchResult> findAllByIdIn(Collection<Long> postIds);
 }
@@ -0,0 +1,35 @@
+package com.jsoft.magenta.posts;
+
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the posts full text search column and its GIN index, which the schema generation cannot
+ * express. The column is generated by Postgres, so it follows every insert, update and delete
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory") // Posts table must exist first
+@RequiredArgsConstructor
+public class PostSearchIndexInitializer {
+
+  private static final String SEARCH_COLUMN = "alter table posts "
+      + "add column if not exists search_vector tsvector generated always as ("
+      + "setweight(to_tsvector('simple', coalesce(title, '')), 'A') || "
+      + "setweight(to_tsvector('simple', coalesce(content, '')), 'B')) stored";
+  private static final String SEARCH_INDEX = "create index if not exists posts_search_index "
+      + "on posts using gin (search_vector)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @PostConstruct
+  private void init() {
+    this.jdbcTemplate.execute(SEARCH_COLUMN);
+    this.jdbcTemplate.execute(SEARCH_INDEX);
+    log.info("Posts search index is ready");
+  }
+}
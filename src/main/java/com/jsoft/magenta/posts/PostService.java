@@ -4,16 +4,23 @@ import com.jsoft.magenta.events.posts.PostReactiveEvent;
 import com.jsoft.magenta.events.reactive.ReactiveEventType;
 import com.jsoft.magenta.exceptions.NoSuchElementException;
 import com.jsoft.magenta.security.SecurityService;
-import com.jsoft.magenta.util.AppDefaults;
 import com.jsoft.magenta.util.pagination.PageRequestBuilder;
 import com.jsoft.magenta.util.WordFormatter;
 import com.jsoft.magenta.util.pagination.PageResponse;
+import com.jsoft.magenta.util.pagination.PageTotals;
+import com.jsoft.magenta.util.pagination.SeekRequest;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import javax.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -24,6 +31,7 @@ public class PostService {
   private final PostRepository postRepository;
   private final SecurityService securityService;
   private final PostsDelegationService delegationService;
+  private final PageTotals pageTotals;
 
   public Post createPost(Post post) {
     // Set post date according to user and post time
@@ -75,12 +83,42 @@ public class PostService {
     return new PageResponse<>(pageResult.getContent(), pageResult.getTotalElements(), pageRequest);
   }
 
+  public PageResponse<Post> seekAllPosts(String cursor, int pageSize, String sortBy,
+      boolean asc) {
+    SeekRequest<Post> seekRequest = PageRequestBuilder
+        .buildSeekRequest(cursor, pageSize, sortBy, asc);
+    return seekRequest.toPageResponse(this.postRepository.findAll(null, seekRequest));
+  }
+
+  public PageResponse<Post> sliceAllPosts(int pageIndex, int pageSize, String sortBy, boolean asc,
+      boolean withTotal) {
+    PageRequest pageRequest = PageRequestBuilder.buildPageRequest(pageIndex, pageSize, sortBy, asc);
+    Slice<Post> slice = this.postRepository.findSlice(null, pageRequest);
+    Long total = this.pageTotals.estimate(withTotal, Post.class, this.postRepository::count);
+    return new PageResponse<>(slice, total);
+  }
+
   public List<PostSearchResult> getAllPostsResultsByTextExample(String textExample,
       int resultsCount) {
-    PageRequest pageRequest = PageRequestBuilder
-        .buildPageRequest(0, resultsCount, AppDefaults.DEFAULT_POST_SORT, false);
-    return this.postRepository
-        .findPostsByExample(textExample, pageRequest);
+    String textQuery = toPrefixQuery(textExample);
+    if (textQuery.isEmpty()) { // Nothing searchable, avoid matching everything
+      return List.of();
+    } // Rank on the search index, then load results of the matching ids only
+    List<Long> postIds = this.postRepository
+        .findRankedPostIdsByTextQuery(textQuery, resultsCount)
+        .stream()
+        .map(Number::longValue)
+        .collect(Collectors.toList());
+    if (postIds.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, PostSearchResult> results = this.postRepository.findAllByIdIn(postIds)
+        .stream()
+        .collect(Collectors.toMap(PostSearchResult::getId, Function.identity()));
+    return postIds.stream()
+        .map(results::get)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
   }
 
   public Post getPost(Long postId) {
@@ -94,6 +132,13 @@ public class PostService {
     this.postRepository.deleteById(postId);
   }
 
+  private String toPrefixQuery(String textExample) { // Every word is matched as a prefix
+    return Arrays.stream(textExample.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+        .filter(word -> !word.isEmpty())
+        .map(word -> word + ":*")
+        .collect(Collectors.joining(" & "));
+  }
+
   private Post findPost(Long postId) {
     return this.postRepository
         .findById(postId)
@@ -2,21 +2,94 @@ package com.jsoft.magenta.posts;
 
 import com.jsoft.magenta.events.posts.PostReactiveEvent;
 import com.jsoft.magenta.events.reactive.DelegationService;
+import com.jsoft.magenta.events.reactive.ReplayLog;
+import com.jsoft.magenta.events.reactive.bus.EventBus;
+import java.time.Duration;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+/**
+ * Broadcasts post events to every open newsfeed session through one multicast sink. Each session
+ * gets its own bounded buffer that drops the oldest events when the client falls behind, so
+ * publishing never waits on readers. Recent events are kept in a replay log so reconnecting clients
+ * resume from their last event id, ids issued by another node or before a restart make the client
+ * refetch instead. Events reach this node through the event bus, whether published here or on
+ * another node, and are handed to a single dispatch thread that numbers and emits them
+ */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class PostsDelegationService implements DelegationService<PostReactiveEvent> {
 
-  private Map<Long, Consumer<PostReactiveEvent>> listeners = new ConcurrentHashMap<>();
+  public static final String RESET_EVENT = "reset";
+  private static final String HEARTBEAT_COMMENT = "heartbeat";
+
+  @Value("${application.posts.newsfeed.buffer-size:256}")
+  private int bufferSize;
+
+  @Value("${application.posts.newsfeed.replay-size:1000}")
+  private int replaySize;
+
+  @Value("${application.posts.newsfeed.heartbeat:15s}")
+  private Duration heartbeat;
+
+  private final EventBus<PostReactiveEvent> eventBus;
+
+  private final Map<Long, Integer> sessions = new ConcurrentHashMap<>();
+  private final AtomicLong droppedCount = new AtomicLong();
+  private final AtomicLong failedEmissionCount = new AtomicLong();
+  // Event ids, the replay log and session registration are only touched on the dispatch thread
+  private Scheduler dispatchScheduler = Schedulers.newSingle("newsfeed-dispatch", true);
+  private Scheduler deliveryScheduler = Schedulers.boundedElastic();
+  private Sinks.Many<ReplayLog.Entry<PostReactiveEvent>> sink;
+  private ReplayLog<PostReactiveEvent> replayLog;
+
+  @PostConstruct
+  private void init() {
+    this.replayLog = new ReplayLog<>(replaySize);
+    this.sink = Sinks.many().multicast().onBackpressureBuffer(bufferSize, false);
+    this.sink.asFlux().subscribe(); // Keeps the sink from holding events while nobody listens
+    this.eventBus.subscribe(this::processEvent);
+  }
+
+  @PreDestroy
+  private void shutdown() {
+    this.dispatchScheduler.dispose();
+  }
 
   @Override
-  public void delegateRequest(Long requesterId, Consumer<PostReactiveEvent> listener) {
-    this.listeners.put(requesterId, listener);
+  public Flux<ServerSentEvent<PostReactiveEvent>> delegateRequest(Long requesterId,
+      String lastEventId) {
+    // Replay missed events and join live ones at the same point, both on the dispatch thread
+    Flux<ServerSentEvent<PostReactiveEvent>> events = Flux.mergeSequential(
+        Flux.defer(() -> replay(lastEventId)),
+        sink.asFlux().map(entry -> toServerSentEvent(entry.getId(), entry.getEvent())))
+        .subscribeOn(dispatchScheduler);
+    return Flux.merge(events, heartbeats())
+        .onBackpressureBuffer(bufferSize, droppedEvent -> droppedCount.incrementAndGet(),
+            BufferOverflowStrategy.DROP_OLDEST)
+        // Writing to the client happens off the dispatch thread, one event at a time
+        .publishOn(deliveryScheduler, 1)
+        .doOnSubscribe(subscription -> sessions.merge(requesterId, 1, Integer::sum))
+        .doFinally(signalType -> { // Disconnect, cancel or error end the session
+          sessions.computeIfPresent(requesterId, (id, count) -> count > 1 ? count - 1 : null);
+          log.debug(String.format("Newsfeed session of user %d ended with %s",
+              requesterId, signalType));
+        });
   }
 
   public void sendEvent(PostReactiveEvent reactiveEvent) {
@@ -24,10 +97,66 @@ public class PostsDelegationService implements DelegationService<PostReactiveEve
       throw new IllegalArgumentException(
           "Reactive event must not be null, otherwise cannot be processed");
     }
-    processEvent(reactiveEvent);
+    this.eventBus.publish(reactiveEvent);
+  }
+
+  public int getSessionCount(Long requesterId) {
+    return this.sessions.getOrDefault(requesterId, 0);
+  }
+
+  public int getSubscriberCount() { // Without the subscriber that keeps the sink flowing
+    return this.sink.currentSubscriberCount() - 1;
+  }
+
+  public long getDroppedCount() {
+    return this.droppedCount.get();
+  }
+
+  public long getFailedEmissionCount() {
+    return this.failedEmissionCount.get();
+  }
+
+  private void processEvent(PostReactiveEvent reactiveEvent) { // Publisher only hands it over
+    this.dispatchScheduler.schedule(() -> {
+      long eventId = this.replayLog.append(reactiveEvent);
+      Sinks.EmitResult emitResult = this.sink.tryEmitNext(
+          new ReplayLog.Entry<>(eventId, reactiveEvent));
+      if (emitResult.isFailure()) { // Still replayable, but live sessions miss it
+        this.failedEmissionCount.incrementAndGet();
+        log.warn(String.format("Newsfeed event %d was not delivered live: %s",
+            eventId, emitResult));
+      }
+    });
+  }
+
+  private Flux<ServerSentEvent<PostReactiveEvent>> replay(String lastEventId) {
+    if (lastEventId == null) {
+      return Flux.empty();
+    }
+    OptionalLong lastSeenId = this.replayLog.parseEventId(lastEventId);
+    // Events were lost or the id belongs to another log, client must refetch
+    if (lastSeenId.isEmpty() || !this.replayLog.isResumableFrom(lastSeenId.getAsLong())) {
+      return Flux.just(ServerSentEvent.<PostReactiveEvent>builder()
+          .id(this.replayLog.toEventId(this.replayLog.getLastId()))
+          .event(RESET_EVENT)
+          .build());
+    }
+    return Flux.fromIterable(this.replayLog.since(lastSeenId.getAsLong()))
+        .map(entry -> toServerSentEvent(entry.getId(), entry.getEvent()));
+  }
+
+  private Flux<ServerSentEvent<PostReactiveEvent>> heartbeats() { // Keeps idle proxies open
+    return Flux.interval(heartbeat, heartbeat)
+        .map(tick -> ServerSentEvent.<PostReactiveEvent>builder()
+            .comment(HEARTBEAT_COMMENT)
+            .build());
   }
 
-  private void processEvent(PostReactiveEvent reactiveEvent) {
-    listeners.forEach((requesterId, listener) -> listener.accept(reactiveEvent));
+  private ServerSentEvent<PostReactiveEvent> toServerSentEvent(long eventId,
+      PostReactiveEvent reactiveEvent) {
+    return ServerSentEvent.builder(reactiveEvent)
+        .id(this.replayLog.toEventId(eventId))
+        .event(reactiveEvent.getEventType().name().toLowerCase())
+        .build();
   }
 }
@@ -4,6 +4,8 @@ import com.jsoft.magenta.projects.domain.ProjectAssociation;
 import com.jsoft.magenta.projects.domain.ProjectAssociationId;
 import com.jsoft.magenta.security.model.AccessPermission;
 import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
 public interface ProjectAssociationRepository extends
@@ -16,4 +18,8 @@ public interface ProjectAssociationRepository extends
   Optional<ProjectAssociation> findByUserIdAndProjectId(Long userId, Long projectId);
 
   Optional<AccessPermission> findAccessPermissionByUserIdAndProjectId(Long userId, Long projectId);
+
+  @Query("select association.id.userId from ProjectAssociation association "
+      + "where association.id.projectId = :projectId and association.id.userId in :userIds")
+  Set<Long> findUserIdsByProjectIdAndUserIdIn(Long projectId, Set<Long> userIds);
 }
@@ -5,13 +5,16 @@ import static com.jsoft.magenta.util.AppDefaults.PAGE_INDEX;
 import static com.jsoft.magenta.util.AppDefaults.PAGE_SIZE;
 import static com.jsoft.magenta.util.AppDefaults.PROJECTS_DEFAULT_SORT;
 import static com.jsoft.magenta.util.AppDefaults.RESULTS_COUNT;
+import static com.jsoft.magenta.util.AppDefaults.WITH_TOTAL;
 
 import com.jsoft.magenta.projects.domain.Project;
 import com.jsoft.magenta.projects.domain.ProjectSearchResult;
 import com.jsoft.magenta.security.annotations.projects.ProjectWritePermission;
 import com.jsoft.magenta.security.model.AccessPermission;
+import com.jsoft.magenta.security.payload.AssociationsRequest;
 import com.jsoft.magenta.subprojects.SubProject;
 import com.jsoft.magenta.subprojects.SubProjectSearchResult;
+import com.jsoft.magenta.util.pagination.PageResponse;
 import com.jsoft.magenta.util.validation.annotations.ValidName;
 import com.jsoft.magenta.util.validation.annotations.ValidPermission;
 import java.util.List;
@@ -62,6 +65,19 @@ public class ProjectController {
     this.projectService.createAssociation(userId, projectId, accessPermission);
   }
 
+  @PostMapping("{projectId}/associations")
+  @ResponseStatus(HttpStatus.CREATED)
+  @ProjectWritePermission
+  public void createAssociations(
+      @PathVariable Long projectId,
+      @RequestBody @Valid AssociationsRequest associationsRequest
+  ) {
+    AccessPermission accessPermission = AccessPermission
+        .valueOf(associationsRequest.getPermission().toUpperCase());
+    this.projectService
+        .createAssociations(projectId, associationsRequest.getUserIds(), accessPermission);
+  }
+
   @PutMapping
   @ProjectWritePermission
   public Project updateProject(@RequestBody @Valid Project project) {
@@ -98,6 +114,27 @@ public class ProjectController {
     return this.projectService.getAllProjects(pageIndex, pageSize, sortBy, asc);
   }
 
+  @GetMapping("seek")
+  public PageResponse<Project> seekAllProjects(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false, defaultValue = PAGE_SIZE) int pageSize,
+      @RequestParam(required = false, defaultValue = PROJECTS_DEFAULT_SORT) String sortBy,
+      @RequestParam(required = false, defaultValue = ASCENDING_SORT) boolean asc
+  ) {
+    return this.projectService.seekAllProjects(cursor, pageSize, sortBy, asc);
+  }
+
+  @GetMapping("slice")
+  public PageResponse<Project> sliceAllProjects(
+      @RequestParam(required = false, defaultValue = PAGE_INDEX) int pageIndex,
+      @RequestParam(required = false, defaultValue = PAGE_SIZE) int pageSize,
+      @RequestParam(required = false, defaultValue = PROJECTS_DEFAULT_SORT) String sortBy,
+      @RequestParam(required = false, defaultValue = ASCENDING_SORT) boolean asc,
+      @RequestParam(required = false, defaultValue = WITH_TOTAL) boolean withTotal
+  ) {
+    return this.projectService.sliceAllProjects(pageIndex, pageSize, sortBy, asc, withTotal);
+  }
+
   @GetMapping("search")
   public List<ProjectSearchResult> getAllProjectsResultsByNameExample(
       @RequestParam String nameExample,
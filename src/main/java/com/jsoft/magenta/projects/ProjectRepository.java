@@ -5,14 +5,14 @@ import com.jsoft.magenta.projects.domain.ProjectSearchResult;
 import com.jsoft.magenta.security.model.AccessPermission;
 import com.jsoft.magenta.subprojects.SubProject;
 import com.jsoft.magenta.subprojects.SubProjectSearchResult;
+import com.jsoft.magenta.util.pagination.SeekRepository;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface ProjectRepository extends JpaRepository<Project, Long> {
+public interface ProjectRepository extends SeekRepository<Project, Long> {
 
   boolean existsByAccountIdAndName(Long accountId, String projectName);
 
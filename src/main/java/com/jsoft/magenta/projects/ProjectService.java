@@ -6,9 +6,11 @@ import com.jsoft.magenta.events.accounts.AccountAssociationUpdateEvent;
 import com.jsoft.magenta.events.projects.ProjectAssociationCreationEvent;
 import com.jsoft.magenta.events.projects.ProjectAssociationRemovalEvent;
 import com.jsoft.magenta.events.projects.ProjectAssociationUpdateEvent;
+import com.jsoft.magenta.events.projects.ProjectAssociationsCreationEvent;
 import com.jsoft.magenta.events.projects.ProjectRelatedEntityEvent;
 import com.jsoft.magenta.events.subprojects.SubProjectAssociationCreationEvent;
 import com.jsoft.magenta.events.subprojects.SubProjectAssociationRemovalEvent;
+import com.jsoft.magenta.events.subprojects.SubProjectAssociationsCreationEvent;
 import com.jsoft.magenta.exceptions.AuthorizationException;
 import com.jsoft.magenta.exceptions.DuplicationException;
 import com.jsoft.magenta.exceptions.NoSuchElementException;
@@ -17,15 +19,26 @@ import com.jsoft.magenta.projects.domain.Project;
 import com.jsoft.magenta.projects.domain.ProjectAssociation;
 import com.jsoft.magenta.projects.domain.ProjectAssociationId;
 import com.jsoft.magenta.projects.domain.ProjectSearchResult;
+import com.jsoft.magenta.security.AccessDecisions;
 import com.jsoft.magenta.security.SecurityService;
+import com.jsoft.magenta.security.dao.AssociationBatchInserter;
+import com.jsoft.magenta.security.model.AccessEntityType;
 import com.jsoft.magenta.security.model.AccessPermission;
+import com.jsoft.magenta.security.model.EffectiveAccess;
+import com.jsoft.magenta.security.service.EffectiveAccessService;
 import com.jsoft.magenta.subprojects.SubProject;
 import com.jsoft.magenta.subprojects.SubProjectSearchResult;
 import com.jsoft.magenta.users.User;
 import com.jsoft.magenta.util.AppDefaults;
 import com.jsoft.magenta.util.pagination.PageRequestBuilder;
+import com.jsoft.magenta.util.pagination.PageResponse;
+import com.jsoft.magenta.util.pagination.PageTotals;
+import com.jsoft.magenta.util.pagination.SeekRequest;
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import javax.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
@@ -33,6 +46,8 @@ import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -44,6 +59,10 @@ public class ProjectService {
   private final ProjectAssociationRepository projectAssociationRepository;
   private final ApplicationEventPublisher eventPublisher;
   private final SecurityService securityService;
+  private final PageTotals pageTotals;
+  private final AccessDecisions accessDecisions;
+  private final EffectiveAccessService effectiveAccessService;
+  private final AssociationBatchInserter associationBatchInserter;
 
   public Project createProject(Long accountId,
       Project project) { // Validate if creator is admin or has write
@@ -77,6 +96,24 @@ public class ProjectService {
     ProjectAssociation projectAssociation = new ProjectAssociation(userId, projectId,
         accessPermission);
     this.projectAssociationRepository.save(projectAssociation);
+    this.effectiveAccessService.refresh(AccessEntityType.PROJECT, userId, projectId);
+  }
+
+  public void createAssociations(Long projectId, Set<Long> userIds,
+      AccessPermission accessPermission) { // Validate creator permission once for all users
+    validateProjectAssociationPermission(projectId);
+    isProjectExists(projectId);
+    if (accessPermission == AccessPermission.READ) {
+      throw new RedundantAssociationException(
+          "Read association with project while no sub project exist is redundant");
+    }
+    Set<Long> existingUserIds = this.projectAssociationRepository
+        .findUserIdsByProjectIdAndUserIdIn(projectId, userIds);
+    if (!existingUserIds.isEmpty()) {
+      throw new DuplicationException(String.format(
+          "Users %s are already associated with project", existingUserIds));
+    }
+    insertAssociations(projectId, userIds, accessPermission);
   }
 
   public Project updateProject(Project project) {
@@ -115,6 +152,7 @@ public class ProjectService {
     // Update association
     projectAssociation.setPermission(newPermission);
     this.projectAssociationRepository.save(projectAssociation);
+    this.effectiveAccessService.refresh(AccessEntityType.PROJECT, userId, projectId);
   }
 
   public Project getProject(Long projectId) { // Find project permission of caller
@@ -157,6 +195,29 @@ public class ProjectService {
     }
   }
 
+  public PageResponse<Project> seekAllProjects(String cursor, int pageSize, String sortBy,
+      boolean asc) {
+    Long userId = securityService.currentUserId();
+    SeekRequest<Project> seekRequest = PageRequestBuilder
+        .buildSeekRequest(cursor, pageSize, sortBy, asc);
+    Specification<Project> specification = visibleProjects(userId, getProjectPermission());
+    return seekRequest.toPageResponse(this.projectRepository.findAll(specification, seekRequest));
+  }
+
+  public PageResponse<Project> sliceAllProjects(int pageIndex, int pageSize, String sortBy,
+      boolean asc, boolean withTotal) {
+    Long userId = securityService.currentUserId();
+    AccessPermission accessPermission = getProjectPermission();
+    PageRequest pageRequest = PageRequestBuilder.buildPageRequest(pageIndex, pageSize, sortBy, asc);
+    Specification<Project> specification = visibleProjects(userId, accessPermission);
+    Slice<Project> slice = this.projectRepository.findSlice(specification, pageRequest);
+    Long total = specification == null ?
+        this.pageTotals.estimate(withTotal, Project.class, this.projectRepository::count) :
+        this.pageTotals.count(withTotal, "projects:" + userId + ":" + accessPermission,
+            () -> this.projectRepository.count(specification));
+    return new PageResponse<>(slice, total);
+  }
+
   public Page<Project> getAllProjectsByUserIdAndPermission(
       Long userId, AccessPermission accessPermission, int pageIndex, int pageSize, String sortBy,
       boolean asc) {
@@ -291,6 +352,7 @@ public class ProjectService {
       Long projectId) { // Validate if remover is admin or has write permission with project
     validateProjectAssociationPermission(projectId);
     removeAllAssociations(projectId);
+    this.effectiveAccessService.removeProject(projectId);
     this.projectRepository.deleteById(projectId);
   }
 
@@ -314,6 +376,19 @@ public class ProjectService {
     createAssociationIfNotExist(userId, projectId);
   }
 
+  @EventListener
+  public void handleSubProjectAssociationsCreationEvent(
+      SubProjectAssociationsCreationEvent associationsCreationEvent) { // Bulk form of the above
+    Long projectId = associationsCreationEvent.getPayload();
+    Set<Long> userIds = associationsCreationEvent.getAssociatedUserIds();
+    Set<Long> missingUserIds = new HashSet<>(userIds);
+    missingUserIds.removeAll(
+        this.projectAssociationRepository.findUserIdsByProjectIdAndUserIdIn(projectId, userIds));
+    if (!missingUserIds.isEmpty()) {
+      insertAssociations(projectId, missingUserIds, AccessPermission.READ);
+    }
+  }
+
   @EventListener
   public void handleSubProjectAssociationRemoval(
       SubProjectAssociationRemovalEvent associationRemovalEvent) {
@@ -366,13 +441,14 @@ public class ProjectService {
         this.eventPublisher.publishEvent(new ProjectAssociationRemovalEvent(project, userId));
         this.projectAssociationRepository // Perform association delete operation
             .delete(projectAssociation);
+        this.effectiveAccessService.refresh(AccessEntityType.PROJECT, userId,
+            projectAssociation.getId().getProjectId());
       }
     }
   }
 
   private void createAssociationIfNotExist(Long userId, Long projectId) {
-    boolean exists = this.projectAssociationRepository
-        .existsByUserIdAndProjectId(userId, projectId);
+    boolean exists = findAssociationPermission(userId, projectId).isPresent();
     if (!exists) {
       createReadAssociation(userId, projectId);
     }
@@ -384,7 +460,19 @@ public class ProjectService {
     Long accountId = findAccountId(projectId);
     this.eventPublisher.publishEvent(
         new ProjectAssociationCreationEvent(accountId, userId, AccessPermission.READ));
-    return this.projectAssociationRepository.save(projectAssociation);
+    ProjectAssociation savedAssociation = this.projectAssociationRepository
+        .save(projectAssociation);
+    this.effectiveAccessService.refresh(AccessEntityType.PROJECT, userId, projectId);
+    return savedAssociation;
+  }
+
+  private void insertAssociations(Long projectId, Set<Long> userIds,
+      AccessPermission accessPermission) { // Cascade account associations, then insert as a batch
+    Long accountId = findAccountId(projectId);
+    this.eventPublisher.publishEvent(
+        new ProjectAssociationsCreationEvent(accountId, userIds, accessPermission));
+    this.associationBatchInserter.insertProjectAssociations(projectId, userIds, accessPermission);
+    this.effectiveAccessService.refreshAll(AccessEntityType.PROJECT, projectId, userIds);
   }
 
   private void removeAssociationAfterValidation(Long userId,
@@ -397,6 +485,7 @@ public class ProjectService {
     }
     // TODO Complete
     this.projectAssociationRepository.deleteById(projectAssociationId);
+    this.effectiveAccessService.refresh(AccessEntityType.PROJECT, userId, projectId);
     Project project = findProject(projectId);
     // Check for association redundancy by publishing removal event
     this.eventPublisher.publishEvent(new ProjectAssociationRemovalEvent(project, userId));
@@ -409,7 +498,8 @@ public class ProjectService {
   }
 
   private void isProjectExists(Long projectId) {
-    boolean exists = this.projectRepository.existsById(projectId);
+    boolean exists = this.accessDecisions.decide(AccessDecisions.PROJECT, null, projectId,
+        () -> this.projectRepository.existsById(projectId));
     if (!exists) {
       throw new NoSuchElementException("Project not found");
     }
@@ -422,8 +512,7 @@ public class ProjectService {
   }
 
   private void isAssociationExists(Long userId, Long projectId) {
-    boolean exists = this.projectAssociationRepository
-        .existsByUserIdAndProjectId(userId, projectId);
+    boolean exists = findAssociationPermission(userId, projectId).isPresent();
     if (exists) {
       throw new DuplicationException("Association between user and project already exists");
     }
@@ -435,6 +524,21 @@ public class ProjectService {
     return new PageImpl<>(results.getContent(), pageRequest, results.getNumberOfElements());
   }
 
+  private Specification<Project> visibleProjects(Long userId,
+      AccessPermission accessPermission) { // Null when all are visible
+    switch (accessPermission) { // Same visibility as the offset listing
+      case READ:
+        return EffectiveAccess.grantedTo(userId, AccessEntityType.PROJECT, accessPermission,
+            false);
+      case MANAGE:
+      case WRITE:
+        return EffectiveAccess.grantedTo(userId, AccessEntityType.PROJECT,
+            AccessPermission.MANAGE, true);
+      default:
+        return null;
+    }
+  }
+
   private AccessPermission getProjectPermission() {
     User user = securityService.currentUser();
     return user.getProjectPermission();
@@ -442,15 +546,18 @@ public class ProjectService {
 
   private AccessPermission findProjectAssociation(Long projectId) {
     Long userId = securityService.currentUserId();
-    return this.projectAssociationRepository
-        .findAccessPermissionByUserIdAndProjectId(userId,
-            projectId) // Otherwise find if associated with
-        // account
-        .orElseThrow(() -> new AuthorizationException("User is not associated with project"));
+    return findProjectAssociationPermission(userId, projectId);
   }
 
   private AccessPermission findProjectAssociationPermission(Long userId, Long projectId) {
-    return findProjectAssociation(userId, projectId).getPermission();
+    return findAssociationPermission(userId, projectId)
+        .orElseThrow(() -> new AuthorizationException("User is not associated with project"));
+  }
+
+  private Optional<AccessPermission> findAssociationPermission(Long userId, Long projectId) {
+    return this.accessDecisions.decide(AccessDecisions.PROJECT, userId, projectId,
+        () -> this.projectAssociationRepository
+            .findAccessPermissionByUserIdAndProjectId(userId, projectId));
   }
 
   private ProjectAssociation findProjectAssociation(Long userId, Long projectId) {
@@ -3,6 +3,7 @@ package com.jsoft.magenta.projects.domain;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.jsoft.magenta.accounts.domain.Account;
 import com.jsoft.magenta.orders.domain.Order;
+import com.jsoft.magenta.security.AccessDecisionListener;
 import com.jsoft.magenta.subprojects.SubProject;
 import com.jsoft.magenta.util.validation.annotations.ValidName;
 import java.time.LocalDate;
@@ -10,6 +11,7 @@ import java.util.Set;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.ForeignKey;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -27,6 +29,7 @@ import lombok.NoArgsConstructor;
 
 @Data
 @Entity
+@EntityListeners(AccessDecisionListener.class)
 @Table(name = "projects")
 @NoArgsConstructor
 @AllArgsConstructor
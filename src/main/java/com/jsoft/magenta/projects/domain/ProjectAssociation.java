@@ -1,12 +1,14 @@
 package com.jsoft.magenta.projects.domain;
 
 
+import com.jsoft.magenta.security.AccessDecisionListener;
 import com.jsoft.magenta.security.model.AccessPermission;
 import com.jsoft.magenta.users.User;
 import java.io.Serializable;
 import javax.persistence.Column;
 import javax.persistence.EmbeddedId;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.ForeignKey;
@@ -20,6 +22,7 @@ import lombok.NoArgsConstructor;
 
 @Data
 @Entity
+@EntityListeners(AccessDecisionListener.class)
 @Table(name = "users_projects")
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,25 @@
+package com.jsoft.magenta.search;
+
+import static com.jsoft.magenta.util.AppDefaults.RESULTS_COUNT;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("${application.url}search")
+@RequiredArgsConstructor
+public class TypeAheadController {
+
+  private final TypeAheadService typeAheadService;
+
+  @GetMapping
+  public TypeAheadResults search(
+      @RequestParam String nameExample,
+      @RequestParam(required = false, defaultValue = RESULTS_COUNT) int resultsCount
+  ) {
+    return this.typeAheadService.search(nameExample, resultsCount);
+  }
+}
@@ -0,0 +1,56 @@
+package com.jsoft.magenta.search;
+
+import java.util.List;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds trigram GIN indexes on the upper cased searchable columns, which is exactly the expression
+ * the case insensitive containing queries filter by, so substring type-ahead stops scanning tables
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory") // Searched tables must exist first
+@RequiredArgsConstructor
+public class TypeAheadIndexInitializer {
+
+  private static final String TRIGRAM_EXTENSION = "create extension if not exists pg_trgm";
+  private static final String TRIGRAM_INDEX = "create index if not exists %s_trgm_index "
+      + "on %s using gin (upper(%s) gin_trgm_ops)";
+
+  private static final List<String[]> INDEXED_COLUMNS = List.of(
+      new String[]{"accounts", "account_name"},
+      new String[]{"projects", "project_name"},
+      new String[]{"sub_projects", "sp_name"},
+      new String[]{"contacts", "first_name"},
+      new String[]{"contacts", "last_name"},
+      new String[]{"contacts", "email"},
+      new String[]{"users", "first_name"},
+      new String[]{"users", "last_name"},
+      new String[]{"users", "email"}
+  );
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @PostConstruct
+  private void init() {
+    try { // Creating the extension may require privileges the application user lacks
+      this.jdbcTemplate.execute(TRIGRAM_EXTENSION);
+    } catch (DataAccessException e) {
+      log.warn("Trigram extension is unavailable, type-ahead search stays unindexed", e);
+      return;
+    }
+    for (String[] indexedColumn : INDEXED_COLUMNS) {
+      String table = indexedColumn[0];
+      String column = indexedColumn[1];
+      this.jdbcTemplate.execute(
+          String.format(TRIGRAM_INDEX, table + "_" + column, table, column));
+    }
+    log.info("Type-ahead trigram indexes are ready");
+  }
+}
@@ -0,0 +1,23 @@
+package com.jsoft.magenta.search;
+
+import com.jsoft.magenta.accounts.domain.AccountSearchResult;
+import com.jsoft.magenta.contacts.ContactSearchResult;
+import com.jsoft.magenta.projects.domain.ProjectSearchResult;
+import com.jsoft.magenta.subprojects.SubProjectSearchResult;
+import com.jsoft.magenta.users.UserSearchResult;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypeAheadResults {
+
+  private List<AccountSearchResult> accounts = List.of();
+  private List<ProjectSearchResult> projects = List.of();
+  private List<SubProjectSearchResult> subProjects = List.of();
+  private List<ContactSearchResult> contacts = List.of();
+  private List<UserSearchResult> users = List.of();
+}
@@ -0,0 +1,112 @@
+package com.jsoft.magenta.search;
+
+import com.jsoft.magenta.accounts.AccountRepository;
+import com.jsoft.magenta.accounts.domain.AccountSearchResult;
+import com.jsoft.magenta.contacts.ContactRepository;
+import com.jsoft.magenta.contacts.ContactSearchResult;
+import com.jsoft.magenta.projects.ProjectRepository;
+import com.jsoft.magenta.projects.domain.ProjectSearchResult;
+import com.jsoft.magenta.security.SecurityService;
+import com.jsoft.magenta.security.model.AccessPermission;
+import com.jsoft.magenta.security.model.PermissionName;
+import com.jsoft.magenta.subprojects.SubProjectRepository;
+import com.jsoft.magenta.subprojects.SubProjectSearchResult;
+import com.jsoft.magenta.users.User;
+import com.jsoft.magenta.users.UserRepository;
+import com.jsoft.magenta.users.UserSearchResult;
+import com.jsoft.magenta.util.AppDefaults;
+import com.jsoft.magenta.util.pagination.PageRequestBuilder;
+import java.util.List;
+import javax.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+/**
+ * Single type-ahead lookup over every searchable entity. Each entity is searched by one query that
+ * already joins the user associations, so only permitted rows are ever read from the index
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class TypeAheadService {
+
+  @Value("${application.search.type-ahead.min-length:3}")
+  private int minLength; // Trigram indexes cannot serve shorter examples
+
+  private final AccountRepository accountRepository;
+  private final ProjectRepository projectRepository;
+  private final SubProjectRepository subProjectRepository;
+  private final ContactRepository contactRepository;
+  private final UserRepository userRepository;
+  private final SecurityService securityService;
+
+  public TypeAheadResults search(String nameExample, int resultsCount) {
+    String example = nameExample == null ? "" : nameExample.trim();
+    if (example.length() < minLength) {
+      return new TypeAheadResults();
+    }
+    User user = securityService.currentUser();
+    return new TypeAheadResults(
+        searchAccounts(user, example, resultsCount),
+        searchProjects(user, example, resultsCount),
+        searchSubProjects(user, example, resultsCount),
+        searchContacts(user, example, resultsCount),
+        searchUsers(user, example, resultsCount));
+  }
+
+  private List<AccountSearchResult> searchAccounts(User user, String example, int resultsCount) {
+    PageRequest pageRequest = PageRequestBuilder.buildPageRequest(
+        0, resultsCount, AppDefaults.ACCOUNTS_DEFAULT_SORT, true);
+    if (user.isAccountAdmin()) {
+      return this.accountRepository.findAllResultsByNameContainingIgnoreCase(example, pageRequest);
+    }
+    return this.accountRepository.findAllResultsByAssociationsUserIdAndNameContainingIgnoreCase(
+        user.getId(), example, pageRequest);
+  }
+
+  private List<ProjectSearchResult> searchProjects(User user, String example, int resultsCount) {
+    PageRequest pageRequest = PageRequestBuilder.buildPageRequest(
+        0, resultsCount, AppDefaults.PROJECTS_DEFAULT_SORT, true);
+    if (user.getProjectPermission() == AccessPermission.ADMIN) {
+      return this.projectRepository.findAllResultsByNameContainingIgnoreCase(example, pageRequest);
+    } // Any association permission grants visibility
+    return this.projectRepository
+        .findAllResultsByAssociationsUserIdAndNameContainingIgnoreCaseAndAssociationsPermissionGreaterThanEqual(
+            user.getId(), example, AccessPermission.READ, pageRequest);
+  }
+
+  private List<SubProjectSearchResult> searchSubProjects(User user, String example,
+      int resultsCount) {
+    PageRequest pageRequest = PageRequestBuilder.buildPageRequest(
+        0, resultsCount, AppDefaults.PROJECTS_DEFAULT_SORT, true);
+    if (user.getProjectPermission() == AccessPermission.ADMIN) {
+      return this.subProjectRepository
+          .findAllResultsByNameContainingIgnoreCase(example, pageRequest);
+    } // Sub-projects are visible through their project associations
+    return this.subProjectRepository
+        .findAllResultsByProjectAssociationsUserIdAndNameContainingIgnoreCase(
+            user.getId(), example, pageRequest);
+  }
+
+  private List<ContactSearchResult> searchContacts(User user, String example, int resultsCount) {
+    PageRequest pageRequest = PageRequestBuilder.buildPageRequest(
+        0, resultsCount, AppDefaults.CONTACT_DEFAULT_SORT, true);
+    if (user.isAccountAdmin()) {
+      return this.contactRepository.findAllResultsByNameExample(example, pageRequest);
+    }
+    return this.contactRepository
+        .findAllResultsByAssociatedUserIdAndNameExample(user.getId(), example, pageRequest);
+  }
+
+  private List<UserSearchResult> searchUsers(User user, String example, int resultsCount) {
+    AccessPermission accessPermission = user.getPermission(PermissionName.USER);
+    if (accessPermission.getPermissionLevel() < AccessPermission.WRITE.getPermissionLevel()) {
+      return List.of(); // Same restriction as the users search endpoint
+    }
+    PageRequest pageRequest = PageRequestBuilder.buildPageRequest(
+        0, resultsCount, AppDefaults.USER_DEFAULT_SORT, true);
+    return this.userRepository.findAllByNameExample(example, pageRequest);
+  }
+}
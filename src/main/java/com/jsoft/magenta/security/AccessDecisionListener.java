@@ -0,0 +1,19 @@
+package com.jsoft.magenta.security;
+
+import javax.persistence.PostUpdate;
+import javax.persistence.PrePersist;
+import javax.persistence.PreRemove;
+
+/**
+ * Entity listener of access related entities, a change to one of them may change any decision
+ * memoized earlier in the request. Persist and remove are caught when requested, before the flush
+ */
+public class AccessDecisionListener {
+
+  @PrePersist
+  @PreRemove
+  @PostUpdate
+  public void onAccessChange(Object entity) {
+    AccessDecisions.invalidateCurrentRequest();
+  }
+}
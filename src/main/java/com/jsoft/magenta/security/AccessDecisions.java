@@ -0,0 +1,127 @@
+package com.jsoft.magenta.security;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.servlet.http.HttpServletResponse;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Memoizes association, permission and existence lookups for the life of the current request, so
+ * services and the synchronous entity events they publish query each decision once. Outside of a
+ * request lookups are not memoized. Any change to an access related entity clears the memo. The
+ * lookups of a request are reported in its response header, as queried and memoized counts
+ */
+@Slf4j
+@Component
+public class AccessDecisions {
+
+  public static final String ACCOUNT = "account";
+  public static final String PROJECT = "project";
+  public static final String SUB_PROJECT = "sub-project";
+  public static final String CONTACT = "contact";
+
+  public static final String RESPONSE_HEADER = "X-Access-Decisions";
+
+  private static final String ATTRIBUTE = AccessDecisions.class.getName();
+
+  private final AtomicLong memoizedLookups = new AtomicLong();
+  private final AtomicLong queriedLookups = new AtomicLong();
+
+  public <T> T decide(String entityType, Long userId, Long entityId, Supplier<T> lookup) {
+    RequestDecisions requestDecisions = currentDecisions();
+    if (requestDecisions == null) { // Not serving a request
+      return lookup.get();
+    }
+    DecisionKey decisionKey = new DecisionKey(entityType, userId, entityId);
+    @SuppressWarnings("unchecked")
+    T decision = (T) requestDecisions.decisions.get(decisionKey);
+    if (decision != null) {
+      requestDecisions.memoized++;
+      report(requestDecisions);
+      return decision;
+    }
+    decision = lookup.get(); // Failed lookups are not memoized
+    requestDecisions.queried++;
+    requestDecisions.decisions.put(decisionKey, decision);
+    report(requestDecisions);
+    return decision;
+  }
+
+  public static void invalidateCurrentRequest() {
+    RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+    if (requestAttributes != null) {
+      RequestDecisions requestDecisions = (RequestDecisions) requestAttributes
+          .getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+      if (requestDecisions != null) {
+        requestDecisions.decisions.clear();
+      }
+    }
+  }
+
+  public long getMemoizedLookups() {
+    return memoizedLookups.get();
+  }
+
+  public long getQueriedLookups() {
+    return queriedLookups.get();
+  }
+
+  private RequestDecisions currentDecisions() {
+    RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+    if (requestAttributes == null) {
+      return null;
+    }
+    RequestDecisions requestDecisions = (RequestDecisions) requestAttributes
+        .getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    if (requestDecisions == null) { // First decision of the request
+      RequestDecisions newDecisions = new RequestDecisions();
+      requestAttributes.setAttribute(ATTRIBUTE, newDecisions, RequestAttributes.SCOPE_REQUEST);
+      requestAttributes.registerDestructionCallback(ATTRIBUTE, () -> complete(newDecisions),
+          RequestAttributes.SCOPE_REQUEST);
+      requestDecisions = newDecisions;
+    }
+    return requestDecisions;
+  }
+
+  private void report(RequestDecisions requestDecisions) { // Decisions precede the response body
+    RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+    if (requestAttributes instanceof ServletRequestAttributes) {
+      HttpServletResponse response = ((ServletRequestAttributes) requestAttributes).getResponse();
+      if (response != null && !response.isCommitted()) {
+        response.setHeader(RESPONSE_HEADER, String.format("queried=%d, memoized=%d",
+            requestDecisions.queried, requestDecisions.memoized));
+      }
+    }
+  }
+
+  private void complete(RequestDecisions requestDecisions) {
+    this.memoizedLookups.addAndGet(requestDecisions.memoized);
+    this.queriedLookups.addAndGet(requestDecisions.queried);
+    log.debug(String.format("Access decisions of request: %d queried, %d served from memo",
+        requestDecisions.queried, requestDecisions.memoized));
+  }
+
+  private static final class RequestDecisions {
+
+    private final Map<DecisionKey, Object> decisions = new HashMap<>();
+    private int memoized;
+    private int queried;
+  }
+
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static final class DecisionKey {
+
+    private final String entityType;
+    private final Long userId;
+    private final Long entityId;
+  }
+}
@@ -5,6 +5,7 @@ import static com.jsoft.magenta.util.AppDefaults.PAGE_INDEX;
 import static com.jsoft.magenta.util.AppDefaults.PAGE_SIZE;
 import static com.jsoft.magenta.util.AppDefaults.PRIVILEGES_GROUP_DEFAULT_SORT;
 import static com.jsoft.magenta.util.AppDefaults.RESULTS_COUNT;
+import static com.jsoft.magenta.util.AppDefaults.WITH_TOTAL;
 
 import com.jsoft.magenta.security.annotations.users.UserWritePermission;
 import com.jsoft.magenta.security.jwt.JwtManager;
@@ -13,6 +14,7 @@ import com.jsoft.magenta.security.model.PrivilegesGroupSearchResult;
 import com.jsoft.magenta.security.service.AuthService;
 import com.jsoft.magenta.security.service.PrivilegesGroupService;
 import com.jsoft.magenta.users.User;
+import com.jsoft.magenta.util.pagination.PageResponse;
 import java.util.List;
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
@@ -95,6 +97,19 @@ public class AuthController {
     return this.privilegesGroupService.getAllPrivilegesGroups(pageIndex, pageSize, sortBy, asc);
   }
 
+  @GetMapping("pg/slice")
+  @UserWritePermission
+  public PageResponse<PrivilegesGroup> sliceAllPrivilegesGroups(
+      @RequestParam(required = false, defaultValue = PAGE_INDEX) int pageIndex,
+      @RequestParam(required = false, defaultValue = PAGE_SIZE) int pageSize,
+      @RequestParam(required = false, defaultValue = PRIVILEGES_GROUP_DEFAULT_SORT) String sortBy,
+      @RequestParam(required = false, defaultValue = ASCENDING_SORT) boolean asc,
+      @RequestParam(required = false, defaultValue = WITH_TOTAL) boolean withTotal
+  ) {
+    return this.privilegesGroupService
+        .sliceAllPrivilegesGroups(pageIndex, pageSize, sortBy, asc, withTotal);
+  }
+
   @GetMapping("pg/results")
   @UserWritePermission
   public List<PrivilegesGroupSearchResult> getAllPrivilegesGroupsResults(
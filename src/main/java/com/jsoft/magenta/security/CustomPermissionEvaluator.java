@@ -3,6 +3,8 @@ package com.jsoft.magenta.security;
 import com.jsoft.magenta.exceptions.UnsupportedPermissionLevelException;
 import com.jsoft.magenta.security.model.AccessPermission;
 import com.jsoft.magenta.security.model.CustomGrantedAuthority;
+import com.jsoft.magenta.security.model.PermissionName;
+import com.jsoft.magenta.security.model.UserPrincipal;
 import java.io.Serializable;
 import org.springframework.security.access.PermissionEvaluator;
 import org.springframework.security.core.Authentication;
@@ -16,17 +18,24 @@ public class CustomPermissionEvaluator implements PermissionEvaluator {
       Object permission) {
     if (authentication != null && (targetDomainObject instanceof String)
         && (permission instanceof String)) { // Valid input
-      String target = ((String) targetDomainObject).toLowerCase();
-      String permissionLevel = ((String) permission).toLowerCase();
+      String target = (String) targetDomainObject;
+      int permissionLevel = resolvePermission((String) permission);
+      PermissionName permissionName = PermissionName.of(target);
+      if (permissionName != null &&
+          authentication.getPrincipal() instanceof UserPrincipal) { // Answer from principal table
+        AccessPermission accessPermission = ((UserPrincipal) authentication.getPrincipal())
+            .getPermissionTable().getPermission(permissionName);
+        return accessPermission != null &&
+            accessPermission.getPermissionLevel() >= permissionLevel;
+      }
       // Search for valid permission
       return authentication.getAuthorities().stream() // Stream authorities
           .filter(
               privilege -> privilege instanceof CustomGrantedAuthority) // Check for compatibility
           .map(authority -> (CustomGrantedAuthority) authority) // Cast to CustomGrantedAuthority
           .anyMatch(authority -> // Look for matching permission with equal or greater level
-              authority.getAuthority().toLowerCase().equals(target) &&
-                  authority.getPrivilege().getLevel().getPermissionLevel() >= resolvePermission(
-                      permissionLevel));
+              authority.getAuthority().equalsIgnoreCase(target) &&
+                  authority.getPrivilege().getLevel().getPermissionLevel() >= permissionLevel);
     } // Invalid input
     return false;
   }
@@ -38,18 +47,10 @@ public class CustomPermissionEvaluator implements PermissionEvaluator {
   }
 
   private int resolvePermission(String permission) {
-    permission = permission.toUpperCase().trim();
-
-    if (permission.equals(AccessPermission.READ.name())) {
-      return 1;
-    } else if (permission.equals(AccessPermission.MANAGE.name())) {
-      return 2;
-    } else if (permission.equals(AccessPermission.WRITE.name())) {
-      return 3;
-    } else if (permission.equals(AccessPermission.ADMIN.name())) {
-      return 4;
-    } else {
+    AccessPermission accessPermission = AccessPermission.of(permission);
+    if (accessPermission == null) {
       throw new UnsupportedPermissionLevelException("Permission level specified is unsupported");
     }
+    return accessPermission.getPermissionLevel();
   }
 }
@@ -0,0 +1,29 @@
+package com.jsoft.magenta.security;
+
+import com.jsoft.magenta.security.service.EffectiveAccessService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class EffectiveAccessChecker {
+
+  private final EffectiveAccessService effectiveAccessService;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void performOnStartup() { // Also fills the table on its first deployment
+    performConsistencyCheckJob();
+  }
+
+  @Scheduled(cron = "${application.schedule.effective-access-job}")
+  public void performScheduled() {
+    performConsistencyCheckJob();
+  }
+
+  private void performConsistencyCheckJob() {
+    this.effectiveAccessService.verifyAndRepair();
+  }
+}
@@ -19,8 +19,8 @@ public class SecurityService {
    *
    * @return the current logged in user id
    */
-  public Long currentUserId() {
-    return currentUser().getId();
+  public Long currentUserId() { // Read from principal so stateless principals stay unhydrated
+    return currentPrincipal().getUserId();
   }
 
   public String currentUserName() {
@@ -28,20 +28,23 @@ public class SecurityService {
   }
 
   public String currentUserEmail() {
-    return currentUser().getEmail();
+    return currentPrincipal().getEmail();
   }
 
-  public User currentUser() { // Get authentication from security context holder
+  public User currentUser() {
+    User currentUser = currentPrincipal().getUser(); // Hydrates the user if not loaded yet
+    if (currentUser == null) // User without id initialized
+    {
+      throw new IllegalStateException("Uninitialized user in authentication");
+    }
+    return currentUser;
+  }
+
+  public UserPrincipal currentPrincipal() { // Get authentication from security context holder
     Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
     if (authentication != null && authentication
         .getPrincipal() instanceof UserPrincipal) { // Valid authentication and principal type
-      UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-      User currentUser = userPrincipal.getUser(); // Extract the user id from the principal
-      if (currentUser == null) // User without id initialized
-      {
-        throw new IllegalStateException("Uninitialized user in authentication");
-      }
-      return currentUser;
+      return (UserPrincipal) authentication.getPrincipal();
     } // Unsupported user principal in authentication or an empty authentication
     log.error(
         "Extraction of user from an unsupported user principal type in authentication" +
@@ -2,8 +2,9 @@ package com.jsoft.magenta.security.annotations;
 
 import com.jsoft.magenta.security.SecurityService;
 import com.jsoft.magenta.security.annotations.users.SupervisorOrOwner;
-import com.jsoft.magenta.users.User;
-import com.jsoft.magenta.util.AppConstants;
+import com.jsoft.magenta.security.model.PermissionName;
+import com.jsoft.magenta.security.model.UserPrincipal;
+import com.jsoft.magenta.users.SupervisionIndex;
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 import lombok.RequiredArgsConstructor;
@@ -12,17 +13,15 @@ import lombok.RequiredArgsConstructor;
 public class SupervisionValidator implements ConstraintValidator<SupervisorOrOwner, Long> {
 
   private final SecurityService securityService;
+  private final SupervisionIndex supervisionIndex;
 
   @Override
   public boolean isValid(Long userId, ConstraintValidatorContext constraintValidatorContext) {
-    User supervisor = securityService.currentUser();
-    boolean admin = supervisor.isAdminOf(AppConstants.USER_PERMISSION);
+    UserPrincipal supervisor = securityService.currentPrincipal();
+    boolean admin = supervisor.getPermissionTable().isAdminOf(PermissionName.USER);
     if (admin) {
       return true;
-    }
-    if (supervisor.getId().equals(userId)) {
-      return true;
-    }
-    return supervisor.isSupervisorOf(userId);
+    } // Id only membership check, supervised users are never loaded
+    return supervisionIndex.isSupervisorOrOwner(supervisor.getUserId(), userId);
   }
 }
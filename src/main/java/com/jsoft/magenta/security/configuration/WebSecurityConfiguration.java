@@ -1,8 +1,11 @@
 package com.jsoft.magenta.security.configuration;
 
+import com.jsoft.magenta.security.crypto.AdaptiveBCryptPasswordEncoder;
+import com.jsoft.magenta.security.crypto.OffloadedPasswordEncoder;
 import com.jsoft.magenta.security.jwt.CustomAuthenticationFilter;
 import com.jsoft.magenta.security.jwt.JwtFilter;
 import com.jsoft.magenta.security.jwt.JwtManager;
+import com.jsoft.magenta.security.service.CustomUserDetailsService;
 import com.jsoft.magenta.security.service.RefreshTokenService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,9 +18,6 @@ import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -30,6 +30,15 @@ public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
   @Value("${application.cors.allowed-origin}")
   private String allowedOrigin;
 
+  @Value("${application.security.bcrypt-strength:14}")
+  private int bcryptStrength;
+
+  @Value("${application.security.hashing.threads:0}")
+  private int hashingThreads;
+
+  @Value("${application.security.hashing.queue-capacity:100}")
+  private int hashingQueueCapacity;
+
   private static final String API_URL = "/magenta/v1/";
   private static final String LOGIN_URL = API_URL + "login";
   private static final String LOGOUT_URL = API_URL + "auth/logout";
@@ -37,7 +46,7 @@ public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
 
   private final JwtManager jwtManager;
   private final RefreshTokenService refreshTokenService;
-  private final UserDetailsService userDetailsService;
+  private final CustomUserDetailsService userDetailsService;
 
   @Override
   protected void configure(HttpSecurity http) throws Exception {
@@ -76,8 +85,10 @@ public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
   }
 
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder(14);
+  public OffloadedPasswordEncoder passwordEncoder() { // Default to one hashing thread per core
+    int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+    return new OffloadedPasswordEncoder(
+        new AdaptiveBCryptPasswordEncoder(bcryptStrength), threads, hashingQueueCapacity);
   }
 
   @Bean
@@ -85,6 +96,8 @@ public class WebSecurityConfiguration extends WebSecurityConfigurerAdapter {
     DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
     daoAuthenticationProvider.setUserDetailsService(userDetailsService);
     daoAuthenticationProvider.setPasswordEncoder(passwordEncoder());
+    // Rehash on successful login when the stored hash cost differs from the configured one
+    daoAuthenticationProvider.setUserDetailsPasswordService(userDetailsService);
     return daoAuthenticationProvider;
   }
 
@@ -0,0 +1,93 @@
+package com.jsoft.magenta.security.crypto;
+
+import com.jsoft.magenta.exceptions.PasswordHashingException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Runs password hashing on a dedicated bounded pool so that a burst of logins cannot occupy more
+ * cores than the pool size, and rejects work once the queue is full instead of piling up threads
+ */
+@Slf4j
+public class OffloadedPasswordEncoder implements PasswordEncoder {
+
+  private final PasswordEncoder delegate;
+  private final ThreadPoolExecutor executor;
+  private final AtomicLong rejectedCount = new AtomicLong();
+
+  public OffloadedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity) {
+    this.delegate = delegate;
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(
+        threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> { // Named daemon threads to tell hashing apart in thread dumps
+          Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return execute(() -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return execute(() -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword); // Cheap check, no need to offload
+  }
+
+  public int getQueueDepth() {
+    return executor.getQueue().size();
+  }
+
+  public int getActiveCount() {
+    return executor.getActiveCount();
+  }
+
+  public long getCompletedCount() {
+    return executor.getCompletedTaskCount();
+  }
+
+  public long getRejectedCount() {
+    return rejectedCount.get();
+  }
+
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  private <T> T execute(Callable<T> hashingTask) {
+    try {
+      return executor.submit(hashingTask).get();
+    } catch (RejectedExecutionException e) {
+      long rejected = rejectedCount.incrementAndGet();
+      log.warn(String.format("Password hashing rejected, queue depth %d, active %d, rejected %d",
+          getQueueDepth(), getActiveCount(), rejected));
+      throw new PasswordHashingException("Too many concurrent password operations");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PasswordHashingException("Password hashing was interrupted");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new PasswordHashingException("Error during password hashing");
+    }
+  }
+}
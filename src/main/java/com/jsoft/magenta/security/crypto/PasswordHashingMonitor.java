@@ -0,0 +1,39 @@
+package com.jsoft.magenta.security.crypto;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically logs the load of the password hashing pool, so saturation can be seen before logins
+ * start being rejected
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PasswordHashingMonitor {
+
+  private final OffloadedPasswordEncoder passwordEncoder;
+
+  private long reportedCompleted;
+  private long reportedRejected;
+
+  @Scheduled(fixedDelayString = "${application.security.hashing.report-interval-millis:60000}")
+  public void report() {
+    int queueDepth = this.passwordEncoder.getQueueDepth();
+    int active = this.passwordEncoder.getActiveCount();
+    long completed = this.passwordEncoder.getCompletedCount();
+    long rejected = this.passwordEncoder.getRejectedCount();
+    if (queueDepth == 0 && active == 0 && completed == reportedCompleted
+        && rejected == reportedRejected) {
+      return; // Idle since the last report
+    }
+    log.info(String.format(
+        "Password hashing queue depth %d, active %d, completed %d (+%d), rejected %d (+%d)",
+        queueDepth, active, completed, completed - reportedCompleted,
+        rejected, rejected - reportedRejected));
+    this.reportedCompleted = completed;
+    this.reportedRejected = rejected;
+  }
+}
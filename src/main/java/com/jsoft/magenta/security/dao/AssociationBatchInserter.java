@@ -0,0 +1,56 @@
+package com.jsoft.magenta.security.dao;
+
+import com.jsoft.magenta.security.AccessDecisions;
+import com.jsoft.magenta.security.model.AccessPermission;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Inserts many associations of a single entity as one JDBC batch. Runs inside the transaction of
+ * the calling service, which is responsible for validation and for skipping existing associations
+ */
+@Repository
+@RequiredArgsConstructor
+public class AssociationBatchInserter {
+
+  private static final String ACCOUNT_INSERT =
+      "INSERT INTO users_accounts (account_id, user_id, permission) VALUES (?, ?, ?)";
+  private static final String PROJECT_INSERT =
+      "INSERT INTO users_projects (project_id, user_id, permission) VALUES (?, ?, ?)";
+  private static final String SUB_PROJECT_INSERT =
+      "INSERT INTO users_sps (sp_id, user_id) VALUES (?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public void insertAccountAssociations(Long accountId, Collection<Long> userIds,
+      AccessPermission accessPermission) {
+    insert(ACCOUNT_INSERT, accountId, userIds, accessPermission);
+  }
+
+  public void insertProjectAssociations(Long projectId, Collection<Long> userIds,
+      AccessPermission accessPermission) {
+    insert(PROJECT_INSERT, projectId, userIds, accessPermission);
+  }
+
+  public void insertSubProjectAssociations(Long subProjectId, Collection<Long> userIds) {
+    insert(SUB_PROJECT_INSERT, subProjectId, userIds, null);
+  }
+
+  private void insert(String sql, Long entityId, Collection<Long> userIds,
+      AccessPermission accessPermission) {
+    if (userIds.isEmpty()) {
+      return;
+    }
+    List<Object[]> rows = new ArrayList<>(userIds.size());
+    for (Long userId : userIds) { // Permission is stored by ordinal as the entities map it
+      rows.add(accessPermission == null ? new Object[]{entityId, userId}
+          : new Object[]{entityId, userId, accessPermission.ordinal()});
+    }
+    this.jdbcTemplate.batchUpdate(sql, rows);
+    AccessDecisions.invalidateCurrentRequest(); // Bypasses the entity listeners
+  }
+}
@@ -0,0 +1,89 @@
+package com.jsoft.magenta.security.dao;
+
+import com.jsoft.magenta.security.model.EffectiveAccess;
+import com.jsoft.magenta.security.model.EffectiveAccessId;
+import java.util.Collection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface EffectiveAccessRepository extends
+    JpaRepository<EffectiveAccess, EffectiveAccessId> {
+
+  // Effective access as derived from the association tables
+  String SOURCE = "SELECT user_id, 'ACCOUNT' AS entity_type, account_id AS entity_id, "
+      + "permission AS level FROM users_accounts "
+      + "UNION ALL SELECT user_id, 'PROJECT', project_id, permission FROM users_projects "
+      + "UNION ALL SELECT user_id, 'SUB_PROJECT', sp_id, 0 FROM users_sps";
+
+  String COLUMNS = "user_id, entity_type, entity_id, level";
+
+  @Modifying(flushAutomatically = true)
+  @Query(value = "DELETE FROM user_effective_access WHERE user_id = :userId "
+      + "AND entity_type = :entityType AND entity_id = :entityId", nativeQuery = true)
+  void deleteEntry(@Param("userId") Long userId, @Param("entityType") String entityType,
+      @Param("entityId") Long entityId);
+
+  @Modifying(flushAutomatically = true)
+  @Query(value = "INSERT INTO user_effective_access (" + COLUMNS + ") SELECT " + COLUMNS
+      + " FROM (" + SOURCE + ") source WHERE user_id = :userId "
+      + "AND entity_type = :entityType AND entity_id = :entityId", nativeQuery = true)
+  void insertEntry(@Param("userId") Long userId, @Param("entityType") String entityType,
+      @Param("entityId") Long entityId);
+
+  @Modifying(flushAutomatically = true)
+  @Query(value = "DELETE FROM user_effective_access WHERE user_id IN (:userIds) "
+      + "AND entity_type = :entityType AND entity_id = :entityId", nativeQuery = true)
+  void deleteEntries(@Param("userIds") Collection<Long> userIds,
+      @Param("entityType") String entityType, @Param("entityId") Long entityId);
+
+  @Modifying(flushAutomatically = true)
+  @Query(value = "INSERT INTO user_effective_access (" + COLUMNS + ") SELECT " + COLUMNS
+      + " FROM (" + SOURCE + ") source WHERE user_id IN (:userIds) "
+      + "AND entity_type = :entityType AND entity_id = :entityId", nativeQuery = true)
+  void insertEntries(@Param("userIds") Collection<Long> userIds,
+      @Param("entityType") String entityType, @Param("entityId") Long entityId);
+
+  @Modifying(flushAutomatically = true)
+  @Query(value = "DELETE FROM user_effective_access WHERE user_id = :userId", nativeQuery = true)
+  void deleteAllOfUser(@Param("userId") Long userId);
+
+  @Modifying(flushAutomatically = true)
+  @Query(value = "DELETE FROM user_effective_access "
+      + "WHERE (entity_type = 'ACCOUNT' AND entity_id = :accountId) "
+      + "OR (entity_type = 'PROJECT' AND entity_id IN "
+      + "(SELECT project_id FROM projects WHERE account_id = :accountId)) "
+      + "OR (entity_type = 'SUB_PROJECT' AND entity_id IN (SELECT sp.sp_id FROM sub_projects sp "
+      + "JOIN projects p ON p.project_id = sp.project_id WHERE p.account_id = :accountId))",
+      nativeQuery = true)
+  void deleteAllOfAccount(@Param("accountId") Long accountId);
+
+  @Modifying(flushAutomatically = true)
+  @Query(value = "DELETE FROM user_effective_access "
+      + "WHERE (entity_type = 'PROJECT' AND entity_id = :projectId) "
+      + "OR (entity_type = 'SUB_PROJECT' AND entity_id IN "
+      + "(SELECT sp_id FROM sub_projects WHERE project_id = :projectId))", nativeQuery = true)
+  void deleteAllOfProject(@Param("projectId") Long projectId);
+
+  @Modifying(flushAutomatically = true)
+  @Query(value = "DELETE FROM user_effective_access "
+      + "WHERE entity_type = 'SUB_PROJECT' AND entity_id = :subProjectId", nativeQuery = true)
+  void deleteAllOfSubProject(@Param("subProjectId") Long subProjectId);
+
+  @Modifying(flushAutomatically = true)
+  @Query(value = "DELETE FROM user_effective_access", nativeQuery = true)
+  void deleteAllEntries();
+
+  @Modifying(flushAutomatically = true)
+  @Query(value = "INSERT INTO user_effective_access (" + COLUMNS + ") SELECT " + COLUMNS
+      + " FROM (" + SOURCE + ") source", nativeQuery = true)
+  int insertAllEntries();
+
+  @Query(value = "SELECT count(*) FROM ("
+      + "(SELECT " + COLUMNS + " FROM (" + SOURCE + ") source "
+      + "EXCEPT SELECT " + COLUMNS + " FROM user_effective_access) "
+      + "UNION ALL (SELECT " + COLUMNS + " FROM user_effective_access "
+      + "EXCEPT SELECT " + COLUMNS + " FROM (" + SOURCE + ") source)) drift", nativeQuery = true)
+  long countDrift();
+}
@@ -2,11 +2,11 @@ package com.jsoft.magenta.security.dao;
 
 import com.jsoft.magenta.security.model.PrivilegesGroup;
 import com.jsoft.magenta.security.model.PrivilegesGroupSearchResult;
+import com.jsoft.magenta.util.pagination.SeekRepository;
 import java.util.List;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface PrivilegesGroupRepository extends JpaRepository<PrivilegesGroup, Long> {
+public interface PrivilegesGroupRepository extends SeekRepository<PrivilegesGroup, Long> {
 
   boolean existsByName(String name);
 
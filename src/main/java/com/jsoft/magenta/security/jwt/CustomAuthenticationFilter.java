@@ -2,9 +2,8 @@ package com.jsoft.magenta.security.jwt;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jsoft.magenta.exceptions.MagentaException;
-import com.jsoft.magenta.security.model.CustomGrantedAuthority;
+import com.jsoft.magenta.exceptions.PasswordHashingException;
 import com.jsoft.magenta.security.model.LoginResponse;
-import com.jsoft.magenta.security.model.Privilege;
 import com.jsoft.magenta.security.model.UserPrincipal;
 import com.jsoft.magenta.security.payload.UsernamePasswordRequest;
 import com.jsoft.magenta.security.service.RefreshTokenService;
@@ -13,8 +12,6 @@ import com.jsoft.magenta.util.AppConstants;
 import com.jsoft.magenta.util.StringUtils;
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.Set;
-import java.util.stream.Collectors;
 import javax.servlet.FilterChain;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -53,7 +50,16 @@ public class CustomAuthenticationFilter extends UsernamePasswordAuthenticationFi
           "Exception while trying to access request input stream with message: %s",
           e.getMessage()));
       throw new RuntimeException("Could not access request data");
+    } catch (PasswordHashingException e) { // Hashing pool is saturated, login may be retried
+      writeErrorResponse(response, e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+      log.debug("User login rejected due to password hashing load");
+      return null;
     } catch (AuthenticationException e) {
+      if (e.getCause() instanceof PasswordHashingException) { // Wrapped during user retrieval
+        writeErrorResponse(response, e.getCause().getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+        log.debug("User login rejected due to password hashing load");
+        return null;
+      }
       unsuccessfulAuthentication(request, response, e);
       log.debug("Failed user login attempt");
       return null;
@@ -64,11 +70,6 @@ public class CustomAuthenticationFilter extends UsernamePasswordAuthenticationFi
   protected void successfulAuthentication(
       HttpServletRequest request, HttpServletResponse response,
       FilterChain chain, Authentication authResult) {
-    Set<Privilege> privileges = authResult.getAuthorities()
-        .stream() // Extract privileges from authentication result
-        .filter(grantedAuthority -> grantedAuthority instanceof CustomGrantedAuthority)
-        .map(grantedAuthority -> ((CustomGrantedAuthority) grantedAuthority).getPrivilege())
-        .collect(Collectors.toSet());
     // Gets user data from auth result
     Object principal = authResult.getPrincipal();
     UserPrincipal userPrincipal = null;
@@ -77,7 +78,7 @@ public class CustomAuthenticationFilter extends UsernamePasswordAuthenticationFi
     }
     User user = userPrincipal.getUser();
     String userName = authResult.getName();
-    String token = jwtManager.createToken(userName, privileges); // Create token with privileges
+    String token = jwtManager.createToken(userPrincipal); // Create token with user claims
     String refreshToken = refreshTokenService.createRefreshToken(userName);
     // Create login response with user, jwt and refresh token
     LoginResponse loginResponse = new LoginResponse(user, token, refreshToken);
@@ -96,11 +97,16 @@ public class CustomAuthenticationFilter extends UsernamePasswordAuthenticationFi
   protected void unsuccessfulAuthentication(
       HttpServletRequest request, HttpServletResponse response,
       AuthenticationException failed) {
+    writeErrorResponse(response, AppConstants.INVALID_CREDENTIALS, HttpStatus.FORBIDDEN);
+  }
+
+  private void writeErrorResponse(
+      HttpServletResponse response, String message, HttpStatus httpStatus) {
     MagentaException magentaException = new MagentaException(
-        AppConstants.INVALID_CREDENTIALS, HttpStatus.FORBIDDEN, LocalDateTime.now());
+        message, httpStatus, LocalDateTime.now());
     String responseBody = StringUtils.asJsonString(magentaException);
     try {
-      response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+      response.setStatus(httpStatus.value());
       response.getWriter().write(responseBody);
     } catch (IOException e) {
       handleIoException();
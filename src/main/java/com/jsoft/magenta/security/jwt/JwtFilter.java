@@ -2,6 +2,7 @@ package com.jsoft.magenta.security.jwt;
 
 import com.google.common.base.Strings;
 import com.jsoft.magenta.util.AppConstants;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import java.io.IOException;
 import javax.servlet.FilterChain;
@@ -39,10 +40,10 @@ public class JwtFilter extends OncePerRequestFilter {
     String token = authHeader.replace(jwtManager.getTokenPrefix(), "");
 
     try {
-      if (!Strings.isNullOrEmpty(token) && jwtManager
-          .validateToken(token)) { // Token is valid - extract
-        // authentication from it
-        Authentication authentication = jwtManager.getAuthentication(token);
+      if (!Strings.isNullOrEmpty(token)) { // Parse and verify the token once, then extract
+        // authentication from its claims
+        Claims claims = jwtManager.parseClaims(token);
+        Authentication authentication = jwtManager.getAuthentication(claims);
         // initialize security context holder with extracted authentications
         SecurityContext context = SecurityContextHolder.createEmptyContext();
         context.setAuthentication(authentication);
@@ -1,12 +1,15 @@
 package com.jsoft.magenta.security.jwt;
 
+import com.jsoft.magenta.security.model.AccessPermission;
 import com.jsoft.magenta.security.model.CustomGrantedAuthority;
 import com.jsoft.magenta.security.model.Privilege;
+import com.jsoft.magenta.security.model.UserPrincipal;
 import com.jsoft.magenta.security.service.CustomUserDetailsService;
 import com.jsoft.magenta.util.AppConstants;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -22,7 +25,10 @@ import java.security.PublicKey;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.CertificateException;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
@@ -31,7 +37,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -39,7 +44,14 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class JwtManager {
 
-  private KeyStore keyStore;
+  private static final String AUTHORITIES_CLAIM = "auth";
+  private static final String USER_ID_CLAIM = "uid";
+  private static final String SUPERVISED_IDS_CLAIM = "sup";
+  private static final String PRIVILEGE_FIELD = "privilege";
+
+  private PrivateKey privateKey;
+  private PublicKey publicKey;
+  private JwtParser jwtParser;
 
   @Value("${application.jwt.secret}")
   private String tokenSecret;
@@ -50,10 +62,15 @@ public class JwtManager {
   @Value("${application.jwt.expiration-length:1}")
   private int tokenExpirationLengthInMinutes;
 
+  @Value("${application.jwt.stateless:false}")
+  private boolean stateless;
+
+  private final PrincipalCache principalCache;
   private final CustomUserDetailsService userDetailsService;
 
   @PostConstruct
   private void init() {
+    KeyStore keyStore = null;
     try { // Load keystore from keystore file
       keyStore = KeyStore.getInstance("JKS");
       InputStream inputStream = getClass().getResourceAsStream("/magenta.jks");
@@ -61,15 +78,24 @@ public class JwtManager {
     } catch (KeyStoreException | CertificateException | NoSuchAlgorithmException | IOException e) {
       log.error(AppConstants.SECURITY_MESSAGE);
     }
+    // Resolve the key pair once and reuse a single verifier for every token
+    this.privateKey = getPrivateKey(keyStore);
+    this.publicKey = getPublicKey(keyStore);
+    this.jwtParser = Jwts.parser().setSigningKey(publicKey);
   }
 
-  public String createToken(String email, Set<Privilege> privileges) {
-    Claims claims = Jwts.claims().setSubject(email); // Set user email as token subject
-    Set<CustomGrantedAuthority> grantedAuthorities = privileges
+  public String createToken(UserPrincipal userPrincipal) {
+    Claims claims = Jwts.claims()
+        .setSubject(userPrincipal.getEmail()); // Set user email as token subject
+    Set<CustomGrantedAuthority> grantedAuthorities = userPrincipal.getPrivileges()
         .stream() // Create authorities from privileges
         .map(privilege -> new CustomGrantedAuthority(privilege))
         .collect(Collectors.toSet());
-    claims.put("auth", grantedAuthorities); // Set authorities to claims
+    claims.put(AUTHORITIES_CLAIM, grantedAuthorities); // Set authorities to claims
+    claims.put(USER_ID_CLAIM, userPrincipal.getUserId());
+    if (userPrincipal.getSupervisedIds() != null) {
+      claims.put(SUPERVISED_IDS_CLAIM, userPrincipal.getSupervisedIds());
+    }
 
     Date issuedAt = Date.from(Instant.now());
     Date expirationDate = Date.from(
@@ -79,27 +105,61 @@ public class JwtManager {
         .addClaims(claims)
         .setIssuedAt(issuedAt)
         .setExpiration(expirationDate)
-        .signWith(SignatureAlgorithm.RS512, getPrivateKey())
+        .signWith(SignatureAlgorithm.RS512, privateKey)
         .compact();
   }
 
-  public Authentication getAuthentication(String token) {
-    UserDetails userDetails = userDetailsService.loadUserByUsername(getUsername(token));
-    return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+  public Authentication getAuthentication(Claims claims) {
+    UserPrincipal userPrincipal = stateless && claims.get(USER_ID_CLAIM) != null ?
+        createPrincipal(claims) : // Build principal from claims without any database lookup
+        principalCache.getPrincipal(claims.getSubject(), claims.getIssuedAt());
+    return new UsernamePasswordAuthenticationToken(
+        userPrincipal, null, userPrincipal.getAuthorities());
   }
 
-  private String getUsername(String token) {
-    return Jwts.parser()
-        .setSigningKey(getPublicKey())
-        .parseClaimsJws(token)
-        .getBody()
-        .getSubject();
+  private UserPrincipal createPrincipal(Claims claims) {
+    Long userId = ((Number) claims.get(USER_ID_CLAIM)).longValue();
+    Set<Privilege> privileges = extractPrivileges(claims.get(AUTHORITIES_CLAIM, List.class));
+    Set<Long> supervisedIds = extractIds(claims.get(SUPERVISED_IDS_CLAIM, List.class));
+    // Full user is fetched only if a service asks the principal for it
+    return new UserPrincipal(userId, claims.getSubject(), privileges, supervisedIds,
+        () -> userDetailsService.loadUserById(userId));
+  }
+
+  private Set<Privilege> extractPrivileges(List<?> authorities) {
+    if (authorities == null) {
+      return Collections.emptySet();
+    }
+    return authorities.stream() // Each authority holds its privilege as a nested map
+        .filter(authority -> authority instanceof Map<?, ?>)
+        .map(authority -> ((Map<?, ?>) authority).get(PRIVILEGE_FIELD))
+        .filter(privilege -> privilege instanceof Map<?, ?>)
+        .map(privilege -> {
+          Map<?, ?> privilegeFields = (Map<?, ?>) privilege;
+          Privilege extracted = new Privilege();
+          extracted.setId(((Number) privilegeFields.get("id")).longValue());
+          extracted.setName((String) privilegeFields.get("name"));
+          extracted.setLevel(AccessPermission.valueOf((String) privilegeFields.get("level")));
+          return extracted;
+        })
+        .collect(Collectors.toSet());
+  }
+
+  private Set<Long> extractIds(List<?> ids) {
+    if (ids == null) {
+      return null; // Supervised ids were not written into the token
+    }
+    return ids.stream()
+        .filter(id -> id instanceof Number)
+        .map(id -> ((Number) id).longValue())
+        .collect(Collectors.toSet());
   }
 
-  public boolean validateToken(String token) {
+  public Claims parseClaims(String token) { // Verify signature and expiration once and keep claims
     try {
-      Jwts.parser().setSigningKey(getPublicKey()).parseClaimsJws(token);
-      return true;
+      return jwtParser
+          .parseClaimsJws(token)
+          .getBody();
     } catch (ExpiredJwtException |
         UnsupportedJwtException |
         MalformedJwtException |
@@ -113,7 +173,7 @@ public class JwtManager {
     return tokenPrefix;
   }
 
-  private PrivateKey getPrivateKey() {
+  private PrivateKey getPrivateKey(KeyStore keyStore) {
     try {
       return (PrivateKey) keyStore.getKey(AppConstants.ALIAS, tokenSecret.toCharArray());
     } catch (KeyStoreException | NoSuchAlgorithmException | UnrecoverableKeyException e) {
@@ -122,7 +182,7 @@ public class JwtManager {
     throw new IllegalStateException("An uncaught exception was raised during keystore operation");
   }
 
-  private PublicKey getPublicKey() {
+  private PublicKey getPublicKey(KeyStore keyStore) {
     try {
       return keyStore.getCertificate(AppConstants.ALIAS).getPublicKey();
     } catch (KeyStoreException e) {
@@ -0,0 +1,127 @@
+package com.jsoft.magenta.security.jwt;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.jsoft.magenta.events.users.PrivilegesUpdateEvent;
+import com.jsoft.magenta.events.users.UserSecurityUpdateEvent;
+import com.jsoft.magenta.security.model.PermissionTable;
+import com.jsoft.magenta.security.model.Privilege;
+import com.jsoft.magenta.security.model.UserPrincipal;
+import com.jsoft.magenta.security.service.CustomUserDetailsService;
+import com.jsoft.magenta.users.User;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Bounded, expiring cache of authenticated principals keyed by token subject and issue time, so
+ * that requests carrying the same token do not reload the user from the database. Only an
+ * immutable snapshot is shared between requests, each request loads its own user when needed
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PrincipalCache {
+
+  @Value("${application.jwt.principal-cache.max-size:10000}")
+  private long maxSize;
+
+  @Value("${application.jwt.expiration-length:1}")
+  private int expirationLengthInMinutes;
+
+  private final CustomUserDetailsService userDetailsService;
+
+  private Cache<PrincipalKey, PrincipalSnapshot> principals;
+
+  @PostConstruct
+  private void init() { // Cached principals never outlive the tokens they were built for
+    this.principals = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(expirationLengthInMinutes, TimeUnit.MINUTES)
+        .build();
+  }
+
+  public UserPrincipal getPrincipal(String email, Date issuedAt) {
+    PrincipalKey principalKey = new PrincipalKey(email, issuedAt != null ? issuedAt.getTime() : 0);
+    try { // Load the user only on cache miss
+      PrincipalSnapshot snapshot = this.principals.get(principalKey, () -> PrincipalSnapshot
+          .of((UserPrincipal) userDetailsService.loadUserByUsername(email)));
+      return snapshot.toPrincipal(() -> userDetailsService.loadUserById(snapshot.userId));
+    } catch (ExecutionException | UncheckedExecutionException e) { // Rethrow loader failure as is
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException("Failure during principal loading", e.getCause());
+    }
+  }
+
+  public void evictUser(Long userId) {
+    this.principals.asMap().values()
+        .removeIf(snapshot -> userId.equals(snapshot.userId));
+  }
+
+  public void evictAll() {
+    this.principals.invalidateAll();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void handleUserSecurityUpdateEvent(UserSecurityUpdateEvent securityUpdateEvent) {
+    Long userId = securityUpdateEvent.getPayload(); // Evict only after the change is committed
+    evictUser(userId);
+    log.debug(String.format("Cached principals of user %d were evicted", userId));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void handlePrivilegesUpdateEvent(PrivilegesUpdateEvent privilegesUpdateEvent) {
+    evictAll(); // Privileges may be shared by any user
+    log.debug("All cached principals were evicted due to privileges update");
+  }
+
+  @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+  private static final class PrincipalSnapshot {
+
+    private final Long userId;
+    private final String email;
+    private final Set<Privilege> privileges;
+    private final Set<Long> supervisedIds;
+    private final PermissionTable permissionTable;
+    private final boolean enabled;
+
+    private static PrincipalSnapshot of(UserPrincipal userPrincipal) {
+      Set<Privilege> privileges = userPrincipal.getPrivileges().stream() // Detached copies
+          .map(privilege -> new Privilege(privilege.getId(), privilege.getName(),
+              privilege.getLevel(), null, null))
+          .collect(Collectors.toUnmodifiableSet());
+      Set<Long> supervisedIds = userPrincipal.getSupervisedIds() != null
+          ? Set.copyOf(userPrincipal.getSupervisedIds()) : null;
+      return new PrincipalSnapshot(userPrincipal.getUserId(), userPrincipal.getEmail(),
+          privileges, supervisedIds, userPrincipal.getPermissionTable(),
+          userPrincipal.isEnabled());
+    }
+
+    private UserPrincipal toPrincipal(Supplier<User> userLoader) {
+      return new UserPrincipal(userId, email, privileges, supervisedIds, permissionTable, enabled,
+          userLoader);
+    }
+  }
+
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static final class PrincipalKey {
+
+    private final String subject;
+    private final long issuedAt;
+  }
+}
@@ -0,0 +1,7 @@
+package com.jsoft.magenta.security.model;
+
+public enum AccessEntityType {
+  ACCOUNT,
+  PROJECT,
+  SUB_PROJECT
+}
@@ -11,5 +11,17 @@ public enum AccessPermission {
   WRITE(3),
   ADMIN(4);
 
+  private static final AccessPermission[] PERMISSIONS = values();
+
   private final int permissionLevel;
+
+  public static AccessPermission of(String name) { // Case insensitive lookup without allocation
+    String trimmedName = name.trim();
+    for (AccessPermission accessPermission : PERMISSIONS) {
+      if (accessPermission.name().equalsIgnoreCase(trimmedName)) {
+        return accessPermission;
+      }
+    }
+    return null;
+  }
 }
@@ -0,0 +1,55 @@
+package com.jsoft.magenta.security.model;
+
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Denormalized access of a user to a single account, project or sub-project, maintained from the
+ * association tables in the same transaction that changes them. Sub-project membership carries no
+ * permission of its own and is kept with READ level
+ */
+@Data
+@Entity
+@Table(
+    name = "user_effective_access",
+    indexes = @Index(
+        name = "effective_access_lookup",
+        columnList = "user_id, entity_type, level, entity_id"
+    )
+)
+@NoArgsConstructor
+@AllArgsConstructor
+public class EffectiveAccess {
+
+  @EmbeddedId
+  private EffectiveAccessId id;
+
+  @Column(name = "level", nullable = false)
+  @Enumerated(EnumType.ORDINAL)
+  private AccessPermission level;
+
+  public static <T> Specification<T> grantedTo(Long userId, AccessEntityType entityType,
+      AccessPermission minLevel, boolean orGreater) {
+    return (root, query, builder) -> { // Entity ids come from a single lookup index range
+      Subquery<Long> granted = query.subquery(Long.class);
+      Root<EffectiveAccess> access = granted.from(EffectiveAccess.class);
+      granted.select(access.get("id").get("entityId")).where(
+          builder.equal(access.get("id").get("userId"), userId),
+          builder.equal(access.get("id").get("entityType"), entityType),
+          orGreater ? builder.greaterThanOrEqualTo(access.<AccessPermission>get("level"), minLevel)
+              : builder.equal(access.get("level"), minLevel));
+      return root.get("id").in(granted);
+    };
+  }
+}
@@ -0,0 +1,29 @@
+package com.jsoft.magenta.security.model;
+
+import java.io.Serializable;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class EffectiveAccessId implements Serializable {
+
+  @Column(name = "user_id")
+  private Long userId;
+
+  @Column(name = "entity_type", length = 20)
+  @Enumerated(EnumType.STRING)
+  private AccessEntityType entityType;
+
+  @Column(name = "entity_id")
+  private Long entityId;
+}
@@ -0,0 +1,35 @@
+package com.jsoft.magenta.security.model;
+
+import com.jsoft.magenta.util.AppConstants;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum PermissionName {
+  ACCOUNT(AppConstants.ACCOUNT_PERMISSION),
+  PROJECT(AppConstants.PROJECT_PERMISSION),
+  POST(AppConstants.POST_PERMISSION),
+  USER(AppConstants.USER_PERMISSION),
+  CONFIG(AppConstants.CONFIG_PERMISSION);
+
+  private static final PermissionName[] NAMES = values();
+
+  private final String name;
+
+  public static PermissionName of(String name) { // Case insensitive lookup without allocation
+    if (name == null) {
+      return null;
+    }
+    for (PermissionName permissionName : NAMES) {
+      if (permissionName.name.equalsIgnoreCase(name)) {
+        return permissionName;
+      }
+    }
+    return null;
+  }
+
+  static int count() {
+    return NAMES.length;
+  }
+}
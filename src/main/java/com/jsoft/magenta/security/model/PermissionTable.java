@@ -0,0 +1,54 @@
+package com.jsoft.magenta.security.model;
+
+import java.util.Collection;
+
+/**
+ * Highest access level per permission name, indexed by {@link PermissionName} ordinal so that
+ * permission questions are answered by a single array read
+ */
+public final class PermissionTable {
+
+  private final AccessPermission[] permissions = new AccessPermission[PermissionName.count()];
+
+  private PermissionTable() {
+  }
+
+  public static PermissionTable of(Collection<Privilege> privileges) {
+    PermissionTable permissionTable = new PermissionTable();
+    if (privileges == null) {
+      return permissionTable;
+    }
+    for (Privilege privilege : privileges) { // Keep the highest level of each known name
+      PermissionName permissionName = PermissionName.of(privilege.getName());
+      AccessPermission level = privilege.getLevel();
+      if (permissionName == null || level == null) {
+        continue;
+      }
+      AccessPermission current = permissionTable.permissions[permissionName.ordinal()];
+      if (current == null || current.getPermissionLevel() < level.getPermissionLevel()) {
+        permissionTable.permissions[permissionName.ordinal()] = level;
+      }
+    }
+    return permissionTable;
+  }
+
+  public AccessPermission getPermission(PermissionName permissionName) {
+    return permissions[permissionName.ordinal()];
+  }
+
+  public AccessPermission getPermission(PermissionName permissionName,
+      AccessPermission defaultPermission) {
+    AccessPermission accessPermission = permissions[permissionName.ordinal()];
+    return accessPermission != null ? accessPermission : defaultPermission;
+  }
+
+  public boolean hasPermission(PermissionName permissionName, AccessPermission required) {
+    AccessPermission accessPermission = permissions[permissionName.ordinal()];
+    return accessPermission != null &&
+        accessPermission.getPermissionLevel() >= required.getPermissionLevel();
+  }
+
+  public boolean isAdminOf(PermissionName permissionName) {
+    return permissions[permissionName.ordinal()] == AccessPermission.ADMIN;
+  }
+}
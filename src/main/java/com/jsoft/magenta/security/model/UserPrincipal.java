@@ -3,25 +3,73 @@ package com.jsoft.magenta.security.model;
 import com.jsoft.magenta.users.User;
 import java.util.Collection;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 @Getter
-@RequiredArgsConstructor
 public class UserPrincipal implements UserDetails {
 
-  private final User user;
+  private final Long userId;
+  private final String email;
+  private final Set<Privilege> privileges;
+  private final Set<Long> supervisedIds;
+  private final boolean enabled;
+  private final PermissionTable permissionTable;
+  @Getter(AccessLevel.NONE)
+  private final Supplier<User> userLoader;
+  private User user;
 
-  public Long getUserId() {
-    return user.getId();
+  public UserPrincipal(User user) {
+    this(user, null);
+  }
+
+  public UserPrincipal(User user, Set<Long> supervisedIds) {
+    this.userId = user.getId();
+    this.email = user.getEmail();
+    this.privileges = user.getPrivileges();
+    this.supervisedIds = supervisedIds;
+    this.enabled = user.isEnabled();
+    this.permissionTable = PermissionTable.of(privileges);
+    this.userLoader = () -> user;
+    this.user = user;
+  }
+
+  public UserPrincipal(Long userId, String email, Set<Privilege> privileges,
+      Set<Long> supervisedIds, Supplier<User> userLoader) { // Principal built without the user
+    this(userId, email, privileges, supervisedIds, PermissionTable.of(privileges), true,
+        userLoader);
+  }
+
+  public UserPrincipal(Long userId, String email, Set<Privilege> privileges,
+      Set<Long> supervisedIds, PermissionTable permissionTable, boolean enabled,
+      Supplier<User> userLoader) {
+    this.userId = userId;
+    this.email = email;
+    this.privileges = privileges;
+    this.supervisedIds = supervisedIds;
+    this.enabled = enabled;
+    this.permissionTable = permissionTable;
+    this.userLoader = userLoader;
+  }
+
+  public User getUser() { // Hydrate the full user only when it is actually needed
+    if (user == null) {
+      user = userLoader.get();
+    }
+    return user;
+  }
+
+  public boolean isHydrated() {
+    return user != null;
   }
 
   @Override
   public Collection<? extends GrantedAuthority> getAuthorities() {
-    Set<GrantedAuthority> grantedAuthorities = user.getPrivileges().stream()
+    Set<GrantedAuthority> grantedAuthorities = privileges.stream()
         .map(privilege -> new CustomGrantedAuthority(privilege))
         .collect(Collectors.toSet());
     return grantedAuthorities;
@@ -29,12 +77,12 @@ public class UserPrincipal implements UserDetails {
 
   @Override
   public String getPassword() {
-    return user.getPassword();
+    return isHydrated() ? user.getPassword() : null;
   }
 
   @Override
   public String getUsername() {
-    return user.getEmail();
+    return email;
   }
 
   @Override
@@ -54,6 +102,6 @@ public class UserPrincipal implements UserDetails {
 
   @Override
   public boolean isEnabled() {
-    return user.isEnabled();
+    return enabled;
   }
 }
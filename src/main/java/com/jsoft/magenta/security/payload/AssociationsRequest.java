@@ -0,0 +1,22 @@
+package com.jsoft.magenta.security.payload;
+
+import com.jsoft.magenta.util.validation.annotations.ValidPermission;
+import java.util.Set;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssociationsRequest {
+
+  @NotEmpty
+  @Size(max = 1000)
+  private Set<Long> userIds;
+
+  @ValidPermission
+  private String permission;
+}
@@ -1,15 +1,16 @@
 package com.jsoft.magenta.security.service;
 
+import com.jsoft.magenta.events.users.UserSecurityUpdateEvent;
 import com.jsoft.magenta.exceptions.NoSuchElementException;
 import com.jsoft.magenta.security.SecurityService;
 import com.jsoft.magenta.security.jwt.JwtManager;
-import com.jsoft.magenta.security.model.Privilege;
 import com.jsoft.magenta.security.model.RefreshToken;
+import com.jsoft.magenta.security.model.UserPrincipal;
 import com.jsoft.magenta.users.User;
 import com.jsoft.magenta.users.UserRepository;
-import java.util.Set;
 import javax.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -24,14 +25,15 @@ public class AuthService {
   private final PasswordEncoder passwordEncoder;
   private final UserRepository userRepository;
   private final JwtManager jwtManager;
+  private final CustomUserDetailsService userDetailsService;
+  private final ApplicationEventPublisher eventPublisher;
 
   public String generateRefreshedJwt(String refreshToken) { // Verify refresh token
     RefreshToken validatedToken = this.refreshTokenService.validateToken(refreshToken);
-    // Fetch user date and create new JWT
-    User user = findUser(validatedToken.getEmail());
-    String userName = user.getEmail();
-    Set<Privilege> privileges = user.getPrivileges();
-    return this.jwtManager.createToken(userName, privileges);
+    // Fetch user data and create new JWT
+    UserPrincipal userPrincipal = (UserPrincipal) this.userDetailsService
+        .loadUserByUsername(validatedToken.getEmail());
+    return this.jwtManager.createToken(userPrincipal);
   }
 
   public void logout(String refreshToken) { // Remove refresh token if exists
@@ -48,7 +50,9 @@ public class AuthService {
   public User updatePassword(Long userId, String newPassword) {
     User user = findUser(userId);
     user.setPassword(passwordEncoder.encode(newPassword));
-    return this.userRepository.save(user);
+    User updatedUser = this.userRepository.save(user);
+    this.eventPublisher.publishEvent(new UserSecurityUpdateEvent(userId));
+    return updatedUser;
   }
 
   private User findUser(Long userId) {
@@ -56,10 +60,4 @@ public class AuthService {
         .findById(userId)
         .orElseThrow(() -> new NoSuchElementException("User not found"));
   }
-
-  private User findUser(String email) {
-    return this.userRepository
-        .findByEmail(email)
-        .orElseThrow(() -> new NoSuchElementException("User not found"));
-  }
 }
@@ -1,17 +1,20 @@
 package com.jsoft.magenta.security.service;
 
+import com.jsoft.magenta.exceptions.NoSuchElementException;
 import com.jsoft.magenta.security.model.UserPrincipal;
 import com.jsoft.magenta.users.User;
 import com.jsoft.magenta.users.UserRepository;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
   private final UserRepository userRepository;
 
@@ -21,7 +24,24 @@ public class CustomUserDetailsService implements UserDetailsService {
         .findByEmail(email)
         .orElseThrow(() -> new UsernameNotFoundException(
             String.format("User with email %s could not be found", email)));
-    return new UserPrincipal(user);
+    // Supervised users are resolved by id only so they can be written into the token
+    Set<Long> supervisedIds = this.userRepository.findSupervisedIdsBySupervisorId(user.getId());
+    return new UserPrincipal(user, supervisedIds);
+  }
+
+  @Override
+  public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+    UserPrincipal userPrincipal = (UserPrincipal) userDetails;
+    User user = userPrincipal.getUser(); // Store the password rehashed with the current cost
+    user.setPassword(newPassword);
+    User updatedUser = this.userRepository.save(user);
+    return new UserPrincipal(updatedUser, userPrincipal.getSupervisedIds());
+  }
+
+  public User loadUserById(Long userId) {
+    return this.userRepository
+        .findById(userId)
+        .orElseThrow(() -> new NoSuchElementException("User not found"));
   }
 
 }
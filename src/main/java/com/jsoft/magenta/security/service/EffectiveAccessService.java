@@ -0,0 +1,74 @@
+package com.jsoft.magenta.security.service;
+
+import com.jsoft.magenta.security.dao.EffectiveAccessRepository;
+import com.jsoft.magenta.security.model.AccessEntityType;
+import java.util.Collection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps the user effective access table in line with the association tables. Callers refresh the
+ * entries they touched inside their own transaction, so both commit or roll back together
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class EffectiveAccessService {
+
+  private final EffectiveAccessRepository effectiveAccessRepository;
+
+  public void refresh(AccessEntityType entityType, Long userId, Long entityId) {
+    String type = entityType.name(); // Re-derive the single entry from its association
+    this.effectiveAccessRepository.deleteEntry(userId, type, entityId);
+    this.effectiveAccessRepository.insertEntry(userId, type, entityId);
+  }
+
+  public void refreshAll(AccessEntityType entityType, Long entityId, Collection<Long> userIds) {
+    if (userIds.isEmpty()) {
+      return;
+    }
+    String type = entityType.name(); // Re-derive the entries of all users in two statements
+    this.effectiveAccessRepository.deleteEntries(userIds, type, entityId);
+    this.effectiveAccessRepository.insertEntries(userIds, type, entityId);
+  }
+
+  public void removeUser(Long userId) {
+    this.effectiveAccessRepository.deleteAllOfUser(userId);
+  }
+
+  public void removeAccount(Long accountId) { // Must run before the account and its projects go
+    this.effectiveAccessRepository.deleteAllOfAccount(accountId);
+  }
+
+  public void removeProject(Long projectId) { // Must run before the project and its sub-projects go
+    this.effectiveAccessRepository.deleteAllOfProject(projectId);
+  }
+
+  public void removeSubProject(Long subProjectId) {
+    this.effectiveAccessRepository.deleteAllOfSubProject(subProjectId);
+  }
+
+  public int rebuild() { // Readers keep seeing the previous entries until commit
+    this.effectiveAccessRepository.deleteAllEntries();
+    int entries = this.effectiveAccessRepository.insertAllEntries();
+    log.info(String.format("Effective access was rebuilt with %d entries", entries));
+    return entries;
+  }
+
+  public long countDrift() {
+    return this.effectiveAccessRepository.countDrift();
+  }
+
+  public boolean verifyAndRepair() {
+    long drift = countDrift();
+    if (drift == 0) {
+      return true;
+    }
+    log.warn(String.format("Effective access drifted from associations by %d entries", drift));
+    rebuild();
+    return false;
+  }
+}
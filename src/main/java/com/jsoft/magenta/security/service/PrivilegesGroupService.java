@@ -1,5 +1,6 @@
 package com.jsoft.magenta.security.service;
 
+import com.jsoft.magenta.events.users.PrivilegesUpdateEvent;
 import com.jsoft.magenta.exceptions.DuplicationException;
 import com.jsoft.magenta.exceptions.NoSuchElementException;
 import com.jsoft.magenta.security.dao.PrivilegesGroupRepository;
@@ -8,13 +9,17 @@ import com.jsoft.magenta.security.model.PrivilegesGroup;
 import com.jsoft.magenta.security.model.PrivilegesGroupSearchResult;
 import com.jsoft.magenta.util.AppDefaults;
 import com.jsoft.magenta.util.pagination.PageRequestBuilder;
+import com.jsoft.magenta.util.pagination.PageResponse;
+import com.jsoft.magenta.util.pagination.PageTotals;
 import java.util.List;
 import java.util.Set;
 import javax.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -23,6 +28,8 @@ import org.springframework.stereotype.Service;
 public class PrivilegesGroupService {
 
   private final PrivilegesGroupRepository privilegesGroupRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final PageTotals pageTotals;
 
   public PrivilegesGroup createPrivilegesGroup(PrivilegesGroup privilegesGroup) {
     verifyUniqueName(privilegesGroup.getName());
@@ -45,7 +52,9 @@ public class PrivilegesGroupService {
     }
     groupToUpdate.setName(privilegesGroup.getName());
     groupToUpdate.setPrivileges(privilegesGroup.getPrivileges());
-    return this.privilegesGroupRepository.save(groupToUpdate);
+    PrivilegesGroup updatedGroup = this.privilegesGroupRepository.save(groupToUpdate);
+    this.eventPublisher.publishEvent(new PrivilegesUpdateEvent(groupToUpdate.getId()));
+    return updatedGroup;
   }
 
   public PrivilegesGroup updateGroupName(Long groupId, String newName) {
@@ -66,6 +75,15 @@ public class PrivilegesGroupService {
     return new PageImpl<>(results.getContent(), pageRequest, results.getTotalElements());
   }
 
+  public PageResponse<PrivilegesGroup> sliceAllPrivilegesGroups(int pageIndex, int pageSize,
+      String sortBy, boolean asc, boolean withTotal) {
+    PageRequest pageRequest = PageRequestBuilder.buildPageRequest(pageIndex, pageSize, sortBy, asc);
+    Slice<PrivilegesGroup> slice = this.privilegesGroupRepository.findSlice(null, pageRequest);
+    Long total = this.pageTotals
+        .estimate(withTotal, PrivilegesGroup.class, this.privilegesGroupRepository::count);
+    return new PageResponse<>(slice, total);
+  }
+
   public List<PrivilegesGroupSearchResult> getAllPrivilegesGroupsResults(int resultsCount) {
     PageRequest pageRequest = PageRequestBuilder.buildPageRequest(
         0, resultsCount, AppDefaults.PRIVILEGES_GROUP_DEFAULT_SORT, false);
@@ -75,6 +93,7 @@ public class PrivilegesGroupService {
   public void deletePrivilegesGroup(Long groupId) {
     findGroup(groupId);
     this.privilegesGroupRepository.deleteById(groupId);
+    this.eventPublisher.publishEvent(new PrivilegesUpdateEvent(groupId));
   }
 
   private PrivilegesGroup findGroup(Long groupId) {
@@ -0,0 +1,18 @@
+package com.jsoft.magenta.subprojects;
+
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoursAdjustment {
+
+  @NotNull
+  private Long subProjectId;
+
+  @NotNull
+  private Double delta;
+}
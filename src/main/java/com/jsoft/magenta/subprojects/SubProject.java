@@ -2,14 +2,17 @@ package com.jsoft.magenta.subprojects;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.jsoft.magenta.projects.domain.Project;
+import com.jsoft.magenta.security.AccessDecisionListener;
 import com.jsoft.magenta.users.User;
 import com.jsoft.magenta.util.validation.annotations.PositiveNumber;
 import com.jsoft.magenta.util.validation.annotations.ValidName;
 import com.jsoft.magenta.worktimes.WorkTime;
+import java.util.HashSet;
 import java.util.Set;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.ForeignKey;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -20,6 +23,7 @@ import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -27,6 +31,7 @@ import lombok.NoArgsConstructor;
 
 @Data
 @Entity
+@EntityListeners(AccessDecisionListener.class)
 @Table(name = "sub_projects")
 @NoArgsConstructor
 @AllArgsConstructor
@@ -77,10 +82,21 @@ public class SubProject {
   @JsonIgnore
   private Set<User> users;
 
+  @Version // Hour adjustments bump it in the database, so stale full updates are rejected
+  @Column(name = "sp_version", columnDefinition = "bigint not null default 0")
+  private Long version;
+
   public SubProject(Long spId) {
     this.id = spId;
   }
 
+  public void addAssociation(User user) { // Keeps the loaded users instead of replacing them
+    if (users == null) {
+      users = new HashSet<>();
+    }
+    users.add(user);
+  }
+
   public void removeAssociation(Long userId) {
     getUsers().removeIf(user -> user.getId().equals(userId));
   }
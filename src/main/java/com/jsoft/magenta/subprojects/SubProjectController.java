@@ -3,7 +3,12 @@ package com.jsoft.magenta.subprojects;
 import com.jsoft.magenta.security.annotations.projects.ProjectWritePermission;
 import com.jsoft.magenta.util.validation.annotations.PositiveNumber;
 import com.jsoft.magenta.util.validation.annotations.ValidName;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
@@ -44,6 +49,16 @@ public class SubProjectController {
     return this.subProjectService.createAssociation(userId, subProjectId);
   }
 
+  @PostMapping("{subProjectId}/associations")
+  @ResponseStatus(HttpStatus.CREATED)
+  @ProjectWritePermission
+  public void createAssociations(
+      @PathVariable Long subProjectId,
+      @RequestBody @NotEmpty @Size(max = 1000) Set<Long> userIds
+  ) {
+    this.subProjectService.createAssociations(subProjectId, userIds);
+  }
+
   @PutMapping
   @ProjectWritePermission
   public SubProject updateSubProject(@RequestBody @Valid SubProject subProject) {
@@ -86,6 +101,14 @@ public class SubProjectController {
     return this.subProjectService.decreaseSubProjectHours(subProjectId, amountToRemove);
   }
 
+  @PatchMapping("hours")
+  @ProjectWritePermission
+  public Map<Long, Double> adjustSubProjectsAmountOfHours(
+      @RequestBody @NotEmpty @Size(max = 1000) List<@Valid HoursAdjustment> adjustments
+  ) {
+    return this.subProjectService.adjustSubProjectsHours(adjustments);
+  }
+
   @DeleteMapping("{subProjectId}/association/{userId}")
   @ProjectWritePermission
   public void removeAssociation(
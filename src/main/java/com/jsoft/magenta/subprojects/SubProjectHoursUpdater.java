@@ -0,0 +1,38 @@
+package com.jsoft.magenta.subprojects;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Applies many sub-project hour deltas as a single UPDATE joined to a VALUES list. Each row is
+ * adjusted relative to its current amount, so concurrent adjustments are never lost
+ */
+@Repository
+@RequiredArgsConstructor
+public class SubProjectHoursUpdater {
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public Map<Long, Double> adjust(Map<Long, Double> deltas) { // Returns the new amounts
+    String values = String.join(", ", Collections.nCopies(deltas.size(), "(?, ?)"));
+    String sql = "UPDATE sub_projects sp SET sp_amount = sp.sp_amount + adjustment.delta, "
+        + "sp_version = sp.sp_version + 1 "
+        + "FROM (VALUES " + values + ") AS adjustment (id, delta) "
+        + "WHERE sp.sp_id = adjustment.id RETURNING sp.sp_id, sp.sp_amount";
+    Object[] args = new Object[deltas.size() * 2];
+    int index = 0;
+    for (Map.Entry<Long, Double> delta : deltas.entrySet()) {
+      args[index++] = delta.getKey();
+      args[index++] = delta.getValue();
+    }
+    Map<Long, Double> amounts = new HashMap<>();
+    this.jdbcTemplate.query(sql,
+        (RowCallbackHandler) row -> amounts.put(row.getLong(1), row.getDouble(2)), args);
+    return amounts;
+  }
+}
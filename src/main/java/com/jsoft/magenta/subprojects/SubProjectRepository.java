@@ -1,12 +1,19 @@
 package com.jsoft.magenta.subprojects;
 
+import com.jsoft.magenta.util.pagination.SeekRepository;
+import java.util.List;
 import java.util.Optional;
-import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.Set;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
-public interface SubProjectRepository extends JpaRepository<SubProject, Long> {
+public interface SubProjectRepository extends SeekRepository<SubProject, Long> {
 
   boolean existsByUsersId(Long userId);
 
+  boolean existsByIdAndUsersId(Long subProjectId, Long userId);
+
   boolean existsByProjectIdAndName(Long projectId, String subProjectName);
 
   Optional<Long> findProjectIdById(Long subProjectId);
@@ -16,4 +23,23 @@ public interface SubProjectRepository extends JpaRepository<SubProject, Long> {
   Optional<SubProject> findByProjectIdAndName(Long projectId, String subProjectName);
 
   Optional<SubProject> findByIdAndUsersId(Long subProjectId, Long userId);
+
+  @Query("select distinct subProject.project.id from SubProject subProject "
+      + "where subProject.id in :subProjectIds")
+  Set<Long> findProjectIdsByIdIn(Set<Long> subProjectIds);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(value = "UPDATE sub_projects SET sp_amount = sp_amount + :delta, "
+      + "sp_version = sp_version + 1 WHERE sp_id = :subProjectId", nativeQuery = true)
+  int adjustAmountOfHours(Long subProjectId, double delta);
+
+  @Query("select user.id from SubProject subProject join subProject.users user "
+      + "where subProject.id = :subProjectId and user.id in :userIds")
+  Set<Long> findUserIdsByIdAndUserIdIn(Long subProjectId, Set<Long> userIds);
+
+  List<SubProjectSearchResult> findAllResultsByNameContainingIgnoreCase(String nameExample,
+      Pageable pageable);
+
+  List<SubProjectSearchResult> findAllResultsByProjectAssociationsUserIdAndNameContainingIgnoreCase(
+      Long userId, String nameExample, Pageable pageable);
 }
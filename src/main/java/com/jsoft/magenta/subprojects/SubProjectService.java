@@ -4,20 +4,29 @@ import com.jsoft.magenta.events.projects.ProjectAssociationUpdateEvent;
 import com.jsoft.magenta.events.projects.ProjectRelatedEntityEvent;
 import com.jsoft.magenta.events.subprojects.SubProjectAssociationCreationEvent;
 import com.jsoft.magenta.events.subprojects.SubProjectAssociationRemovalEvent;
+import com.jsoft.magenta.events.subprojects.SubProjectAssociationsCreationEvent;
 import com.jsoft.magenta.events.subprojects.SubProjectRelatedEntityEvent;
 import com.jsoft.magenta.exceptions.AuthorizationException;
 import com.jsoft.magenta.exceptions.DuplicationException;
 import com.jsoft.magenta.exceptions.NoSuchElementException;
 import com.jsoft.magenta.exceptions.RedundantAssociationException;
 import com.jsoft.magenta.projects.domain.Project;
+import com.jsoft.magenta.security.AccessDecisions;
 import com.jsoft.magenta.security.SecurityService;
+import com.jsoft.magenta.security.dao.AssociationBatchInserter;
+import com.jsoft.magenta.security.model.AccessEntityType;
 import com.jsoft.magenta.security.model.AccessPermission;
+import com.jsoft.magenta.security.service.EffectiveAccessService;
 import com.jsoft.magenta.users.User;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import javax.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -28,6 +37,10 @@ public class SubProjectService {
   private final SubProjectRepository subProjectRepository;
   private final ApplicationEventPublisher eventPublisher;
   private final SecurityService securityService;
+  private final AccessDecisions accessDecisions;
+  private final EffectiveAccessService effectiveAccessService;
+  private final AssociationBatchInserter associationBatchInserter;
+  private final SubProjectHoursUpdater subProjectHoursUpdater;
 
   public SubProject createSubProject(Long projectId,
       SubProject subProject) { // Validate creator has valid
@@ -42,20 +55,46 @@ public class SubProjectService {
   public SubProject createAssociation(Long userId, Long subProjectId) { // Find sub-project
     SubProject subProject = findSubProject(subProjectId);
     Long projectId = findProjectId(subProjectId);
+    boolean exists = this.subProjectRepository.existsByIdAndUsersId(subProjectId, userId);
+    if (exists) {
+      throw new DuplicationException("Association between user and sub-project already exists");
+    }
     // Handle association check with project and account
     this.eventPublisher.publishEvent(new SubProjectAssociationCreationEvent(projectId, userId));
-    subProject.setUsers(Set.of(new User(userId))); // Add the specified user and save sub-project
-    return this.subProjectRepository.save(subProject);
+    // Users is the inverse side of the relation, so the association row is inserted directly
+    this.associationBatchInserter.insertSubProjectAssociations(subProjectId, Set.of(userId));
+    this.effectiveAccessService.refresh(AccessEntityType.SUB_PROJECT, userId, subProjectId);
+    subProject.addAssociation(new User(userId));
+    return subProject;
+  }
+
+  public void createAssociations(Long subProjectId, Set<Long> userIds) {
+    Long projectId = findProjectId(subProjectId);
+    this.eventPublisher.publishEvent(new ProjectRelatedEntityEvent(projectId)); // Validate once
+    Set<Long> existingUserIds = this.subProjectRepository
+        .findUserIdsByIdAndUserIdIn(subProjectId, userIds);
+    if (!existingUserIds.isEmpty()) {
+      throw new DuplicationException(String.format(
+          "Users %s are already associated with sub-project", existingUserIds));
+    }
+    // Handle association check with project and account for all users at once
+    this.eventPublisher.publishEvent(new SubProjectAssociationsCreationEvent(projectId, userIds));
+    this.associationBatchInserter.insertSubProjectAssociations(subProjectId, userIds);
+    this.effectiveAccessService.refreshAll(AccessEntityType.SUB_PROJECT, subProjectId, userIds);
   }
 
   private Long findProjectId(Long subProjectId) {
-    return this.subProjectRepository
-        .findProjectIdById(subProjectId)
+    return this.accessDecisions.decide(AccessDecisions.SUB_PROJECT, null, subProjectId,
+        () -> this.subProjectRepository.findProjectIdById(subProjectId))
         .orElseThrow(() -> new NoSuchElementException("Project not found"));
   }
 
   public SubProject updateSubProject(SubProject subProject) {
     SubProject subProjectToUpdate = findSubProject(subProject.getId());
+    if (subProject.getVersion() != null // Reject updates based on a stale read
+        && !subProject.getVersion().equals(subProjectToUpdate.getVersion())) {
+      throw new ObjectOptimisticLockingFailureException(SubProject.class, subProject.getId());
+    }
     Long projectId = findProjectId(subProject.getId());
     this.eventPublisher.publishEvent(new ProjectRelatedEntityEvent(projectId));
     if (!subProject.getName().equalsIgnoreCase(subProjectToUpdate.getName())) {
@@ -85,19 +124,35 @@ public class SubProjectService {
   }
 
   public SubProject increaseSubProjectHours(Long subProjectId, double amountToAdd) {
-    Long projectId = findProjectId(subProjectId);
-    this.eventPublisher.publishEvent(new ProjectRelatedEntityEvent(projectId));
-    SubProject subProjectToUpdate = findSubProject(subProjectId);
-    subProjectToUpdate.setAmountOfHours(subProjectToUpdate.getAmountOfHours() + amountToAdd);
-    return this.subProjectRepository.save(subProjectToUpdate);
+    return adjustSubProjectHours(subProjectId, amountToAdd);
   }
 
   public SubProject decreaseSubProjectHours(Long subProjectId, double amountToRemove) {
+    return adjustSubProjectHours(subProjectId, -amountToRemove);
+  }
+
+  public Map<Long, Double> adjustSubProjectsHours(List<HoursAdjustment> adjustments) {
+    Map<Long, Double> deltas = new TreeMap<>(); // Sum deltas of the same sub-project
+    adjustments.forEach(adjustment -> deltas
+        .merge(adjustment.getSubProjectId(), adjustment.getDelta(), Double::sum));
+    this.subProjectRepository.findProjectIdsByIdIn(deltas.keySet()) // Once per project
+        .forEach(projectId -> this.eventPublisher
+            .publishEvent(new ProjectRelatedEntityEvent(projectId)));
+    Map<Long, Double> amounts = this.subProjectHoursUpdater.adjust(deltas);
+    if (amounts.size() != deltas.size()) { // Rolls back the adjustments that did apply
+      throw new NoSuchElementException("Sub-project not found");
+    }
+    return amounts;
+  }
+
+  private SubProject adjustSubProjectHours(Long subProjectId, double delta) {
     Long projectId = findProjectId(subProjectId);
     this.eventPublisher.publishEvent(new ProjectRelatedEntityEvent(projectId));
-    SubProject subProjectToUpdate = findSubProject(subProjectId);
-    subProjectToUpdate.setAmountOfHours(subProjectToUpdate.getAmountOfHours() - amountToRemove);
-    return this.subProjectRepository.save(subProjectToUpdate);
+    // Added to the stored amount by the database, so concurrent adjustments are never lost
+    if (this.subProjectRepository.adjustAmountOfHours(subProjectId, delta) == 0) {
+      throw new NoSuchElementException("Sub-project not found");
+    }
+    return findSubProject(subProjectId);
   }
 
   public void removeAssociation(Long userId, Long subProjectId) { // Find sub-project
@@ -117,6 +172,7 @@ public class SubProjectService {
         this.eventPublisher.publishEvent(new ProjectRelatedEntityEvent(projectId));
       case ADMIN: // Remove the association and handle any backward redundant associations
         subProject.removeAssociation(userId);
+        this.effectiveAccessService.refresh(AccessEntityType.SUB_PROJECT, userId, subProjectId);
         this.eventPublisher.publishEvent(new SubProjectAssociationRemovalEvent(subProject, userId));
     }
   }
@@ -139,12 +195,15 @@ public class SubProjectService {
 
   public void deleteSubProject(Long subProjectId) {
     removeAllAssociations(subProjectId);
+    this.effectiveAccessService.removeSubProject(subProjectId);
     this.subProjectRepository.deleteById(subProjectId);
   }
 
   private void removeAllAssociations(SubProject subProject) {
     subProject.getUsers().forEach(user -> {
       user.removeSubProject(subProject);
+      this.effectiveAccessService
+          .refresh(AccessEntityType.SUB_PROJECT, user.getId(), subProject.getId());
       this.eventPublisher
           .publishEvent(new SubProjectAssociationRemovalEvent(subProject, user.getId()));
     });
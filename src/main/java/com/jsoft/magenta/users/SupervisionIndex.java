@@ -0,0 +1,84 @@
+package com.jsoft.magenta.users;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.jsoft.magenta.events.users.SupervisionUpdateEvent;
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cached ids of the users supervised by each supervisor, optionally including users supervised
+ * indirectly through a multi level hierarchy, so supervision checks never load user entities
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SupervisionIndex {
+
+  @Value("${application.users.supervision.transitive:false}")
+  private boolean transitive;
+
+  @Value("${application.users.supervision.max-size:10000}")
+  private long maxSize;
+
+  @Value("${application.users.supervision.ttl:10m}")
+  private Duration ttl;
+
+  private final UserRepository userRepository;
+
+  private LoadingCache<Long, Set<Long>> supervisedIds;
+
+  @PostConstruct
+  private void init() {
+    this.supervisedIds = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl) // Bounds staleness when a change bypasses the update event
+        .build(CacheLoader.from(this::loadSupervisedIds));
+  }
+
+  public Set<Long> getSupervisedIds(Long supervisorId) {
+    return this.supervisedIds.getUnchecked(supervisorId);
+  }
+
+  public boolean isSupervisorOf(Long supervisorId, Long supervisedId) {
+    return getSupervisedIds(supervisorId).contains(supervisedId);
+  }
+
+  public boolean isSupervisorOrOwner(Long userId, Long ownerId) {
+    return userId.equals(ownerId) || isSupervisorOf(userId, ownerId);
+  }
+
+  public void invalidate(Long supervisorId) {
+    if (transitive) { // Any ancestor closure may contain the changed supervisor
+      this.supervisedIds.invalidateAll();
+    } else {
+      this.supervisedIds.invalidate(supervisorId);
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void handleSupervisionUpdateEvent(SupervisionUpdateEvent supervisionUpdateEvent) {
+    Long supervisorId = supervisionUpdateEvent.getPayload(); // Invalidate once change is committed
+    invalidate(supervisorId);
+    log.debug(String.format("Supervision index of user %d was invalidated", supervisorId));
+  }
+
+  private Set<Long> loadSupervisedIds(Long supervisorId) {
+    if (!transitive) {
+      return Set.copyOf(this.userRepository.findSupervisedIdsBySupervisorId(supervisorId));
+    }
+    return this.userRepository.findSupervisedIdsClosureBySupervisorId(supervisorId)
+        .stream() // Native query ids may come back as any numeric type
+        .map(Number::longValue)
+        .filter(supervisedId -> !supervisedId.equals(supervisorId))
+        .collect(Collectors.toUnmodifiableSet());
+  }
+}
@@ -13,6 +13,8 @@ import com.jsoft.magenta.files.MagentaImage;
 import com.jsoft.magenta.notes.UserNote;
 import com.jsoft.magenta.projects.domain.ProjectAssociation;
 import com.jsoft.magenta.security.model.AccessPermission;
+import com.jsoft.magenta.security.model.PermissionName;
+import com.jsoft.magenta.security.model.PermissionTable;
 import com.jsoft.magenta.security.model.Privilege;
 import com.jsoft.magenta.subprojects.SubProject;
 import com.jsoft.magenta.util.AppConstants;
@@ -21,6 +23,7 @@ import com.jsoft.magenta.util.validation.annotations.ValidPhoneNumber;
 import com.jsoft.magenta.worktimes.WorkTime;
 import java.time.LocalDate;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -38,14 +41,18 @@ import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 @Data
 @Entity
@@ -207,6 +214,13 @@ public class User {
   @JsonIgnore
   private Set<User> supervisedUsers;
 
+  @Transient
+  @JsonIgnore
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private final transient AtomicReference<PermissionTable> permissionTable =
+      new AtomicReference<>(); // Initialized final, so it stays out of the all args constructor
+
   public User(Long userId) {
     this.id = userId;
   }
@@ -215,10 +229,19 @@ public class User {
     return firstName + " " + lastName;
   }
 
+  public void setPrivileges(Set<Privilege> privileges) {
+    this.privileges = privileges;
+    this.permissionTable.set(null); // Rebuilt on next permission check
+  }
+
   public boolean hasPermissionGreaterThanEqual(Privilege privilege) {
     if (Strings.isNullOrEmpty(privilege.getName()) || privilege.getLevel() == null) {
       return false;
     }
+    PermissionName permissionName = PermissionName.of(privilege.getName());
+    if (permissionName != null) {
+      return getPermissionTable().hasPermission(permissionName, privilege.getLevel());
+    }
     return this.getPrivileges().stream()
         .anyMatch(p -> p.getName().equalsIgnoreCase(privilege.getName()) &&
             p.getLevel().getPermissionLevel() >= privilege.getLevel().getPermissionLevel());
@@ -226,15 +249,23 @@ public class User {
 
   @JsonIgnore
   public boolean isAccountAdmin() {
-    return isAdminOf(AppConstants.ACCOUNT_PERMISSION);
+    return isAdminOf(PermissionName.ACCOUNT);
   }
 
   @JsonIgnore
   public boolean isUserAdmin() {
-    return isAdminOf(AppConstants.USER_PERMISSION);
+    return isAdminOf(PermissionName.USER);
+  }
+
+  public boolean isAdminOf(PermissionName permissionName) {
+    return getPermissionTable().isAdminOf(permissionName);
   }
 
   public boolean isAdminOf(String permissionName) {
+    PermissionName knownName = PermissionName.of(permissionName);
+    if (knownName != null) {
+      return isAdminOf(knownName);
+    }
     return this.getPrivileges().stream()
         .anyMatch(p -> p.getName().equalsIgnoreCase(permissionName) &&
             p.getLevel() == AccessPermission.ADMIN);
@@ -242,12 +273,12 @@ public class User {
 
   @JsonIgnore
   public AccessPermission getAccountsPermission() {
-    return getPermission(AppConstants.ACCOUNT_PERMISSION);
+    return getPermission(PermissionName.ACCOUNT);
   }
 
   @JsonIgnore
   public AccessPermission getProjectPermission() {
-    return getPermission(AppConstants.PROJECT_PERMISSION);
+    return getPermission(PermissionName.PROJECT);
   }
 
   public boolean isSupervisorOf(User supervised) {
@@ -255,7 +286,7 @@ public class User {
   }
 
   public boolean isSupervisorOf(Long supervisedId) {
-    boolean admin = isAdminOf(AppConstants.USER_PERMISSION);
+    boolean admin = isAdminOf(PermissionName.USER);
     if (admin) {
       return true;
     }
@@ -264,7 +295,7 @@ public class User {
   }
 
   public void isSupervisorOrOwner(Long ownerId) {
-    boolean admin = isAdminOf(AppConstants.USER_PERMISSION);
+    boolean admin = isAdminOf(PermissionName.USER);
     if (admin) {
       return;
     }
@@ -280,13 +311,18 @@ public class User {
     return getSubProjects().remove(subProject);
   }
 
-  private AccessPermission getPermission(String entityName) {
-    AccessPermission accessPermission = getPrivileges().stream()
-        .filter(privilege -> privilege.getName().equals(entityName))
-        .map(Privilege::getLevel)
-        .findFirst()
-        .orElse(AccessPermission.READ);
-    return accessPermission;
+  @JsonIgnore
+  public AccessPermission getPermission(PermissionName permissionName) {
+    return getPermissionTable().getPermission(permissionName, AccessPermission.READ);
+  }
+
+  private PermissionTable getPermissionTable() { // Built once per loaded privileges
+    PermissionTable table = permissionTable.get();
+    if (table == null) {
+      table = PermissionTable.of(getPrivileges());
+      permissionTable.set(table);
+    }
+    return table;
   }
 
 }
@@ -5,10 +5,12 @@ import static com.jsoft.magenta.util.AppDefaults.PAGE_INDEX;
 import static com.jsoft.magenta.util.AppDefaults.PAGE_SIZE;
 import static com.jsoft.magenta.util.AppDefaults.RESULTS_COUNT;
 import static com.jsoft.magenta.util.AppDefaults.USER_DEFAULT_SORT_NAME;
+import static com.jsoft.magenta.util.AppDefaults.WITH_TOTAL;
 
 import com.jsoft.magenta.files.MagentaImage;
 import com.jsoft.magenta.security.annotations.users.UserManagePermission;
 import com.jsoft.magenta.security.annotations.users.UserWritePermission;
+import com.jsoft.magenta.util.pagination.PageResponse;
 import com.jsoft.magenta.util.validation.annotations.ValidImage;
 import com.jsoft.magenta.util.validation.annotations.ValidTheme;
 import java.util.List;
@@ -102,6 +104,18 @@ public class UserController {
     return this.userService.getAllUsers(pageIndex, pageSize, sortBy, asc);
   }
 
+  @GetMapping("slice")
+  @UserWritePermission
+  public PageResponse<User> sliceAllUsers(
+      @RequestParam(required = false, defaultValue = PAGE_INDEX) int pageIndex,
+      @RequestParam(required = false, defaultValue = PAGE_SIZE) int pageSize,
+      @RequestParam(required = false, defaultValue = USER_DEFAULT_SORT_NAME) String sortBy,
+      @RequestParam(required = false, defaultValue = ASCENDING_SORT) boolean asc,
+      @RequestParam(required = false, defaultValue = WITH_TOTAL) boolean withTotal
+  ) {
+    return this.userService.sliceAllUsers(pageIndex, pageSize, sortBy, asc, withTotal);
+  }
+
   @GetMapping("supervised")
   @UserManagePermission
   public Page<User> getAllSupervisedUsers(
@@ -125,6 +139,33 @@ public class UserController {
     return this.userService.getAllSupervisedUsersOfUser(userId, pageIndex, pageSize, sortBy, asc);
   }
 
+  @GetMapping("supervised/slice")
+  @UserManagePermission
+  public PageResponse<User> sliceAllSupervisedUsers(
+      @RequestParam(required = false, defaultValue = PAGE_INDEX) int pageIndex,
+      @RequestParam(required = false, defaultValue = PAGE_SIZE) int pageSize,
+      @RequestParam(required = false, defaultValue = USER_DEFAULT_SORT_NAME) String sortBy,
+      @RequestParam(required = false, defaultValue = ASCENDING_SORT) boolean asc,
+      @RequestParam(required = false, defaultValue = WITH_TOTAL) boolean withTotal
+  ) {
+    return this.userService
+        .sliceAllSupervisedUsers(pageIndex, pageSize, sortBy, asc, withTotal);
+  }
+
+  @GetMapping("supervised/slice/{userId}")
+  @UserWritePermission
+  public PageResponse<User> sliceAllSupervisedUsers(
+      @PathVariable Long userId,
+      @RequestParam(required = false, defaultValue = PAGE_INDEX) int pageIndex,
+      @RequestParam(required = false, defaultValue = PAGE_SIZE) int pageSize,
+      @RequestParam(required = false, defaultValue = USER_DEFAULT_SORT_NAME) String sortBy,
+      @RequestParam(required = false, defaultValue = ASCENDING_SORT) boolean asc,
+      @RequestParam(required = false, defaultValue = WITH_TOTAL) boolean withTotal
+  ) {
+    return this.userService
+        .sliceAllSupervisedUsersOfUser(userId, pageIndex, pageSize, sortBy, asc, withTotal);
+  }
+
   @GetMapping("supervised/results")
   @UserManagePermission
   public List<UserSearchResult> getAllSupervisedUsersResults(
@@ -1,14 +1,15 @@
 package com.jsoft.magenta.users;
 
+import com.jsoft.magenta.util.pagination.SeekRepository;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends SeekRepository<User, Long> {
 
   boolean existsByEmail(String email);
 
@@ -16,6 +17,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
   Optional<User> findByEmail(String email);
 
+  @Query("select distinct u from User u left join fetch u.privileges where u.id in :userIds")
+  List<User> findAllWithPrivilegesByIdIn(Set<Long> userIds);
+
+  @Query("select u.id from User u join u.profileImage i where i.id = :imageId")
+  List<Long> findAllIdsByProfileImageId(Long imageId);
+
+  @Query("select s.id from User u join u.supervisedUsers s where u.id = :supervisorId")
+  Set<Long> findSupervisedIdsBySupervisorId(Long supervisorId);
+
+  @Query(value = "with recursive closure(user_id) as ("
+      + "select s.supervised_id from supervised_users s where s.supervisor_id = :supervisorId "
+      + "union "
+      + "select s.supervised_id from supervised_users s "
+      + "join closure c on s.supervisor_id = c.user_id"
+      + ") select user_id from closure", nativeQuery = true)
+  List<Number> findSupervisedIdsClosureBySupervisorId(Long supervisorId);
+
   @Query("select u.supervisedUsers from User u where u.id = :supervisorId")
   Page<User> findSupervisedUsersBySupervisorId(Long supervisorId, Pageable pageable);
 
@@ -2,7 +2,10 @@ package com.jsoft.magenta.users;
 
 import com.jsoft.magenta.events.PermissionEvent;
 import com.jsoft.magenta.events.accounts.AccountAssociationCreationEvent;
+import com.jsoft.magenta.events.accounts.AccountAssociationsCreationEvent;
 import com.jsoft.magenta.events.projects.ProjectAssociationUpdateEvent;
+import com.jsoft.magenta.events.users.SupervisionUpdateEvent;
+import com.jsoft.magenta.events.users.UserSecurityUpdateEvent;
 import com.jsoft.magenta.events.workplans.WorkPlanCreationEvent;
 import com.jsoft.magenta.exceptions.AuthorizationException;
 import com.jsoft.magenta.exceptions.DuplicationException;
@@ -13,20 +16,27 @@ import com.jsoft.magenta.files.MagentaImageService;
 import com.jsoft.magenta.files.MagentaImageType;
 import com.jsoft.magenta.security.SecurityService;
 import com.jsoft.magenta.security.model.AccessPermission;
-import com.jsoft.magenta.security.model.Privilege;
-import com.jsoft.magenta.util.AppConstants;
+import com.jsoft.magenta.security.model.PermissionName;
+import com.jsoft.magenta.security.service.EffectiveAccessService;
 import com.jsoft.magenta.util.AppDefaults;
 import com.jsoft.magenta.util.pagination.PageRequestBuilder;
+import com.jsoft.magenta.util.pagination.PageResponse;
+import com.jsoft.magenta.util.pagination.PageTotals;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Set;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
 import javax.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.util.Pair;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -40,6 +50,10 @@ public class UserService {
   private final PasswordEncoder passwordEncoder;
   private final MagentaImageService imageService;
   private final SecurityService securityService;
+  private final SupervisionIndex supervisionIndex;
+  private final EffectiveAccessService effectiveAccessService;
+  private final ApplicationEventPublisher eventPublisher;
+  private final PageTotals pageTotals;
 
   public User createUser(User user, MultipartFile profileImage) {
     verifyUserUniques(user);
@@ -67,7 +81,10 @@ public class UserService {
       throw new DuplicationException("Supervision already exists");
     }
     supervisor.setSupervisedUsers(Set.of(supervised)); // Create supervision and save
-    return this.userRepository.save(supervisor);
+    User savedSupervisor = this.userRepository.save(supervisor);
+    this.eventPublisher.publishEvent(new UserSecurityUpdateEvent(supervisorId));
+    this.eventPublisher.publishEvent(new SupervisionUpdateEvent(supervisorId));
+    return savedSupervisor;
   }
 
   public MagentaImage updateUserProfileImage(Long userId,
@@ -94,13 +111,17 @@ public class UserService {
     userToUpdate.setEmail(user.getEmail());
     userToUpdate.setPhoneNumber(user.getPhoneNumber());
     userToUpdate.setBirthDay(user.getBirthDay());
-    return this.userRepository.save(userToUpdate);
+    User updatedUser = this.userRepository.save(userToUpdate);
+    this.eventPublisher.publishEvent(new UserSecurityUpdateEvent(user.getId()));
+    return updatedUser;
   }
 
   public User updatePreferredTheme(ColorTheme colorTheme) {
     User user = securityService.currentUser();
     user.setPreferredTheme(colorTheme);
-    return this.userRepository.save(user);
+    User updatedUser = this.userRepository.save(user);
+    this.eventPublisher.publishEvent(new UserSecurityUpdateEvent(user.getId()));
+    return updatedUser;
   }
 
   public User getUser(Long userId) {
@@ -111,7 +132,7 @@ public class UserService {
       case READ:
         throw new AuthorizationException("User is not authorized to get such details");
       case MANAGE:
-        boolean isSupervisor = supervisor.isSupervisorOf(supervised);
+        boolean isSupervisor = supervisionIndex.isSupervisorOf(supervisor.getId(), userId);
         if (!isSupervisor) {
           throw new AuthorizationException("User is not authorized to get such details");
         }
@@ -128,16 +149,18 @@ public class UserService {
   }
 
   public Page<User> getAllUsers(int pageIndex, int pageSize, String sortBy, boolean asc) {
-    PageRequest pageRequest;
-    if (sortBy.equalsIgnoreCase("name")) {
-      pageRequest = PageRequestBuilder
-          .buildPageRequest(pageIndex, pageSize, AppDefaults.USER_DEFAULT_SORT, asc);
-    } else {
-      pageRequest = PageRequestBuilder.buildPageRequest(pageIndex, pageSize, sortBy, asc);
-    }
+    PageRequest pageRequest = buildUsersPageRequest(pageIndex, pageSize, sortBy, asc);
     return this.userRepository.findAll(pageRequest);
   }
 
+  public PageResponse<User> sliceAllUsers(int pageIndex, int pageSize, String sortBy, boolean asc,
+      boolean withTotal) {
+    PageRequest pageRequest = buildUsersPageRequest(pageIndex, pageSize, sortBy, asc);
+    Slice<User> slice = this.userRepository.findSlice(null, pageRequest);
+    Long total = this.pageTotals.estimate(withTotal, User.class, this.userRepository::count);
+    return new PageResponse<>(slice, total);
+  }
+
   public Page<User> getAllSupervisedUsers(int pageIndex, int pageSize, String sortBy, boolean asc) {
     User user = securityService.currentUser();
     return getSupervisedUsers(user, pageIndex, pageSize, sortBy, asc);
@@ -150,6 +173,18 @@ public class UserService {
     return getSupervisedUsers(user, pageIndex, pageSize, sortBy, asc);
   }
 
+  public PageResponse<User> sliceAllSupervisedUsers(int pageIndex, int pageSize, String sortBy,
+      boolean asc, boolean withTotal) {
+    User user = securityService.currentUser();
+    return sliceSupervisedUsers(user, pageIndex, pageSize, sortBy, asc, withTotal);
+  }
+
+  public PageResponse<User> sliceAllSupervisedUsersOfUser(Long userId, int pageIndex,
+      int pageSize, String sortBy, boolean asc, boolean withTotal) {
+    User user = findUser(userId);
+    return sliceSupervisedUsers(user, pageIndex, pageSize, sortBy, asc, withTotal);
+  }
+
   public List<UserSearchResult> getAllSupervisedUsersResults(int resultsCount) {
     User user = securityService.currentUser();
     return getSupervisedUsersResults(user, resultsCount);
@@ -177,7 +212,10 @@ public class UserService {
 
   public void deleteUser(Long userId) {
     findUser(userId);
+    this.effectiveAccessService.removeUser(userId);
     this.userRepository.deleteById(userId);
+    this.eventPublisher.publishEvent(new UserSecurityUpdateEvent(userId));
+    this.eventPublisher.publishEvent(new SupervisionUpdateEvent(userId));
   }
 
   public void removeSupervision(Long supervisorId, Long supervisedId) {
@@ -188,6 +226,8 @@ public class UserService {
     if (!foundAndRemoved) {
       throw new NoSuchElementException("Supervised user not found");
     }
+    this.eventPublisher.publishEvent(new UserSecurityUpdateEvent(supervisorId));
+    this.eventPublisher.publishEvent(new SupervisionUpdateEvent(supervisorId));
   }
 
   @EventListener
@@ -207,6 +247,18 @@ public class UserService {
     handleAssociationEvent(accessPermission, associationCreationEvent);
   }
 
+  @EventListener
+  public void handleAccountAssociationsCreationEvent(
+      AccountAssociationsCreationEvent associationsCreationEvent) { // Load all users at once
+    Set<Long> userIds = associationsCreationEvent.getAssociatedUserIds();
+    List<User> users = this.userRepository.findAllWithPrivilegesByIdIn(userIds);
+    if (users.size() != userIds.size()) {
+      throw new NoSuchElementException("User not found");
+    }
+    users.forEach(
+        user -> handleAssociationEvent(user.getAccountsPermission(), associationsCreationEvent));
+  }
+
   @EventListener
   public void handleWorkPlanCreationEvent(WorkPlanCreationEvent creationEvent) {
     Long userId = creationEvent.getPayload();
@@ -230,18 +282,42 @@ public class UserService {
 
   private Page<User> getSupervisedUsers(User user, int pageIndex, int pageSize, String sortBy,
       boolean asc) {
-    PageRequest pageRequest;
-    if (sortBy.equalsIgnoreCase("name")) {
-      pageRequest = PageRequestBuilder
-          .buildPageRequest(pageIndex, pageSize, AppDefaults.USER_DEFAULT_SORT, asc);
-    } else {
-      pageRequest = PageRequestBuilder.buildPageRequest(pageIndex, pageSize, sortBy, asc);
-    }
+    PageRequest pageRequest = buildUsersPageRequest(pageIndex, pageSize, sortBy, asc);
     Page<User> results = this.userRepository
         .findSupervisedUsersBySupervisorId(user.getId(), pageRequest);
     return new PageImpl<>(results.getContent(), pageRequest, results.getTotalElements());
   }
 
+  private PageResponse<User> sliceSupervisedUsers(User user, int pageIndex, int pageSize,
+      String sortBy, boolean asc, boolean withTotal) {
+    PageRequest pageRequest = buildUsersPageRequest(pageIndex, pageSize, sortBy, asc);
+    Specification<User> specification = supervisedBy(user.getId());
+    Slice<User> slice = this.userRepository.findSlice(specification, pageRequest);
+    Long total = this.pageTotals.count(withTotal, "supervised:" + user.getId(),
+        () -> this.userRepository.count(specification));
+    return new PageResponse<>(slice, total);
+  }
+
+  private PageRequest buildUsersPageRequest(int pageIndex, int pageSize, String sortBy,
+      boolean asc) {
+    if (sortBy.equalsIgnoreCase("name")) { // Name sorts by first and then by last name
+      return PageRequestBuilder
+          .buildPageRequest(pageIndex, pageSize, AppDefaults.USER_DEFAULT_SORT, asc);
+    }
+    return PageRequestBuilder.buildPageRequest(pageIndex, pageSize, sortBy, asc);
+  }
+
+  private Specification<User> supervisedBy(Long supervisorId) {
+    return (root, query, builder) -> { // Direct supervision only, as the offset listing
+      Subquery<Long> supervisedIds = query.subquery(Long.class);
+      Root<User> supervisor = supervisedIds.from(User.class);
+      Join<User, User> supervised = supervisor.join("supervisedUsers");
+      supervisedIds.select(supervised.get("id"))
+          .where(builder.equal(supervisor.get("id"), supervisorId));
+      return root.get("id").in(supervisedIds);
+    };
+  }
+
   private List<UserSearchResult> getSupervisedUsersResults(User user, int resultsCount) {
     PageRequest pageRequest = PageRequestBuilder
         .buildPageRequest(0, resultsCount, AppDefaults.USER_DEFAULT_SORT,
@@ -277,17 +353,7 @@ public class UserService {
   }
 
   private AccessPermission findUserPermission(User user) {
-    return findPermission(user, AppConstants.USER_PERMISSION).getSecond();
-  }
-
-  private Pair<Long, AccessPermission> findPermission(User user, String entity) {
-    String entityName = entity.toLowerCase();
-    AccessPermission accessPermission = user.getPrivileges().stream()
-        .filter(privilege -> privilege.getName().equals(entityName))
-        .map(Privilege::getLevel)
-        .findFirst()
-        .orElse(AccessPermission.READ);
-    return Pair.of(user.getId(), accessPermission);
+    return user.getPermission(PermissionName.USER);
   }
 
 }
@@ -56,6 +56,7 @@ public class AppConstants {
   public static final String PROJECT_PERMISSION = "project";
   public static final String POST_PERMISSION = "post";
   public static final String USER_PERMISSION = "user";
+  public static final String CONFIG_PERMISSION = "config";
 
   public static final Set<String> PERMISSION_LEVEL_NAMES = Set.of(
       AccessPermission.READ.name(),
@@ -6,6 +6,7 @@ public class AppDefaults {
   public static final String PAGE_INDEX = "0";
   public static final String ASCENDING_SORT = "false";
   public static final String RESULTS_COUNT = "5";
+  public static final String WITH_TOTAL = "false";
 
   public static final String PROJECTS_DEFAULT_SORT = "name";
   public static final String USER_DEFAULT_FIRST_SORT = "firstName";
@@ -0,0 +1,59 @@
+package com.jsoft.magenta.util.pagination;
+
+import com.jsoft.magenta.exceptions.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Position of a row within a keyset ordered listing, carried by clients as an opaque token. The
+ * token binds the sort it was issued for, so it cannot be replayed against another ordering
+ */
+@Value
+@AllArgsConstructor
+public class PageCursor {
+
+  private static final String SEPARATOR = "|";
+  private static final String NULL_VALUE = "~";
+  private static final String VALUE_PREFIX = "=";
+
+  boolean backward; // Walks towards the previous rows
+  String sortBy;
+  boolean asc;
+  Long id;
+  String sortValue;
+
+  public String encode() {
+    String value = sortValue == null ? NULL_VALUE : VALUE_PREFIX + sortValue;
+    String token = String.join(SEPARATOR,
+        backward ? "p" : "n", sortBy, asc ? "a" : "d", String.valueOf(id), value);
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(token.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static PageCursor decode(String encodedCursor) {
+    String token;
+    try {
+      token = new String(Base64.getUrlDecoder().decode(encodedCursor), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidCursorException("Page cursor is malformed");
+    }
+    String[] parts = token.split("\\" + SEPARATOR, 5); // Sort value is last and may hold anything
+    if (parts.length != 5 || parts[1].isEmpty()) {
+      throw new InvalidCursorException("Page cursor is malformed");
+    }
+    Long id;
+    try {
+      id = Long.valueOf(parts[3]);
+    } catch (NumberFormatException e) {
+      throw new InvalidCursorException("Page cursor is malformed");
+    }
+    String value = parts[4];
+    if (!value.equals(NULL_VALUE) && !value.startsWith(VALUE_PREFIX)) {
+      throw new InvalidCursorException("Page cursor is malformed");
+    }
+    return new PageCursor(parts[0].equals("p"), parts[1], parts[2].equals("a"), id,
+        value.equals(NULL_VALUE) ? null : value.substring(VALUE_PREFIX.length()));
+  }
+}
@@ -24,6 +24,12 @@ public class PageRequestBuilder {
     return buildPageRequest(pageIndex, pageSize, sorts, asc);
   }
 
+  public static <T> SeekRequest<T> buildSeekRequest(String cursor, int pageSize, String sortBy,
+      boolean asc) { // Missing cursor requests the first page
+    PageCursor pageCursor = cursor == null || cursor.isBlank() ? null : PageCursor.decode(cursor);
+    return new SeekRequest<>(pageSize, sortBy, asc, pageCursor);
+  }
+
   private static PageRequest buildPageRequest(int pageIndex, int pageSize, Sort sort, boolean asc) {
     sort = asc ? sort.ascending() : sort.descending();
     return PageRequest.of(pageIndex, pageSize, sort);
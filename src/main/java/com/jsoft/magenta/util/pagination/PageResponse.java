@@ -1,19 +1,26 @@
 package com.jsoft.magenta.util.pagination;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import java.util.List;
 import lombok.Getter;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort.Order;
 
 @Getter
+@JsonInclude(Include.NON_NULL) // Each mode omits the fields it does not compute
 public class PageResponse<T> {
 
   private final List<T> content;
-  private final long totalElements;
-  private final int pageIndex;
+  private final Long totalElements;
+  private final Integer pageIndex;
   private final int pageSize;
   private final String sortBy;
   private final boolean sortDirection;
+  private final String nextCursor;
+  private final String previousCursor;
+  private final Boolean hasNext;
 
   public PageResponse(List<T> content, long totalElements, Pageable pageable) {
     this.content = content;
@@ -28,5 +35,34 @@ public class PageResponse<T> {
       this.sortBy = null;
       this.sortDirection = false;
     }
+    this.nextCursor = null;
+    this.previousCursor = null;
+    this.hasNext = null;
+  }
+
+  public PageResponse(Slice<T> slice, Long totalElements) { // Total is only present if requested
+    this.content = slice.getContent();
+    this.totalElements = totalElements;
+    this.pageIndex = slice.getNumber();
+    this.pageSize = slice.getSize();
+    Order sortOrder = slice.getSort().get().findFirst().orElse(null);
+    this.sortBy = sortOrder != null ? sortOrder.getProperty() : null;
+    this.sortDirection = sortOrder != null && sortOrder.getDirection().isAscending();
+    this.nextCursor = null;
+    this.previousCursor = null;
+    this.hasNext = slice.hasNext();
+  }
+
+  public PageResponse(List<T> content, int pageSize, String sortBy, boolean sortDirection,
+      String nextCursor, String previousCursor) {
+    this.content = content;
+    this.totalElements = null;
+    this.pageIndex = null;
+    this.pageSize = pageSize;
+    this.sortBy = sortBy;
+    this.sortDirection = sortDirection;
+    this.nextCursor = nextCursor;
+    this.previousCursor = previousCursor;
+    this.hasNext = nextCursor != null;
   }
 }
@@ -0,0 +1,73 @@
+package com.jsoft.magenta.util.pagination;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongSupplier;
+import javax.annotation.PostConstruct;
+import javax.persistence.Table;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Totals for sliced listings. Filtered totals are exact counts kept for a short time, so paging
+ * through the same listing counts once per TTL. Unfiltered totals come from the planner row
+ * estimate, which costs a catalog lookup instead of a table scan
+ */
+@Component
+@RequiredArgsConstructor
+public class PageTotals {
+
+  private static final String ROW_ESTIMATE = "select reltuples::bigint from pg_class "
+      + "where oid = to_regclass(?)";
+
+  @Value("${application.pagination.count-cache.ttl:30s}")
+  private Duration ttl;
+
+  @Value("${application.pagination.count-cache.max-size:10000}")
+  private long maxSize;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  private Cache<String, Long> totals;
+
+  @PostConstruct
+  private void init() {
+    this.totals = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .build();
+  }
+
+  public Long count(boolean requested, String key, LongSupplier counter) {
+    if (!requested) { // Clients that never display totals pay nothing
+      return null;
+    }
+    try {
+      return this.totals.get(key, counter::getAsLong);
+    } catch (ExecutionException | UncheckedExecutionException e) { // Rethrow counter failure as is
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException("Failure during total counting", e.getCause());
+    }
+  }
+
+  public Long estimate(boolean requested, Class<?> entityType, LongSupplier counter) {
+    if (!requested) {
+      return null;
+    }
+    Table table = AnnotationUtils.findAnnotation(entityType, Table.class);
+    Long estimate = table == null ? null :
+        this.jdbcTemplate.queryForObject(ROW_ESTIMATE, Long.class, table.name());
+    if (estimate == null || estimate < 0) { // Table was never analyzed, count it instead
+      return count(true, entityType.getName(), counter);
+    }
+    return estimate;
+  }
+}
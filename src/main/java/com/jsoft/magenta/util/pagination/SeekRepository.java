@@ -0,0 +1,21 @@
+package com.jsoft.magenta.util.pagination;
+
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/**
+ * Repository able to list its entities in keyset or slice mode, neither of which issues a count
+ * query. Filters that derived queries express by method name are passed as specifications
+ */
+@NoRepositoryBean
+public interface SeekRepository<T, ID> extends JpaRepository<T, ID>, JpaSpecificationExecutor<T> {
+
+  List<T> findAll(Specification<T> specification, SeekRequest<T> seekRequest);
+
+  Slice<T> findSlice(Specification<T> specification, Pageable pageable);
+}
@@ -0,0 +1,39 @@
+package com.jsoft.magenta.util.pagination;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+public class SeekRepositoryImpl<T, ID> extends SimpleJpaRepository<T, ID> implements
+    SeekRepository<T, ID> {
+
+  public SeekRepositoryImpl(JpaEntityInformation<T, ?> entityInformation,
+      EntityManager entityManager) {
+    super(entityInformation, entityManager);
+  }
+
+  @Override
+  public List<T> findAll(Specification<T> specification, SeekRequest<T> seekRequest) {
+    Specification<T> seekSpecification = Specification.where(specification)
+        .and(seekRequest.toSpecification());
+    return getQuery(seekSpecification, seekRequest.getSort()) // No count query is issued
+        .setMaxResults(seekRequest.getLimit())
+        .getResultList();
+  }
+
+  @Override
+  public Slice<T> findSlice(Specification<T> specification, Pageable pageable) {
+    List<T> rows = getQuery(specification, pageable.getSort())
+        .setFirstResult((int) pageable.getOffset())
+        .setMaxResults(pageable.getPageSize() + 1) // One extra row tells whether more follow
+        .getResultList();
+    boolean hasNext = rows.size() > pageable.getPageSize();
+    return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable,
+        hasNext);
+  }
+}
@@ -0,0 +1,161 @@
+package com.jsoft.magenta.util.pagination;
+
+import com.jsoft.magenta.exceptions.InvalidCursorException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import lombok.Getter;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Keyset page request. Instead of skipping rows by offset, the next page starts right after the
+ * sort key and id of the last row seen, so every page costs the same as the first one and no
+ * count query is needed. Nulls sort as the largest values, which is the Postgres default
+ */
+@Getter
+public class SeekRequest<T> {
+
+  private static final String ID = "id";
+
+  private final int pageSize;
+  private final String sortBy;
+  private final boolean asc;
+  private final PageCursor cursor;
+
+  SeekRequest(int pageSize, String sortBy, boolean asc, PageCursor cursor) {
+    if (cursor != null && (!cursor.getSortBy().equals(sortBy) || cursor.isAsc() != asc)) {
+      throw new InvalidCursorException("Page cursor was issued for another sort");
+    }
+    this.pageSize = pageSize;
+    this.sortBy = sortBy;
+    this.asc = asc;
+    this.cursor = cursor;
+  }
+
+  public boolean isBackward() {
+    return cursor != null && cursor.isBackward();
+  }
+
+  public int getLimit() { // One extra row tells whether more rows follow
+    return pageSize + 1;
+  }
+
+  public Sort getSort() { // Walking backward reads the rows in reverse order
+    Direction direction = asc != isBackward() ? Direction.ASC : Direction.DESC;
+    return Sort.by(direction, sortBy).and(Sort.by(direction, ID));
+  }
+
+  public Specification<T> toSpecification() {
+    return (root, query, builder) -> {
+      if (cursor == null) { // First page
+        return null;
+      }
+      Path<Comparable<Object>> key = resolvePath(root, sortBy);
+      Comparable<Object> value = parseValue(cursor.getSortValue(), key.getJavaType());
+      Path<Long> id = root.get(ID);
+      boolean ascending = asc != isBackward();
+      Predicate afterKey = ascending ? greater(builder, key, value) : less(builder, key, value);
+      Predicate afterId = ascending ?
+          builder.greaterThan(id, cursor.getId()) : builder.lessThan(id, cursor.getId());
+      return builder.or(afterKey, builder.and(equal(builder, key, value), afterId));
+    };
+  }
+
+  public PageResponse<T> toPageResponse(List<T> rows) {
+    boolean hasMore = rows.size() > pageSize;
+    List<T> content = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+    if (isBackward()) { // Restore the requested order
+      Collections.reverse(content);
+    }
+    boolean hasNext = isBackward() || hasMore;
+    boolean hasPrevious = isBackward() ? hasMore : cursor != null;
+    String nextCursor = hasNext && !content.isEmpty() ?
+        cursorOf(content.get(content.size() - 1), false) : null;
+    String previousCursor = hasPrevious && !content.isEmpty() ?
+        cursorOf(content.get(0), true) : null;
+    return new PageResponse<>(content, pageSize, sortBy, asc, nextCursor, previousCursor);
+  }
+
+  private String cursorOf(T row, boolean backward) {
+    BeanWrapperImpl rowWrapper = new BeanWrapperImpl(row);
+    Object sortValue = rowWrapper.getPropertyValue(sortBy);
+    Long id = (Long) rowWrapper.getPropertyValue(ID);
+    String value = sortValue == null ? null :
+        sortValue instanceof Enum ? ((Enum<?>) sortValue).name() : sortValue.toString();
+    return new PageCursor(backward, sortBy, asc, id, value).encode();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <X> Path<X> resolvePath(Root<?> root, String property) {
+    Path<?> path = root;
+    for (String part : property.split("\\.")) { // Nested sort keys such as account.name
+      path = path.get(part);
+    }
+    return (Path<X>) path;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Comparable<Object> parseValue(String value, Class<?> type) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      if (type == String.class) {
+        return (Comparable) value;
+      } else if (type == Long.class || type == long.class) {
+        return (Comparable) Long.valueOf(value);
+      } else if (type == Integer.class || type == int.class) {
+        return (Comparable) Integer.valueOf(value);
+      } else if (type == Double.class || type == double.class) {
+        return (Comparable) Double.valueOf(value);
+      } else if (type == BigDecimal.class) {
+        return (Comparable) new BigDecimal(value);
+      } else if (type == Boolean.class || type == boolean.class) {
+        return (Comparable) Boolean.valueOf(value);
+      } else if (type == LocalDate.class) {
+        return (Comparable) LocalDate.parse(value);
+      } else if (type == LocalDateTime.class) {
+        return (Comparable) LocalDateTime.parse(value);
+      } else if (type == LocalTime.class) {
+        return (Comparable) LocalTime.parse(value);
+      } else if (type.isEnum()) {
+        return (Comparable) Enum.valueOf((Class<Enum>) type, value);
+      }
+    } catch (RuntimeException e) {
+      throw new InvalidCursorException("Page cursor is malformed");
+    }
+    throw new InvalidCursorException("Sort key cannot be used with page cursors");
+  }
+
+  private static Predicate greater(CriteriaBuilder builder, Path<Comparable<Object>> key,
+      Comparable<Object> value) {
+    if (value == null) { // Nothing sorts after nulls
+      return builder.disjunction();
+    }
+    return builder.or(builder.greaterThan(key, value), builder.isNull(key));
+  }
+
+  private static Predicate less(CriteriaBuilder builder, Path<Comparable<Object>> key,
+      Comparable<Object> value) {
+    if (value == null) {
+      return builder.isNotNull(key);
+    }
+    return builder.lessThan(key, value);
+  }
+
+  private static Predicate equal(CriteriaBuilder builder, Path<Comparable<Object>> key,
+      Comparable<Object> value) {
+    return value == null ? builder.isNull(key) : builder.equal(key, value);
+  }
+}
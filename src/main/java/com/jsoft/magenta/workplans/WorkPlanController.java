@@ -3,9 +3,11 @@ package com.jsoft.magenta.workplans;
 import static com.jsoft.magenta.util.AppDefaults.ASCENDING_SORT;
 import static com.jsoft.magenta.util.AppDefaults.PAGE_INDEX;
 import static com.jsoft.magenta.util.AppDefaults.PAGE_SIZE;
+import static com.jsoft.magenta.util.AppDefaults.WITH_TOTAL;
 import static com.jsoft.magenta.util.AppDefaults.WORK_PLANS_DEFAULT_SORT;
 
 import com.jsoft.magenta.security.annotations.users.UserManagePermission;
+import com.jsoft.magenta.util.pagination.PageResponse;
 import java.time.LocalDateTime;
 import java.util.List;
 import javax.validation.Valid;
@@ -75,6 +77,19 @@ public class WorkPlanController {
     return this.workPlanService.getAllWorkPlansByUserId(userId, pageIndex, pageSize, sortBy, asc);
   }
 
+  @GetMapping("{userId}/slice")
+  public PageResponse<WorkPlan> sliceAllWorkPlansByUserId(
+      @PathVariable Long userId,
+      @RequestParam(required = false, defaultValue = PAGE_INDEX) int pageIndex,
+      @RequestParam(required = false, defaultValue = PAGE_SIZE) int pageSize,
+      @RequestParam(required = false, defaultValue = WORK_PLANS_DEFAULT_SORT) String sortBy,
+      @RequestParam(required = false, defaultValue = ASCENDING_SORT) boolean asc,
+      @RequestParam(required = false, defaultValue = WITH_TOTAL) boolean withTotal
+  ) {
+    return this.workPlanService
+        .sliceAllWorkPlansByUserId(userId, pageIndex, pageSize, sortBy, asc, withTotal);
+  }
+
   @DeleteMapping("{wpId}")
   public void deleteWorkPlan(@PathVariable Long wpId) {
     this.workPlanService.deleteWorkPlan(wpId);
@@ -1,10 +1,10 @@
 package com.jsoft.magenta.workplans;
 
+import com.jsoft.magenta.util.pagination.SeekRepository;
 import java.util.List;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface WorkPlanRepository extends JpaRepository<WorkPlan, Long> {
+public interface WorkPlanRepository extends SeekRepository<WorkPlan, Long> {
 
   List<WorkPlan> findAllByUserId(Long userId, Pageable pageable);
 }
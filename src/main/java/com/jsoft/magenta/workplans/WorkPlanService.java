@@ -1,16 +1,23 @@
 package com.jsoft.magenta.workplans;
 
 import com.jsoft.magenta.events.workplans.WorkPlanCreationEvent;
+import com.jsoft.magenta.exceptions.AuthorizationException;
 import com.jsoft.magenta.exceptions.NoSuchElementException;
 import com.jsoft.magenta.security.SecurityService;
-import com.jsoft.magenta.users.User;
+import com.jsoft.magenta.security.model.PermissionName;
+import com.jsoft.magenta.security.model.UserPrincipal;
+import com.jsoft.magenta.users.SupervisionIndex;
 import com.jsoft.magenta.util.pagination.PageRequestBuilder;
+import com.jsoft.magenta.util.pagination.PageResponse;
+import com.jsoft.magenta.util.pagination.PageTotals;
 import java.time.DateTimeException;
 import java.time.LocalDateTime;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +29,8 @@ public class WorkPlanService {
   private final WorkPlanRepository workPlanRepository;
   private final ApplicationEventPublisher eventPublisher;
   private final SecurityService securityService;
+  private final SupervisionIndex supervisionIndex;
+  private final PageTotals pageTotals;
 
   public WorkPlan createWorkPlan(Long userId, WorkPlan workPlan) {
     isSupervisor(userId);
@@ -60,6 +69,17 @@ public class WorkPlanService {
     return this.workPlanRepository.findAllByUserId(userId, pageRequest);
   }
 
+  public PageResponse<WorkPlan> sliceAllWorkPlansByUserId(Long userId, int pageIndex,
+      int pageSize, String sortBy, boolean asc, boolean withTotal) {
+    PageRequest pageRequest = PageRequestBuilder.buildPageRequest(pageIndex, pageSize, sortBy, asc);
+    Specification<WorkPlan> ofUser = (root, query, builder) ->
+        builder.equal(root.get("user").get("id"), userId);
+    Slice<WorkPlan> slice = this.workPlanRepository.findSlice(ofUser, pageRequest);
+    Long total = this.pageTotals.count(withTotal, "work-plans:" + userId,
+        () -> this.workPlanRepository.count(ofUser));
+    return new PageResponse<>(slice, total);
+  }
+
   public void deleteWorkPlan(Long wpId) {
     this.workPlanRepository.deleteById(wpId);
   }
@@ -71,8 +91,12 @@ public class WorkPlanService {
   }
 
   private void isSupervisor(Long userId) {
-    User user = securityService.currentUser();
-    user.isSupervisorOf(userId);
+    UserPrincipal userPrincipal = securityService.currentPrincipal();
+    boolean authorized = userPrincipal.getPermissionTable().isAdminOf(PermissionName.USER) ||
+        supervisionIndex.isSupervisorOf(userPrincipal.getUserId(), userId);
+    if (!authorized) {
+      throw new AuthorizationException("User is not authorized to perform such operation");
+    }
   }
 
   private void validateDates(WorkPlan workPlan) {
@@ -1,13 +1,21 @@
 package com.jsoft.magenta.worktimes;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 import com.jsoft.magenta.users.User;
+import com.jsoft.magenta.util.pagination.SeekRepository;
+import com.jsoft.magenta.worktimes.reports.HoursDetailResult;
+import com.jsoft.magenta.worktimes.reports.UserHoursDetailResult;
 import com.jsoft.magenta.worktimes.reports.WorkTimeReportResult;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
-import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-public interface WorkTimeRepository extends JpaRepository<WorkTime, Long> {
+public interface WorkTimeRepository extends SeekRepository<WorkTime, Long> {
 
   Optional<Long> findUserIdById(Long wtId);
 
@@ -17,4 +25,21 @@ public interface WorkTimeRepository extends JpaRepository<WorkTime, Long> {
       LocalDate endDate);
 
   Optional<User> getUserByUserId(Long userId);
+
+  @Query("select a.name as accountName, p.name as projectName, sum(w.amount) as amount "
+      + "from WorkTime w join w.subProject s join s.project p join p.account a "
+      + "where w.user.id = :userId and w.date between :startDate and :endDate "
+      + "group by a.name, p.name")
+  List<HoursDetailResult> sumHoursDetailsByUserIdAndDateBetween(Long userId, LocalDate startDate,
+      LocalDate endDate);
+
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+  @Query("select w.user.id as userId, a.name as accountName, p.name as projectName, "
+      + "sum(w.amount) as amount from WorkTime w "
+      + "join w.subProject s join s.project p join p.account a "
+      + "where w.date between :startDate and :endDate "
+      + "group by w.user.id, a.name, p.name "
+      + "order by w.user.id")
+  Stream<UserHoursDetailResult> streamHoursDetailsByDateBetween(LocalDate startDate,
+      LocalDate endDate);
 }
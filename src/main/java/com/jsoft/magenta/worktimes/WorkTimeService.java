@@ -1,28 +1,42 @@
 package com.jsoft.magenta.worktimes;
 
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
 import com.jsoft.magenta.dates.HolidayService;
 import com.jsoft.magenta.events.subprojects.SubProjectRelatedEntityEvent;
+import com.jsoft.magenta.exceptions.AuthorizationException;
 import com.jsoft.magenta.exceptions.NoSuchElementException;
 import com.jsoft.magenta.exceptions.RedundantWorkTimeException;
 import com.jsoft.magenta.security.SecurityService;
+import com.jsoft.magenta.security.model.PermissionName;
+import com.jsoft.magenta.security.model.UserPrincipal;
 import com.jsoft.magenta.subprojects.SubProject;
+import com.jsoft.magenta.users.SupervisionIndex;
 import com.jsoft.magenta.users.User;
+import com.jsoft.magenta.users.UserSearchResult;
 import com.jsoft.magenta.worktimes.reports.BusinessMonth;
 import com.jsoft.magenta.worktimes.reports.BusinessWeek;
 import com.jsoft.magenta.worktimes.reports.HoursDetail;
+import com.jsoft.magenta.worktimes.reports.HoursDetailResult;
 import com.jsoft.magenta.worktimes.reports.MonthlyHoursReport;
+import com.jsoft.magenta.worktimes.reports.UserHoursDetailResult;
 import com.jsoft.magenta.worktimes.reports.WeeklyHoursReport;
 import com.jsoft.magenta.worktimes.reports.WorkTimeReportResult;
 import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
@@ -31,10 +45,14 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class WorkTimeService {
 
+  @Value("${application.reports.aggregate-in-database:true}")
+  private boolean aggregateInDatabase;
+
   private final WorkTimeRepository workTimeRepository;
   private final ApplicationEventPublisher eventPublisher;
   private final HolidayService holidayService;
   private final SecurityService securityService;
+  private final SupervisionIndex supervisionIndex;
 
   public WorkTime createWorkTime(Long subProjectId,
       WorkTime workTime) { // Validate work time type and values, set amount in case of date type work time
@@ -112,11 +130,8 @@ public class WorkTimeService {
     WeeklyHoursReport weeklyHoursReport = new WeeklyHoursReport(businessWeek);
     double weekHours = this.holidayService
         .getBusinessHoursInWeek(businessWeek); // Get amount of hours excluding holidays
-    List<WorkTimeReportResult> workTimes = this.workTimeRepository // Get all work times of user in that week
-        .findAllByUserIdAndDateBetween(userId, businessWeek.getStartDate(),
-            businessWeek.getEndDate());
-    List<HoursDetail> hoursDetails = mapWorkTimeToHourDetails(
-        workTimes); // Map work times to hour details
+    List<HoursDetail> hoursDetails = findHoursDetails( // Get hour details of user in that week
+        userId, businessWeek.getStartDate(), businessWeek.getEndDate());
     // Set fetched and processed details to the report
     weeklyHoursReport.setUserName(userName);
     weeklyHoursReport.setHoursDetails(hoursDetails);
@@ -125,16 +140,38 @@ public class WorkTimeService {
     return weeklyHoursReport;
   }
 
+  public void streamWeeklyHoursReports(List<UserSearchResult> users, BusinessWeek businessWeek,
+      BiConsumer<UserSearchResult, WeeklyHoursReport> reportConsumer) {
+    double weekHours = this.holidayService
+        .getBusinessHoursInWeek(businessWeek); // Holidays are resolved once for all users
+    List<UserSearchResult> sortedUsers = users.stream() // Same order as the grouped query rows
+        .sorted(Comparator.comparing(UserSearchResult::getId))
+        .collect(Collectors.toList());
+    try (Stream<UserHoursDetailResult> results = this.workTimeRepository
+        .streamHoursDetailsByDateBetween(businessWeek.getStartDate(), businessWeek.getEndDate())) {
+      PeekingIterator<UserHoursDetailResult> rows = Iterators.peekingIterator(results.iterator());
+      for (UserSearchResult user : sortedUsers) { // Merge rows of each user into its report
+        List<HoursDetail> hoursDetails = new ArrayList<>();
+        while (rows.hasNext() && rows.peek().getUserId() < user.getId()) {
+          rows.next(); // Rows of users that are not requested
+        }
+        while (rows.hasNext() && rows.peek().getUserId().equals(user.getId())) {
+          hoursDetails.add(mapToHoursDetail(rows.next()));
+        }
+        reportConsumer.accept(user, new WeeklyHoursReport(
+            String.format("%s %s", user.getFirstName(), user.getLastName()),
+            hoursDetails, businessWeek, weekHours));
+      }
+    }
+  }
+
   public MonthlyHoursReport getMonthlyHoursReport(Long userId, String userName,
       BusinessMonth businessMonth) {
     MonthlyHoursReport monthlyHoursReport = new MonthlyHoursReport(businessMonth);
     double monthHours = this.holidayService
         .getBusinessHoursInMonth(businessMonth); // Get amount of hours excluding holidays
-    List<WorkTimeReportResult> workTimes = this.workTimeRepository // Get all work times of user in that month
-        .findAllByUserIdAndDateBetween(userId, businessMonth.getFirstDate(),
-            businessMonth.getLastDate());
-    List<HoursDetail> hoursDetails = mapWorkTimeToHourDetails(
-        workTimes); // Map work times to hour details
+    List<HoursDetail> hoursDetails = findHoursDetails( // Get hour details of user in that month
+        userId, businessMonth.getFirstDate(), businessMonth.getLastDate());
     // Set fetched and processed details to the report
     monthlyHoursReport.setUserName(userName);
     monthlyHoursReport.setHoursDetails(hoursDetails);
@@ -194,9 +231,14 @@ public class WorkTimeService {
   }
 
   private void isSupervisorOrOwner(Long wtId) {
-    User user = securityService.currentUser();
+    UserPrincipal userPrincipal = securityService.currentPrincipal();
+    if (userPrincipal.getPermissionTable().isAdminOf(PermissionName.USER)) {
+      return;
+    }
     Long ownerId = findOwnerUserId(wtId);
-    user.isSupervisorOrOwner(ownerId);
+    if (!supervisionIndex.isSupervisorOrOwner(userPrincipal.getUserId(), ownerId)) {
+      throw new AuthorizationException("User is not authorized to perform such operation");
+    }
   }
 
   private Long findOwnerUserId(Long wtId) {
@@ -205,6 +247,27 @@ public class WorkTimeService {
         .orElseThrow(() -> new NoSuchElementException("Work time not found"));
   }
 
+  private List<HoursDetail> findHoursDetails(Long userId, LocalDate startDate,
+      LocalDate endDate) {
+    if (aggregateInDatabase) { // Database returns one summed row per account and project
+      return this.workTimeRepository
+          .sumHoursDetailsByUserIdAndDateBetween(userId, startDate, endDate)
+          .stream()
+          .map(this::mapToHoursDetail)
+          .collect(Collectors.toList());
+    } // Fallback - fetch all work times and sum them in memory
+    List<WorkTimeReportResult> workTimes = this.workTimeRepository
+        .findAllByUserIdAndDateBetween(userId, startDate, endDate);
+    return mapWorkTimeToHourDetails(workTimes);
+  }
+
+  private HoursDetail mapToHoursDetail(HoursDetailResult hoursDetailResult) {
+    return new HoursDetail(
+        hoursDetailResult.getAccountName(),
+        hoursDetailResult.getProjectName(),
+        hoursDetailResult.getAmount());
+  }
+
   private List<HoursDetail> mapWorkTimeToHourDetails(List<WorkTimeReportResult> workTimes) {
     Map<HoursDetail, Double> hoursDetailsMap = new HashMap<>(); // Create hour details - amount of hours map
     // Iterate over all work times and combine them into matching hour details (same account and project)
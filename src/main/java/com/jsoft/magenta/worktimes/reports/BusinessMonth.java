@@ -31,9 +31,10 @@ public final class BusinessMonth {
   }
 
   public int getTotalBusinessHours() {
-    Set<LocalDate> monthDates = getMonthDates();
     int totalHours = 0;
-    for (LocalDate localDate : monthDates) {
+    LocalDate lastDate = getLastDate();
+    for (LocalDate localDate = getFirstDate(); !localDate.isAfter(lastDate);
+        localDate = localDate.plusDays(1)) { // Walk the month without collecting its dates
       if (localDate.getDayOfWeek() == AppConstants.FIRST_WD_DAY ||
           localDate.getDayOfWeek() == AppConstants.SECOND_WD_DAY) {
         continue;
@@ -0,0 +1,10 @@
+package com.jsoft.magenta.worktimes.reports;
+
+public interface HoursDetailResult {
+
+  String getAccountName();
+
+  String getProjectName();
+
+  double getAmount();
+}
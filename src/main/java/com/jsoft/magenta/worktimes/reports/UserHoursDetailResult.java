@@ -0,0 +1,6 @@
+package com.jsoft.magenta.worktimes.reports;
+
+public interface UserHoursDetailResult extends HoursDetailResult {
+
+  Long getUserId();
+}
@@ -6,10 +6,14 @@ import static org.mockito.Mockito.when;
 import com.jsoft.magenta.accounts.domain.Account;
 import com.jsoft.magenta.accounts.domain.AccountAssociation;
 import com.jsoft.magenta.events.accounts.AccountAssociationUpdateEvent;
+import com.jsoft.magenta.events.projects.ProjectAssociationsCreationEvent;
 import com.jsoft.magenta.exceptions.DuplicationException;
+import com.jsoft.magenta.security.AccessDecisions;
 import com.jsoft.magenta.security.SecurityService;
+import com.jsoft.magenta.security.dao.AssociationBatchInserter;
 import com.jsoft.magenta.security.model.AccessPermission;
 import com.jsoft.magenta.security.model.Privilege;
+import com.jsoft.magenta.security.service.EffectiveAccessService;
 import com.jsoft.magenta.users.User;
 import com.jsoft.magenta.users.UserRepository;
 import com.jsoft.magenta.util.AppConstants;
@@ -25,6 +29,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -51,6 +56,15 @@ public class AccountServiceTest {
   @Mock
   private ApplicationEventPublisher eventPublisher;
 
+  @Mock
+  private AssociationBatchInserter associationBatchInserter;
+
+  @Mock
+  private EffectiveAccessService effectiveAccessService;
+
+  @Spy
+  private AccessDecisions accessDecisions;
+
   @BeforeEach
   public void init() {
     MockitoAnnotations.openMocks(this);
@@ -85,19 +99,81 @@ public class AccountServiceTest {
         AccessPermission.MANAGE);
 
     Mockito.when(securityService.currentUser()).thenReturn(user);
-    Mockito.when(
-        accountAssociationRepository.existsByUserIdAndAccountId(user.getId(), account.getId()))
-        .thenReturn(false);
+    Mockito.when(accountAssociationRepository
+        .findAccessPermissionByUserIdAndAccountId(user.getId(), account.getId()))
+        .thenReturn(Optional.empty());
     Mockito.when(accountAssociationRepository.save(accountAssociation))
         .thenReturn(accountAssociation);
 
     accountService.createAssociation(user.getId(), account.getId(), AccessPermission.MANAGE);
 
     Mockito.verify(accountAssociationRepository)
-        .existsByUserIdAndAccountId(user.getId(), account.getId());
+        .findAccessPermissionByUserIdAndAccountId(user.getId(), account.getId());
     Mockito.verify(accountAssociationRepository).save(accountAssociation);
   }
 
+  @Test
+  @DisplayName("Create associations of many users")
+  public void createAssociations() {
+    User user = new User();
+    user.setId(1L);
+    Privilege privilege = new Privilege();
+    privilege.setName(AppConstants.ACCOUNT_PERMISSION);
+    privilege.setLevel(AccessPermission.ADMIN);
+    user.setPrivileges(Set.of(privilege));
+    Set<Long> userIds = Set.of(2L, 3L, 4L);
+
+    when(securityService.currentUser()).thenReturn(user);
+    when(accountRepository.existsById(1L)).thenReturn(true);
+    when(accountAssociationRepository.findUserIdsByAccountIdAndUserIdIn(1L, userIds))
+        .thenReturn(Set.of());
+
+    accountService.createAssociations(1L, userIds, AccessPermission.MANAGE);
+
+    verify(accountAssociationRepository).findUserIdsByAccountIdAndUserIdIn(1L, userIds);
+    verify(associationBatchInserter)
+        .insertAccountAssociations(1L, userIds, AccessPermission.MANAGE);
+    verify(accountAssociationRepository, Mockito.never()).save(Mockito.any());
+  }
+
+  @Test
+  @DisplayName("Create associations with already associated user - should fail")
+  public void createAssociationsWithExisting() {
+    User user = new User();
+    user.setId(1L);
+    Privilege privilege = new Privilege();
+    privilege.setName(AppConstants.ACCOUNT_PERMISSION);
+    privilege.setLevel(AccessPermission.ADMIN);
+    user.setPrivileges(Set.of(privilege));
+    Set<Long> userIds = Set.of(2L, 3L);
+
+    when(securityService.currentUser()).thenReturn(user);
+    when(accountRepository.existsById(1L)).thenReturn(true);
+    when(accountAssociationRepository.findUserIdsByAccountIdAndUserIdIn(1L, userIds))
+        .thenReturn(Set.of(3L));
+
+    Assertions.assertThrows(DuplicationException.class,
+        () -> accountService.createAssociations(1L, userIds, AccessPermission.MANAGE));
+    verify(associationBatchInserter, Mockito.never())
+        .insertAccountAssociations(Mockito.any(), Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  @DisplayName("Create project associations - should add only missing READ associations")
+  public void handleProjectAssociationsCreation() {
+    Set<Long> userIds = Set.of(2L, 3L);
+
+    when(accountRepository.existsById(1L)).thenReturn(true);
+    when(accountAssociationRepository.findUserIdsByAccountIdAndUserIdIn(1L, userIds))
+        .thenReturn(Set.of(3L));
+
+    accountService.handleProjectAssociationsCreationEvent(
+        new ProjectAssociationsCreationEvent(1L, userIds, AccessPermission.MANAGE));
+
+    verify(associationBatchInserter)
+        .insertAccountAssociations(1L, Set.of(2L), AccessPermission.READ);
+  }
+
   @Test
   @DisplayName("Update association")
   public void updateAssociation() {
@@ -8,6 +8,7 @@ import com.jsoft.magenta.accounts.domain.Account;
 import com.jsoft.magenta.contacts.Contact;
 import com.jsoft.magenta.contacts.ContactRepository;
 import com.jsoft.magenta.contacts.ContactService;
+import com.jsoft.magenta.security.AccessDecisions;
 import com.jsoft.magenta.security.SecurityService;
 import java.util.List;
 import java.util.Optional;
@@ -18,6 +19,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -41,6 +43,9 @@ public class ContactServiceTest {
   @Mock
   private ApplicationEventPublisher eventPublisher;
 
+  @Spy
+  private AccessDecisions accessDecisions;
+
   @BeforeEach
   private void init() {
     MockitoAnnotations.openMocks(this);
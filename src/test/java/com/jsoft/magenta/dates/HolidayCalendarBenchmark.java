@@ -0,0 +1,77 @@
+package com.jsoft.magenta.dates;
+
+import com.jsoft.magenta.dates.domain.Holiday;
+import com.jsoft.magenta.dates.domain.HolidayType;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Business hours of a week, a month and a range across years from the cached calendar, and of a
+ * month right after its year was invalidated. Holidays come from a stubbed repository, so the
+ * reload measures the calendar build without the query
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HolidayCalendarBenchmark {
+
+  private static final LocalDate WEEK_START = LocalDate.of(2020, 12, 6);
+  private static final LocalDate MONTH_START = LocalDate.of(2020, 12, 1);
+
+  private HolidayCalendar holidayCalendar;
+
+  @Setup
+  public void init() {
+    HolidayRepository holidayRepository = Mockito.mock(HolidayRepository.class);
+    Mockito.when(holidayRepository.findAllByDateBetween(
+        ArgumentMatchers.any(), ArgumentMatchers.any()))
+        .thenAnswer(invocation -> { // Holidays spread over each requested year
+          LocalDate firstDate = invocation.getArgument(0);
+          return List.of(
+              new Holiday(firstDate.withDayOfYear(100), HolidayType.HOLIDAY),
+              new Holiday(firstDate.withDayOfYear(101), HolidayType.HOLIDAY_EVE),
+              new Holiday(firstDate.withDayOfYear(270), HolidayType.HOLIDAY),
+              new Holiday(firstDate.withDayOfYear(340), HolidayType.HOLIDAY));
+        });
+    holidayCalendar = new HolidayCalendar(holidayRepository);
+  }
+
+  @Benchmark
+  public double weekHours() {
+    return holidayCalendar.getBusinessHoursBetween(WEEK_START, WEEK_START.plusDays(6));
+  }
+
+  @Benchmark
+  public double monthHours() {
+    return holidayCalendar.getBusinessHoursBetween(MONTH_START,
+        MONTH_START.withDayOfMonth(MONTH_START.lengthOfMonth()));
+  }
+
+  @Benchmark
+  public double rangeHoursAcrossYears() {
+    return holidayCalendar.getBusinessHoursBetween(LocalDate.of(2018, 3, 15),
+        LocalDate.of(2021, 9, 15));
+  }
+
+  @Benchmark
+  public double monthHoursAfterInvalidation() {
+    holidayCalendar.invalidate(MONTH_START);
+    return monthHours();
+  }
+}
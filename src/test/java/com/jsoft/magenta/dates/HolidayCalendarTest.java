@@ -0,0 +1,100 @@
+package com.jsoft.magenta.dates;
+
+import com.jsoft.magenta.dates.domain.Holiday;
+import com.jsoft.magenta.dates.domain.HolidayType;
+import com.jsoft.magenta.events.holidays.HolidayUpdateEvent;
+import java.time.LocalDate;
+import java.util.List;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+public class HolidayCalendarTest {
+
+  @InjectMocks
+  private HolidayCalendar holidayCalendar;
+
+  @Mock
+  private HolidayRepository holidayRepository;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    Mockito.when(holidayRepository.findAllByDateBetween(
+        ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(List.of());
+  }
+
+  @Test
+  @DisplayName("Get hours of week without holidays - should be full business week")
+  public void getHoursOfRegularWeek() {
+    LocalDate sunday = LocalDate.of(2020, 12, 6);
+
+    Assertions.assertThat(holidayCalendar.getBusinessHoursBetween(sunday, sunday.plusDays(6)))
+        .isEqualTo(44);
+  }
+
+  @Test
+  @DisplayName("Get hours of week with holidays - should deduct holiday spans only")
+  public void getHoursOfWeekWithHolidays() {
+    LocalDate sunday = LocalDate.of(2020, 12, 6);
+    Mockito.when(holidayRepository.findAllByDateBetween(
+        LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31)))
+        .thenReturn(List.of(
+            new Holiday(sunday, HolidayType.HOLIDAY),
+            new Holiday(sunday.plusDays(1), HolidayType.HOLIDAY_EVE)));
+
+    Assertions.assertThat(holidayCalendar.getBusinessHoursBetween(sunday, sunday.plusDays(6)))
+        .isEqualTo(44 - 9 - 4.5);
+    Assertions.assertThat(holidayCalendar.getBusinessHoursOfDate(sunday.plusDays(5)))
+        .isZero();
+  }
+
+  @Test
+  @DisplayName("Get hours of range across years - should load each year once")
+  public void getHoursAcrossYears() {
+    LocalDate start = LocalDate.of(2020, 12, 27);
+
+    double firstRange = holidayCalendar.getBusinessHoursBetween(start, start.plusDays(6));
+    double secondRange = holidayCalendar.getBusinessHoursBetween(start, start.plusDays(6));
+
+    Assertions.assertThat(firstRange).isEqualTo(44).isEqualTo(secondRange);
+    Mockito.verify(holidayRepository, Mockito.times(2))
+        .findAllByDateBetween(ArgumentMatchers.any(), ArgumentMatchers.any());
+  }
+
+  @Test
+  @DisplayName("Get hours after holiday update - should reload year")
+  public void getHoursAfterHolidayUpdate() {
+    LocalDate sunday = LocalDate.of(2020, 12, 6);
+    holidayCalendar.getBusinessHoursOfDate(sunday);
+    Mockito.when(holidayRepository.findAllByDateBetween(
+        LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31)))
+        .thenReturn(List.of(new Holiday(sunday, HolidayType.HOLIDAY)));
+
+    holidayCalendar.handleHolidayUpdateEvent(new HolidayUpdateEvent(sunday));
+
+    Assertions.assertThat(holidayCalendar.getBusinessHoursOfDate(sunday)).isZero();
+  }
+
+  @Test
+  @DisplayName("Get hours while holiday update happens during load - should not cache stale year")
+  public void getHoursWithUpdateDuringLoad() {
+    LocalDate sunday = LocalDate.of(2020, 12, 6);
+    Mockito.when(holidayRepository.findAllByDateBetween(
+        LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31)))
+        .thenAnswer(invocation -> { // Holiday is committed after the year was read
+          holidayCalendar.handleHolidayUpdateEvent(new HolidayUpdateEvent(sunday));
+          return List.of();
+        })
+        .thenReturn(List.of(new Holiday(sunday, HolidayType.HOLIDAY)));
+
+    Assertions.assertThat(holidayCalendar.getBusinessHoursOfDate(sunday)).isEqualTo(9);
+    Assertions.assertThat(holidayCalendar.getBusinessHoursOfDate(sunday)).isZero();
+  }
+}
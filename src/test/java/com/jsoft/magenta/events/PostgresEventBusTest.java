@@ -0,0 +1,129 @@
+package com.jsoft.magenta.events;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jsoft.magenta.events.posts.PostReactiveEvent;
+import com.jsoft.magenta.events.reactive.ReactiveEventType;
+import com.jsoft.magenta.events.reactive.bus.PostgresEventBus;
+import com.jsoft.magenta.posts.Post;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class PostgresEventBusTest {
+
+  @Mock
+  private DataSource dataSource;
+
+  @Mock
+  private Connection connection;
+
+  @Mock
+  private PreparedStatement statement;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private PostgresEventBus<Post, PostReactiveEvent> eventBus;
+
+  private List<PostReactiveEvent> receivedEvents;
+
+  @BeforeEach
+  public void init() throws SQLException {
+    MockitoAnnotations.openMocks(this);
+    Mockito.when(dataSource.getConnection()).thenReturn(connection);
+    Mockito.when(connection.prepareStatement(Mockito.anyString())).thenReturn(statement);
+    eventBus = new PostgresEventBus<>(dataSource, objectMapper, "post_events", Post.class,
+        Post::getId, PostReactiveEvent::new, Duration.ofMillis(100), Duration.ofMillis(100));
+    receivedEvents = new ArrayList<>();
+    eventBus.subscribe(receivedEvents::add);
+  }
+
+  @Test
+  @DisplayName("Publish events - should deliver locally and notify coalesced batch")
+  public void publishEvents() throws Exception {
+    eventBus.publish(createEvent(1L, "first", ReactiveEventType.CREATE));
+    eventBus.publish(createEvent(1L, "second", ReactiveEventType.UPDATE));
+    eventBus.publish(createEvent(2L, "other", ReactiveEventType.UPDATE));
+    eventBus.publish(createEvent(3L, "short lived", ReactiveEventType.CREATE));
+    eventBus.publish(createEvent(3L, "short lived", ReactiveEventType.DELETE));
+
+    ReflectionTestUtils.invokeMethod(eventBus, "flush");
+
+    Assertions.assertThat(receivedEvents).hasSize(5);
+    ArgumentCaptor<String> messageCaptor = ArgumentCaptor.forClass(String.class);
+    Mockito.verify(statement).setString(Mockito.eq(2), messageCaptor.capture());
+    JsonNode events = objectMapper.readTree(messageCaptor.getValue()).get("events");
+    Assertions.assertThat(events).hasSize(2);
+    Assertions.assertThat(events.get(0).get("type").asText()).isEqualTo("CREATE");
+    Assertions.assertThat(events.get(0).get("payload").get("title").asText())
+        .isEqualTo("second");
+    Assertions.assertThat(events.get(1).get("payload").get("id").asLong()).isEqualTo(2L);
+  }
+
+  @Test
+  @DisplayName("Flush many events - should split messages under payload limit")
+  public void flushManyEvents() throws Exception {
+    for (long postId = 1; postId <= 100; postId++) {
+      eventBus.publish(createEvent(postId, "x".repeat(200), ReactiveEventType.UPDATE));
+    }
+
+    ReflectionTestUtils.invokeMethod(eventBus, "flush");
+
+    ArgumentCaptor<String> messageCaptor = ArgumentCaptor.forClass(String.class);
+    Mockito.verify(statement, Mockito.atLeast(3))
+        .setString(Mockito.eq(2), messageCaptor.capture());
+    Assertions.assertThat(messageCaptor.getAllValues())
+        .allSatisfy(message -> Assertions.assertThat(message.length()).isLessThan(8000));
+    int sentEvents = 0;
+    for (String message : messageCaptor.getAllValues()) {
+      sentEvents += objectMapper.readTree(message).get("events").size();
+    }
+    Assertions.assertThat(sentEvents).isEqualTo(100);
+  }
+
+  @Test
+  @DisplayName("Receive message of other node - should deliver to local subscribers")
+  public void receiveMessageOfOtherNode() {
+    String message = "{\"origin\":\"other\",\"events\":"
+        + "[{\"type\":\"UPDATE\",\"payload\":{\"id\":7,\"title\":\"title\"}}]}";
+
+    ReflectionTestUtils.invokeMethod(eventBus, "handleMessage", message);
+
+    Assertions.assertThat(receivedEvents).hasSize(1);
+    Assertions.assertThat(receivedEvents.get(0).getPayLoad().getId()).isEqualTo(7L);
+    Assertions.assertThat(receivedEvents.get(0).getEventType())
+        .isEqualTo(ReactiveEventType.UPDATE);
+  }
+
+  @Test
+  @DisplayName("Receive own message - should be ignored")
+  public void receiveOwnMessage() {
+    String nodeId = (String) ReflectionTestUtils.getField(eventBus, "nodeId");
+    String message = "{\"origin\":\"" + nodeId + "\",\"events\":"
+        + "[{\"type\":\"UPDATE\",\"payload\":{\"id\":7}}]}";
+
+    ReflectionTestUtils.invokeMethod(eventBus, "handleMessage", message);
+
+    Assertions.assertThat(receivedEvents).isEmpty();
+  }
+
+  private PostReactiveEvent createEvent(Long postId, String title, ReactiveEventType eventType) {
+    Post post = new Post();
+    post.setId(postId);
+    post.setTitle(title);
+    return new PostReactiveEvent(post, eventType);
+  }
+}
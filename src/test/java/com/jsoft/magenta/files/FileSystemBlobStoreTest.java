@@ -0,0 +1,114 @@
+package com.jsoft.magenta.files;
+
+import com.jsoft.magenta.files.storage.FileSystemBlobStore;
+import com.jsoft.magenta.files.storage.StoredBlob;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.stream.Stream;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class FileSystemBlobStoreTest {
+
+  @TempDir
+  Path rootDirectory;
+
+  private FileSystemBlobStore blobStore;
+
+  @BeforeEach
+  public void init() {
+    blobStore = new FileSystemBlobStore();
+    ReflectionTestUtils.setField(blobStore, "rootDirectory", rootDirectory.toString());
+    ReflectionTestUtils.invokeMethod(blobStore, "init");
+  }
+
+  @Test
+  @DisplayName("Write content - should be readable by its SHA-256 key")
+  public void writeAndRead() throws IOException {
+    StoredBlob storedBlob = blobStore.write(contentOf("image"));
+
+    Assertions.assertThat(storedBlob.getContentKey())
+        .isEqualTo("6105d6cc76af400325e94d588ce511be5bfdbb73b437dc51eca43917d7a43e3d");
+    Assertions.assertThat(storedBlob.getSize()).isEqualTo(5);
+    try (InputStream inputStream = blobStore.read(storedBlob.getContentKey())) {
+      Assertions.assertThat(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8))
+          .isEqualTo("image");
+    }
+  }
+
+  @Test
+  @DisplayName("Write same content twice - should store single file")
+  public void writeDuplicate() throws IOException {
+    StoredBlob first = blobStore.write(contentOf("image"));
+    StoredBlob second = blobStore.write(outputStream ->
+        outputStream.write("image".getBytes(StandardCharsets.UTF_8)));
+
+    Assertions.assertThat(first).isEqualTo(second);
+    try (Stream<Path> files = Files.walk(rootDirectory)) {
+      Assertions.assertThat(files.filter(Files::isRegularFile).count()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  @DisplayName("Delete content - should not exist anymore")
+  public void delete() throws IOException {
+    StoredBlob storedBlob = blobStore.write(contentOf("image"));
+
+    blobStore.delete(storedBlob.getContentKey());
+
+    Assertions.assertThat(blobStore.exists(storedBlob.getContentKey())).isFalse();
+  }
+
+  @Test
+  @DisplayName("Delete content written again since given instant - should keep content")
+  public void deleteIfUnmodifiedSinceAfterRewrite() throws IOException {
+    StoredBlob storedBlob = blobStore.write(contentOf("image"));
+    Instant released = Instant.now().minusSeconds(60);
+    Path blobFile = findBlobFile();
+    Files.setLastModifiedTime(blobFile, FileTime.from(released.minusSeconds(60)));
+
+    blobStore.write(contentOf("image")); // Deduplicated by a concurrent upload
+
+    Assertions.assertThat(blobStore.deleteIfUnmodifiedSince(storedBlob.getContentKey(), released))
+        .isFalse();
+    Assertions.assertThat(blobStore.exists(storedBlob.getContentKey())).isTrue();
+  }
+
+  @Test
+  @DisplayName("Delete content unmodified since given instant - should delete content")
+  public void deleteIfUnmodifiedSince() throws IOException {
+    StoredBlob storedBlob = blobStore.write(contentOf("image"));
+    Files.setLastModifiedTime(findBlobFile(), FileTime.from(Instant.now().minusSeconds(120)));
+
+    Assertions.assertThat(blobStore.deleteIfUnmodifiedSince(
+        storedBlob.getContentKey(), Instant.now().minusSeconds(60))).isTrue();
+    Assertions.assertThat(blobStore.exists(storedBlob.getContentKey())).isFalse();
+  }
+
+  @Test
+  @DisplayName("Read with invalid key - should throw exception")
+  public void readInvalidKey() {
+    Assertions.assertThatThrownBy(() -> blobStore.read("../../etc/passwd"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private Path findBlobFile() throws IOException {
+    try (Stream<Path> files = Files.walk(rootDirectory)) {
+      return files.filter(Files::isRegularFile).findFirst().orElseThrow();
+    }
+  }
+
+  private InputStream contentOf(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
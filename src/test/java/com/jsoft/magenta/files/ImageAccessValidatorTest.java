@@ -0,0 +1,130 @@
+package com.jsoft.magenta.files;
+
+import com.jsoft.magenta.accounts.AccountAssociationRepository;
+import com.jsoft.magenta.accounts.AccountRepository;
+import com.jsoft.magenta.exceptions.AuthorizationException;
+import com.jsoft.magenta.security.AccessDecisions;
+import com.jsoft.magenta.security.SecurityService;
+import com.jsoft.magenta.security.model.AccessPermission;
+import com.jsoft.magenta.security.model.Privilege;
+import com.jsoft.magenta.security.model.UserPrincipal;
+import com.jsoft.magenta.users.SupervisionIndex;
+import com.jsoft.magenta.users.UserRepository;
+import com.jsoft.magenta.util.AppConstants;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+public class ImageAccessValidatorTest {
+
+  @InjectMocks
+  private ImageAccessValidator imageAccessValidator;
+
+  @Mock
+  private SecurityService securityService;
+
+  @Mock
+  private SupervisionIndex supervisionIndex;
+
+  @Mock
+  private AccessDecisions accessDecisions;
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private AccountRepository accountRepository;
+
+  @Mock
+  private AccountAssociationRepository accountAssociationRepository;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    Mockito.when(accessDecisions.decide(ArgumentMatchers.anyString(), ArgumentMatchers.any(),
+        ArgumentMatchers.any(), ArgumentMatchers.any()))
+        .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(3)).get());
+    Mockito.when(userRepository.findAllIdsByProfileImageId(ArgumentMatchers.any()))
+        .thenReturn(List.of());
+    Mockito.when(accountRepository.findAllIdsByImageId(ArgumentMatchers.any()))
+        .thenReturn(List.of());
+  }
+
+  @Test
+  @DisplayName("Get own profile image - should be allowed")
+  public void validateOwnProfileImage() {
+    login(AppConstants.USER_PERMISSION, AccessPermission.READ);
+    Mockito.when(userRepository.findAllIdsByProfileImageId(10L)).thenReturn(List.of(1L));
+
+    imageAccessValidator.validateReadAccess(10L);
+  }
+
+  @Test
+  @DisplayName("Get profile image of supervised user - should be allowed")
+  public void validateSupervisedProfileImage() {
+    login(AppConstants.USER_PERMISSION, AccessPermission.MANAGE);
+    Mockito.when(userRepository.findAllIdsByProfileImageId(10L)).thenReturn(List.of(2L));
+    Mockito.when(supervisionIndex.isSupervisorOf(1L, 2L)).thenReturn(true);
+
+    imageAccessValidator.validateReadAccess(10L);
+  }
+
+  @Test
+  @DisplayName("Get profile image of other user - should throw exception")
+  public void validateOtherProfileImage() {
+    login(AppConstants.USER_PERMISSION, AccessPermission.MANAGE);
+    Mockito.when(userRepository.findAllIdsByProfileImageId(10L)).thenReturn(List.of(2L));
+
+    Assertions.assertThatThrownBy(() -> imageAccessValidator.validateReadAccess(10L))
+        .isInstanceOf(AuthorizationException.class);
+  }
+
+  @Test
+  @DisplayName("Get image of associated account - should be allowed")
+  public void validateAssociatedAccountImage() {
+    login(AppConstants.ACCOUNT_PERMISSION, AccessPermission.READ);
+    Mockito.when(accountRepository.findAllIdsByImageId(10L)).thenReturn(List.of(5L));
+    Mockito.when(accountAssociationRepository.findAccessPermissionByUserIdAndAccountId(1L, 5L))
+        .thenReturn(Optional.of(AccessPermission.READ));
+
+    imageAccessValidator.validateReadAccess(10L);
+  }
+
+  @Test
+  @DisplayName("Get image of unassociated account - should throw exception")
+  public void validateUnassociatedAccountImage() {
+    login(AppConstants.ACCOUNT_PERMISSION, AccessPermission.WRITE);
+    Mockito.when(accountRepository.findAllIdsByImageId(10L)).thenReturn(List.of(5L));
+    Mockito.when(accountAssociationRepository.findAccessPermissionByUserIdAndAccountId(1L, 5L))
+        .thenReturn(Optional.empty());
+
+    Assertions.assertThatThrownBy(() -> imageAccessValidator.validateReadAccess(10L))
+        .isInstanceOf(AuthorizationException.class);
+  }
+
+  @Test
+  @DisplayName("Get image without owner - should throw exception")
+  public void validateImageWithoutOwner() {
+    login(AppConstants.ACCOUNT_PERMISSION, AccessPermission.ADMIN);
+
+    Assertions.assertThatThrownBy(() -> imageAccessValidator.validateReadAccess(10L))
+        .isInstanceOf(AuthorizationException.class);
+  }
+
+  private void login(String permissionName, AccessPermission accessPermission) {
+    Privilege privilege = new Privilege(1L, permissionName, accessPermission, null, null);
+    UserPrincipal userPrincipal = new UserPrincipal(1L, "user@user.com", Set.of(privilege),
+        Set.of(), () -> null);
+    Mockito.when(securityService.currentPrincipal()).thenReturn(userPrincipal);
+  }
+}
@@ -0,0 +1,69 @@
+package com.jsoft.magenta.files;
+
+import com.jsoft.magenta.exceptions.NoSuchElementException;
+import com.jsoft.magenta.files.storage.BlobStore;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ImageContentCacheTest {
+
+  @InjectMocks
+  private ImageContentCache contentCache;
+
+  @Mock
+  private BlobStore blobStore;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    ReflectionTestUtils.setField(contentCache, "maxBytes", 10L);
+    ReflectionTestUtils.setField(contentCache, "maxEntryBytes", 5L);
+    ReflectionTestUtils.invokeMethod(contentCache, "init");
+  }
+
+  @Test
+  @DisplayName("Get small content twice - should read store once")
+  public void getSmallContentTwice() throws IOException {
+    Mockito.when(blobStore.read("key"))
+        .thenReturn(new ByteArrayInputStream("image".getBytes()));
+
+    Resource first = contentCache.getResource("key", 5);
+    Resource second = contentCache.getResource("key", 5);
+
+    Assertions.assertThat(second.getInputStream().readAllBytes()).isEqualTo("image".getBytes());
+    Assertions.assertThat(first.contentLength()).isEqualTo(5);
+    Assertions.assertThat(contentCache.getHitCount()).isEqualTo(1);
+    Mockito.verify(blobStore).read("key");
+  }
+
+  @Test
+  @DisplayName("Get large content - should stream from store without caching")
+  public void getLargeContent() {
+    Resource resource = new ByteArrayResource("large image".getBytes());
+    Mockito.when(blobStore.getResource("key")).thenReturn(resource);
+
+    Assertions.assertThat(contentCache.getResource("key", 11)).isSameAs(resource);
+    Assertions.assertThat(contentCache.getMissCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("Get missing content - should throw exception")
+  public void getMissingContent() throws IOException {
+    Mockito.when(blobStore.read("key")).thenThrow(new NoSuchFileException("key"));
+
+    Assertions.assertThatThrownBy(() -> contentCache.getResource("key", 5))
+        .isInstanceOf(NoSuchElementException.class);
+  }
+}
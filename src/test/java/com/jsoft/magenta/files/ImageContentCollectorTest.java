@@ -0,0 +1,94 @@
+package com.jsoft.magenta.files;
+
+import com.jsoft.magenta.files.storage.BlobStore;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ImageContentCollectorTest {
+
+  @InjectMocks
+  private ImageContentCollector contentCollector;
+
+  @Mock
+  private MagentaImageRepository imageRepository;
+
+  @Mock
+  private MagentaImageRenditionRepository renditionRepository;
+
+  @Mock
+  private BlobStore blobStore;
+
+  @Mock
+  private ImageContentCache contentCache;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    ReflectionTestUtils.setField(contentCollector, "releaseGrace", Duration.ZERO);
+  }
+
+  @Test
+  @DisplayName("Collect unreferenced content - should delete content once")
+  public void collectUnreferencedContent() throws IOException {
+    Mockito.when(blobStore.deleteIfUnmodifiedSince(
+        ArgumentMatchers.eq("key"), ArgumentMatchers.any(Instant.class))).thenReturn(true);
+
+    contentCollector.release("key");
+    contentCollector.collect();
+    contentCollector.collect();
+
+    Mockito.verify(blobStore)
+        .deleteIfUnmodifiedSince(ArgumentMatchers.eq("key"), ArgumentMatchers.any(Instant.class));
+    Mockito.verify(contentCache).invalidate("key");
+  }
+
+  @Test
+  @DisplayName("Collect content referenced by committed upload - should keep content")
+  public void collectReferencedContent() throws IOException {
+    Mockito.when(imageRepository.countByContentKey("key")).thenReturn(1L);
+
+    contentCollector.release("key");
+    contentCollector.collect();
+
+    Mockito.verify(blobStore, Mockito.never())
+        .deleteIfUnmodifiedSince(ArgumentMatchers.any(), ArgumentMatchers.any());
+  }
+
+  @Test
+  @DisplayName("Collect content written during grace period - should check again on next run")
+  public void collectRecentlyWrittenContent() throws IOException {
+    Mockito.when(blobStore.deleteIfUnmodifiedSince(
+        ArgumentMatchers.eq("key"), ArgumentMatchers.any(Instant.class)))
+        .thenReturn(false) // Pending upload deduplicated onto the content
+        .thenReturn(true);
+
+    contentCollector.release("key");
+    contentCollector.collect();
+    contentCollector.collect();
+
+    Mockito.verify(blobStore, Mockito.times(2))
+        .deleteIfUnmodifiedSince(ArgumentMatchers.eq("key"), ArgumentMatchers.any(Instant.class));
+    Mockito.verify(contentCache).invalidate("key");
+  }
+
+  @Test
+  @DisplayName("Collect content within grace period - should not delete content")
+  public void collectWithinGracePeriod() throws IOException {
+    ReflectionTestUtils.setField(contentCollector, "releaseGrace", Duration.ofMinutes(10));
+
+    contentCollector.release("key");
+    contentCollector.collect();
+
+    Mockito.verifyNoInteractions(blobStore);
+  }
+}
@@ -0,0 +1,131 @@
+package com.jsoft.magenta.files;
+
+import com.jsoft.magenta.exceptions.AuthorizationException;
+import com.jsoft.magenta.util.Stringify;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest
+@WithUserDetails("admin@admin.com")
+@AutoConfigureMockMvc
+public class MagentaImageControllerTest {
+
+  private static final String CONTENT_KEY =
+      "6105d6cc76af400325e94d588ce511be5bfdbb73b437dc51eca43917d7a43e3d";
+
+  @MockBean
+  private MagentaImageService imageService;
+
+  @MockBean
+  private ImageAccessValidator imageAccessValidator;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  private MagentaImage magentaImage;
+
+  @BeforeEach
+  public void init() {
+    magentaImage = new MagentaImage(1L, "png", "user-PROFILE", MagentaImageType.PROFILE,
+        CONTENT_KEY, 5);
+    Mockito.when(imageService.findImage(1L)).thenReturn(magentaImage);
+    Mockito.when(imageService.getImageResource(magentaImage))
+        .thenReturn(new ByteArrayResource("image".getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  @DisplayName("Get image - should stream content with etag")
+  public void getImage() throws Exception {
+    mockMvc.perform(MockMvcRequestBuilders.get(Stringify.BASE_URL + "images/1"))
+        .andExpect(MockMvcResultMatchers.status().isOk())
+        .andExpect(MockMvcResultMatchers.content().contentType(MediaType.IMAGE_PNG))
+        .andExpect(MockMvcResultMatchers.header()
+            .string(HttpHeaders.ETAG, String.format("\"%s\"", CONTENT_KEY)))
+        .andExpect(MockMvcResultMatchers.content().string("image"))
+        .andDo(MockMvcResultHandlers.print());
+  }
+
+  @Test
+  @DisplayName("Get image with matching etag - should return not modified")
+  public void getImageNotModified() throws Exception {
+    mockMvc.perform(MockMvcRequestBuilders.get(Stringify.BASE_URL + "images/1")
+        .header(HttpHeaders.IF_NONE_MATCH, String.format("\"%s\"", CONTENT_KEY)))
+        .andExpect(MockMvcResultMatchers.status().isNotModified())
+        .andDo(MockMvcResultHandlers.print());
+  }
+
+  @Test
+  @DisplayName("Get image range - should return partial content")
+  public void getImageRange() throws Exception {
+    mockMvc.perform(MockMvcRequestBuilders.get(Stringify.BASE_URL + "images/1")
+        .header(HttpHeaders.RANGE, "bytes=1-3"))
+        .andExpect(MockMvcResultMatchers.status().isPartialContent())
+        .andExpect(MockMvcResultMatchers.content().string("mag"))
+        .andDo(MockMvcResultHandlers.print());
+  }
+
+  @Test
+  @DisplayName("Get image rendition - should stream requested rendition")
+  public void getImageRendition() throws Exception {
+    MagentaImageRendition rendition = new MagentaImageRendition(1L, 1L, 100, 100, "jpeg",
+        CONTENT_KEY, 5);
+    Mockito.when(imageService.findRendition(1L, 100, "jpeg")).thenReturn(rendition);
+    Mockito.when(imageService.getRenditionResource(rendition))
+        .thenReturn(new ByteArrayResource("image".getBytes(StandardCharsets.UTF_8)));
+
+    mockMvc.perform(MockMvcRequestBuilders.get(Stringify.BASE_URL + "images/1/renditions")
+        .param("width", "100")
+        .param("format", "jpeg"))
+        .andExpect(MockMvcResultMatchers.status().isOk())
+        .andExpect(MockMvcResultMatchers.content().contentType(MediaType.IMAGE_JPEG))
+        .andDo(MockMvcResultHandlers.print());
+  }
+
+  @Test
+  @DisplayName("Get image by content key - should be cached for long")
+  public void getImageContent() throws Exception {
+    mockMvc.perform(MockMvcRequestBuilders.get(Stringify.BASE_URL + "images/1/" + CONTENT_KEY))
+        .andExpect(MockMvcResultMatchers.status().isOk())
+        .andExpect(MockMvcResultMatchers.header()
+            .string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, private"))
+        .andDo(MockMvcResultHandlers.print());
+  }
+
+  @Test
+  @DisplayName("Get image by stale content key - should return not found")
+  public void getImageStaleContent() throws Exception {
+    String staleContentKey = "0" + CONTENT_KEY.substring(1);
+
+    mockMvc.perform(MockMvcRequestBuilders.get(Stringify.BASE_URL + "images/1/" + staleContentKey))
+        .andExpect(MockMvcResultMatchers.status().isNotFound())
+        .andDo(MockMvcResultHandlers.print());
+  }
+
+  @Test
+  @DisplayName("Get image of unrelated owner - should return unauthorized")
+  public void getImageWithoutAccess() throws Exception {
+    Mockito.doThrow(new AuthorizationException("User is not authorized to get such image"))
+        .when(imageAccessValidator).validateReadAccess(1L);
+
+    mockMvc.perform(MockMvcRequestBuilders.get(Stringify.BASE_URL + "images/1/" + CONTENT_KEY))
+        .andExpect(MockMvcResultMatchers.status().isUnauthorized())
+        .andDo(MockMvcResultHandlers.print());
+
+    Mockito.verify(imageService, Mockito.never()).getImageResource(magentaImage);
+  }
+}
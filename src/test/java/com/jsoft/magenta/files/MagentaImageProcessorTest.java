@@ -0,0 +1,201 @@
+package com.jsoft.magenta.files;
+
+import com.jsoft.magenta.exceptions.ImageProcessException;
+import com.jsoft.magenta.exceptions.ImageProcessingRejectedException;
+import com.jsoft.magenta.files.storage.FileSystemBlobStore;
+import com.jsoft.magenta.files.storage.StoredBlob;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import org.assertj.core.api.Assertions;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class MagentaImageProcessorTest {
+
+  @TempDir
+  Path rootDirectory;
+
+  private FileSystemBlobStore blobStore;
+
+  private MagentaImageProcessor imageProcessor;
+
+  @BeforeEach
+  public void init() {
+    blobStore = new FileSystemBlobStore();
+    ReflectionTestUtils.setField(blobStore, "rootDirectory", rootDirectory.toString());
+    ReflectionTestUtils.invokeMethod(blobStore, "init");
+
+    imageProcessor = new MagentaImageProcessor(blobStore);
+    ReflectionTestUtils.setField(imageProcessor, "coverImageSizeWidth", 100);
+    ReflectionTestUtils.setField(imageProcessor, "coverImageSizeHeight", 100);
+    ReflectionTestUtils.setField(imageProcessor, "profileImageSizeWidth", 50);
+    ReflectionTestUtils.setField(imageProcessor, "profileImageHeight", 50);
+    ReflectionTestUtils.setField(imageProcessor, "logoImageSizeWidth", 30);
+    ReflectionTestUtils.setField(imageProcessor, "logoImageSizeHeight", 30);
+    ReflectionTestUtils.setField(imageProcessor, "thumbnailImageSizeWidth", 40);
+    ReflectionTestUtils.setField(imageProcessor, "thumbnailImageSizeHeight", 40);
+    ReflectionTestUtils.setField(imageProcessor, "renditionScales", new int[]{1, 2});
+    ReflectionTestUtils.setField(imageProcessor, "renditionFormats", new String[]{"jpg", "png"});
+    ReflectionTestUtils.setField(imageProcessor, "threads", 1);
+    ReflectionTestUtils.setField(imageProcessor, "queueCapacity", 1);
+    ReflectionTestUtils.setField(imageProcessor, "maxPixels", 1_000_000L);
+    ReflectionTestUtils.invokeMethod(imageProcessor, "init");
+  }
+
+  @AfterEach
+  public void shutdown() {
+    ReflectionTestUtils.invokeMethod(imageProcessor, "shutdown");
+  }
+
+  @Test
+  @DisplayName("Process renditions - should store each scale in each format")
+  public void processRenditions() throws IOException {
+    MockMultipartFile imageFile = createImageFile(200, 100);
+
+    List<StoredRendition> storedRenditions = imageProcessor
+        .processRenditions("user", imageFile)
+        .get(MagentaImageType.PROFILE);
+
+    Assertions.assertThat(storedRenditions)
+        .extracting(StoredRendition::getWidth, StoredRendition::getHeight,
+            StoredRendition::getFormat)
+        .containsExactly(
+            Tuple.tuple(50, 25, "png"), Tuple.tuple(50, 25, "jpeg"),
+            Tuple.tuple(100, 50, "png"), Tuple.tuple(100, 50, "jpeg"));
+    Assertions.assertThat(readImage(storedRenditions.get(3).getStoredBlob()).getWidth())
+        .isEqualTo(100);
+  }
+
+  @Test
+  @DisplayName("Process renditions - should decode once for every image type")
+  public void processRenditionsOfEveryType() throws IOException {
+    AtomicInteger reads = new AtomicInteger();
+    MockMultipartFile imageFile = new MockMultipartFile(
+        "image", "image.png", MediaType.IMAGE_PNG_VALUE, createImageFile(200, 100).getBytes()) {
+      @Override
+      public InputStream getInputStream() throws IOException {
+        reads.incrementAndGet();
+        return super.getInputStream();
+      }
+    };
+
+    Map<MagentaImageType, List<StoredRendition>> storedRenditions = imageProcessor
+        .processRenditions("user", imageFile);
+
+    Assertions.assertThat(reads).hasValue(1);
+    Assertions.assertThat(storedRenditions).containsOnlyKeys(MagentaImageType.values());
+    Assertions.assertThat(storedRenditions.get(MagentaImageType.LOGO))
+        .extracting(StoredRendition::getWidth)
+        .containsExactly(30, 30, 60, 60);
+    Assertions.assertThat(storedRenditions.get(MagentaImageType.COVER).get(0).getStoredBlob())
+        .isEqualTo(storedRenditions.get(MagentaImageType.PROFILE).get(2).getStoredBlob());
+  }
+
+  @Test
+  @DisplayName("Process renditions of small image - should not upscale")
+  public void processRenditionsOfSmallImage() throws IOException {
+    MockMultipartFile imageFile = createImageFile(60, 60);
+
+    List<StoredRendition> storedRenditions = imageProcessor
+        .processRenditions("user", imageFile)
+        .get(MagentaImageType.PROFILE);
+
+    Assertions.assertThat(storedRenditions)
+        .extracting(StoredRendition::getScale)
+        .containsOnly(1);
+  }
+
+  @Test
+  @DisplayName("Process image above max pixels - should throw exception")
+  public void processTooLargeImage() throws IOException {
+    MockMultipartFile imageFile = createImageFile(1001, 1000);
+
+    Assertions.assertThatThrownBy(
+        () -> imageProcessor.processRenditions("account", imageFile))
+        .isInstanceOf(ImageProcessException.class)
+        .hasMessageContaining("pixels");
+  }
+
+  @Test
+  @DisplayName("Process non image file - should throw exception")
+  public void processNonImage() {
+    MockMultipartFile imageFile = new MockMultipartFile(
+        "image", "image.png", MediaType.IMAGE_PNG_VALUE, "not an image".getBytes());
+
+    Assertions.assertThatThrownBy(
+        () -> imageProcessor.processRenditions("account", imageFile))
+        .isInstanceOf(ImageProcessException.class);
+  }
+
+  @Test
+  @DisplayName("Process while pool and queue are full - should reject as unavailable")
+  public void processWhenSaturated() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    MockMultipartFile imageFile = createImageFile(60, 60);
+    MockMultipartFile blockingFile = new MockMultipartFile(
+        "image", "image.png", MediaType.IMAGE_PNG_VALUE, imageFile.getBytes()) {
+      @Override
+      public InputStream getInputStream() throws IOException {
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return super.getInputStream();
+      }
+    };
+    ExecutorService callers = Executors.newFixedThreadPool(2);
+    callers.submit(() -> imageProcessor // Occupies the only processing thread
+        .processRenditions("user", blockingFile));
+    started.await(5, TimeUnit.SECONDS);
+    callers.submit(() -> imageProcessor // Waits in the queue
+        .processRenditions("user", imageFile));
+    ThreadPoolExecutor executor =
+        (ThreadPoolExecutor) ReflectionTestUtils.getField(imageProcessor, "executor");
+    while (executor.getQueue().size() < 1) {
+      Thread.onSpinWait();
+    }
+
+    Assertions.assertThatThrownBy(
+        () -> imageProcessor.processRenditions("user", imageFile))
+        .isInstanceOf(ImageProcessingRejectedException.class);
+
+    release.countDown();
+    callers.shutdown();
+  }
+
+  private MockMultipartFile createImageFile(int width, int height) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png",
+        outputStream);
+    return new MockMultipartFile(
+        "image", "image.png", MediaType.IMAGE_PNG_VALUE, outputStream.toByteArray());
+  }
+
+  private BufferedImage readImage(StoredBlob storedBlob) throws IOException {
+    try (InputStream inputStream = blobStore.read(storedBlob.getContentKey())) {
+      return ImageIO.read(inputStream);
+    }
+  }
+}
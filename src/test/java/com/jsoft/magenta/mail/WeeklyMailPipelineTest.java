@@ -0,0 +1,291 @@
+package com.jsoft.magenta.mail;
+
+import com.jsoft.magenta.users.UserSearchResult;
+import com.jsoft.magenta.worktimes.WorkTimeService;
+import com.jsoft.magenta.worktimes.reports.BusinessWeek;
+import com.jsoft.magenta.worktimes.reports.WeeklyHoursReport;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.exceptions.TemplateProcessingException;
+
+public class WeeklyMailPipelineTest {
+
+  private WeeklyMailPipeline weeklyMailPipeline;
+
+  private FakeSmtpServer smtpServer;
+
+  @Mock
+  private MailBuilder mailBuilder;
+
+  @Mock
+  private WorkTimeService workTimeService;
+
+  private final BusinessWeek businessWeek = new BusinessWeek(LocalDate.now().minusWeeks(1));
+
+  @BeforeEach
+  public void init() throws IOException {
+    MockitoAnnotations.openMocks(this);
+    smtpServer = new FakeSmtpServer();
+    JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+    mailSender.setHost("localhost");
+    mailSender.setPort(smtpServer.getPort());
+    mailSender.getJavaMailProperties().setProperty("mail.smtp.timeout", "5000");
+    weeklyMailPipeline = new WeeklyMailPipeline(mailBuilder, mailSender, workTimeService);
+    ReflectionTestUtils.setField(weeklyMailPipeline, "from", "magenta@mgn.com");
+    ReflectionTestUtils.setField(weeklyMailPipeline, "renderThreads", 2);
+    ReflectionTestUtils.setField(weeklyMailPipeline, "queueCapacity", 2);
+    ReflectionTestUtils.setField(weeklyMailPipeline, "sendBatchSize", 10);
+    ReflectionTestUtils.setField(weeklyMailPipeline, "messagesPerSecond", 1000.0);
+    ReflectionTestUtils.setField(weeklyMailPipeline, "maxAttempts", 2);
+    ReflectionTestUtils.setField(weeklyMailPipeline, "backoffMillis", 1L);
+
+    Mockito.when(mailBuilder.buildWeeklyMail(ArgumentMatchers.any())).thenReturn("mail");
+    Mockito.doAnswer(invocation -> {
+      List<UserSearchResult> users = invocation.getArgument(0);
+      BiConsumer<UserSearchResult, WeeklyHoursReport> reportConsumer = invocation.getArgument(2);
+      users.forEach(user -> reportConsumer.accept(user,
+          new WeeklyHoursReport(user.getFirstName(), List.of(), businessWeek, 40)));
+      return null;
+    }).when(workTimeService).streamWeeklyHoursReports(ArgumentMatchers.anyList(),
+        ArgumentMatchers.eq(businessWeek), ArgumentMatchers.any());
+  }
+
+  @AfterEach
+  public void shutdown() throws IOException {
+    smtpServer.close();
+  }
+
+  @Test
+  @DisplayName("Send weekly mails - should stream reports once and send all")
+  public void sendWeeklyMails() {
+    List<UserSearchResult> users = List.of(createUser(1L), createUser(2L), createUser(3L));
+
+    MailPipelineMetrics metrics = weeklyMailPipeline.send(users, businessWeek);
+
+    Assertions.assertThat(metrics.getReported()).isEqualTo(3);
+    Assertions.assertThat(metrics.getRendered()).isEqualTo(3);
+    Assertions.assertThat(metrics.getSent()).isEqualTo(3);
+    Assertions.assertThat(metrics.getFailed()).isZero();
+    Assertions.assertThat(smtpServer.recipients)
+        .containsExactlyInAnyOrder("user1@user.com", "user2@user.com", "user3@user.com");
+    Mockito.verify(workTimeService).streamWeeklyHoursReports(ArgumentMatchers.anyList(),
+        ArgumentMatchers.eq(businessWeek), ArgumentMatchers.any());
+  }
+
+  @Test
+  @DisplayName("Send weekly mails with stalled SMTP server - should finish reports before sending")
+  public void sendWeeklyMailsWithStalledServer() throws Exception {
+    List<UserSearchResult> users = LongStream.rangeClosed(1, 6)
+        .mapToObj(this::createUser)
+        .collect(Collectors.toList());
+    CountDownLatch reported = new CountDownLatch(1);
+    Mockito.doAnswer(invocation -> {
+      BiConsumer<UserSearchResult, WeeklyHoursReport> reportConsumer = invocation.getArgument(2);
+      users.forEach(user -> reportConsumer.accept(user,
+          new WeeklyHoursReport(user.getFirstName(), List.of(), businessWeek, 40)));
+      reported.countDown(); // Where the report transaction would be closed
+      return null;
+    }).when(workTimeService).streamWeeklyHoursReports(ArgumentMatchers.anyList(),
+        ArgumentMatchers.eq(businessWeek), ArgumentMatchers.any());
+    CountDownLatch dataAccepted = smtpServer.stallData();
+
+    CompletableFuture<MailPipelineMetrics> metrics = CompletableFuture
+        .supplyAsync(() -> weeklyMailPipeline.send(users, businessWeek));
+
+    Assertions.assertThat(reported.await(5, TimeUnit.SECONDS)).isTrue();
+    Assertions.assertThat(metrics).isNotDone();
+    dataAccepted.countDown();
+    Assertions.assertThat(metrics.get(10, TimeUnit.SECONDS).getSent()).isEqualTo(6);
+  }
+
+  @Test
+  @DisplayName("Send weekly mails with failing template - should send mails of other users")
+  public void sendWeeklyMailsWithRenderFailure() {
+    List<UserSearchResult> users = List.of(createUser(1L), createUser(2L), createUser(3L));
+    Mockito.when(mailBuilder.buildWeeklyMail(
+        ArgumentMatchers.argThat(report -> "first2".equals(report.getUserName()))))
+        .thenThrow(new TemplateProcessingException("Broken template"));
+
+    MailPipelineMetrics metrics = weeklyMailPipeline.send(users, businessWeek);
+
+    Assertions.assertThat(metrics.getRendered()).isEqualTo(2);
+    Assertions.assertThat(metrics.getSent()).isEqualTo(2);
+    Assertions.assertThat(metrics.getFailed()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Send weekly mails with failed message - should retry failed message only")
+  public void sendWeeklyMailsWithRetry() {
+    List<UserSearchResult> users = List.of(createUser(1L));
+    smtpServer.rejectNextRecipients(1);
+
+    MailPipelineMetrics metrics = weeklyMailPipeline.send(users, businessWeek);
+
+    Assertions.assertThat(metrics.getSent()).isEqualTo(1);
+    Assertions.assertThat(metrics.getRetried()).isEqualTo(1);
+    Assertions.assertThat(smtpServer.recipients).containsExactly("user1@user.com");
+    Assertions.assertThat(metrics.getFailed()).isZero();
+  }
+
+  @Test
+  @DisplayName("Send weekly mails with failing SMTP server - should give up after max attempts")
+  public void sendWeeklyMailsWithFailure() throws IOException {
+    List<UserSearchResult> users = List.of(createUser(1L), createUser(2L));
+    smtpServer.close(); // Nothing listens on the port anymore
+
+    MailPipelineMetrics metrics = weeklyMailPipeline.send(users, businessWeek);
+
+    Assertions.assertThat(metrics.getSent()).isZero();
+    Assertions.assertThat(metrics.getFailed()).isEqualTo(2);
+  }
+
+  private UserSearchResult createUser(Long userId) {
+    return new UserSearchResult() {
+      @Override
+      public Long getId() {
+        return userId;
+      }
+
+      @Override
+      public String getFirstName() {
+        return "first" + userId;
+      }
+
+      @Override
+      public String getLastName() {
+        return "last";
+      }
+
+      @Override
+      public String getEmail() {
+        return String.format("user%d@user.com", userId);
+      }
+    };
+  }
+
+  private static class FakeSmtpServer implements Closeable { // Speaks just enough SMTP
+
+    private final ServerSocket serverSocket;
+    private final Thread acceptor;
+    private final List<String> recipients = new CopyOnWriteArrayList<>();
+    private final AtomicInteger rejectedRecipients = new AtomicInteger();
+    private volatile CountDownLatch dataAccepted = new CountDownLatch(0);
+
+    private FakeSmtpServer() throws IOException {
+      serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+      acceptor = new Thread(this::acceptAll, "fake-smtp");
+      acceptor.setDaemon(true);
+      acceptor.start();
+    }
+
+    private int getPort() {
+      return serverSocket.getLocalPort();
+    }
+
+    private void rejectNextRecipients(int count) {
+      rejectedRecipients.set(count);
+    }
+
+    private CountDownLatch stallData() { // Messages are not accepted until counted down
+      dataAccepted = new CountDownLatch(1);
+      return dataAccepted;
+    }
+
+    private void acceptAll() {
+      while (!serverSocket.isClosed()) {
+        try (Socket socket = serverSocket.accept()) {
+          converse(socket);
+        } catch (IOException e) { // Closed by the test or the client hung up
+        }
+      }
+    }
+
+    private void converse(Socket socket) throws IOException {
+      BufferedReader reader = new BufferedReader(
+          new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+      PrintWriter writer = new PrintWriter(
+          new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII), true);
+      reply(writer, "220 localhost fake SMTP");
+      List<String> messageRecipients = new ArrayList<>();
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String command = line.toUpperCase();
+        if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+          reply(writer, "250 localhost");
+        } else if (command.startsWith("RCPT TO")) {
+          if (rejectedRecipients.getAndUpdate(count -> Math.max(count - 1, 0)) > 0) {
+            reply(writer, "451 Try again later");
+          } else {
+            messageRecipients.add(line.substring(line.indexOf('<') + 1, line.indexOf('>')));
+            reply(writer, "250 OK");
+          }
+        } else if (command.equals("DATA")) {
+          reply(writer, "354 End data with <CR><LF>.<CR><LF>");
+          while ((line = reader.readLine()) != null && !line.equals(".")) {
+            // Message content is not inspected
+          }
+          awaitDataAccepted();
+          recipients.addAll(messageRecipients);
+          messageRecipients.clear();
+          reply(writer, "250 OK");
+        } else if (command.equals("QUIT")) {
+          reply(writer, "221 Bye");
+          return;
+        } else { // MAIL FROM, RSET and NOOP
+          if (command.equals("RSET")) {
+            messageRecipients.clear();
+          }
+          reply(writer, "250 OK");
+        }
+      }
+    }
+
+    private void awaitDataAccepted() {
+      try {
+        dataAccepted.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    private void reply(PrintWriter writer, String response) {
+      writer.print(response + "\r\n");
+      writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      serverSocket.close();
+    }
+  }
+}
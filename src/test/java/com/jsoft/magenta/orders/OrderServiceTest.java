@@ -1,5 +1,7 @@
 package com.jsoft.magenta.orders;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -7,6 +9,8 @@ import static org.mockito.Mockito.when;
 import com.jsoft.magenta.orders.domain.Order;
 import com.jsoft.magenta.orders.domain.OrderSearchResult;
 import com.jsoft.magenta.security.SecurityService;
+import com.jsoft.magenta.util.pagination.PageResponse;
+import com.jsoft.magenta.util.pagination.PageTotals;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.Assertions;
@@ -20,6 +24,7 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
 public class OrderServiceTest {
@@ -36,6 +41,9 @@ public class OrderServiceTest {
   @Mock
   private ApplicationEventPublisher eventPublisher;
 
+  @Mock
+  private PageTotals pageTotals;
+
   @BeforeEach
   private void init() {
     MockitoAnnotations.openMocks(this);
@@ -178,6 +186,25 @@ public class OrderServiceTest {
     verify(orderRepository).findAllByProjectId(1L, pageRequest);
   }
 
+  @Test
+  @DisplayName("Slice all project orders - should tell next slice and leave total to page totals")
+  public void sliceAllOrders() {
+    Order order = new Order();
+    order.setTitle("title");
+    order.setId(1L);
+    PageRequest pageRequest = PageRequest.of(0, 1, Sort.by("title").ascending());
+
+    when(orderRepository.findSlice(any(), eq(pageRequest)))
+        .thenReturn(new SliceImpl<>(List.of(order), pageRequest, true));
+
+    PageResponse<Order> orderSlice = this.orderService
+        .sliceAllOrders(1L, 0, 1, "title", true, false);
+
+    Assertions.assertEquals(orderSlice.getContent().size(), 1);
+    Assertions.assertTrue(orderSlice.getHasNext());
+    verify(pageTotals).count(eq(false), eq("orders:1"), any());
+  }
+
   @Test
   @DisplayName("Get order")
   public void getOrder() {
@@ -186,6 +186,35 @@ public class PostServiceTest {
     verify(postRepository).findById(post.getId());
   }
 
+  @Test
+  @DisplayName("Search posts by text - should return results in rank order")
+  public void getAllPostsResultsByTextExample() {
+    PostSearchResult first = Mockito.mock(PostSearchResult.class);
+    PostSearchResult second = Mockito.mock(PostSearchResult.class);
+    Mockito.when(first.getId()).thenReturn(1L);
+    Mockito.when(second.getId()).thenReturn(2L);
+
+    Mockito.when(postRepository.findRankedPostIdsByTextQuery("weekly:* & repo:*", 5))
+        .thenReturn(List.of(2L, 1L));
+    Mockito.when(postRepository.findAllByIdIn(List.of(2L, 1L)))
+        .thenReturn(List.of(first, second));
+
+    List<PostSearchResult> results = this.postService
+        .getAllPostsResultsByTextExample("Weekly, repo", 5);
+
+    Assertions.assertThat(results).containsExactly(second, first);
+  }
+
+  @Test
+  @DisplayName("Search posts by text without words - should not query")
+  public void getAllPostsResultsByBlankTextExample() {
+    List<PostSearchResult> results = this.postService
+        .getAllPostsResultsByTextExample(" & :* ", 5);
+
+    Assertions.assertThat(results).isEmpty();
+    Mockito.verifyNoInteractions(postRepository);
+  }
+
   @Test
   @DisplayName("Delete post")
   public void deletePost() {
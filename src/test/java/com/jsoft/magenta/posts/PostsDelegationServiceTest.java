@@ -0,0 +1,184 @@
+package com.jsoft.magenta.posts;
+
+import com.jsoft.magenta.events.posts.PostReactiveEvent;
+import com.jsoft.magenta.events.reactive.ReactiveEventType;
+import com.jsoft.magenta.events.reactive.bus.LocalEventBus;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+public class PostsDelegationServiceTest {
+
+  private PostsDelegationService delegationService;
+
+  @BeforeEach
+  public void init() {
+    delegationService = new PostsDelegationService(new LocalEventBus<>());
+    ReflectionTestUtils.setField(delegationService, "bufferSize", 2);
+    ReflectionTestUtils.setField(delegationService, "replaySize", 3);
+    ReflectionTestUtils.setField(delegationService, "heartbeat", Duration.ofHours(1));
+    ReflectionTestUtils.setField(delegationService, "dispatchScheduler", Schedulers.immediate());
+    ReflectionTestUtils.setField(delegationService, "deliveryScheduler", Schedulers.immediate());
+    ReflectionTestUtils.invokeMethod(delegationService, "init");
+  }
+
+  @Test
+  @DisplayName("Send event to two sessions of same user - should reach both")
+  public void sendEventToSessionsOfSameUser() {
+    List<ServerSentEvent<PostReactiveEvent>> firstSession = new ArrayList<>();
+    List<ServerSentEvent<PostReactiveEvent>> secondSession = new ArrayList<>();
+    delegationService.delegateRequest(1L, null).subscribe(firstSession::add);
+    delegationService.delegateRequest(1L, null).subscribe(secondSession::add);
+
+    delegationService.sendEvent(createEvent(1L));
+
+    Assertions.assertThat(delegationService.getSessionCount(1L)).isEqualTo(2);
+    Assertions.assertThat(firstSession).extracting(ServerSentEvent::id)
+        .containsExactly(secondSession.get(0).id());
+    Assertions.assertThat(secondSession).extracting(ServerSentEvent::event)
+        .containsExactly("create");
+  }
+
+  @Test
+  @DisplayName("Cancel session - should be removed from hub")
+  public void cancelSession() {
+    Disposable session = delegationService.delegateRequest(1L, null).subscribe();
+
+    session.dispose();
+
+    Assertions.assertThat(delegationService.getSessionCount(1L)).isZero();
+    Assertions.assertThat(delegationService.getSubscriberCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("Send events to slow session - should keep newest events only")
+  public void sendEventsToSlowSession() {
+    List<Long> receivedIds = new ArrayList<>();
+    SlowSubscriber slowSubscriber = new SlowSubscriber(receivedIds);
+    delegationService.delegateRequest(1L, null).subscribe(slowSubscriber);
+
+    for (long postId = 1; postId <= 5; postId++) { // Publisher is never held back by the reader
+      delegationService.sendEvent(createEvent(postId));
+    }
+    slowSubscriber.request(5);
+
+    // First event was already handed to delivery, the buffer kept the two newest
+    Assertions.assertThat(receivedIds).containsExactly(1L, 4L, 5L);
+    Assertions.assertThat(delegationService.getDroppedCount()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Reconnect with last event id - should replay missed events then live ones")
+  public void reconnectWithLastEventId() {
+    List<ServerSentEvent<PostReactiveEvent>> firstSession = new ArrayList<>();
+    Disposable session = delegationService.delegateRequest(1L, null)
+        .subscribe(firstSession::add);
+    delegationService.sendEvent(createEvent(1L));
+    session.dispose();
+    delegationService.sendEvent(createEvent(2L));
+    delegationService.sendEvent(createEvent(3L));
+    List<ServerSentEvent<PostReactiveEvent>> events = new ArrayList<>();
+
+    delegationService.delegateRequest(1L, firstSession.get(0).id()).subscribe(events::add);
+    delegationService.sendEvent(createEvent(4L));
+
+    Assertions.assertThat(events).extracting(event -> event.data().getPayLoad().getId())
+        .containsExactly(2L, 3L, 4L);
+  }
+
+  @Test
+  @DisplayName("Reconnect with overwritten last event id - should send reset event")
+  public void reconnectAfterReplayOverflow() {
+    List<ServerSentEvent<PostReactiveEvent>> firstSession = new ArrayList<>();
+    Disposable session = delegationService.delegateRequest(1L, null)
+        .subscribe(firstSession::add);
+    for (long postId = 1; postId <= 5; postId++) {
+      delegationService.sendEvent(createEvent(postId));
+    }
+    session.dispose();
+    List<ServerSentEvent<PostReactiveEvent>> events = new ArrayList<>();
+
+    delegationService.delegateRequest(1L, firstSession.get(0).id()).subscribe(events::add);
+
+    Assertions.assertThat(events).extracting(ServerSentEvent::event)
+        .containsExactly(PostsDelegationService.RESET_EVENT);
+    Assertions.assertThat(events).extracting(ServerSentEvent::id)
+        .containsExactly(firstSession.get(4).id());
+  }
+
+  @Test
+  @DisplayName("Reconnect with event id of other node - should send reset event")
+  public void reconnectWithForeignEventId() {
+    PostsDelegationService otherNode = new PostsDelegationService(new LocalEventBus<>());
+    ReflectionTestUtils.setField(otherNode, "bufferSize", 2);
+    ReflectionTestUtils.setField(otherNode, "replaySize", 3);
+    ReflectionTestUtils.setField(otherNode, "heartbeat", Duration.ofHours(1));
+    ReflectionTestUtils.setField(otherNode, "dispatchScheduler", Schedulers.immediate());
+    ReflectionTestUtils.setField(otherNode, "deliveryScheduler", Schedulers.immediate());
+    ReflectionTestUtils.invokeMethod(otherNode, "init");
+    List<ServerSentEvent<PostReactiveEvent>> otherNodeSession = new ArrayList<>();
+    otherNode.delegateRequest(1L, null).subscribe(otherNodeSession::add);
+    otherNode.sendEvent(createEvent(1L)); // Same sequence number on both nodes
+    delegationService.sendEvent(createEvent(1L));
+    List<ServerSentEvent<PostReactiveEvent>> events = new ArrayList<>();
+
+    delegationService.delegateRequest(1L, otherNodeSession.get(0).id()).subscribe(events::add);
+
+    Assertions.assertThat(events).extracting(ServerSentEvent::event)
+        .containsExactly(PostsDelegationService.RESET_EVENT);
+  }
+
+  @Test
+  @DisplayName("Send event after sink terminated - should count failed emission")
+  public void sendEventAfterSinkTerminated() {
+    Sinks.Many<?> sink = (Sinks.Many<?>) ReflectionTestUtils.getField(delegationService, "sink");
+    sink.tryEmitComplete();
+
+    delegationService.sendEvent(createEvent(1L));
+
+    Assertions.assertThat(delegationService.getFailedEmissionCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Send null event - should throw exception")
+  public void sendNullEvent() {
+    Assertions.assertThatThrownBy(() -> delegationService.sendEvent(null))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private PostReactiveEvent createEvent(Long postId) {
+    Post post = new Post();
+    post.setId(postId);
+    return new PostReactiveEvent(post, ReactiveEventType.CREATE);
+  }
+
+  private static class SlowSubscriber extends BaseSubscriber<ServerSentEvent<PostReactiveEvent>> {
+
+    private final List<Long> receivedIds;
+
+    SlowSubscriber(List<Long> receivedIds) {
+      this.receivedIds = receivedIds;
+    }
+
+    @Override
+    protected void hookOnSubscribe(Subscription subscription) {
+      // Request nothing until the test asks for it
+    }
+
+    @Override
+    protected void hookOnNext(ServerSentEvent<PostReactiveEvent> serverSentEvent) {
+      receivedIds.add(serverSentEvent.data().getPayLoad().getId());
+    }
+  }
+}
@@ -11,9 +11,12 @@ import com.jsoft.magenta.projects.domain.Project;
 import com.jsoft.magenta.projects.domain.ProjectAssociation;
 import com.jsoft.magenta.projects.domain.ProjectAssociationId;
 import com.jsoft.magenta.projects.domain.ProjectSearchResult;
+import com.jsoft.magenta.security.AccessDecisions;
 import com.jsoft.magenta.security.SecurityService;
+import com.jsoft.magenta.security.dao.AssociationBatchInserter;
 import com.jsoft.magenta.security.model.AccessPermission;
 import com.jsoft.magenta.security.model.Privilege;
+import com.jsoft.magenta.security.service.EffectiveAccessService;
 import com.jsoft.magenta.subprojects.SubProject;
 import com.jsoft.magenta.users.User;
 import com.jsoft.magenta.util.AppConstants;
@@ -30,6 +33,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -53,6 +57,15 @@ public class ProjectServiceTest {
   @Mock
   private ApplicationEventPublisher eventPublisher;
 
+  @Mock
+  private AssociationBatchInserter associationBatchInserter;
+
+  @Mock
+  private EffectiveAccessService effectiveAccessService;
+
+  @Spy
+  private AccessDecisions accessDecisions;
+
   @BeforeEach
   public void init() {
     MockitoAnnotations.openMocks(this);
@@ -459,9 +472,9 @@ public class ProjectServiceTest {
       Mockito.when(securityService.currentUser()).thenReturn(moderator);
       Mockito.when(securityService.currentUserId()).thenReturn(user.getId());
       Mockito.when(projectRepository.existsById(1L)).thenReturn(true);
-      Mockito.when(
-          projectAssociationRepository.findByUserIdAndProjectId(user.getId(), project.getId()))
-          .thenReturn(Optional.of(projectAssociation));
+      Mockito.when(projectAssociationRepository
+          .findAccessPermissionByUserIdAndProjectId(user.getId(), project.getId()))
+          .thenReturn(Optional.of(AccessPermission.MANAGE));
       Mockito.when(projectAssociationRepository.save(projectAssociation))
           .thenReturn(projectAssociation);
 
@@ -472,7 +485,7 @@ public class ProjectServiceTest {
           .hasMessage("User is not authorized to update specified project");
 
       Mockito.verify(projectAssociationRepository)
-          .findByUserIdAndProjectId(user.getId(), project.getId());
+          .findAccessPermissionByUserIdAndProjectId(user.getId(), project.getId());
       Mockito.verify(projectAssociationRepository, Mockito.never()).save(projectAssociation);
     }
   }
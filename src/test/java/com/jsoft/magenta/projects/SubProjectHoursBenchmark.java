@@ -0,0 +1,151 @@
+package com.jsoft.magenta.projects;
+
+import com.jsoft.magenta.MagentaApplication;
+import com.jsoft.magenta.accounts.AccountRepository;
+import com.jsoft.magenta.accounts.domain.Account;
+import com.jsoft.magenta.projects.domain.Project;
+import com.jsoft.magenta.security.service.CustomUserDetailsService;
+import com.jsoft.magenta.subprojects.HoursAdjustment;
+import com.jsoft.magenta.subprojects.SubProject;
+import com.jsoft.magenta.subprojects.SubProjectRepository;
+import com.jsoft.magenta.subprojects.SubProjectService;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Throughput of concurrent hour adjustments, all on one sub-project and batched over many. Once
+ * the run is over, every sub-project must hold exactly the sum of the deltas applied to it, so a
+ * lost update fails the benchmark. Sub-projects are written to the configured database for the
+ * benchmark and removed afterwards
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+public class SubProjectHoursBenchmark {
+
+  private static final int SUB_PROJECTS = 10;
+  private static final double DELTA = 0.5;
+
+  private ConfigurableApplicationContext context;
+  private SubProjectService subProjectService;
+  private Authentication authentication;
+  private Account account;
+  private Project project;
+  private List<SubProject> subProjects;
+  private List<HoursAdjustment> batch;
+  private final AtomicLong hotAdjustments = new AtomicLong();
+  private final AtomicLong batchAdjustments = new AtomicLong();
+
+  @Setup
+  public void init() {
+    context = new SpringApplicationBuilder(MagentaApplication.class)
+        .properties("server.port=0")
+        .run();
+    subProjectService = context.getBean(SubProjectService.class);
+    UserDetails admin = context.getBean(CustomUserDetailsService.class)
+        .loadUserByUsername("admin@admin.com");
+    authentication = new UsernamePasswordAuthenticationToken(
+        admin, null, admin.getAuthorities());
+    createSubProjects();
+    batch = subProjects.stream() // The hot sub-project is adjusted on its own only
+        .skip(1)
+        .map(subProject -> new HoursAdjustment(subProject.getId(), DELTA))
+        .collect(Collectors.toList());
+  }
+
+  @TearDown
+  public void cleanup() {
+    SubProjectRepository subProjectRepository = context.getBean(SubProjectRepository.class);
+    try {
+      verifyAmount(subProjectRepository, subProjects.get(0), hotAdjustments.get());
+      for (SubProject subProject : subProjects.subList(1, SUB_PROJECTS)) {
+        verifyAmount(subProjectRepository, subProject, batchAdjustments.get());
+      }
+    } finally {
+      subProjects.forEach(subProject -> // Adjustments bumped the versions held here
+          subProjectRepository.deleteById(subProject.getId()));
+      context.getBean(ProjectRepository.class).delete(project);
+      context.getBean(AccountRepository.class).delete(account);
+      context.close();
+    }
+  }
+
+  @Benchmark
+  public SubProject adjustHotSubProject() { // Every thread updates the same row
+    SecurityContextHolder.getContext().setAuthentication(authentication); // Benchmark thread
+    SubProject subProject = subProjectService
+        .increaseSubProjectHours(subProjects.get(0).getId(), DELTA);
+    hotAdjustments.incrementAndGet();
+    return subProject;
+  }
+
+  @Benchmark
+  public Map<Long, Double> adjustBatch() { // One statement for all the other sub-projects
+    SecurityContextHolder.getContext().setAuthentication(authentication);
+    Map<Long, Double> amounts = subProjectService.adjustSubProjectsHours(batch);
+    batchAdjustments.incrementAndGet();
+    return amounts;
+  }
+
+  private void createSubProjects() {
+    account = new Account();
+    account.setName("Benchmark account");
+    account.setCreatedAt(LocalDate.now());
+    account = context.getBean(AccountRepository.class).save(account);
+    project = new Project();
+    project.setName("Benchmark project");
+    project.setAvailable(true);
+    project.setAccount(account);
+    project.setCreatedAt(LocalDate.now());
+    project = context.getBean(ProjectRepository.class).save(project);
+    subProjects = new ArrayList<>();
+    for (int i = 0; i < SUB_PROJECTS; i++) {
+      SubProject subProject = new SubProject();
+      subProject.setName("Benchmark sub-project " + i);
+      subProject.setAvailable(true);
+      subProject.setAmountOfHours(0D);
+      subProject.setProject(project);
+      subProjects.add(subProject);
+    }
+    subProjects = context.getBean(SubProjectRepository.class).saveAll(subProjects);
+  }
+
+  private void verifyAmount(SubProjectRepository subProjectRepository, SubProject subProject,
+      long adjustments) {
+    double amount = subProjectRepository.findById(subProject.getId())
+        .map(SubProject::getAmountOfHours)
+        .orElseThrow();
+    if (amount != adjustments * DELTA) {
+      throw new IllegalStateException(String.format(
+          "Sub-project %d holds %.1f hours after %d adjustments, updates were lost",
+          subProject.getId(), amount, adjustments));
+    }
+  }
+}
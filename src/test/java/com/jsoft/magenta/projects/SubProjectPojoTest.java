@@ -13,9 +13,9 @@ public class SubProjectPojoTest {
   @DisplayName("Create two sub-projects and check getter and equals")
   public void create() {
     SubProject sp1 = new SubProject(1L, "sub-project", true, 10d, new Project(), new HashSet<>(),
-        new HashSet<>());
+        new HashSet<>(), 0L);
     SubProject sp2 = new SubProject(1L, "sub-project", true, 10d, new Project(), new HashSet<>(),
-        new HashSet<>());
+        new HashSet<>(), 0L);
 
     Assertions.assertEquals(sp1.getName(), "sub-project");
     Assertions.assertTrue(sp1.equals(sp2));
@@ -25,7 +25,7 @@ public class SubProjectPojoTest {
   @DisplayName("Update sub project and check getter")
   public void update() {
     SubProject sp1 = new SubProject(1L, "sub-project", true, 10d, new Project(), new HashSet<>(),
-        new HashSet<>());
+        new HashSet<>(), 0L);
     sp1.setName("new name");
 
     Assertions.assertEquals(sp1.getName(), "new name");
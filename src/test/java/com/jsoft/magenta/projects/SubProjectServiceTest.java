@@ -2,18 +2,27 @@ package com.jsoft.magenta.projects;
 
 import com.jsoft.magenta.accounts.domain.Account;
 import com.jsoft.magenta.accounts.domain.AccountAssociation;
+import com.jsoft.magenta.events.projects.ProjectRelatedEntityEvent;
 import com.jsoft.magenta.exceptions.DuplicationException;
+import com.jsoft.magenta.exceptions.NoSuchElementException;
 import com.jsoft.magenta.projects.domain.Project;
 import com.jsoft.magenta.projects.domain.ProjectAssociation;
+import com.jsoft.magenta.security.AccessDecisions;
 import com.jsoft.magenta.security.SecurityService;
+import com.jsoft.magenta.security.dao.AssociationBatchInserter;
 import com.jsoft.magenta.security.model.AccessPermission;
 import com.jsoft.magenta.security.model.Privilege;
+import com.jsoft.magenta.security.service.EffectiveAccessService;
+import com.jsoft.magenta.subprojects.HoursAdjustment;
 import com.jsoft.magenta.subprojects.SubProject;
+import com.jsoft.magenta.subprojects.SubProjectHoursUpdater;
 import com.jsoft.magenta.subprojects.SubProjectRepository;
 import com.jsoft.magenta.subprojects.SubProjectService;
 import com.jsoft.magenta.users.User;
 import com.jsoft.magenta.util.AppConstants;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import org.assertj.core.api.Assertions;
@@ -25,7 +34,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 public class SubProjectServiceTest {
 
@@ -41,6 +52,18 @@ public class SubProjectServiceTest {
   @Mock
   private ApplicationEventPublisher eventPublisher;
 
+  @Mock
+  private AssociationBatchInserter associationBatchInserter;
+
+  @Mock
+  private EffectiveAccessService effectiveAccessService;
+
+  @Mock
+  private SubProjectHoursUpdater subProjectHoursUpdater;
+
+  @Spy
+  private AccessDecisions accessDecisions;
+
   @BeforeEach
   public void init() {
     MockitoAnnotations.openMocks(this);
@@ -315,7 +338,8 @@ public class SubProjectServiceTest {
           .thenReturn(Optional.of(project.getId()));
       Mockito.when(subProjectRepository.findById(subProject.getId()))
           .thenReturn(Optional.of(subProject));
-      Mockito.when(subProjectRepository.save(subProject)).thenReturn(subProject);
+      Mockito.when(subProjectRepository.adjustAmountOfHours(subProject.getId(), 20D))
+          .thenReturn(1);
 
       subProjectService.increaseSubProjectHours(subProject.getId(), 20D);
 
@@ -326,8 +350,9 @@ public class SubProjectServiceTest {
           .extracting("available")
           .isEqualTo(true);
 
+      Mockito.verify(subProjectRepository).adjustAmountOfHours(subProject.getId(), 20D);
       Mockito.verify(subProjectRepository).findById(subProject.getId());
-      Mockito.verify(subProjectRepository).save(subProject);
+      Mockito.verify(subProjectRepository, Mockito.never()).save(subProject);
     }
 
     @Test
@@ -355,7 +380,8 @@ public class SubProjectServiceTest {
           .thenReturn(Optional.of(project.getId()));
       Mockito.when(subProjectRepository.findById(subProject.getId()))
           .thenReturn(Optional.of(subProject));
-      Mockito.when(subProjectRepository.save(subProject)).thenReturn(subProject);
+      Mockito.when(subProjectRepository.adjustAmountOfHours(subProject.getId(), -20D))
+          .thenReturn(1);
 
       subProjectService.decreaseSubProjectHours(subProject.getId(), 20D);
 
@@ -366,8 +392,62 @@ public class SubProjectServiceTest {
           .extracting("available")
           .isEqualTo(true);
 
+      Mockito.verify(subProjectRepository).adjustAmountOfHours(subProject.getId(), -20D);
       Mockito.verify(subProjectRepository).findById(subProject.getId());
-      Mockito.verify(subProjectRepository).save(subProject);
+      Mockito.verify(subProjectRepository, Mockito.never()).save(subProject);
+    }
+
+    @Test
+    @DisplayName("Update sub-project with stale version - should throw exception")
+    public void updateSubProjectWithStaleVersion() {
+      SubProject subProject = new SubProject();
+      subProject.setId(1L);
+      subProject.setName("sp");
+      subProject.setVersion(1L);
+      SubProject storedSubProject = new SubProject();
+      storedSubProject.setId(1L);
+      storedSubProject.setName("sp");
+      storedSubProject.setVersion(2L);
+
+      Mockito.when(subProjectRepository.findById(subProject.getId()))
+          .thenReturn(Optional.of(storedSubProject));
+
+      Assertions.assertThatThrownBy(() -> subProjectService.updateSubProject(subProject))
+          .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+      Mockito.verify(subProjectRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Adjust several sub-projects amount of hours in one statement")
+    public void adjustSubProjectsAmountOfHours() {
+      List<HoursAdjustment> adjustments = List.of(
+          new HoursAdjustment(1L, 5D), new HoursAdjustment(2L, -3D), new HoursAdjustment(1L, 2D));
+      Map<Long, Double> deltas = Map.of(1L, 7D, 2L, -3D);
+
+      Mockito.when(subProjectRepository.findProjectIdsByIdIn(deltas.keySet()))
+          .thenReturn(Set.of(1L));
+      Mockito.when(subProjectHoursUpdater.adjust(deltas)).thenReturn(Map.of(1L, 17D, 2L, 7D));
+
+      Map<Long, Double> amounts = subProjectService.adjustSubProjectsHours(adjustments);
+
+      Assertions.assertThat(amounts).containsEntry(1L, 17D).containsEntry(2L, 7D);
+      Mockito.verify(eventPublisher).publishEvent(Mockito.any(ProjectRelatedEntityEvent.class));
+      Mockito.verify(subProjectHoursUpdater).adjust(deltas);
+    }
+
+    @Test
+    @DisplayName("Adjust amount of hours of missing sub-project - should throw exception")
+    public void adjustMissingSubProjectAmountOfHours() {
+      List<HoursAdjustment> adjustments = List.of(
+          new HoursAdjustment(1L, 5D), new HoursAdjustment(2L, 3D));
+
+      Mockito.when(subProjectRepository.findProjectIdsByIdIn(Mockito.anySet()))
+          .thenReturn(Set.of(1L));
+      Mockito.when(subProjectHoursUpdater.adjust(Mockito.anyMap())).thenReturn(Map.of(1L, 15D));
+
+      Assertions.assertThatThrownBy(() -> subProjectService.adjustSubProjectsHours(adjustments))
+          .isInstanceOf(NoSuchElementException.class);
     }
   }
 
@@ -0,0 +1,102 @@
+package com.jsoft.magenta.search;
+
+import com.jsoft.magenta.MagentaApplication;
+import com.jsoft.magenta.security.service.CustomUserDetailsService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Type-ahead latency distribution over 1M accounts, whose p0.99 is held against the 20ms budget.
+ * Accounts are written to the configured database for the benchmark and removed afterwards, the
+ * search runs as the admin user so every entity is searched without association filtering
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class TypeAheadBenchmark {
+
+  private static final String INSERT_ACCOUNT = "insert into accounts "
+      + "(account_id, account_name, created_at) "
+      + "values (nextval('account_sequence'), ?, current_date)";
+  private static final String NAME_PREFIX = "bm ";
+  private static final String[] SYLLABLES = {"ka", "lo", "mi", "ne", "ra", "to", "su", "vi", "de",
+      "po"};
+  private static final int ACCOUNTS = 1_000_000;
+  private static final int BATCH_SIZE = 10000;
+
+  @Param({"kalo", "suvipo", "zzz"}) // Common, rare and missing example
+  private String example;
+
+  private ConfigurableApplicationContext context;
+  private TypeAheadService typeAheadService;
+  private Authentication authentication;
+
+  @Setup
+  public void init() {
+    context = new SpringApplicationBuilder(MagentaApplication.class)
+        .properties("server.port=0")
+        .run();
+    typeAheadService = context.getBean(TypeAheadService.class);
+    UserDetails admin = context.getBean(CustomUserDetailsService.class)
+        .loadUserByUsername("admin@admin.com");
+    authentication = new UsernamePasswordAuthenticationToken(
+        admin, null, admin.getAuthorities());
+    insertAccounts();
+  }
+
+  @TearDown
+  public void cleanup() {
+    context.getBean(JdbcTemplate.class)
+        .update("delete from accounts where account_name like ?", NAME_PREFIX + "%");
+    context.close();
+  }
+
+  @Benchmark
+  public TypeAheadResults search() {
+    SecurityContextHolder.getContext().setAuthentication(authentication); // Benchmark thread
+    return typeAheadService.search(example, 10);
+  }
+
+  private void insertAccounts() {
+    JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+    Random random = new Random(42);
+    List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < ACCOUNTS; i++) { // Syllable names, numbered to stay unique
+      StringBuilder name = new StringBuilder(NAME_PREFIX);
+      for (int syllable = 4 + random.nextInt(3); syllable > 0; syllable--) {
+        name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+      }
+      rows.add(new Object[]{name.append(' ').append(i).toString()});
+      if (rows.size() == BATCH_SIZE) {
+        jdbcTemplate.batchUpdate(INSERT_ACCOUNT, rows);
+        rows.clear();
+      }
+    }
+    jdbcTemplate.batchUpdate(INSERT_ACCOUNT, rows);
+    jdbcTemplate.execute("analyze accounts"); // Let the planner see the trigram index pays off
+  }
+}
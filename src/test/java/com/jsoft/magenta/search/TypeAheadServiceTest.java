@@ -0,0 +1,117 @@
+package com.jsoft.magenta.search;
+
+import com.jsoft.magenta.accounts.AccountRepository;
+import com.jsoft.magenta.accounts.domain.AccountSearchResult;
+import com.jsoft.magenta.contacts.ContactRepository;
+import com.jsoft.magenta.projects.ProjectRepository;
+import com.jsoft.magenta.security.SecurityService;
+import com.jsoft.magenta.security.model.AccessPermission;
+import com.jsoft.magenta.security.model.Privilege;
+import com.jsoft.magenta.subprojects.SubProjectRepository;
+import com.jsoft.magenta.users.User;
+import com.jsoft.magenta.users.UserRepository;
+import com.jsoft.magenta.util.AppConstants;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class TypeAheadServiceTest {
+
+  @InjectMocks
+  private TypeAheadService typeAheadService;
+
+  @Mock
+  private AccountRepository accountRepository;
+
+  @Mock
+  private ProjectRepository projectRepository;
+
+  @Mock
+  private SubProjectRepository subProjectRepository;
+
+  @Mock
+  private ContactRepository contactRepository;
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private SecurityService securityService;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    ReflectionTestUtils.setField(typeAheadService, "minLength", 3);
+  }
+
+  @Test
+  @DisplayName("Search with too short example - should not query")
+  public void searchWithShortExample() {
+    TypeAheadResults results = typeAheadService.search(" ab ", 5);
+
+    Assertions.assertThat(results.getAccounts()).isEmpty();
+    Assertions.assertThat(results.getUsers()).isEmpty();
+    Mockito.verifyNoInteractions(securityService, accountRepository, projectRepository,
+        subProjectRepository, contactRepository, userRepository);
+  }
+
+  @Test
+  @DisplayName("Search as account admin - should search all accounts and contacts")
+  public void searchAsAccountAdmin() {
+    User user = createUser(AppConstants.ACCOUNT_PERMISSION, AccessPermission.ADMIN);
+    AccountSearchResult accountSearchResult = Mockito.mock(AccountSearchResult.class);
+
+    Mockito.when(securityService.currentUser()).thenReturn(user);
+    Mockito.when(accountRepository.findAllResultsByNameContainingIgnoreCase(
+        ArgumentMatchers.eq("acc"), ArgumentMatchers.any()))
+        .thenReturn(List.of(accountSearchResult));
+
+    TypeAheadResults results = typeAheadService.search("acc", 5);
+
+    Assertions.assertThat(results.getAccounts()).containsExactly(accountSearchResult);
+    Mockito.verify(contactRepository)
+        .findAllResultsByNameExample(ArgumentMatchers.eq("acc"), ArgumentMatchers.any());
+    Mockito.verify(accountRepository, Mockito.never())
+        .findAllResultsByAssociationsUserIdAndNameContainingIgnoreCase(
+            ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+  }
+
+  @Test
+  @DisplayName("Search as associated user - should filter by associations and skip users")
+  public void searchAsAssociatedUser() {
+    User user = createUser(AppConstants.ACCOUNT_PERMISSION, AccessPermission.READ);
+
+    Mockito.when(securityService.currentUser()).thenReturn(user);
+
+    TypeAheadResults results = typeAheadService.search("name", 5);
+
+    Assertions.assertThat(results.getUsers()).isEmpty();
+    Mockito.verify(accountRepository).findAllResultsByAssociationsUserIdAndNameContainingIgnoreCase(
+        ArgumentMatchers.eq(1L), ArgumentMatchers.eq("name"), ArgumentMatchers.any());
+    Mockito.verify(subProjectRepository)
+        .findAllResultsByProjectAssociationsUserIdAndNameContainingIgnoreCase(
+            ArgumentMatchers.eq(1L), ArgumentMatchers.eq("name"), ArgumentMatchers.any());
+    Mockito.verify(contactRepository).findAllResultsByAssociatedUserIdAndNameExample(
+        ArgumentMatchers.eq(1L), ArgumentMatchers.eq("name"), ArgumentMatchers.any());
+    Mockito.verifyNoInteractions(userRepository);
+  }
+
+  private User createUser(String permissionName, AccessPermission accessPermission) {
+    User user = new User(1L);
+    Privilege privilege = new Privilege();
+    privilege.setName(permissionName);
+    privilege.setLevel(accessPermission);
+    user.setPrivileges(new HashSet<>(Set.of(privilege)));
+    return user;
+  }
+}
@@ -0,0 +1,94 @@
+package com.jsoft.magenta.security;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+public class AccessDecisionsTest {
+
+  private AccessDecisions accessDecisions;
+  private MockHttpServletResponse response;
+  private ServletRequestAttributes requestAttributes;
+  private AtomicInteger lookups;
+
+  @BeforeEach
+  public void init() {
+    accessDecisions = new AccessDecisions();
+    response = new MockHttpServletResponse();
+    requestAttributes = new ServletRequestAttributes(new MockHttpServletRequest(), response);
+    RequestContextHolder.setRequestAttributes(requestAttributes);
+    lookups = new AtomicInteger();
+  }
+
+  @AfterEach
+  public void cleanup() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Test
+  @DisplayName("Decide same association twice in a request - should query once")
+  public void decideTwiceInRequest() {
+    boolean first = accessDecisions.decide(AccessDecisions.ACCOUNT, 1L, 1L, this::lookup);
+    boolean second = accessDecisions.decide(AccessDecisions.ACCOUNT, 1L, 1L, this::lookup);
+    accessDecisions.decide(AccessDecisions.PROJECT, 1L, 1L, this::lookup);
+
+    Assertions.assertThat(first).isTrue();
+    Assertions.assertThat(second).isTrue();
+    Assertions.assertThat(lookups.get()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Decide after access change in a request - should query again")
+  public void decideAfterInvalidation() {
+    accessDecisions.decide(AccessDecisions.ACCOUNT, 1L, 1L, this::lookup);
+    AccessDecisions.invalidateCurrentRequest();
+    accessDecisions.decide(AccessDecisions.ACCOUNT, 1L, 1L, this::lookup);
+
+    Assertions.assertThat(lookups.get()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Decide outside of a request - should query every time")
+  public void decideOutsideRequest() {
+    RequestContextHolder.resetRequestAttributes();
+
+    accessDecisions.decide(AccessDecisions.ACCOUNT, 1L, 1L, this::lookup);
+    accessDecisions.decide(AccessDecisions.ACCOUNT, 1L, 1L, this::lookup);
+
+    Assertions.assertThat(lookups.get()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Complete request - should add its lookups to counters")
+  public void completeRequest() {
+    accessDecisions.decide(AccessDecisions.CONTACT, null, 1L, this::lookup);
+    accessDecisions.decide(AccessDecisions.CONTACT, null, 1L, this::lookup);
+    accessDecisions.decide(AccessDecisions.CONTACT, null, 1L, this::lookup);
+    requestAttributes.requestCompleted();
+
+    Assertions.assertThat(accessDecisions.getQueriedLookups()).isEqualTo(1);
+    Assertions.assertThat(accessDecisions.getMemoizedLookups()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Decide in a request - should report lookups in response header")
+  public void decideReportsLookups() {
+    accessDecisions.decide(AccessDecisions.PROJECT, 1L, 1L, this::lookup);
+    accessDecisions.decide(AccessDecisions.PROJECT, 1L, 1L, this::lookup);
+
+    Assertions.assertThat(response.getHeader(AccessDecisions.RESPONSE_HEADER))
+        .isEqualTo("queried=1, memoized=1");
+  }
+
+  private Boolean lookup() {
+    lookups.incrementAndGet();
+    return true;
+  }
+}
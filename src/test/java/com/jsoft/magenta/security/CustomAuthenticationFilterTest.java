@@ -0,0 +1,80 @@
+package com.jsoft.magenta.security;
+
+import com.jsoft.magenta.exceptions.PasswordHashingException;
+import com.jsoft.magenta.security.jwt.CustomAuthenticationFilter;
+import com.jsoft.magenta.security.jwt.JwtManager;
+import com.jsoft.magenta.security.service.RefreshTokenService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.core.Authentication;
+
+public class CustomAuthenticationFilterTest {
+
+  private AuthenticationManager authenticationManager;
+  private CustomAuthenticationFilter authenticationFilter;
+
+  @BeforeEach
+  public void init() {
+    authenticationManager = Mockito.mock(AuthenticationManager.class);
+    authenticationFilter = new CustomAuthenticationFilter(authenticationManager,
+        Mockito.mock(RefreshTokenService.class), Mockito.mock(JwtManager.class));
+  }
+
+  @Test
+  @DisplayName("Login while hashing pool is saturated - should return 503")
+  public void loginWhenHashingSaturated() {
+    Mockito.when(authenticationManager.authenticate(ArgumentMatchers.any(Authentication.class)))
+        .thenThrow(new PasswordHashingException("Too many concurrent password operations"));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    Authentication authentication =
+        authenticationFilter.attemptAuthentication(loginRequest(), response);
+
+    Assertions.assertThat(authentication).isNull();
+    Assertions.assertThat(response.getStatus())
+        .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+  }
+
+  @Test
+  @DisplayName("Login while hashing pool is saturated during user retrieval - should return 503")
+  public void loginWhenHashingSaturatedDuringRetrieval() {
+    PasswordHashingException cause =
+        new PasswordHashingException("Too many concurrent password operations");
+    Mockito.when(authenticationManager.authenticate(ArgumentMatchers.any(Authentication.class)))
+        .thenThrow(new InternalAuthenticationServiceException(cause.getMessage(), cause));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    authenticationFilter.attemptAuthentication(loginRequest(), response);
+
+    Assertions.assertThat(response.getStatus())
+        .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+  }
+
+  @Test
+  @DisplayName("Login with bad credentials - should return 403")
+  public void loginWithBadCredentials() {
+    Mockito.when(authenticationManager.authenticate(ArgumentMatchers.any(Authentication.class)))
+        .thenThrow(new BadCredentialsException("Bad credentials"));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    authenticationFilter.attemptAuthentication(loginRequest(), response);
+
+    Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.FORBIDDEN.value());
+  }
+
+  private MockHttpServletRequest loginRequest() {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/magenta/v1/login");
+    request.setContent("{\"username\":\"user@user.com\",\"password\":\"password\"}".getBytes());
+    return request;
+  }
+}
@@ -0,0 +1,64 @@
+package com.jsoft.magenta.security;
+
+import com.jsoft.magenta.security.dao.EffectiveAccessRepository;
+import com.jsoft.magenta.security.model.AccessEntityType;
+import com.jsoft.magenta.security.service.EffectiveAccessService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+public class EffectiveAccessServiceTest {
+
+  @InjectMocks
+  private EffectiveAccessService effectiveAccessService;
+
+  @Mock
+  private EffectiveAccessRepository effectiveAccessRepository;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  @Test
+  @DisplayName("Refresh entry - should re-derive it from its association")
+  public void refreshEntry() {
+    effectiveAccessService.refresh(AccessEntityType.PROJECT, 1L, 2L);
+
+    InOrder inOrder = Mockito.inOrder(effectiveAccessRepository);
+    inOrder.verify(effectiveAccessRepository).deleteEntry(1L, "PROJECT", 2L);
+    inOrder.verify(effectiveAccessRepository).insertEntry(1L, "PROJECT", 2L);
+  }
+
+  @Test
+  @DisplayName("Verify consistent table - should not rebuild")
+  public void verifyConsistent() {
+    Mockito.when(effectiveAccessRepository.countDrift()).thenReturn(0L);
+
+    boolean consistent = effectiveAccessService.verifyAndRepair();
+
+    Assertions.assertThat(consistent).isTrue();
+    Mockito.verify(effectiveAccessRepository, Mockito.never()).deleteAllEntries();
+    Mockito.verify(effectiveAccessRepository, Mockito.never()).insertAllEntries();
+  }
+
+  @Test
+  @DisplayName("Verify drifted table - should rebuild it")
+  public void verifyDrifted() {
+    Mockito.when(effectiveAccessRepository.countDrift()).thenReturn(3L);
+    Mockito.when(effectiveAccessRepository.insertAllEntries()).thenReturn(10);
+
+    boolean consistent = effectiveAccessService.verifyAndRepair();
+
+    Assertions.assertThat(consistent).isFalse();
+    InOrder inOrder = Mockito.inOrder(effectiveAccessRepository);
+    inOrder.verify(effectiveAccessRepository).deleteAllEntries();
+    inOrder.verify(effectiveAccessRepository).insertAllEntries();
+  }
+}
@@ -0,0 +1,72 @@
+package com.jsoft.magenta.security;
+
+import com.jsoft.magenta.security.jwt.JwtManager;
+import com.jsoft.magenta.security.model.AccessPermission;
+import com.jsoft.magenta.security.model.Privilege;
+import com.jsoft.magenta.security.model.UserPrincipal;
+import com.jsoft.magenta.util.AppConstants;
+import io.jsonwebtoken.Claims;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Token issue and verify throughput of the JWT manager, with the key pair and verifier resolved
+ * once at startup. Runs on every core to match a login burst
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+public class JwtManagerBenchmark {
+
+  private JwtManager jwtManager;
+  private UserPrincipal userPrincipal;
+  private String token;
+
+  @Setup
+  public void init() {
+    jwtManager = new JwtManager(null, null); // Stateless tokens need neither cache nor users
+    ReflectionTestUtils.setField(jwtManager, "tokenSecret", "Jjenta");
+    ReflectionTestUtils.setField(jwtManager, "tokenExpirationLengthInMinutes", 15);
+    ReflectionTestUtils.setField(jwtManager, "stateless", true);
+    ReflectionTestUtils.invokeMethod(jwtManager, "init");
+    Set<Privilege> privileges = Set.of(
+        new Privilege(1L, AppConstants.ACCOUNT_PERMISSION, AccessPermission.MANAGE, null, null),
+        new Privilege(2L, AppConstants.PROJECT_PERMISSION, AccessPermission.WRITE, null, null),
+        new Privilege(3L, AppConstants.USER_PERMISSION, AccessPermission.READ, null, null));
+    userPrincipal = new UserPrincipal(1L, "user@user.com", privileges, Set.of(2L, 3L),
+        () -> null);
+    token = jwtManager.createToken(userPrincipal);
+  }
+
+  @Benchmark
+  public String issueToken() {
+    return jwtManager.createToken(userPrincipal);
+  }
+
+  @Benchmark
+  public Claims verifyToken() {
+    return jwtManager.parseClaims(token);
+  }
+
+  @Benchmark
+  public Authentication authenticateToken() { // What the authorization filter does per request
+    return jwtManager.getAuthentication(jwtManager.parseClaims(token));
+  }
+}
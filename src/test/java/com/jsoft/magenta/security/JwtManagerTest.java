@@ -0,0 +1,111 @@
+package com.jsoft.magenta.security;
+
+import com.jsoft.magenta.security.jwt.JwtManager;
+import com.jsoft.magenta.security.jwt.PrincipalCache;
+import com.jsoft.magenta.security.model.AccessPermission;
+import com.jsoft.magenta.security.model.Privilege;
+import com.jsoft.magenta.security.model.UserPrincipal;
+import com.jsoft.magenta.security.service.CustomUserDetailsService;
+import com.jsoft.magenta.users.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import java.util.Set;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class JwtManagerTest {
+
+  @InjectMocks
+  private JwtManager jwtManager;
+
+  @Mock
+  private PrincipalCache principalCache;
+
+  @Mock
+  private CustomUserDetailsService userDetailsService;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    ReflectionTestUtils.setField(jwtManager, "tokenSecret", "Jjenta");
+    ReflectionTestUtils.setField(jwtManager, "tokenExpirationLengthInMinutes", 1);
+    ReflectionTestUtils.setField(jwtManager, "stateless", true);
+    ReflectionTestUtils.invokeMethod(jwtManager, "init");
+  }
+
+  @Test
+  @DisplayName("Get stateless authentication - should build principal from claims only")
+  public void getStatelessAuthentication() {
+    User user = createUser();
+    String token = jwtManager.createToken(new UserPrincipal(user, Set.of(2L, 3L)));
+
+    Claims claims = jwtManager.parseClaims(token);
+    Authentication authentication = jwtManager.getAuthentication(claims);
+    UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+
+    Assertions.assertThat(userPrincipal.getUserId()).isEqualTo(1L);
+    Assertions.assertThat(userPrincipal.getEmail()).isEqualTo("user@user.com");
+    Assertions.assertThat(userPrincipal.getSupervisedIds()).containsExactlyInAnyOrder(2L, 3L);
+    Assertions.assertThat(userPrincipal.getPrivileges())
+        .extracting(Privilege::getLevel)
+        .containsExactly(AccessPermission.MANAGE);
+    Assertions.assertThat(userPrincipal.isHydrated()).isFalse();
+    Mockito.verifyNoInteractions(principalCache, userDetailsService);
+  }
+
+  @Test
+  @DisplayName("Get user of stateless principal - should hydrate user once")
+  public void hydrateStatelessPrincipal() {
+    User user = createUser();
+    String token = jwtManager.createToken(new UserPrincipal(user));
+    UserPrincipal userPrincipal = (UserPrincipal) jwtManager
+        .getAuthentication(jwtManager.parseClaims(token)).getPrincipal();
+
+    Mockito.when(userDetailsService.loadUserById(1L)).thenReturn(user);
+
+    Assertions.assertThat(userPrincipal.getUser()).isSameAs(user);
+    Assertions.assertThat(userPrincipal.getUser()).isSameAs(user);
+    Mockito.verify(userDetailsService).loadUserById(1L);
+  }
+
+  @Test
+  @DisplayName("Get authentication when not stateless - should use principal cache")
+  public void getCachedAuthentication() {
+    ReflectionTestUtils.setField(jwtManager, "stateless", false);
+    User user = createUser();
+    String token = jwtManager.createToken(new UserPrincipal(user));
+    Claims claims = jwtManager.parseClaims(token);
+
+    Mockito.when(principalCache.getPrincipal("user@user.com", claims.getIssuedAt()))
+        .thenReturn(new UserPrincipal(user));
+
+    jwtManager.getAuthentication(claims);
+
+    Mockito.verify(principalCache).getPrincipal("user@user.com", claims.getIssuedAt());
+  }
+
+  @Test
+  @DisplayName("Parse tampered token - should fail")
+  public void parseTamperedToken() {
+    String token = jwtManager.createToken(new UserPrincipal(createUser()));
+
+    Assertions.assertThatThrownBy(() -> jwtManager.parseClaims(token + "x"))
+        .isInstanceOf(JwtException.class);
+  }
+
+  private User createUser() {
+    User user = new User(1L);
+    user.setEmail("user@user.com");
+    user.setEnabled(true);
+    user.setPrivileges(Set.of(new Privilege(1L, "project", AccessPermission.MANAGE, null, null)));
+    return user;
+  }
+}
@@ -0,0 +1,54 @@
+package com.jsoft.magenta.security;
+
+import com.jsoft.magenta.security.crypto.AdaptiveBCryptPasswordEncoder;
+import com.jsoft.magenta.security.crypto.OffloadedPasswordEncoder;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Logins per second per core: one caller checks a password on a hashing pool of a single thread,
+ * for each bcrypt cost
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(1)
+public class PasswordEncoderBenchmark {
+
+  @Param({"10", "12", "14"})
+  private int cost;
+
+  private OffloadedPasswordEncoder passwordEncoder;
+  private String encodedPassword;
+
+  @Setup
+  public void init() {
+    passwordEncoder = new OffloadedPasswordEncoder(new AdaptiveBCryptPasswordEncoder(cost), 1, 1);
+    encodedPassword = passwordEncoder.encode("password");
+  }
+
+  @TearDown
+  public void shutdown() {
+    passwordEncoder.shutdown();
+  }
+
+  @Benchmark
+  public boolean login() {
+    return passwordEncoder.matches("password", encodedPassword);
+  }
+}
@@ -0,0 +1,90 @@
+package com.jsoft.magenta.security;
+
+import com.jsoft.magenta.exceptions.PasswordHashingException;
+import com.jsoft.magenta.security.crypto.AdaptiveBCryptPasswordEncoder;
+import com.jsoft.magenta.security.crypto.OffloadedPasswordEncoder;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+public class PasswordEncoderTest {
+
+  @Test
+  @DisplayName("Check hash of other cost - should require upgrade")
+  public void upgradeEncodingOfOtherCost() {
+    String encodedPassword = new AdaptiveBCryptPasswordEncoder(4).encode("password");
+
+    Assertions.assertThat(new AdaptiveBCryptPasswordEncoder(5).upgradeEncoding(encodedPassword))
+        .isTrue();
+    Assertions.assertThat(new AdaptiveBCryptPasswordEncoder(4).upgradeEncoding(encodedPassword))
+        .isFalse();
+  }
+
+  @Test
+  @DisplayName("Check lower cost than stored - should require upgrade")
+  public void upgradeEncodingToLowerCost() {
+    String encodedPassword = new AdaptiveBCryptPasswordEncoder(5).encode("password");
+
+    Assertions.assertThat(new AdaptiveBCryptPasswordEncoder(4).upgradeEncoding(encodedPassword))
+        .isTrue();
+  }
+
+  @Test
+  @DisplayName("Encode and match on hashing pool - should delegate")
+  public void encodeAndMatchOffloaded() {
+    OffloadedPasswordEncoder passwordEncoder = new OffloadedPasswordEncoder(
+        new AdaptiveBCryptPasswordEncoder(4), 1, 1);
+
+    String encodedPassword = passwordEncoder.encode("password");
+
+    Assertions.assertThat(passwordEncoder.matches("password", encodedPassword)).isTrue();
+    Assertions.assertThat(passwordEncoder.matches("other", encodedPassword)).isFalse();
+    Assertions.assertThat(passwordEncoder.getRejectedCount()).isZero();
+    passwordEncoder.shutdown();
+  }
+
+  @Test
+  @DisplayName("Hash when pool and queue are full - should reject")
+  public void rejectWhenSaturated() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    PasswordEncoder blockingEncoder = new PasswordEncoder() {
+      @Override
+      public String encode(CharSequence rawPassword) {
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return rawPassword.toString();
+      }
+
+      @Override
+      public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return true;
+      }
+    };
+    OffloadedPasswordEncoder passwordEncoder = new OffloadedPasswordEncoder(blockingEncoder, 1, 1);
+    ExecutorService callers = Executors.newFixedThreadPool(2);
+    callers.submit(() -> passwordEncoder.encode("first")); // Occupies the only hashing thread
+    started.await(5, TimeUnit.SECONDS);
+    callers.submit(() -> passwordEncoder.encode("second")); // Waits in the queue
+    while (passwordEncoder.getQueueDepth() < 1) {
+      Thread.onSpinWait();
+    }
+
+    Assertions.assertThatThrownBy(() -> passwordEncoder.encode("third"))
+        .isInstanceOf(PasswordHashingException.class);
+    Assertions.assertThat(passwordEncoder.getRejectedCount()).isEqualTo(1);
+
+    release.countDown();
+    callers.shutdown();
+    passwordEncoder.shutdown();
+  }
+}
@@ -0,0 +1,76 @@
+package com.jsoft.magenta.security;
+
+import com.jsoft.magenta.security.model.AccessPermission;
+import com.jsoft.magenta.security.model.CustomGrantedAuthority;
+import com.jsoft.magenta.security.model.PermissionName;
+import com.jsoft.magenta.security.model.Privilege;
+import com.jsoft.magenta.security.model.UserPrincipal;
+import com.jsoft.magenta.util.AppConstants;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Permission check answered from the principal permission table against the former scan over the
+ * granted authorities, which the evaluator still uses for principals without a table. The runner
+ * reports the allocation of each path as well
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionEvaluatorBenchmark {
+
+  private CustomPermissionEvaluator permissionEvaluator;
+  private UserPrincipal userPrincipal;
+  private Authentication tableAuthentication;
+  private Authentication authoritiesAuthentication;
+
+  @Setup
+  public void init() {
+    permissionEvaluator = new CustomPermissionEvaluator();
+    Set<Privilege> privileges = Set.of(
+        new Privilege(1L, AppConstants.ACCOUNT_PERMISSION, AccessPermission.MANAGE, null, null),
+        new Privilege(2L, AppConstants.PROJECT_PERMISSION, AccessPermission.WRITE, null, null),
+        new Privilege(3L, AppConstants.POST_PERMISSION, AccessPermission.READ, null, null),
+        new Privilege(4L, AppConstants.USER_PERMISSION, AccessPermission.READ, null, null),
+        new Privilege(5L, AppConstants.CONFIG_PERMISSION, AccessPermission.READ, null, null));
+    Set<CustomGrantedAuthority> authorities = privileges.stream()
+        .map(CustomGrantedAuthority::new)
+        .collect(Collectors.toSet());
+    userPrincipal = new UserPrincipal(1L, "user@user.com", privileges, Set.of(), () -> null);
+    tableAuthentication = new UsernamePasswordAuthenticationToken(userPrincipal, "", authorities);
+    authoritiesAuthentication = new UsernamePasswordAuthenticationToken(
+        "user@user.com", "", authorities);
+  }
+
+  @Benchmark
+  public boolean evaluateFromTable() {
+    return permissionEvaluator.hasPermission(tableAuthentication, "config", "read");
+  }
+
+  @Benchmark
+  public boolean evaluateFromAuthorities() {
+    return permissionEvaluator.hasPermission(authoritiesAuthentication, "config", "read");
+  }
+
+  @Benchmark
+  public boolean checkTable() { // What services ask the principal directly
+    return userPrincipal.getPermissionTable()
+        .hasPermission(PermissionName.ACCOUNT, AccessPermission.WRITE);
+  }
+}
@@ -0,0 +1,49 @@
+package com.jsoft.magenta.security;
+
+import com.jsoft.magenta.security.model.AccessPermission;
+import com.jsoft.magenta.security.model.PermissionName;
+import com.jsoft.magenta.security.model.PermissionTable;
+import com.jsoft.magenta.security.model.Privilege;
+import com.jsoft.magenta.users.User;
+import java.util.Set;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PermissionTableTest {
+
+  @Test
+  @DisplayName("Build table from privileges - should keep highest level per name")
+  public void buildTable() {
+    PermissionTable permissionTable = PermissionTable.of(Set.of(
+        new Privilege(1L, "Account", AccessPermission.READ, null, null),
+        new Privilege(2L, "account", AccessPermission.WRITE, null, null),
+        new Privilege(3L, "user", AccessPermission.ADMIN, null, null),
+        new Privilege(4L, "unknown", AccessPermission.ADMIN, null, null)));
+
+    Assertions.assertThat(permissionTable.getPermission(PermissionName.ACCOUNT))
+        .isEqualTo(AccessPermission.WRITE);
+    Assertions.assertThat(permissionTable.hasPermission(PermissionName.ACCOUNT,
+        AccessPermission.MANAGE)).isTrue();
+    Assertions.assertThat(permissionTable.hasPermission(PermissionName.ACCOUNT,
+        AccessPermission.ADMIN)).isFalse();
+    Assertions.assertThat(permissionTable.isAdminOf(PermissionName.USER)).isTrue();
+    Assertions.assertThat(permissionTable.getPermission(PermissionName.PROJECT)).isNull();
+    Assertions.assertThat(permissionTable.getPermission(PermissionName.PROJECT,
+        AccessPermission.READ)).isEqualTo(AccessPermission.READ);
+  }
+
+  @Test
+  @DisplayName("Replace user privileges - should answer from new privileges")
+  public void replaceUserPrivileges() {
+    User user = new User(1L);
+    user.setPrivileges(Set.of(new Privilege(1L, "project", AccessPermission.ADMIN, null, null)));
+
+    Assertions.assertThat(user.getProjectPermission()).isEqualTo(AccessPermission.ADMIN);
+
+    user.setPrivileges(Set.of(new Privilege(1L, "project", AccessPermission.MANAGE, null, null)));
+
+    Assertions.assertThat(user.getProjectPermission()).isEqualTo(AccessPermission.MANAGE);
+    Assertions.assertThat(user.isAdminOf("project")).isFalse();
+  }
+}
@@ -0,0 +1,104 @@
+package com.jsoft.magenta.security;
+
+import com.jsoft.magenta.events.users.UserSecurityUpdateEvent;
+import com.jsoft.magenta.security.jwt.PrincipalCache;
+import com.jsoft.magenta.security.model.UserPrincipal;
+import com.jsoft.magenta.security.service.CustomUserDetailsService;
+import com.jsoft.magenta.users.User;
+import java.util.Date;
+import java.util.HashSet;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class PrincipalCacheTest {
+
+  @InjectMocks
+  private PrincipalCache principalCache;
+
+  @Mock
+  private CustomUserDetailsService userDetailsService;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    ReflectionTestUtils.setField(principalCache, "maxSize", 10L);
+    ReflectionTestUtils.setField(principalCache, "expirationLengthInMinutes", 1);
+    ReflectionTestUtils.invokeMethod(principalCache, "init");
+  }
+
+  @Test
+  @DisplayName("Get principal of same token twice - should load user once")
+  public void getPrincipalTwice() {
+    UserPrincipal userPrincipal = new UserPrincipal(createUser());
+    Date issuedAt = new Date();
+
+    Mockito.when(userDetailsService.loadUserByUsername("user@user.com")).thenReturn(userPrincipal);
+
+    UserPrincipal first = principalCache.getPrincipal("user@user.com", issuedAt);
+    UserPrincipal second = principalCache.getPrincipal("user@user.com", issuedAt);
+
+    Assertions.assertThat(first).isNotSameAs(second);
+    Assertions.assertThat(second.getUserId()).isEqualTo(1L);
+    Assertions.assertThat(second.getPermissionTable()).isSameAs(first.getPermissionTable());
+    Mockito.verify(userDetailsService).loadUserByUsername("user@user.com");
+  }
+
+  @Test
+  @DisplayName("Get user of cached principal - should load a user per request")
+  public void getUserOfCachedPrincipal() {
+    UserPrincipal userPrincipal = new UserPrincipal(createUser());
+    Date issuedAt = new Date();
+
+    Mockito.when(userDetailsService.loadUserByUsername("user@user.com")).thenReturn(userPrincipal);
+    Mockito.when(userDetailsService.loadUserById(1L))
+        .thenAnswer(invocation -> createUser());
+
+    User first = principalCache.getPrincipal("user@user.com", issuedAt).getUser();
+    first.setEmail("changed@user.com");
+    User second = principalCache.getPrincipal("user@user.com", issuedAt).getUser();
+
+    Assertions.assertThat(second).isNotSameAs(first);
+    Assertions.assertThat(second.getEmail()).isEqualTo("user@user.com");
+    Mockito.verify(userDetailsService, Mockito.times(2)).loadUserById(1L);
+  }
+
+  @Test
+  @DisplayName("Get principal after user security update - should reload user")
+  public void getPrincipalAfterEviction() {
+    UserPrincipal userPrincipal = new UserPrincipal(createUser());
+    Date issuedAt = new Date();
+
+    Mockito.when(userDetailsService.loadUserByUsername("user@user.com")).thenReturn(userPrincipal);
+
+    principalCache.getPrincipal("user@user.com", issuedAt);
+    principalCache.handleUserSecurityUpdateEvent(new UserSecurityUpdateEvent(1L));
+    principalCache.getPrincipal("user@user.com", issuedAt);
+
+    Mockito.verify(userDetailsService, Mockito.times(2)).loadUserByUsername("user@user.com");
+  }
+
+  @Test
+  @DisplayName("Get principal of unknown user - should fail")
+  public void getPrincipalOfUnknownUser() {
+    Mockito.when(userDetailsService.loadUserByUsername("user@user.com"))
+        .thenThrow(new UsernameNotFoundException("User not found"));
+
+    Assertions.assertThatThrownBy(() -> principalCache.getPrincipal("user@user.com", new Date()))
+        .isInstanceOf(UsernameNotFoundException.class);
+  }
+
+  private User createUser() {
+    User user = new User(1L);
+    user.setEmail("user@user.com");
+    user.setPrivileges(new HashSet<>());
+    return user;
+  }
+}
@@ -0,0 +1,80 @@
+package com.jsoft.magenta.users;
+
+import com.jsoft.magenta.events.users.SupervisionUpdateEvent;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class SupervisionIndexTest {
+
+  @InjectMocks
+  private SupervisionIndex supervisionIndex;
+
+  @Mock
+  private UserRepository userRepository;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    ReflectionTestUtils.setField(supervisionIndex, "maxSize", 10L);
+    ReflectionTestUtils.setField(supervisionIndex, "ttl", Duration.ofMinutes(10));
+    ReflectionTestUtils.invokeMethod(supervisionIndex, "init");
+  }
+
+  @Test
+  @DisplayName("Check supervision twice - should load supervised ids once")
+  public void isSupervisorOfTwice() {
+    Mockito.when(userRepository.findSupervisedIdsBySupervisorId(1L)).thenReturn(Set.of(2L, 3L));
+
+    Assertions.assertThat(supervisionIndex.isSupervisorOf(1L, 2L)).isTrue();
+    Assertions.assertThat(supervisionIndex.isSupervisorOf(1L, 4L)).isFalse();
+    Assertions.assertThat(supervisionIndex.isSupervisorOrOwner(1L, 1L)).isTrue();
+
+    Mockito.verify(userRepository).findSupervisedIdsBySupervisorId(1L);
+  }
+
+  @Test
+  @DisplayName("Check supervision after supervision update - should reload supervised ids")
+  public void isSupervisorOfAfterUpdate() {
+    Mockito.when(userRepository.findSupervisedIdsBySupervisorId(1L))
+        .thenReturn(Set.of(2L))
+        .thenReturn(Set.of());
+
+    Assertions.assertThat(supervisionIndex.isSupervisorOf(1L, 2L)).isTrue();
+    supervisionIndex.handleSupervisionUpdateEvent(new SupervisionUpdateEvent(1L));
+    Assertions.assertThat(supervisionIndex.isSupervisorOf(1L, 2L)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Check supervision after ttl - should reload supervised ids")
+  public void isSupervisorOfAfterTtl() {
+    ReflectionTestUtils.setField(supervisionIndex, "ttl", Duration.ZERO);
+    ReflectionTestUtils.invokeMethod(supervisionIndex, "init");
+    Mockito.when(userRepository.findSupervisedIdsBySupervisorId(1L))
+        .thenReturn(Set.of(2L))
+        .thenReturn(Set.of());
+
+    Assertions.assertThat(supervisionIndex.isSupervisorOf(1L, 2L)).isTrue();
+    Assertions.assertThat(supervisionIndex.isSupervisorOf(1L, 2L)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Check indirect supervision with transitive index - should pass")
+  public void isTransitiveSupervisorOf() {
+    ReflectionTestUtils.setField(supervisionIndex, "transitive", true);
+    Mockito.when(userRepository.findSupervisedIdsClosureBySupervisorId(1L))
+        .thenReturn(List.of(2L, 3L, 1L));
+
+    Assertions.assertThat(supervisionIndex.getSupervisedIds(1L)).containsExactlyInAnyOrder(2L, 3L);
+    Mockito.verify(userRepository, Mockito.never()).findSupervisedIdsBySupervisorId(1L);
+  }
+}
@@ -32,4 +32,22 @@ public class UserPojoTest {
 
     Assertions.assertEquals(user1.getFirstName(), "new first name");
   }
+
+  @Test
+  @DisplayName("Check permission of one user - should not affect equals and hash code")
+  public void equalsIgnoresPermissionTable() {
+    User user1 = new User(1L, "first name", "last name", "email", "phoneNumber", "password", null,
+        true, ColorTheme.LIGHT, LocalDate.now(), LocalDate.now(), new HashSet<>(), new HashSet<>(),
+        new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>());
+    User user2 = new User(1L, "first name", "last name", "email", "phoneNumber", "password", null,
+        true, ColorTheme.LIGHT, LocalDate.now(), LocalDate.now(), new HashSet<>(), new HashSet<>(),
+        new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>());
+    int hashCode = user1.hashCode();
+
+    user1.isUserAdmin(); // Builds the cached permission table of the first user only
+
+    Assertions.assertEquals(user1, user2);
+    Assertions.assertEquals(hashCode, user1.hashCode());
+    Assertions.assertEquals(user1.hashCode(), user2.hashCode());
+  }
 }
@@ -4,8 +4,11 @@ import com.jsoft.magenta.exceptions.DuplicationException;
 import com.jsoft.magenta.security.SecurityService;
 import com.jsoft.magenta.security.model.AccessPermission;
 import com.jsoft.magenta.security.model.Privilege;
+import com.jsoft.magenta.security.service.EffectiveAccessService;
 import com.jsoft.magenta.util.AppConstants;
 import com.jsoft.magenta.util.AppDefaults;
+import com.jsoft.magenta.util.pagination.PageResponse;
+import com.jsoft.magenta.util.pagination.PageTotals;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.List;
@@ -16,13 +19,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithUserDetails;
@@ -35,12 +41,24 @@ public class UserServiceTest {
   @Mock
   private SecurityService securityService;
 
+  @Mock
+  private SupervisionIndex supervisionIndex;
+
   @Mock
   private UserRepository userRepository;
 
   @Mock
   private PasswordEncoder passwordEncoder;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private EffectiveAccessService effectiveAccessService;
+
+  @Mock
+  private PageTotals pageTotals;
+
   @BeforeEach
   private void init() {
     MockitoAnnotations.openMocks(this);
@@ -384,6 +402,28 @@ public class UserServiceTest {
       Mockito.verify(userRepository).findSupervisedUsersBySupervisorId(1L, pageRequest);
     }
 
+    @Test
+    @DisplayName("Slice supervised users with total - should count through page totals")
+    public void sliceAllSupervisedUsers() {
+      User user = new User();
+      user.setId(1L);
+      Sort sort = Sort.by("firstName").and(Sort.by("lastName")).descending();
+      PageRequest pageRequest = PageRequest.of(0, 5, sort);
+
+      Mockito.when(securityService.currentUser()).thenReturn(user);
+      Mockito.when(userRepository
+          .findSlice(ArgumentMatchers.any(), ArgumentMatchers.eq(pageRequest)))
+          .thenReturn(new SliceImpl<>(List.of(new User()), pageRequest, false));
+      Mockito.when(pageTotals.count(ArgumentMatchers.eq(true), ArgumentMatchers.eq("supervised:1"),
+          ArgumentMatchers.any())).thenReturn(1L);
+
+      PageResponse<User> users = userService.sliceAllSupervisedUsers(0, 5, "name", false, true);
+
+      Assertions.assertThat(users.getContent()).hasSize(1);
+      Assertions.assertThat(users.getHasNext()).isFalse();
+      Assertions.assertThat(users.getTotalElements()).isEqualTo(1L);
+    }
+
     @Test
     @DisplayName("Get supervised users results")
     public void getAllSupervisedResults() {
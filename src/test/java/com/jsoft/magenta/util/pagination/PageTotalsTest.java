@@ -0,0 +1,80 @@
+package com.jsoft.magenta.util.pagination;
+
+import com.jsoft.magenta.posts.Post;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class PageTotalsTest {
+
+  @InjectMocks
+  private PageTotals pageTotals;
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  public void init() {
+    MockitoAnnotations.openMocks(this);
+    ReflectionTestUtils.setField(pageTotals, "ttl", Duration.ofSeconds(30));
+    ReflectionTestUtils.setField(pageTotals, "maxSize", 10L);
+    ReflectionTestUtils.invokeMethod(pageTotals, "init");
+  }
+
+  @Test
+  @DisplayName("Count without requesting total - should not count")
+  public void countNotRequested() {
+    AtomicInteger counts = new AtomicInteger();
+
+    Long total = pageTotals.count(false, "key", counts::incrementAndGet);
+
+    Assertions.assertThat(total).isNull();
+    Assertions.assertThat(counts).hasValue(0);
+  }
+
+  @Test
+  @DisplayName("Count same listing twice - should count once")
+  public void countTwice() {
+    AtomicInteger counts = new AtomicInteger();
+
+    pageTotals.count(true, "key", () -> counts.incrementAndGet() * 10L);
+    Long total = pageTotals.count(true, "key", () -> counts.incrementAndGet() * 10L);
+
+    Assertions.assertThat(total).isEqualTo(10L);
+    Assertions.assertThat(counts).hasValue(1);
+  }
+
+  @Test
+  @DisplayName("Estimate analyzed table - should use planner estimate")
+  public void estimateAnalyzedTable() {
+    Mockito.when(jdbcTemplate.queryForObject(ArgumentMatchers.anyString(),
+        ArgumentMatchers.eq(Long.class), ArgumentMatchers.eq("posts"))).thenReturn(1000L);
+
+    Long total = pageTotals.estimate(true, Post.class, () -> {
+      throw new IllegalStateException("Should not count");
+    });
+
+    Assertions.assertThat(total).isEqualTo(1000L);
+  }
+
+  @Test
+  @DisplayName("Estimate table never analyzed - should count instead")
+  public void estimateTableNeverAnalyzed() {
+    Mockito.when(jdbcTemplate.queryForObject(ArgumentMatchers.anyString(),
+        ArgumentMatchers.eq(Long.class), ArgumentMatchers.eq("posts"))).thenReturn(-1L);
+
+    Long total = pageTotals.estimate(true, Post.class, () -> 3L);
+
+    Assertions.assertThat(total).isEqualTo(3L);
+  }
+}
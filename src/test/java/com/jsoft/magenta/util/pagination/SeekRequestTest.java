@@ -0,0 +1,82 @@
+package com.jsoft.magenta.util.pagination;
+
+import com.jsoft.magenta.exceptions.InvalidCursorException;
+import com.jsoft.magenta.posts.Post;
+import java.util.List;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+
+public class SeekRequestTest {
+
+  @Test
+  @DisplayName("Encode and decode cursor - should keep position and sort")
+  public void encodeAndDecodeCursor() {
+    PageCursor pageCursor = new PageCursor(true, "title", false, 7L, "a|b");
+
+    PageCursor decoded = PageCursor.decode(pageCursor.encode());
+
+    Assertions.assertThat(decoded).isEqualTo(pageCursor);
+  }
+
+  @Test
+  @DisplayName("Decode tampered cursor - should fail")
+  public void decodeTamperedCursor() {
+    Assertions.assertThatThrownBy(() -> PageCursor.decode("not a cursor"))
+        .isInstanceOf(InvalidCursorException.class);
+  }
+
+  @Test
+  @DisplayName("Seek with cursor of another sort - should fail")
+  public void seekWithCursorOfAnotherSort() {
+    String cursor = new PageCursor(false, "title", true, 1L, "title").encode();
+
+    Assertions.assertThatThrownBy(
+        () -> PageRequestBuilder.buildSeekRequest(cursor, 2, "createdAt", true))
+        .isInstanceOf(InvalidCursorException.class);
+  }
+
+  @Test
+  @DisplayName("First page with more rows - should return next cursor only")
+  public void firstPageWithMoreRows() {
+    SeekRequest<Post> seekRequest = PageRequestBuilder.buildSeekRequest(null, 2, "title", true);
+
+    PageResponse<Post> pageResponse = seekRequest
+        .toPageResponse(List.of(createPost(1L, "a"), createPost(2L, "b"), createPost(3L, "c")));
+
+    Assertions.assertThat(pageResponse.getContent()).extracting(Post::getId)
+        .containsExactly(1L, 2L);
+    Assertions.assertThat(pageResponse.getPreviousCursor()).isNull();
+    Assertions.assertThat(pageResponse.getTotalElements()).isNull();
+    PageCursor nextCursor = PageCursor.decode(pageResponse.getNextCursor());
+    Assertions.assertThat(nextCursor.getId()).isEqualTo(2L);
+    Assertions.assertThat(nextCursor.getSortValue()).isEqualTo("b");
+    Assertions.assertThat(nextCursor.isBackward()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Previous page - should read in reverse and restore order")
+  public void previousPage() {
+    String cursor = new PageCursor(true, "title", true, 5L, "e").encode();
+    SeekRequest<Post> seekRequest = PageRequestBuilder.buildSeekRequest(cursor, 2, "title", true);
+
+    PageResponse<Post> pageResponse = seekRequest
+        .toPageResponse(List.of(createPost(4L, "d"), createPost(3L, "c")));
+
+    Assertions.assertThat(seekRequest.getSort())
+        .isEqualTo(Sort.by(Direction.DESC, "title").and(Sort.by(Direction.DESC, "id")));
+    Assertions.assertThat(pageResponse.getContent()).extracting(Post::getId)
+        .containsExactly(3L, 4L);
+    Assertions.assertThat(pageResponse.getPreviousCursor()).isNull();
+    Assertions.assertThat(PageCursor.decode(pageResponse.getNextCursor()).getId()).isEqualTo(4L);
+  }
+
+  private Post createPost(Long id, String title) {
+    Post post = new Post();
+    post.setId(id);
+    post.setTitle(title);
+    return post;
+  }
+}
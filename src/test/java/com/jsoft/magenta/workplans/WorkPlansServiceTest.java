@@ -3,6 +3,8 @@ package com.jsoft.magenta.workplans;
 import com.jsoft.magenta.security.SecurityService;
 import com.jsoft.magenta.security.model.AccessPermission;
 import com.jsoft.magenta.security.model.Privilege;
+import com.jsoft.magenta.security.model.UserPrincipal;
+import com.jsoft.magenta.users.SupervisionIndex;
 import com.jsoft.magenta.users.User;
 import com.jsoft.magenta.util.AppConstants;
 import org.assertj.core.api.Assertions;
@@ -27,6 +29,9 @@ public class WorkPlansServiceTest
     @Mock
     private SecurityService securityService;
 
+    @Mock
+    private SupervisionIndex supervisionIndex;
+
     @Mock
     private WorkPlanRepository workPlanRepository;
 
@@ -61,6 +66,8 @@ public class WorkPlansServiceTest
             user.setSupervisedUsers(Set.of(supervised));
 
             Mockito.when(securityService.currentUser()).thenReturn(user);
+            Mockito.when(securityService.currentPrincipal())
+                    .thenReturn(new UserPrincipal(user));
             Mockito.when(workPlanRepository.save(workPlan))
                     .thenReturn(workPlan);
 
@@ -86,6 +93,8 @@ public class WorkPlansServiceTest
             user.setSupervisedUsers(Set.of(supervised));
 
             Mockito.when(securityService.currentUser()).thenReturn(user);
+            Mockito.when(securityService.currentPrincipal())
+                    .thenReturn(new UserPrincipal(user));
 
             Mockito.when(workPlanRepository.save(workPlan))
                     .thenReturn(workPlan);
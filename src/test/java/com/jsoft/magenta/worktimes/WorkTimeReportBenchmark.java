@@ -0,0 +1,144 @@
+package com.jsoft.magenta.worktimes;
+
+import com.jsoft.magenta.MagentaApplication;
+import com.jsoft.magenta.accounts.AccountRepository;
+import com.jsoft.magenta.accounts.domain.Account;
+import com.jsoft.magenta.projects.ProjectRepository;
+import com.jsoft.magenta.projects.domain.Project;
+import com.jsoft.magenta.subprojects.SubProject;
+import com.jsoft.magenta.subprojects.SubProjectRepository;
+import com.jsoft.magenta.users.User;
+import com.jsoft.magenta.users.UserRepository;
+import com.jsoft.magenta.worktimes.reports.BusinessMonth;
+import com.jsoft.magenta.worktimes.reports.MonthlyHoursReport;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Monthly hours report of a user with the given amount of work times, summed by the database
+ * against loaded and summed in memory. Work times are written to the configured database for the
+ * benchmark and removed afterwards
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class WorkTimeReportBenchmark {
+
+  private static final String INSERT_WORK_TIME = "insert into work_times "
+      + "(wt_id, wt_date, user_id, sp_id, wt_amount, wt_note) "
+      + "values (nextval('wt_sequence'), ?, ?, ?, ?, '')";
+  private static final YearMonth REPORT_MONTH = YearMonth.of(2000, 1); // Clear of real data
+  private static final int SUB_PROJECTS = 20;
+  private static final int BATCH_SIZE = 10000;
+
+  @Param({"10000", "100000", "1000000"})
+  private int workTimes;
+
+  @Param({"true", "false"})
+  private boolean aggregateInDatabase;
+
+  private ConfigurableApplicationContext context;
+  private WorkTimeService workTimeService;
+  private Account account;
+  private Project project;
+  private List<SubProject> subProjects;
+  private Long userId;
+
+  @Setup
+  public void init() {
+    context = new SpringApplicationBuilder(MagentaApplication.class)
+        .properties("server.port=0")
+        .run();
+    workTimeService = context.getBean(WorkTimeService.class);
+    ReflectionTestUtils.setField(AopTestUtils.getTargetObject(workTimeService),
+        "aggregateInDatabase", aggregateInDatabase);
+    User user = context.getBean(UserRepository.class).findByEmail("admin@admin.com")
+        .orElseThrow();
+    userId = user.getId();
+    createSubProjects();
+    insertWorkTimes();
+  }
+
+  @TearDown
+  public void cleanup() {
+    List<Long> subProjectIds = subProjects.stream()
+        .map(SubProject::getId)
+        .collect(Collectors.toList());
+    JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+    subProjectIds.forEach(subProjectId ->
+        jdbcTemplate.update("delete from work_times where sp_id = ?", subProjectId));
+    context.getBean(SubProjectRepository.class).deleteAll(subProjects);
+    context.getBean(ProjectRepository.class).delete(project);
+    context.getBean(AccountRepository.class).delete(account);
+    context.close();
+  }
+
+  @Benchmark
+  public MonthlyHoursReport monthlyReport() {
+    return workTimeService.getMonthlyHoursReport(userId, "admin admin",
+        new BusinessMonth(REPORT_MONTH));
+  }
+
+  private void createSubProjects() {
+    account = new Account();
+    account.setName("Benchmark account");
+    account.setCreatedAt(LocalDate.now());
+    account = context.getBean(AccountRepository.class).save(account);
+    project = new Project();
+    project.setName("Benchmark project");
+    project.setAvailable(true);
+    project.setAccount(account);
+    project.setCreatedAt(LocalDate.now());
+    project = context.getBean(ProjectRepository.class).save(project);
+    subProjects = new ArrayList<>();
+    for (int i = 0; i < SUB_PROJECTS; i++) {
+      SubProject subProject = new SubProject();
+      subProject.setName("Benchmark sub-project " + i);
+      subProject.setAvailable(true);
+      subProject.setAmountOfHours(0D);
+      subProject.setProject(project);
+      subProjects.add(subProject);
+    }
+    subProjects = context.getBean(SubProjectRepository.class).saveAll(subProjects);
+  }
+
+  private void insertWorkTimes() {
+    JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+    List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < workTimes; i++) { // Spread over the days and sub-projects of the month
+      LocalDate date = REPORT_MONTH.atDay(i % REPORT_MONTH.lengthOfMonth() + 1);
+      Long subProjectId = subProjects.get(i % SUB_PROJECTS).getId();
+      rows.add(new Object[]{Date.valueOf(date), userId, subProjectId, 0.5D});
+      if (rows.size() == BATCH_SIZE) {
+        jdbcTemplate.batchUpdate(INSERT_WORK_TIME, rows);
+        rows.clear();
+      }
+    }
+    jdbcTemplate.batchUpdate(INSERT_WORK_TIME, rows);
+  }
+}
@@ -1,23 +1,36 @@
 package com.jsoft.magenta.worktimes;
 
+import com.jsoft.magenta.dates.HolidayService;
 import com.jsoft.magenta.security.SecurityService;
 import com.jsoft.magenta.security.model.AccessPermission;
 import com.jsoft.magenta.security.model.Privilege;
+import com.jsoft.magenta.security.model.UserPrincipal;
+import com.jsoft.magenta.users.SupervisionIndex;
 import com.jsoft.magenta.users.User;
+import com.jsoft.magenta.users.UserSearchResult;
 import com.jsoft.magenta.util.AppConstants;
+import com.jsoft.magenta.worktimes.reports.BusinessWeek;
+import com.jsoft.magenta.worktimes.reports.HoursDetailResult;
+import com.jsoft.magenta.worktimes.reports.UserHoursDetailResult;
+import com.jsoft.magenta.worktimes.reports.WeeklyHoursReport;
+import com.jsoft.magenta.worktimes.reports.WorkTimeReportResult;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public class WorkTimeServiceTest
 {
@@ -27,9 +40,15 @@ public class WorkTimeServiceTest
     @Mock
     private SecurityService securityService;
 
+    @Mock
+    private SupervisionIndex supervisionIndex;
+
     @Mock
     private WorkTimeRepository workTimeRepository;
 
+    @Mock
+    private HolidayService holidayService;
+
     @Mock
     private ApplicationEventPublisher eventPublisher;
 
@@ -172,6 +191,8 @@ public class WorkTimeServiceTest
             workTime.setId(1L);
 
             Mockito.when(securityService.currentUser()).thenReturn(user);
+            Mockito.when(securityService.currentPrincipal())
+                    .thenReturn(new UserPrincipal(user));
             Mockito.when(workTimeRepository.findUserIdById(1L)).thenReturn(Optional.of(1L));
             Mockito.when(workTimeRepository.getOne(workTime.getId()))
                     .thenReturn(workTime);
@@ -204,6 +225,8 @@ public class WorkTimeServiceTest
             workTime.setId(1L);
 
             Mockito.when(securityService.currentUser()).thenReturn(user);
+            Mockito.when(securityService.currentPrincipal())
+                    .thenReturn(new UserPrincipal(user));
             Mockito.when(workTimeRepository.findUserIdById(1L)).thenReturn(Optional.of(1L));
             Mockito.when(workTimeRepository.getOne(workTime.getId()))
                     .thenReturn(workTime);
@@ -240,6 +263,8 @@ public class WorkTimeServiceTest
             LocalTime newStartTime = LocalTime.of(10, 0);
 
             Mockito.when(securityService.currentUser()).thenReturn(user);
+            Mockito.when(securityService.currentPrincipal())
+                    .thenReturn(new UserPrincipal(user));
             Mockito.when(workTimeRepository.findUserIdById(1L)).thenReturn(Optional.of(1L));
             Mockito.when(workTimeRepository.findById(workTime.getId()))
                     .thenReturn(Optional.of(workTime));
@@ -279,6 +304,8 @@ public class WorkTimeServiceTest
             LocalTime newStartTime = LocalTime.now().plusMinutes(30);
 
             Mockito.when(securityService.currentUser()).thenReturn(user);
+            Mockito.when(securityService.currentPrincipal())
+                    .thenReturn(new UserPrincipal(user));
             Mockito.when(workTimeRepository.findUserIdById(1L)).thenReturn(Optional.of(1L));
             Mockito.when(workTimeRepository.findById(workTime.getId()))
                     .thenReturn(Optional.of(workTime));
@@ -312,6 +339,8 @@ public class WorkTimeServiceTest
 
             Mockito.when(securityService.currentUser()).thenReturn(user);
             Mockito.when(securityService.currentUser()).thenReturn(user);
+            Mockito.when(securityService.currentPrincipal())
+                    .thenReturn(new UserPrincipal(user));
             Mockito.when(workTimeRepository.findUserIdById(1L)).thenReturn(Optional.of(1L));
             Mockito.when(workTimeRepository.findById(workTime.getId()))
                     .thenReturn(Optional.of(workTime));
@@ -348,6 +377,8 @@ public class WorkTimeServiceTest
 
             Mockito.when(securityService.currentUser()).thenReturn(user);
             Mockito.when(securityService.currentUser()).thenReturn(user);
+            Mockito.when(securityService.currentPrincipal())
+                    .thenReturn(new UserPrincipal(user));
             Mockito.when(workTimeRepository.findUserIdById(1L)).thenReturn(Optional.of(1L));
             Mockito.when(workTimeRepository.findById(workTime.getId()))
                     .thenReturn(Optional.of(workTime));
@@ -380,6 +411,8 @@ public class WorkTimeServiceTest
 
             Mockito.when(securityService.currentUser()).thenReturn(user);
             Mockito.when(securityService.currentUser()).thenReturn(user);
+            Mockito.when(securityService.currentPrincipal())
+                    .thenReturn(new UserPrincipal(user));
             Mockito.when(workTimeRepository.findUserIdById(1L)).thenReturn(Optional.of(1L));
             Mockito.when(workTimeRepository.findById(workTime.getId()))
                     .thenReturn(Optional.of(workTime));
@@ -453,6 +486,8 @@ public class WorkTimeServiceTest
 
             Mockito.when(securityService.currentUser()).thenReturn(user);
             Mockito.when(securityService.currentUser()).thenReturn(user);
+            Mockito.when(securityService.currentPrincipal())
+                    .thenReturn(new UserPrincipal(user));
             Mockito.when(workTimeRepository.findUserIdById(1L)).thenReturn(Optional.of(1L));
             Mockito.when(workTimeRepository.existsById(1L)).thenReturn(true);
             Mockito.doNothing().when(workTimeRepository).deleteById(1L);
@@ -463,4 +498,113 @@ public class WorkTimeServiceTest
             Mockito.verify(workTimeRepository).deleteById(1L);
         }
     }
+
+    @Nested
+    @DisplayName("Work time report tests")
+    class WorkTimeReportTests
+    {
+        @Test
+        @DisplayName("Stream weekly reports of users - should query once and merge rows per user")
+        public void streamWeeklyHoursReports()
+        {
+            BusinessWeek businessWeek = new BusinessWeek(LocalDate.now().minusWeeks(1));
+            List<UserSearchResult> users = List.of(createUser(3L), createUser(1L));
+            Map<Long, WeeklyHoursReport> reports = new LinkedHashMap<>();
+            Stream<UserHoursDetailResult> hoursDetails = Stream.of(
+                    createHoursDetail(1L, "project", 5),
+                    createHoursDetail(1L, "other", 3),
+                    createHoursDetail(2L, "project", 8),
+                    createHoursDetail(3L, "project", 2));
+
+            Mockito.when(holidayService.getBusinessHoursInWeek(businessWeek)).thenReturn(40.0);
+            Mockito.when(workTimeRepository.streamHoursDetailsByDateBetween(
+                    businessWeek.getStartDate(), businessWeek.getEndDate()))
+                    .thenReturn(hoursDetails);
+
+            workTimeService.streamWeeklyHoursReports(users, businessWeek,
+                    (user, report) -> reports.put(user.getId(), report));
+
+            Assertions.assertThat(reports).containsOnlyKeys(1L, 3L);
+            Assertions.assertThat(reports.get(1L).getTotalHours()).isEqualTo(8);
+            Assertions.assertThat(reports.get(1L).getHoursDetails()).hasSize(2);
+            Assertions.assertThat(reports.get(3L).getTotalHours()).isEqualTo(2);
+            Assertions.assertThat(reports.get(3L).getWeekHours()).isEqualTo(40);
+            Mockito.verify(holidayService).getBusinessHoursInWeek(businessWeek);
+        }
+
+        @Test
+        @DisplayName("Get weekly report - should sum hours in database")
+        public void getWeeklyHoursReport()
+        {
+            ReflectionTestUtils.setField(workTimeService, "aggregateInDatabase", true);
+            BusinessWeek businessWeek = new BusinessWeek(LocalDate.now().minusWeeks(1));
+            List<HoursDetailResult> hoursDetails = List.of(
+                    createHoursDetail(1L, "project", 5),
+                    createHoursDetail(1L, "other", 3));
+
+            Mockito.when(holidayService.getBusinessHoursInWeek(businessWeek)).thenReturn(40.0);
+            Mockito.when(workTimeRepository.sumHoursDetailsByUserIdAndDateBetween(
+                    1L, businessWeek.getStartDate(), businessWeek.getEndDate()))
+                    .thenReturn(hoursDetails);
+
+            WeeklyHoursReport report = workTimeService
+                    .getWeeklyHoursReport(1L, "first last", businessWeek);
+
+            Assertions.assertThat(report.getTotalHours()).isEqualTo(8);
+            Assertions.assertThat(report.getHoursDetails()).hasSize(2);
+            Mockito.verify(workTimeRepository, Mockito.never())
+                    .findAllByUserIdAndDateBetween(ArgumentMatchers.any(), ArgumentMatchers.any(),
+                            ArgumentMatchers.any());
+        }
+
+        @Test
+        @DisplayName("Get weekly report with in memory aggregation - should sum fetched work times")
+        public void getWeeklyHoursReportInMemory()
+        {
+            ReflectionTestUtils.setField(workTimeService, "aggregateInDatabase", false);
+            BusinessWeek businessWeek = new BusinessWeek(LocalDate.now().minusWeeks(1));
+            List<WorkTimeReportResult> workTimes = List.of(
+                    createWorkTime("project", 5),
+                    createWorkTime("project", 3));
+
+            Mockito.when(holidayService.getBusinessHoursInWeek(businessWeek)).thenReturn(40.0);
+            Mockito.when(workTimeRepository.findAllByUserIdAndDateBetween(
+                    1L, businessWeek.getStartDate(), businessWeek.getEndDate()))
+                    .thenReturn(workTimes);
+
+            WeeklyHoursReport report = workTimeService
+                    .getWeeklyHoursReport(1L, "first last", businessWeek);
+
+            Assertions.assertThat(report.getTotalHours()).isEqualTo(8);
+            Assertions.assertThat(report.getHoursDetails()).hasSize(1);
+        }
+
+        private WorkTimeReportResult createWorkTime(String project, double amount)
+        {
+            WorkTimeReportResult workTime = Mockito.mock(WorkTimeReportResult.class);
+            Mockito.when(workTime.getSubProjectProjectAccountName()).thenReturn("account");
+            Mockito.when(workTime.getSubProjectProjectName()).thenReturn(project);
+            Mockito.when(workTime.getAmount()).thenReturn(amount);
+            return workTime;
+        }
+
+        private UserSearchResult createUser(Long userId)
+        {
+            UserSearchResult user = Mockito.mock(UserSearchResult.class);
+            Mockito.when(user.getId()).thenReturn(userId);
+            Mockito.when(user.getFirstName()).thenReturn("first");
+            Mockito.when(user.getLastName()).thenReturn("last");
+            return user;
+        }
+
+        private UserHoursDetailResult createHoursDetail(Long userId, String project, double amount)
+        {
+            UserHoursDetailResult hoursDetail = Mockito.mock(UserHoursDetailResult.class);
+            Mockito.when(hoursDetail.getUserId()).thenReturn(userId);
+            Mockito.when(hoursDetail.getAccountName()).thenReturn("account");
+            Mockito.when(hoursDetail.getProjectName()).thenReturn(project);
+            Mockito.when(hoursDetail.getAmount()).thenReturn(amount);
+            return hoursDetail;
+        }
+    }
 }